@@ -19,8 +19,15 @@
 package boofcv.alg.feature.describe;
 
 import boofcv.abst.feature.dense.DescribeImageDense;
+import boofcv.abst.feature.dense.DescribeImageDenseHoG;
+import boofcv.abst.feature.dense.DescribeImageDenseSift;
+import boofcv.abst.feature.describe.ConfigSiftDescribe;
+import boofcv.alg.feature.dense.DescribeDenseHogFastAlg_MT;
+import boofcv.alg.feature.dense.DescribeDenseSiftAlg;
+import boofcv.alg.feature.dense.DescribeDenseSiftAlg_MT;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.factory.feature.dense.ConfigDenseHoG;
+import boofcv.factory.feature.dense.ConfigDenseSift;
 import boofcv.factory.feature.dense.FactoryDescribeImageDense;
 import boofcv.misc.PerformerBase;
 import boofcv.misc.ProfileOperation;
@@ -63,6 +70,23 @@ public class BenchmarkDenseDescribe {
 		}
 	}
 
+	public class HoGFast_MT extends PerformerBase {
+
+		DescribeImageDense<GrayF32, TupleDesc_F64> alg;
+
+		public HoGFast_MT() {
+			ConfigDenseHoG config = new ConfigDenseHoG();
+			alg = new DescribeImageDenseHoG<>(new DescribeDenseHogFastAlg_MT<>(config.orientationBins,
+					config.pixelsPerCell, config.cellsPerBlockX, config.cellsPerBlockY, config.stepBlock,
+					ImageType.single(GrayF32.class)));
+		}
+
+		@Override
+		public void process() {
+			alg.process(gray);
+		}
+	}
+
 	public class HoG extends PerformerBase {
 		DescribeImageDense<GrayF32, TupleDesc_F64> alg =
 				FactoryDescribeImageDense.hog(null, ImageType.single(GrayF32.class));
@@ -103,16 +127,34 @@ public class BenchmarkDenseDescribe {
 		}
 	}
 
+	public class SIFT_MT extends PerformerBase {
+		DescribeImageDense<GrayF32, TupleDesc_F64> alg;
+
+		public SIFT_MT() {
+			ConfigDenseSift config = new ConfigDenseSift();
+			ConfigSiftDescribe c = config.sift;
+			DescribeDenseSiftAlg<GrayF32> sift = new DescribeDenseSiftAlg_MT<>(c.widthSubregion,c.widthGrid,
+					c.numHistogramBins,c.weightingSigmaFraction,c.maxDescriptorElementValue,1,1,GrayF32.class);
+			alg = new DescribeImageDenseSift<>(sift,config.sampling.periodX,config.sampling.periodY,GrayF32.class);
+		}
+
+		@Override
+		public void process() {
+			alg.process(gray);
+		}
+	}
 
 	public void perform() {
 		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== ");
 		System.out.println();
 
 		ProfileOperation.printOpsPerSec(new HoGFast(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new HoGFast_MT(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new HoG(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SURF_FAST(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SURF_STABLE(), TEST_TIME);
 		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SIFT(), TEST_TIME);
+		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SIFT_MT(), TEST_TIME);
 	}
 
 	public static void main(String[] args) {
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.describe;
+
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageBase;
+
+/**
+ * {@link DescribeRegionPoint} which can use the image data computed by another instance, e.g. a blurred image,
+ * instead of computing it again in {@link #setImage}.  Shared data is only read from, which allows several
+ * instances to describe features in the same image concurrently.
+ *
+ * @author Peter Abeles
+ */
+public interface DescribeRegionPointShareImage<T extends ImageBase<T>, Desc extends TupleDesc>
+		extends DescribeRegionPoint<T,Desc>
+{
+	/**
+	 * Uses the image data computed by the most recent call to source's {@link #setImage}.  Must be called again
+	 * each time source is given a new image.
+	 *
+	 * @param source Describer with the same configuration which has already processed the image
+	 */
+	void shareImage( DescribeRegionPointShareImage<T,Desc> source );
+}
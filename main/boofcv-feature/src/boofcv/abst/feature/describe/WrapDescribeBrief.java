@@ -26,7 +26,7 @@ import boofcv.struct.image.ImageType;
 /**
  * @author Peter Abeles
  */
-public class WrapDescribeBrief<T extends ImageGray<T>> implements DescribeRegionPoint<T,TupleDesc_B> {
+public class WrapDescribeBrief<T extends ImageGray<T>> implements DescribeRegionPointShareImage<T,TupleDesc_B> {
 
 	int length;
 	DescribePointBrief<T> alg;
@@ -47,6 +47,11 @@ public class WrapDescribeBrief<T extends ImageGray<T>> implements DescribeRegion
 	public void setImage(T image) {
 		alg.setImage(image);
 	}
+
+	@Override
+	public void shareImage(DescribeRegionPointShareImage<T, TupleDesc_B> source) {
+		alg.shareImage(((WrapDescribeBrief<T>)source).alg);
+	}
 	@Override
 	public boolean process(double x, double y, double orientation, double radius, TupleDesc_B storage)
 	{
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.abst.feature.orientation.OrientationIntegral;
+import boofcv.alg.feature.describe.DescribePointSurf;
+import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.BoofDefaults;
+import boofcv.struct.feature.ScalePoint;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link WrapDetectDescribeSurf}.  The integral image is computed and features are
+ * detected once.  Detected features are then split into blocks and the orientation and description of each block
+ * is computed in its own thread, with its own instances of {@link OrientationIntegral} and
+ * {@link DescribePointSurf} which only read from the shared integral image.  Results are identical to the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class WrapDetectDescribeSurf_MT<T extends ImageGray<T>, II extends ImageGray<II>>
+		extends WrapDetectDescribeSurf<T,II>
+{
+	// minimum number of features in a block
+	int minBlockSize = 20;
+
+	// orientation and describer used by each block
+	FastQueue<Worker<II>> workers;
+
+	/**
+	 * Configures the algorithm
+	 *
+	 * @param detector Feature detector
+	 * @param factory Creates a new orientation estimator and describer for each thread
+	 */
+	public WrapDetectDescribeSurf_MT(FastHessianFeatureDetector<II> detector,
+									 final FactoryDescribe<II> factory ) {
+		super(detector, factory.createOrientation(), factory.createDescribe());
+
+		workers = new FastQueue<Worker<II>>(1,(Class)Worker.class,true) {
+			@Override
+			protected Worker<II> createInstance() {
+				return new Worker<>(factory.createOrientation(), factory.createDescribe());
+			}
+		};
+	}
+
+	@Override
+	protected void describeFeatures() {
+		features.resize(foundPoints.size());
+		featureAngles.resize(foundPoints.size());
+
+		BoofConcurrency.loopBlocks(0, foundPoints.size(), minBlockSize, workers,
+				new IntRangeObjectConsumer<Worker<II>>() {
+			@Override
+			public void accept(Worker<II> worker, int idx0, int idx1) {
+				worker.orientation.setImage(ii);
+				worker.describe.setImage(ii);
+
+				for( int i = idx0; i < idx1; i++ ) {
+					ScalePoint p = foundPoints.get(i);
+					double radius = p.scale* BoofDefaults.SURF_SCALE_TO_RADIUS;
+
+					worker.orientation.setObjectRadius(radius);
+					double angle = worker.orientation.compute(p.x,p.y);
+					worker.describe.describe(p.x,p.y, angle, p.scale, features.get(i));
+					featureAngles.data[i] = angle;
+				}
+			}
+		});
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+
+	/**
+	 * Orientation estimator and describer used by a single thread
+	 */
+	static class Worker<II extends ImageGray<II>> {
+		OrientationIntegral<II> orientation;
+		DescribePointSurf<II> describe;
+
+		public Worker(OrientationIntegral<II> orientation, DescribePointSurf<II> describe) {
+			this.orientation = orientation;
+			this.describe = describe;
+		}
+	}
+
+	/**
+	 * Creates new instances of the orientation estimator and describer for each thread
+	 */
+	public interface FactoryDescribe<II extends ImageGray<II>> {
+		OrientationIntegral<II> createOrientation();
+
+		DescribePointSurf<II> createDescribe();
+	}
+}
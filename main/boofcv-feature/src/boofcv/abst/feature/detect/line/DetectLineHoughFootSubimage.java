@@ -20,7 +20,6 @@ package boofcv.abst.feature.detect.line;
 
 
 import boofcv.abst.feature.detect.extract.ConfigExtract;
-import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.edge.GGradientToEdgeFeatures;
 import boofcv.alg.feature.detect.line.HoughTransformLineFootOfNorm;
@@ -108,14 +107,32 @@ public class DetectLineHoughFootSubimage<I extends ImageGray<I>, D extends Image
 									   int maxLines ,
 									   ImageGradient<I, D> gradient)
 	{
+		this(new HoughTransformLineFootOfNorm(FactoryFeatureExtractor.nonmaxCandidate(
+				new ConfigExtract(localMaxRadius, minCounts, 0, false)),minDistanceFromOrigin),
+				thresholdEdge, totalHorizontalDivisions, totalVerticalDivisions, maxLines, gradient);
+	}
+
+	/**
+	 * Specifies detection parameters using the provided transform.
+	 *
+	 * @param alg Hough transform.  Local maximum and minimum counts are specified by its extractor.
+	 * @param thresholdEdge Threshold for classifying pixels as edge or not.  Try 30.
+	 * @param maxLines Maximum number of lines it will detect.  Try 10.
+	 * @param gradient Computes the image gradient.
+	 */
+	public DetectLineHoughFootSubimage(HoughTransformLineFootOfNorm alg,
+									   float thresholdEdge,
+									   int totalHorizontalDivisions ,
+									   int totalVerticalDivisions ,
+									   int maxLines ,
+									   ImageGradient<I, D> gradient)
+	{
+		this.alg = alg;
 		this.gradient = gradient;
 		this.thresholdEdge = thresholdEdge;
 		this.totalHorizontalDivisions = totalHorizontalDivisions;
 		this.totalVerticalDivisions = totalVerticalDivisions;
 		this.maxLines = maxLines;
-		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmaxCandidate(
-				new ConfigExtract(localMaxRadius, minCounts, 0, false));
-		alg = new HoughTransformLineFootOfNorm(extractor,minDistanceFromOrigin);
 		derivX = gradient.getDerivativeType().createImage(1, 1);
 		derivY = gradient.getDerivativeType().createImage(1, 1);
 	}
@@ -20,7 +20,6 @@ package boofcv.abst.feature.detect.line;
 
 
 import boofcv.abst.feature.detect.extract.ConfigExtract;
-import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.edge.GGradientToEdgeFeatures;
 import boofcv.alg.feature.detect.line.HoughTransformLinePolar;
@@ -56,9 +55,6 @@ public class DetectLineHoughPolar<I extends ImageGray<I>, D extends ImageGray<D>
 	// transform algorithm
 	HoughTransformLinePolar alg;
 
-	// extractor used by hough transform
-	NonMaxSuppression extractor;
-
 	// computes image gradient
 	ImageGradient<I,D> gradient;
 
@@ -116,6 +112,32 @@ public class DetectLineHoughPolar<I extends ImageGray<I>, D extends ImageGray<D>
 								int maxLines ,
 								ImageGradient<I, D> gradient)
 	{
+		this(new HoughTransformLinePolar(FactoryFeatureExtractor.nonmax(
+				new ConfigExtract(localMaxRadius, minCounts, 0, false)),1,1),
+				localMaxRadius, resolutionRange, resolutionAngle, thresholdEdge, maxLines, gradient);
+	}
+
+	/**
+	 * Configures hough line detector using the provided transform.  The number of bins in the transform
+	 * is adjusted to match the input image.
+	 *
+	 * @param alg Hough transform.  The minimum number of counts is specified by its extractor.
+	 * @param localMaxRadius Radius for local maximum suppression.  Try 2.
+	 * @param resolutionRange Resolution of line range in pixels.  Try 2
+	 * @param resolutionAngle Resolution of line angle in radius.  Try PI/180
+	 * @param thresholdEdge Edge detection threshold. Try 50.
+	 * @param maxLines Maximum number of lines to return. If &le; 0 it will return them all.
+	 * @param gradient Algorithm for computing image gradient.
+	 */
+	public DetectLineHoughPolar(HoughTransformLinePolar alg,
+								int localMaxRadius,
+								double resolutionRange ,
+								double resolutionAngle ,
+								float thresholdEdge,
+								int maxLines ,
+								ImageGradient<I, D> gradient)
+	{
+		this.alg = alg;
 		pruneAngleTol = (float)((localMaxRadius+1)*resolutionAngle);
 		pruneRangeTol = (float)((localMaxRadius+1)*resolutionRange);
 		this.localMaxRadius = localMaxRadius;
@@ -124,7 +146,6 @@ public class DetectLineHoughPolar<I extends ImageGray<I>, D extends ImageGray<D>
 		this.resolutionRange = resolutionRange;
 		this.resolutionAngle = resolutionAngle;
 		this.maxLines = maxLines <= 0 ? Integer.MAX_VALUE : maxLines;
-		extractor = FactoryFeatureExtractor.nonmax(new ConfigExtract(localMaxRadius, minCounts, 0, false));
 		derivX = gradient.getDerivativeType().createImage(1, 1);
 		derivY = gradient.getDerivativeType().createImage(1, 1);
 	}
@@ -137,7 +158,7 @@ public class DetectLineHoughPolar<I extends ImageGray<I>, D extends ImageGray<D>
 			int numBinsRange = (int)Math.ceil(r/resolutionRange);
 			int numBinsAngle = (int)Math.ceil(Math.PI/resolutionAngle);
 
-			alg = new HoughTransformLinePolar(extractor,numBinsRange,numBinsAngle);
+			alg.setNumberOfBins(numBinsRange,numBinsAngle);
 			derivX.reshape(input.width,input.height);
 			derivY.reshape(input.width,input.height);
 			intensity.reshape(input.width,input.height);
@@ -38,13 +38,20 @@ public class WrapDisparitySadRect <T extends ImageGray<T>, D extends ImageGray<D
 
 	@Override
 	public void process(T imageLeft, T imageRight) {
+		declareDisparity(imageLeft);
+
+		alg.process(imageLeft,imageRight,disparity);
+	}
+
+	/**
+	 * Declares the disparity image if it doesn't exist or doesn't match the shape of the input image
+	 */
+	protected void declareDisparity(T imageLeft) {
 		if( disparity == null || disparity.width != imageLeft.width || disparity.height != imageLeft.height )  {
 			// make sure the image borders are marked as invalid
 			disparity = GeneralizedImageOps.createSingleBand(alg.getDisparityType(),imageLeft.width,imageLeft.height);
 			GImageMiscOps.fill(disparity, getMaxDisparity() + 1);
 		}
-
-		alg.process(imageLeft,imageRight,disparity);
 	}
 
 	public D getDisparity() {
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.disparity;
+
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link WrapDisparitySadRect}.  The image is split into bands of rows and each band
+ * is processed by its own instance of the algorithm.  Bands are extended by the region's radius so that
+ * each band outputs exactly the rows assigned to it, producing results identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class WrapDisparitySadRect_MT <T extends ImageGray<T>, D extends ImageGray<D>>
+		extends WrapDisparitySadRect<T,D>
+{
+	// minimum number of rows in a band
+	int minBlockRows = 20;
+
+	FactoryAlg<T,D> factory;
+
+	// algorithm used by each thread
+	FastQueue<DisparityScoreRowFormat> workspace;
+
+	/**
+	 * @param factory Creates a new instance of the algorithm.  Called once for each thread.
+	 */
+	public WrapDisparitySadRect_MT(FactoryAlg<T,D> factory) {
+		super(factory.create());
+		this.factory = factory;
+		workspace = new FastQueue<DisparityScoreRowFormat>(1,DisparityScoreRowFormat.class,true) {
+			@Override
+			protected DisparityScoreRowFormat createInstance() {
+				return WrapDisparitySadRect_MT.this.factory.create();
+			}
+		};
+	}
+
+	@Override
+	public void process(final T imageLeft, final T imageRight) {
+		declareDisparity(imageLeft);
+
+		final int radius = alg.getBorderY();
+		final int width = imageLeft.width;
+		final int height = imageLeft.height;
+
+		if( height <= 2*radius || imageRight.width != width || imageRight.height != height ) {
+			// let the single threaded algorithm handle the image or report the error
+			alg.process(imageLeft,imageRight,disparity);
+			return;
+		}
+
+		BoofConcurrency.loopBlocks(radius, height-radius, minBlockRows, workspace,
+				new IntRangeObjectConsumer<DisparityScoreRowFormat>() {
+			@Override
+			public void accept(DisparityScoreRowFormat alg, int y0, int y1) {
+				// extend the band so that the output rows are [y0,y1)
+				int top = y0-radius;
+				int bottom = y1+radius;
+				alg.process(imageLeft.subimage(0,top,width,bottom),
+						imageRight.subimage(0,top,width,bottom),
+						disparity.subimage(0,top,width,bottom));
+			}
+		});
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+
+	/**
+	 * Creates a new instance of the disparity algorithm
+	 */
+	public interface FactoryAlg<T extends ImageGray<T>, D extends ImageGray<D>> {
+		DisparityScoreRowFormat<T,D> create();
+	}
+}
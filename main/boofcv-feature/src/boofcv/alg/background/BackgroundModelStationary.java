@@ -47,4 +47,17 @@ public abstract class BackgroundModelStationary<T extends ImageBase<T>> extends
 	 * @param segmented Segmented image. 0 = background, 1 = foreground/moving
 	 */
 	public abstract void segment( T frame , GrayU8 segmented );
+
+	/**
+	 * Segments the current frame using the existing background then updates the background with the frame.
+	 * Produces the same results as calling {@link #segment} followed by {@link #updateBackground}, but
+	 * implementations can override it to traverse the images only once.
+	 *
+	 * @param frame current image
+	 * @param segmented Segmented image. 0 = background, 1 = foreground/moving
+	 */
+	public void segmentAndUpdate( T frame , GrayU8 segmented ) {
+		segment(frame, segmented);
+		updateBackground(frame);
+	}
 }
@@ -31,6 +31,7 @@ import boofcv.struct.image.ImageInterleaved;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.image.InterleavedF32;
 import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
 
 /**
  * Implementation of {@link BackgroundMovingGaussian} for {@link ImageInterleaved}.
@@ -109,6 +110,20 @@ public class BackgroundMovingGaussian_IL<T extends ImageInterleaved<T>, Motion e
 		transform.setModel(worldToCurrent);
 		interpolateInput.setImage(frame);
 
+		updateRows(x0, y0, x1, y1, frame, interpolateInput, work, pixelInput);
+	}
+
+	/**
+	 * Updates the background inside the rectangle using the provided storage.  The transform must already
+	 * be set to world to current.
+	 *
+	 * @param interpolateInput Interpolation for the input image.  Must already reference the frame.
+	 * @param work storage for the transformed coordinate
+	 * @param pixelInput storage for an input pixel
+	 */
+	protected void updateRows(int x0, int y0, int x1, int y1, T frame,
+							  InterpolatePixelMB<T> interpolateInput,
+							  Point2D_F32 work, float[] pixelInput ) {
 		float minusLearn = 1.0f - learnRate;
 
 		final int numBands = background.getNumBands()/2;
@@ -147,10 +162,25 @@ public class BackgroundMovingGaussian_IL<T extends ImageInterleaved<T>, Motion e
 		transform.setModel(currentToWorld);
 		inputWrapper.wrap(frame);
 
+		segmentRows(frame, segmented, 0, frame.height, interpolationBG, work, pixelBG, pixelInput);
+	}
+
+	/**
+	 * Segments rows y0 (inclusive) to y1 (exclusive) of the frame using the provided storage.  The transform
+	 * must already be set to current to world.
+	 *
+	 * @param interpolationBG Interpolation for the background image
+	 * @param work storage for the transformed coordinate
+	 * @param pixelBG storage for a background pixel
+	 * @param pixelInput storage for an input pixel
+	 */
+	protected void segmentRows(T frame, GrayU8 segmented, int y0, int y1,
+							   InterpolatePixelMB<InterleavedF32> interpolationBG,
+							   Point2D_F32 work, float[] pixelBG, float[] pixelInput ) {
 		final int numBands = background.getNumBands()/2;
 		float adjustedMinimumDifference = minimumDifference*numBands;
 
-		for (int y = 0; y < frame.height; y++) {
+		for (int y = y0; y < y1; y++) {
 			int indexFrame = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
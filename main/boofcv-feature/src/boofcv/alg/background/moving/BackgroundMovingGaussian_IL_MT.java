@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.moving;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.distort.Point2Transform2Model_F32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageInterleaved;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedF32;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link BackgroundMovingGaussian_IL}.  Both the background update and segmentation
+ * are split into bands of rows, with each thread having its own interpolation and storage.  The point transform
+ * is shared between threads and must not modify its state inside of compute(), which is true for homographies.
+ * Results are identical to the single threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("unchecked")
+public class BackgroundMovingGaussian_IL_MT<T extends ImageInterleaved<T>, Motion extends InvertibleTransform<Motion>>
+		extends BackgroundMovingGaussian_IL<T,Motion>
+{
+	// minimum number of rows in a block
+	int minBlockRows = 10;
+
+	// used to declare interpolation for each thread
+	final ImageType<T> imageType;
+	final InterpolationType interpType;
+
+	// storage used by each thread
+	FastQueue<Workspace> workspace;
+
+	/**
+	 * @see BackgroundMovingGaussian_IL#BackgroundMovingGaussian_IL
+	 */
+	public BackgroundMovingGaussian_IL_MT(float learnRate, float threshold,
+										  Point2Transform2Model_F32<Motion> transform,
+										  InterpolationType interpType,
+										  ImageType<T> imageType)
+	{
+		super(learnRate, threshold, transform, interpType, imageType);
+		this.imageType = imageType;
+		this.interpType = interpType;
+
+		workspace = new FastQueue<Workspace>(1,(Class)Workspace.class,true) {
+			@Override
+			protected Workspace createInstance() {
+				return new Workspace();
+			}
+		};
+	}
+
+	@Override
+	protected void updateRows(final int x0, int y0, final int x1, int y1, final T frame,
+							  InterpolatePixelMB<T> interpolateInput,
+							  Point2D_F32 work, float[] pixelInput) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, workspace, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace w, int y0, int y1) {
+				w.interpolateInput.setImage(frame);
+				BackgroundMovingGaussian_IL_MT.super.updateRows(x0, y0, x1, y1, frame, w.interpolateInput, w.work, w.pixelInput);
+			}
+		});
+	}
+
+	@Override
+	protected void segmentRows(final T frame, final GrayU8 segmented, int y0, int y1,
+							   InterpolatePixelMB<InterleavedF32> interpolationBG,
+							   Point2D_F32 work, float[] pixelBG, float[] pixelInput) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, workspace, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace w, int y0, int y1) {
+				w.interpolationBG.setImage(background);
+				BackgroundMovingGaussian_IL_MT.super.segmentRows(frame, segmented, y0, y1,
+						w.interpolationBG, w.work, w.pixelBG, w.pixelInput);
+			}
+		});
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+
+	/**
+	 * Interpolation and storage used by a single thread
+	 */
+	class Workspace {
+		int numBands = imageType.getNumBands();
+		InterpolatePixelMB<T> interpolateInput = FactoryInterpolation.createPixelMB(0, 255,
+				InterpolationType.BILINEAR, BorderType.EXTENDED, imageType);
+		InterpolatePixelMB<InterleavedF32> interpolationBG = FactoryInterpolation.createPixelMB(
+				0, 255, interpType, BorderType.EXTENDED, ImageType.il(2*numBands, InterleavedF32.class));
+		Point2D_F32 work = new Point2D_F32();
+		float[] pixelBG = new float[2*numBands];
+		float[] pixelInput = new float[numBands];
+	}
+}
@@ -29,6 +29,7 @@ import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.distort.Point2Transform2Model_F32;
 import boofcv.struct.image.*;
 import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
 
 /**
  * Implementation of {@link BackgroundMovingGaussian} for {@link ImageGray}.
@@ -100,6 +101,18 @@ public class BackgroundMovingGaussian_SB <T extends ImageGray<T>, Motion extends
 		transform.setModel(worldToCurrent);
 		interpolateInput.setImage(frame);
 
+		updateRows(x0, y0, x1, y1, frame, interpolateInput, work);
+	}
+
+	/**
+	 * Updates the background inside the rectangle using the provided storage.  The transform must already
+	 * be set to world to current.
+	 *
+	 * @param interpolateInput Interpolation for the input image.  Must already reference the frame.
+	 * @param work storage for the transformed coordinate
+	 */
+	protected void updateRows(int x0, int y0, int x1, int y1, T frame,
+							  InterpolatePixelS<T> interpolateInput, Point2D_F32 work ) {
 		float minusLearn = 1.0f - learnRate;
 
 		GrayF32 backgroundMean = background.getBand(0);
@@ -133,7 +146,21 @@ public class BackgroundMovingGaussian_SB <T extends ImageGray<T>, Motion extends
 		transform.setModel(currentToWorld);
 		inputWrapper.wrap(frame);
 
-		for (int y = 0; y < frame.height; y++) {
+		segmentRows(frame, segmented, 0, frame.height, interpolationBG, work, pixelBG);
+	}
+
+	/**
+	 * Segments rows y0 (inclusive) to y1 (exclusive) of the frame using the provided storage.  The transform
+	 * must already be set to current to world.
+	 *
+	 * @param interpolationBG Interpolation for the background image
+	 * @param work storage for the transformed coordinate
+	 * @param pixelBG storage for a background pixel
+	 */
+	protected void segmentRows(T frame, GrayU8 segmented, int y0, int y1,
+							   InterpolatePixelMB<Planar<GrayF32>> interpolationBG,
+							   Point2D_F32 work, float[] pixelBG ) {
+		for (int y = y0; y < y1; y++) {
 			int indexFrame = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.moving;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.distort.Point2Transform2Model_F32;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import georegression.struct.InvertibleTransform;
+import georegression.struct.point.Point2D_F32;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link BackgroundMovingGaussian_SB}.  Both the background update and segmentation
+ * are split into bands of rows, with each thread having its own interpolation and storage.  The point transform
+ * is shared between threads and must not modify its state inside of compute(), which is true for homographies.
+ * Results are identical to the single threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("unchecked")
+public class BackgroundMovingGaussian_SB_MT<T extends ImageGray<T>, Motion extends InvertibleTransform<Motion>>
+		extends BackgroundMovingGaussian_SB<T,Motion>
+{
+	// minimum number of rows in a block
+	int minBlockRows = 10;
+
+	// used to declare interpolation for each thread
+	final Class<T> imageClass;
+	final InterpolationType interpType;
+
+	// storage used by each thread
+	FastQueue<Workspace> workspace;
+
+	/**
+	 * @see BackgroundMovingGaussian_SB#BackgroundMovingGaussian_SB
+	 */
+	public BackgroundMovingGaussian_SB_MT(float learnRate, float threshold,
+										  Point2Transform2Model_F32<Motion> transform,
+										  InterpolationType interpType,
+										  Class<T> imageType)
+	{
+		super(learnRate, threshold, transform, interpType, imageType);
+		this.imageClass = imageType;
+		this.interpType = interpType;
+
+		workspace = new FastQueue<Workspace>(1,(Class)Workspace.class,true) {
+			@Override
+			protected Workspace createInstance() {
+				return new Workspace();
+			}
+		};
+	}
+
+	@Override
+	protected void updateRows(final int x0, int y0, final int x1, int y1, final T frame,
+							  InterpolatePixelS<T> interpolateInput, Point2D_F32 work) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, workspace, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace w, int y0, int y1) {
+				w.interpolateInput.setImage(frame);
+				BackgroundMovingGaussian_SB_MT.super.updateRows(x0, y0, x1, y1, frame, w.interpolateInput, w.work);
+			}
+		});
+	}
+
+	@Override
+	protected void segmentRows(final T frame, final GrayU8 segmented, int y0, int y1,
+							   InterpolatePixelMB<Planar<GrayF32>> interpolationBG,
+							   Point2D_F32 work, float[] pixelBG) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, workspace, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace w, int y0, int y1) {
+				w.interpolationBG.setImage(background);
+				BackgroundMovingGaussian_SB_MT.super.segmentRows(frame, segmented, y0, y1,
+						w.interpolationBG, w.work, w.pixelBG);
+			}
+		});
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+
+	/**
+	 * Interpolation and storage used by a single thread
+	 */
+	class Workspace {
+		InterpolatePixelS<T> interpolateInput = FactoryInterpolation.bilinearPixelS(imageClass, BorderType.EXTENDED);
+		InterpolatePixelMB<Planar<GrayF32>> interpolationBG = FactoryInterpolation.createPixelMB(
+				0, 255, interpType, BorderType.EXTENDED, ImageType.pl(2, GrayF32.class));
+		Point2D_F32 work = new Point2D_F32();
+		float[] pixelBG = new float[2];
+	}
+}
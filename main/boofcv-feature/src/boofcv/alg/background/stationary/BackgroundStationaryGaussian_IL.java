@@ -99,11 +99,20 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 			InputSanityCheck.checkSameShape(background, frame);
 		}
 
+		updateRows(frame, 0, frame.height, inputPixel);
+	}
+
+	/**
+	 * Updates the background model using rows y0 (inclusive) to y1 (exclusive) of the frame.
+	 *
+	 * @param inputPixel storage for a pixel in the input image
+	 */
+	protected void updateRows( T frame , int y0 , int y1 , float[] inputPixel ) {
 		int numBands = background.getNumBands()/2;
 		float minusLearn = 1.0f - learnRate;
 
-		int indexBG = 0;
-		for (int y = 0; y < background.height; y++) {
+		for (int y = y0; y < y1; y++) {
+			int indexBG = y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int end = indexInput + frame.width*numBands;
 			while( indexInput < end ) {
@@ -133,12 +142,58 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 		}
 		inputWrapper.wrap(frame);
 
-		final int numBands = background.getNumBands()/2;
+		segmentRows(frame, segmented, 0, frame.height, inputPixel);
+	}
+
+	/**
+	 * Segments rows y0 (inclusive) to y1 (exclusive) of the frame.
+	 *
+	 * @param inputPixel storage for a pixel in the input image
+	 */
+	protected void segmentRows( T frame, GrayU8 segmented , int y0 , int y1 , float[] inputPixel ) {
+		for (int y = y0; y < y1; y++) {
+			int indexBG = y*background.stride;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segmented.startIndex + y*segmented.stride;
+
+			int end = indexInput + frame.width*frame.numBands;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixel);
+
+				segmented.data[indexSegmented] = classify(indexBG, inputPixel);
+
+				indexInput     += frame.numBands;
+				indexSegmented += 1;
+				indexBG        += background.numBands;
+			}
+		}
+	}
 
-		float adjustedMinimumDifference = minimumDifference*numBands;
+	@Override
+	public void segmentAndUpdate( T frame, GrayU8 segmented) {
+		if( background.width == 1 ) {
+			ImageMiscOps.fill(segmented, unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background, frame);
+		inputWrapper.wrap(frame);
 
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+		segmentAndUpdateRows(frame, segmented, 0, frame.height, inputPixel);
+	}
+
+	/**
+	 * Segments rows y0 (inclusive) to y1 (exclusive) of the frame then updates the background model at
+	 * each pixel while its value is still in memory.
+	 *
+	 * @param inputPixel storage for a pixel in the input image
+	 */
+	protected void segmentAndUpdateRows( T frame, GrayU8 segmented , int y0 , int y1 , float[] inputPixel ) {
+		final int numBands = background.getNumBands()/2;
+		float minusLearn = 1.0f - learnRate;
+
+		for (int y = y0; y < y1; y++) {
+			int indexBG = y*background.stride;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -146,34 +201,18 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 			while( indexInput < end ) {
 				inputWrapper.getF(indexInput, inputPixel);
 
-				float mahalanobis = 0;
-				for (int band = 0; band < numBands; band++) {
+				segmented.data[indexSegmented] = classify(indexBG, inputPixel);
 
+				for (int band = 0; band < numBands; band++) {
 					int indexBG_band = indexBG + band*2;
 
+					float inputValue = inputPixel[band];
 					float meanBG = background.data[indexBG_band];
-					float varBG  = background.data[indexBG_band+1];
-
-					float diff = meanBG - inputPixel[band];
-					mahalanobis += diff * diff / varBG;
-				}
+					float varianceBG = background.data[indexBG_band+1];
 
-				if (mahalanobis <= threshold) {
-					segmented.data[indexSegmented] = 0;
-				} else {
-					if( minimumDifference == 0) {
-						segmented.data[indexSegmented] = 1;
-					} else {
-						float sumAbsDiff = 0;
-						for (int band = 0; band < numBands; band++) {
-							int indexBG_band = indexBG + band*2;
-							sumAbsDiff += Math.abs(background.data[indexBG_band] - inputPixel[band]);
-						}
-						if (sumAbsDiff >= adjustedMinimumDifference)
-							segmented.data[indexSegmented] = 1;
-						else
-							segmented.data[indexSegmented] = 0;
-					}
+					float diff = meanBG-inputValue;
+					background.data[indexBG_band]   = minusLearn*meanBG + learnRate*inputValue;
+					background.data[indexBG_band+1] = minusLearn*varianceBG + learnRate*diff*diff;
 				}
 
 				indexInput     += frame.numBands;
@@ -182,4 +221,41 @@ public class BackgroundStationaryGaussian_IL<T extends ImageInterleaved<T>>
 			}
 		}
 	}
+
+	/**
+	 * Decides if the pixel is background (0) or foreground (1) using the background model at indexBG
+	 */
+	private byte classify( int indexBG , float[] inputPixel ) {
+		final int numBands = background.getNumBands()/2;
+
+		float mahalanobis = 0;
+		for (int band = 0; band < numBands; band++) {
+
+			int indexBG_band = indexBG + band*2;
+
+			float meanBG = background.data[indexBG_band];
+			float varBG  = background.data[indexBG_band+1];
+
+			float diff = meanBG - inputPixel[band];
+			mahalanobis += diff * diff / varBG;
+		}
+
+		if (mahalanobis <= threshold) {
+			return 0;
+		} else {
+			if( minimumDifference == 0) {
+				return 1;
+			} else {
+				float sumAbsDiff = 0;
+				for (int band = 0; band < numBands; band++) {
+					int indexBG_band = indexBG + band*2;
+					sumAbsDiff += Math.abs(background.data[indexBG_band] - inputPixel[band]);
+				}
+				if (sumAbsDiff >= minimumDifference*numBands)
+					return 1;
+				else
+					return 0;
+			}
+		}
+	}
 }
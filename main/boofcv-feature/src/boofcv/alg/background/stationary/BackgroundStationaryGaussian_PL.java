@@ -90,12 +90,20 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 
 		inputWrapper.wrap(frame);
 
+		updateRows(frame, 0, frame.height, inputPixel);
+	}
+
+	/**
+	 * Updates the background model using rows y0 (inclusive) to y1 (exclusive) of the frame.
+	 *
+	 * @param inputPixel storage for a pixel in the input image
+	 */
+	protected void updateRows( Planar<T> frame , int y0 , int y1 , float[] inputPixel ) {
 		int numBands = background.getNumBands()/2;
 		float minusLearn = 1.0f - learnRate;
 
-
-		int indexBG = 0;
-		for (int y = 0; y < background.height; y++) {
+		for (int y = y0; y < y1; y++) {
+			int indexBG = y*background.width;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int end = indexInput + frame.width;
 			while( indexInput < end ) {
@@ -128,12 +136,58 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 		}
 		inputWrapper.wrap(frame);
 
-		final int numBands = background.getNumBands()/2;
+		segmentRows(frame, segmented, 0, frame.height, inputPixel);
+	}
+
+	/**
+	 * Segments rows y0 (inclusive) to y1 (exclusive) of the frame.
+	 *
+	 * @param inputPixel storage for a pixel in the input image
+	 */
+	protected void segmentRows(Planar<T> frame, GrayU8 segmented, int y0 , int y1 , float[] inputPixel ) {
+		for (int y = y0; y < y1; y++) {
+			int indexBG = y*background.width;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segmented.startIndex + y*segmented.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				inputWrapper.getF(indexInput, inputPixel);
+
+				segmented.data[indexSegmented] = classify(indexBG, inputPixel);
+
+				indexInput++;
+				indexSegmented++;
+				indexBG++;
+			}
+		}
+	}
+
+	@Override
+	public void segmentAndUpdate(Planar<T> frame, GrayU8 segmented) {
+		if( background.width == 1 ) {
+			ImageMiscOps.fill(segmented, unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background, frame);
+		inputWrapper.wrap(frame);
 
-		float adjustedMinimumDifference = minimumDifference*numBands;
+		segmentAndUpdateRows(frame, segmented, 0, frame.height, inputPixel);
+	}
 
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+	/**
+	 * Segments rows y0 (inclusive) to y1 (exclusive) of the frame then updates the background model at
+	 * each pixel while its value is still in memory.
+	 *
+	 * @param inputPixel storage for a pixel in the input image
+	 */
+	protected void segmentAndUpdateRows(Planar<T> frame, GrayU8 segmented, int y0 , int y1 , float[] inputPixel ) {
+		final int numBands = background.getNumBands()/2;
+		float minusLearn = 1.0f - learnRate;
+
+		for (int y = y0; y < y1; y++) {
+			int indexBG = y*background.width;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -141,35 +195,19 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 			while( indexInput < end ) {
 				inputWrapper.getF(indexInput, inputPixel);
 
-				float mahalanobis = 0;
-				for (int band = 0; band < numBands; band++) {
+				segmented.data[indexSegmented] = classify(indexBG, inputPixel);
 
+				for (int band = 0; band < numBands; band++) {
 					GrayF32 backgroundMean = background.getBand(band*2);
 					GrayF32 backgroundVar = background.getBand(band*2+1);
 
+					float inputValue = inputPixel[band];
 					float meanBG = backgroundMean.data[indexBG];
-					float varBG = backgroundVar.data[indexBG];
-
-					float diff = meanBG - inputPixel[band];
-					mahalanobis += diff * diff / varBG;
-				}
+					float varianceBG = backgroundVar.data[indexBG];
 
-				if (mahalanobis <= threshold) {
-					segmented.data[indexSegmented] = 0;
-				} else {
-					if( minimumDifference == 0) {
-						segmented.data[indexSegmented] = 1;
-					} else {
-						float sumAbsDiff = 0;
-						for (int band = 0; band < numBands; band++) {
-							GrayF32 backgroundMean = background.getBand(band*2);
-							sumAbsDiff += Math.abs(backgroundMean.data[indexBG] - inputPixel[band]);
-						}
-						if (sumAbsDiff >= adjustedMinimumDifference)
-							segmented.data[indexSegmented] = 1;
-						else
-							segmented.data[indexSegmented] = 0;
-					}
+					float diff = meanBG-inputValue;
+					backgroundMean.data[indexBG] = minusLearn*meanBG + learnRate*inputValue;
+					backgroundVar.data[indexBG] = minusLearn*varianceBG + learnRate*diff*diff;
 				}
 
 				indexInput++;
@@ -178,4 +216,42 @@ public class BackgroundStationaryGaussian_PL<T extends ImageGray<T>>
 			}
 		}
 	}
+
+	/**
+	 * Decides if the pixel is background (0) or foreground (1) using the background model at indexBG
+	 */
+	private byte classify( int indexBG , float[] inputPixel ) {
+		final int numBands = background.getNumBands()/2;
+
+		float mahalanobis = 0;
+		for (int band = 0; band < numBands; band++) {
+
+			GrayF32 backgroundMean = background.getBand(band*2);
+			GrayF32 backgroundVar = background.getBand(band*2+1);
+
+			float meanBG = backgroundMean.data[indexBG];
+			float varBG = backgroundVar.data[indexBG];
+
+			float diff = meanBG - inputPixel[band];
+			mahalanobis += diff * diff / varBG;
+		}
+
+		if (mahalanobis <= threshold) {
+			return 0;
+		} else {
+			if( minimumDifference == 0) {
+				return 1;
+			} else {
+				float sumAbsDiff = 0;
+				for (int band = 0; band < numBands; band++) {
+					GrayF32 backgroundMean = background.getBand(band*2);
+					sumAbsDiff += Math.abs(backgroundMean.data[indexBG] - inputPixel[band]);
+				}
+				if (sumAbsDiff >= minimumDifference*numBands)
+					return 1;
+				else
+					return 0;
+			}
+		}
+	}
 }
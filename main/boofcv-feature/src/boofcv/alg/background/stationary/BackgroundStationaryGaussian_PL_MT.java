@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link BackgroundStationaryGaussian_PL}.  Every pixel's model is independent of
+ * its neighbors so the image is split into bands of rows which are processed in parallel.  Results are identical
+ * to the single threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundStationaryGaussian_PL_MT<T extends ImageGray<T>>
+		extends BackgroundStationaryGaussian_PL<T>
+{
+	// minimum number of rows in a block
+	int minBlockRows = 10;
+
+	// storage for the input pixel used by each thread
+	FastQueue<float[]> workspace;
+
+	/**
+	 * @see BackgroundStationaryGaussian_PL#BackgroundStationaryGaussian_PL
+	 */
+	public BackgroundStationaryGaussian_PL_MT(float learnRate, float threshold, ImageType<Planar<T>> imageType) {
+		super(learnRate, threshold, imageType);
+
+		final int numBands = imageType.getNumBands();
+		workspace = new FastQueue<float[]>(1,float[].class,true) {
+			@Override
+			protected float[] createInstance() {
+				return new float[numBands];
+			}
+		};
+	}
+
+	@Override
+	protected void updateRows(final Planar<T> frame, int y0, int y1, float[] inputPixel) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, workspace, new IntRangeObjectConsumer<float[]>() {
+			@Override
+			public void accept(float[] pixel, int y0, int y1) {
+				BackgroundStationaryGaussian_PL_MT.super.updateRows(frame, y0, y1, pixel);
+			}
+		});
+	}
+
+	@Override
+	protected void segmentRows(final Planar<T> frame, final GrayU8 segmented, int y0, int y1, float[] inputPixel) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, workspace, new IntRangeObjectConsumer<float[]>() {
+			@Override
+			public void accept(float[] pixel, int y0, int y1) {
+				BackgroundStationaryGaussian_PL_MT.super.segmentRows(frame, segmented, y0, y1, pixel);
+			}
+		});
+	}
+
+	@Override
+	protected void segmentAndUpdateRows(final Planar<T> frame, final GrayU8 segmented, int y0, int y1, float[] inputPixel) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, workspace, new IntRangeObjectConsumer<float[]>() {
+			@Override
+			public void accept(float[] pixel, int y0, int y1) {
+				BackgroundStationaryGaussian_PL_MT.super.segmentAndUpdateRows(frame, segmented, y0, y1, pixel);
+			}
+		});
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
@@ -73,13 +73,20 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 
 		inputWrapper.wrap(frame);
 
+		updateRows(frame, 0, frame.height);
+	}
+
+	/**
+	 * Updates the background model using rows y0 (inclusive) to y1 (exclusive) of the frame.
+	 */
+	protected void updateRows( T frame , int y0 , int y1 ) {
 		float minusLearn = 1.0f - learnRate;
 
 		GrayF32 backgroundMean = background.getBand(0);
 		GrayF32 backgroundVar = background.getBand(1);
 
-		int indexBG = 0;
-		for (int y = 0; y < background.height; y++) {
+		for (int y = y0; y < y1; y++) {
+			int indexBG = y*background.width;
 			int indexInput = frame.startIndex + y*frame.stride;
 
 			int end = indexInput + frame.width;
@@ -107,11 +114,18 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 		InputSanityCheck.checkSameShape(background,frame,segmented);
 		inputWrapper.wrap(frame);
 
+		segmentRows(frame, segmented, 0, frame.height);
+	}
+
+	/**
+	 * Segments rows y0 (inclusive) to y1 (exclusive) of the frame.
+	 */
+	protected void segmentRows( T frame, GrayU8 segmented , int y0 , int y1 ) {
 		GrayF32 backgroundMean = background.getBand(0);
 		GrayF32 backgroundVar = background.getBand(1);
 
-		int indexBG = 0;
-		for (int y = 0; y < frame.height; y++) {
+		for (int y = y0; y < y1; y++) {
+			int indexBG = y*background.width;
 			int indexInput = frame.startIndex + y*frame.stride;
 			int indexSegmented = segmented.startIndex + y*segmented.stride;
 
@@ -123,16 +137,55 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 				float varBG = backgroundVar.data[indexBG];
 
 				float diff = meanBG - pixelFrame;
-				float chisq = diff*diff/varBG;
+				segmented.data[indexSegmented] = classify(diff, varBG);
+
+				indexInput++;
+				indexSegmented++;
+				indexBG++;
+			}
+		}
+	}
+
+	@Override
+	public void segmentAndUpdate( T frame, GrayU8 segmented) {
+		if( background.width == 1 ) {
+			ImageMiscOps.fill(segmented, unknownValue);
+			updateBackground(frame);
+			return;
+		}
+		InputSanityCheck.checkSameShape(background,frame,segmented);
+		inputWrapper.wrap(frame);
+
+		segmentAndUpdateRows(frame, segmented, 0, frame.height);
+	}
+
+	/**
+	 * Segments rows y0 (inclusive) to y1 (exclusive) of the frame then updates the background model at
+	 * each pixel while its value is still in memory.
+	 */
+	protected void segmentAndUpdateRows( T frame, GrayU8 segmented , int y0 , int y1 ) {
+		float minusLearn = 1.0f - learnRate;
+
+		GrayF32 backgroundMean = background.getBand(0);
+		GrayF32 backgroundVar = background.getBand(1);
+
+		for (int y = y0; y < y1; y++) {
+			int indexBG = y*background.width;
+			int indexInput = frame.startIndex + y*frame.stride;
+			int indexSegmented = segmented.startIndex + y*segmented.stride;
+
+			int end = indexInput + frame.width;
+			while( indexInput < end ) {
+				float inputValue = inputWrapper.getF(indexInput);
 
-				if (chisq <= threshold) {
-					segmented.data[indexSegmented] = 0;
-				} else {
-					if( diff >= minimumDifference || -diff >= minimumDifference )
-						segmented.data[indexSegmented] = 1;
-					else
-						segmented.data[indexSegmented] = 0;
-				}
+				float meanBG = backgroundMean.data[indexBG];
+				float varianceBG = backgroundVar.data[indexBG];
+
+				float diff = meanBG - inputValue;
+				segmented.data[indexSegmented] = classify(diff, varianceBG);
+
+				backgroundMean.data[indexBG] = minusLearn*meanBG + learnRate*inputValue;
+				backgroundVar.data[indexBG] = minusLearn*varianceBG + learnRate*diff*diff;
 
 				indexInput++;
 				indexSegmented++;
@@ -140,4 +193,20 @@ public class BackgroundStationaryGaussian_SB<T extends ImageGray<T>>
 			}
 		}
 	}
+
+	/**
+	 * Decides if a pixel is background (0) or foreground (1) given its difference from the mean
+	 */
+	private byte classify( float diff , float varBG ) {
+		float chisq = diff*diff/varBG;
+
+		if (chisq <= threshold) {
+			return 0;
+		} else {
+			if( diff >= minimumDifference || -diff >= minimumDifference )
+				return 1;
+			else
+				return 0;
+		}
+	}
 }
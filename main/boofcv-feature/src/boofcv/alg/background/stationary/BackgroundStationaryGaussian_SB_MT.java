@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Concurrent implementation of {@link BackgroundStationaryGaussian_SB}.  Every pixel's model is independent of
+ * its neighbors so the image is split into bands of rows which are processed in parallel.  Results are identical
+ * to the single threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+public class BackgroundStationaryGaussian_SB_MT<T extends ImageGray<T>>
+		extends BackgroundStationaryGaussian_SB<T>
+{
+	// minimum number of rows in a block
+	int minBlockRows = 10;
+
+	/**
+	 * @see BackgroundStationaryGaussian_SB#BackgroundStationaryGaussian_SB
+	 */
+	public BackgroundStationaryGaussian_SB_MT(float learnRate, float threshold, Class<T> imageType) {
+		super(learnRate, threshold, imageType);
+	}
+
+	@Override
+	protected void updateRows(final T frame, int y0, int y1) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int y0, int y1) {
+				BackgroundStationaryGaussian_SB_MT.super.updateRows(frame, y0, y1);
+			}
+		});
+	}
+
+	@Override
+	protected void segmentRows(final T frame, final GrayU8 segmented, int y0, int y1) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int y0, int y1) {
+				BackgroundStationaryGaussian_SB_MT.super.segmentRows(frame, segmented, y0, y1);
+			}
+		});
+	}
+
+	@Override
+	protected void segmentAndUpdateRows(final T frame, final GrayU8 segmented, int y0, int y1) {
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int y0, int y1) {
+				BackgroundStationaryGaussian_SB_MT.super.segmentAndUpdateRows(frame, segmented, y0, y1);
+			}
+		});
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
@@ -46,17 +46,17 @@ import org.ddogleg.struct.GrowQueue_I32;
 public class AssociateGreedy<D> {
 
 	// computes association score
-	private ScoreAssociation<D> score;
+	protected ScoreAssociation<D> score;
 	// worst allowed fit score to associate
-	private double maxFitError = Double.MAX_VALUE;
+	protected double maxFitError = Double.MAX_VALUE;
 	// stores the quality of fit score
-	private GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
+	protected GrowQueue_F64 fitQuality = new GrowQueue_F64(100);
 	// stores indexes of associated
-	private GrowQueue_I32 pairs = new GrowQueue_I32(100);
-	// various
-	private GrowQueue_F64 workBuffer = new GrowQueue_F64(100);
+	protected GrowQueue_I32 pairs = new GrowQueue_I32(100);
+	// fit score for every possible pair.  row = src, column = dst
+	protected GrowQueue_F64 workBuffer = new GrowQueue_F64(100);
 	// if true backwardsValidation is done
-	private boolean backwardsValidation;
+	protected boolean backwardsValidation;
 
 	/**
 	 * Configure association
@@ -79,47 +79,70 @@ public class AssociateGreedy<D> {
 	public void associate( FastQueue<D> src ,
 						   FastQueue<D> dst )
 	{
-		fitQuality.reset();
-		pairs.reset();
-		workBuffer.reset();
+		declareStorage(src, dst);
 
+		associateForwards(src, dst, 0, src.size);
+
+		if( backwardsValidation ) {
+			validateBackwards(src.size, dst.size, 0, src.size);
+		}
+	}
+
+	/**
+	 * Resizes storage so that there is an element for every src feature and every pair of features
+	 */
+	protected void declareStorage( FastQueue<D> src , FastQueue<D> dst ) {
 //		System.out.println("Associate: "+src.size+"*"+dst.size+" = "+(src.size*dst.size)+" or "+(src.size*dst.size*8/1024/1024)+"MB");
-		fitQuality.setMaxSize(src.size);
-		workBuffer.setMaxSize(src.size*dst.size);
-		for( int i = 0; i < src.size; i++ ) {
+		fitQuality.resize(src.size);
+		pairs.resize(src.size);
+		workBuffer.resize(src.size*dst.size);
+	}
+
+	/**
+	 * Finds the best match in dst for src features with an index from idx0 to idx1-1, inclusive.  Only
+	 * writes to the rows of the work buffer and the elements of pairs and fitQuality which belong to
+	 * those src features.
+	 */
+	protected void associateForwards( FastQueue<D> src , FastQueue<D> dst , int idx0 , int idx1 ) {
+		for( int i = idx0; i < idx1; i++ ) {
 			D a = src.data[i];
 			double bestScore = maxFitError;
 			int bestIndex = -1;
+			int index = i*dst.size;
 
 			for( int j = 0; j < dst.size; j++ ) {
 				D b = dst.data[j];
 
 				double fit = score.score(a,b);
-				workBuffer.push(fit);
+				workBuffer.data[index++] = fit;
 
 				if( fit <= bestScore ) {
 					bestIndex = j;
 					bestScore = fit;
 				}
 			}
-			pairs.push(bestIndex);
-			fitQuality.push(bestScore);
+			pairs.data[i] = bestIndex;
+			fitQuality.data[i] = bestScore;
 		}
+	}
 
-		if( backwardsValidation ) {
-			for( int i = 0; i < src.size; i++ ) {
-				int match = pairs.data[i];
-				if( match == -1 )
-					continue;
-
-				double scoreToBeat = workBuffer.data[i*dst.size+match];
-
-				for( int j = 0; j < src.size; j++ , match += dst.size ) {
-					if( workBuffer.data[match] <= scoreToBeat && j != i) {
-						pairs.data[i] = -1;
-						fitQuality.data[i] = Double.MAX_VALUE;
-						break;
-					}
+	/**
+	 * Removes matches for src features with an index from idx0 to idx1-1, inclusive, if another src feature
+	 * is as good or better a fit to the same dst feature.  The work buffer must be complete for all src features.
+	 */
+	protected void validateBackwards( int numSrc , int numDst , int idx0 , int idx1 ) {
+		for( int i = idx0; i < idx1; i++ ) {
+			int match = pairs.data[i];
+			if( match == -1 )
+				continue;
+
+			double scoreToBeat = workBuffer.data[i*numDst+match];
+
+			for( int j = 0; j < numSrc; j++ , match += numDst ) {
+				if( workBuffer.data[match] <= scoreToBeat && j != i) {
+					pairs.data[i] = -1;
+					fitQuality.data[i] = Double.MAX_VALUE;
+					break;
 				}
 			}
 		}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link AssociateGreedy}.  Source features are split into blocks and the best
+ * match for each block is found in its own thread.  Each src feature has its own row in the work buffer, so
+ * the threads never write to the same memory.  Backwards validation is done in a second pass after all the
+ * scores have been computed.  Results are identical to the single threaded version.  The
+ * {@link ScoreAssociation} is shared between threads and must not have any internal state.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateGreedy_MT<D> extends AssociateGreedy<D> {
+
+	// minimum number of src features in a block
+	int minBlockSize = 50;
+
+	/**
+	 * @see AssociateGreedy#AssociateGreedy
+	 */
+	public AssociateGreedy_MT(ScoreAssociation<D> score, boolean backwardsValidation) {
+		super(score, backwardsValidation);
+	}
+
+	@Override
+	public void associate(final FastQueue<D> src, final FastQueue<D> dst) {
+		declareStorage(src, dst);
+
+		BoofConcurrency.loopBlocks(0, src.size, minBlockSize, new IntRangeConsumer() {
+			@Override
+			public void accept(int idx0, int idx1) {
+				associateForwards(src, dst, idx0, idx1);
+			}
+		});
+
+		if( backwardsValidation ) {
+			BoofConcurrency.loopBlocks(0, src.size, minBlockSize, new IntRangeConsumer() {
+				@Override
+				public void accept(int idx0, int idx1) {
+					validateBackwards(src.size, dst.size, idx0, idx1);
+				}
+			});
+		}
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+}
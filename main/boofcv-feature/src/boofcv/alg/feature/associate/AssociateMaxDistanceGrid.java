@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.MatchScoreType;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Two features are only considered for association if they are within the specified max distance
+ * of each other.  Produces the same results as {@link AssociateMaxDistanceNaive} but destination features
+ * are indexed with a {@link PointGridIndex} whose cells are the size of the max distance.  Only features in
+ * cells near the source feature are scored.  If backwards validation is enabled then source features are
+ * indexed too.  When the max distance is small relative to the spread of the features most of the candidates
+ * are skipped.
+ *
+ * Ties are resolved by selecting the feature with the lowest index, the same as the naive implementation.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateMaxDistanceGrid<D> implements AssociateMaxDistance<D> {
+	// computes association score
+	private ScoreAssociation<D> scoreAssociation;
+
+	// is backwards validation performed during association?
+	private boolean backwardsValidation;
+
+	// maximum allowed distance between two features
+	private double maxDistance = Double.MAX_VALUE;
+	// the largest allowed error
+	private double maxError;
+
+	// input lists
+	protected FastQueue<Point2D_F64> locationSrc;
+	protected FastQueue<D> descSrc;
+	protected FastQueue<Point2D_F64> locationDst;
+	protected FastQueue<D> descDst;
+
+	// spatial index of each set of features
+	protected PointGridIndex gridSrc = new PointGridIndex();
+	protected PointGridIndex gridDst = new PointGridIndex();
+
+	// index of the best match for each source feature.  -1 if there is no match
+	protected int[] bestIndex = new int[0];
+	protected double[] bestScore = new double[0];
+
+	// storage for candidate features
+	private GrowQueue_I32 candidates = new GrowQueue_I32();
+
+	// list of source features not associated
+	private GrowQueue_I32 unassociatedSrc = new GrowQueue_I32();
+
+	// list of features that have been matched with each other
+	private FastQueue<AssociatedIndex> matched = new FastQueue<>(10, AssociatedIndex.class, true);
+
+	// creates a list of unassociated features from the list of matches
+	private FindUnassociated unassociated = new FindUnassociated();
+
+	/**
+	 * Specifies score mechanism
+	 *
+	 * @param scoreAssociation How features are scored.
+	 * @param backwardsValidation Require that matches are mutual in forward/backwards directions
+	 * @param maxError Maximum allowed association error
+	 * @param maxDistance Maximum distance between two features
+	 */
+	public AssociateMaxDistanceGrid(ScoreAssociation<D> scoreAssociation,
+									boolean backwardsValidation,
+									double maxError,
+									double maxDistance )
+	{
+		this.scoreAssociation = scoreAssociation;
+		this.backwardsValidation = backwardsValidation;
+		this.maxError = maxError;
+		this.maxDistance = maxDistance;
+	}
+
+	@Override
+	public double getMaxDistance() {
+		return maxDistance;
+	}
+
+	@Override
+	public void setMaxDistance(double maxDistance) {
+		this.maxDistance = maxDistance;
+	}
+
+	@Override
+	public void setSource(FastQueue<Point2D_F64> location, FastQueue<D> descriptions) {
+		if( location.size() != descriptions.size() )
+			throw new IllegalArgumentException("The two lists must be the same size");
+
+		this.locationSrc = location;
+		this.descSrc = descriptions;
+	}
+
+	@Override
+	public void setDestination(FastQueue<Point2D_F64> location, FastQueue<D> descriptions) {
+		if( location.size() != descriptions.size() )
+			throw new IllegalArgumentException("The two lists must be the same size");
+
+		this.locationDst = location;
+		this.descDst = descriptions;
+	}
+
+	@Override
+	public void associate() {
+		gridDst.process(locationDst, maxDistance, maxDistance);
+		if( backwardsValidation )
+			gridSrc.process(locationSrc, maxDistance, maxDistance);
+
+		if( bestIndex.length < locationSrc.size ) {
+			bestIndex = new int[locationSrc.size];
+			bestScore = new double[locationSrc.size];
+		}
+
+		associateSources();
+
+		unassociatedSrc.reset();
+		matched.reset();
+		for (int i = 0; i < locationSrc.size; i++) {
+			if( bestIndex[i] < 0 ) {
+				unassociatedSrc.add(i);
+			} else {
+				matched.grow().setAssociation(i, bestIndex[i], bestScore[i]);
+			}
+		}
+	}
+
+	/**
+	 * Finds the best match for every source feature and saves the results in {@link #bestIndex}
+	 * and {@link #bestScore}
+	 */
+	protected void associateSources() {
+		associateSources(0, locationSrc.size, candidates);
+	}
+
+	/**
+	 * Finds the best match for the source features in the specified range.  Only writes to the output
+	 * arrays inside the range.
+	 *
+	 * @param idx0 First source feature. Inclusive
+	 * @param idx1 Last source feature. Exclusive
+	 * @param candidates Storage for candidate features
+	 */
+	protected void associateSources( int idx0 , int idx1 , GrowQueue_I32 candidates ) {
+		double maxDistanceSq = maxDistance*maxDistance;
+
+		for (int i = idx0; i < idx1; i++) {
+			Point2D_F64 p_s = locationSrc.get(i);
+			D d_s = descSrc.get(i);
+
+			double bestScore = maxError;
+			int bestIndex = -1;
+
+			// find the best match in destination list
+			gridDst.findCandidates(p_s.x - maxDistance, p_s.y - maxDistance,
+					p_s.x + maxDistance, p_s.y + maxDistance, candidates);
+			for (int k = 0; k < candidates.size; k++) {
+				int j = candidates.data[k];
+
+				if( locationDst.get(j).distance2(p_s) > maxDistanceSq )
+					continue;
+
+				double score = scoreAssociation.score(d_s, descDst.get(j));
+				if( score < bestScore || (score == bestScore && j < bestIndex) ) {
+					bestScore = score;
+					bestIndex = j;
+				}
+			}
+
+			if( bestIndex != -1 && backwardsValidation && !backwardsValidation(i, bestIndex, candidates) )
+				bestIndex = -1;
+
+			this.bestIndex[i] = bestIndex;
+			this.bestScore[i] = bestScore;
+		}
+	}
+
+	/**
+	 * Finds the best match for an index in destination and sees if it matches the source index
+	 *
+	 * @param indexSrc The index in source being examined
+	 * @param bestIndex Index in dst with the best fit to source
+	 * @return true if a match was found and false if not
+	 */
+	private boolean backwardsValidation( int indexSrc , int bestIndex , GrowQueue_I32 candidates ) {
+		double maxDistanceSq = maxDistance*maxDistance;
+		double bestScoreV = maxError;
+		int bestIndexV = -1;
+
+		D d_forward = descDst.get(bestIndex);
+		Point2D_F64 p_d = locationDst.get(bestIndex);
+
+		gridSrc.findCandidates(p_d.x - maxDistance, p_d.y - maxDistance,
+				p_d.x + maxDistance, p_d.y + maxDistance, candidates);
+		for (int k = 0; k < candidates.size; k++) {
+			int j = candidates.data[k];
+
+			if( locationSrc.get(j).distance2(p_d) > maxDistanceSq )
+				continue;
+
+			double score = scoreAssociation.score(d_forward, descSrc.get(j));
+			if( score < bestScoreV || (score == bestScoreV && j < bestIndexV) ) {
+				bestScoreV = score;
+				bestIndexV = j;
+			}
+		}
+
+		return bestIndexV == indexSrc;
+	}
+
+	@Override
+	public FastQueue<AssociatedIndex> getMatches() {
+		return matched;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedSource() {
+		return unassociatedSrc;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedDestination() {
+		return unassociated.checkDestination(matched,locationDst.size());
+	}
+
+	@Override
+	public void setThreshold(double score) {
+		maxError = score;
+	}
+
+	@Override
+	public MatchScoreType getScoreType() {
+		return scoreAssociation.getScoreType();
+	}
+
+	@Override
+	public boolean uniqueSource() {
+		return true;
+	}
+
+	@Override
+	public boolean uniqueDestination() {
+		return false;
+	}
+}
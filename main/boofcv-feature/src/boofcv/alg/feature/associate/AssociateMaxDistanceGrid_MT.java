@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Concurrent implementation of {@link AssociateMaxDistanceGrid}.  Source features are split into blocks and the
+ * best match for each block is found in parallel.  Matches are then collected in order of source index so the
+ * results are identical to the single threaded version.  The {@link ScoreAssociation} is shared by all threads
+ * and must not have any internal state.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateMaxDistanceGrid_MT<D> extends AssociateMaxDistanceGrid<D> {
+
+	// minimum number of source features in a block
+	int minBlockSize = 50;
+
+	// storage for candidates used by each thread
+	FastQueue<GrowQueue_I32> workspace = new FastQueue<>(GrowQueue_I32.class, true);
+
+	/**
+	 * @see AssociateMaxDistanceGrid#AssociateMaxDistanceGrid
+	 */
+	public AssociateMaxDistanceGrid_MT(ScoreAssociation<D> scoreAssociation,
+									   boolean backwardsValidation,
+									   double maxError,
+									   double maxDistance) {
+		super(scoreAssociation, backwardsValidation, maxError, maxDistance);
+	}
+
+	@Override
+	protected void associateSources() {
+		BoofConcurrency.loopBlocks(0, locationSrc.size, minBlockSize, workspace,
+				new IntRangeObjectConsumer<GrowQueue_I32>() {
+			@Override
+			public void accept(GrowQueue_I32 candidates, int idx0, int idx1) {
+				associateSources(idx0, idx1, candidates);
+			}
+		});
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * Indexes a set of 2D points using a uniform grid so that points inside a rectangle can be found without
+ * examining every point.  Points are sorted into cells with a counting sort, so the points inside each cell
+ * are stored in order of increasing index.  The grid is bounded by the indexed points.  Queries outside of
+ * the bounds are clamped to the border cells, so the caller must still check the actual location of each
+ * returned point.
+ *
+ * If a cell size would create more than a few cells per point then the cells are enlarged.  Larger
+ * cells return more candidates but never miss a point.
+ *
+ * @author Peter Abeles
+ */
+public class PointGridIndex {
+
+	// lower extent of the indexed points
+	double x0, y0;
+	// size of a cell
+	double cellWidth, cellHeight;
+	// number of cells along each axis
+	int cols, rows;
+
+	// index of the first point in each cell.  Has rows*cols + 1 elements
+	int[] cellStart = new int[1];
+	// indexes of points sorted by cell
+	int[] indexes = new int[0];
+	// cell each point belongs inside of
+	int[] pointCell = new int[0];
+
+	/**
+	 * Indexes the points.  The list is not saved.
+	 *
+	 * @param points Points which are to be indexed
+	 * @param cellWidth Minimum width of a cell.  Can be infinite.
+	 * @param cellHeight Minimum height of a cell.  Can be infinite.
+	 */
+	public void process( FastQueue<Point2D_F64> points , double cellWidth , double cellHeight ) {
+		int N = points.size;
+
+		// find the bounds of the points
+		double x1, y1;
+		if( N == 0 ) {
+			x0 = y0 = x1 = y1 = 0;
+		} else {
+			Point2D_F64 p = points.get(0);
+			x0 = x1 = p.x;
+			y0 = y1 = p.y;
+			for (int i = 1; i < N; i++) {
+				p = points.get(i);
+				if( p.x < x0 ) x0 = p.x; else if( p.x > x1 ) x1 = p.x;
+				if( p.y < y0 ) y0 = p.y; else if( p.y > y1 ) y1 = p.y;
+			}
+		}
+
+		// keep the total number of cells proportional to the number of points
+		int maxCells = Math.max(1, (int)Math.sqrt(4.0*N));
+		this.cellWidth = selectCellSize(x1 - x0, cellWidth, maxCells);
+		this.cellHeight = selectCellSize(y1 - y0, cellHeight, maxCells);
+		cols = Math.min(maxCells, (int)((x1 - x0)/this.cellWidth) + 1);
+		rows = Math.min(maxCells, (int)((y1 - y0)/this.cellHeight) + 1);
+
+		int numCells = rows*cols;
+		if( cellStart.length < numCells+1 )
+			cellStart = new int[numCells+1];
+		if( indexes.length < N ) {
+			indexes = new int[N];
+			pointCell = new int[N];
+		}
+
+		// counting sort of the points by cell
+		for (int i = 0; i <= numCells; i++) {
+			cellStart[i] = 0;
+		}
+		for (int i = 0; i < N; i++) {
+			Point2D_F64 p = points.get(i);
+			int cell = cellY(p.y)*cols + cellX(p.x);
+			pointCell[i] = cell;
+			cellStart[cell+1]++;
+		}
+		for (int i = 0; i < numCells; i++) {
+			cellStart[i+1] += cellStart[i];
+		}
+		for (int i = 0; i < N; i++) {
+			int cell = pointCell[i];
+			// cellStart is used as the insertion point then restored afterwards
+			indexes[cellStart[cell]++] = i;
+		}
+		for (int i = numCells; i > 0; i--) {
+			cellStart[i] = cellStart[i-1];
+		}
+		cellStart[0] = 0;
+	}
+
+	private static double selectCellSize( double length , double minimum , int maxCells ) {
+		if( maxCells <= 1 || length <= 0 )
+			return Math.max(1.0, Math.min(minimum, Double.MAX_VALUE));
+		return Math.max(Math.min(minimum, Double.MAX_VALUE), length/(maxCells-1));
+	}
+
+	/**
+	 * Finds all the points inside of cells which overlap the rectangle.  This will include every point inside
+	 * the rectangle plus some which are outside.
+	 *
+	 * @param minX Lower extent along x-axis. Inclusive.
+	 * @param minY Lower extent along y-axis. Inclusive.
+	 * @param maxX Upper extent along x-axis. Inclusive.
+	 * @param maxY Upper extent along y-axis. Inclusive.
+	 * @param output (Output) Indexes of candidate points. Cleared before points are added.
+	 */
+	public void findCandidates( double minX , double minY , double maxX , double maxY , GrowQueue_I32 output ) {
+		output.reset();
+
+		int col0 = cellX(minX), col1 = cellX(maxX);
+		int row0 = cellY(minY), row1 = cellY(maxY);
+
+		for (int row = row0; row <= row1; row++) {
+			int start = cellStart[row*cols + col0];
+			int end = cellStart[row*cols + col1 + 1];
+			for (int i = start; i < end; i++) {
+				output.add(indexes[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the column a coordinate belongs in.  Clamped to the grid.
+	 */
+	public int cellX( double x ) {
+		double c = (x - x0)/cellWidth;
+		if( c <= 0 )
+			return 0;
+		if( c >= cols-1 )
+			return cols-1;
+		return (int)c;
+	}
+
+	/**
+	 * Returns the row a coordinate belongs in.  Clamped to the grid.
+	 */
+	public int cellY( double y ) {
+		double c = (y - y0)/cellHeight;
+		if( c <= 0 )
+			return 0;
+		if( c >= rows-1 )
+			return rows-1;
+		return (int)c;
+	}
+
+	public int getCols() {
+		return cols;
+	}
+
+	public int getRows() {
+		return rows;
+	}
+
+	public double getCellWidth() {
+		return cellWidth;
+	}
+
+	public double getCellHeight() {
+		return cellHeight;
+	}
+}
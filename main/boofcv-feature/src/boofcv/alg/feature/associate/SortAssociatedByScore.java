@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.AssociatedIndex;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Sorts associated features by their fit score, from best to worst.  Since a lower score is always better
+ * the matches end up in ascending order.  This is the ordering required by PROSAC style robust estimators,
+ * which sample the highest quality matches first.
+ *
+ * @author Peter Abeles
+ */
+public class SortAssociatedByScore {
+
+	private static final Comparator<AssociatedIndex> COMPARATOR = new Comparator<AssociatedIndex>() {
+		@Override
+		public int compare(AssociatedIndex a, AssociatedIndex b) {
+			return Double.compare(a.fitScore, b.fitScore);
+		}
+	};
+
+	/**
+	 * Sorts the matches in place.  Matches with the same score keep their relative order.
+	 *
+	 * @param matches List of matches which is modified
+	 */
+	public static void sort( FastQueue<AssociatedIndex> matches ) {
+		Arrays.sort(matches.data, 0, matches.size, COMPARATOR);
+	}
+}
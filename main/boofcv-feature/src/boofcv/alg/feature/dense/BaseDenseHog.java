@@ -191,6 +191,13 @@ public abstract class BaseDenseHog<I extends ImageBase<I>> {
 	}
 
 	public TupleDesc_F64 createDescription() {
-		return new TupleDesc_F64(orientationBins* cellsPerBlockX * cellsPerBlockY);
+		return new TupleDesc_F64(getDescriptorLength());
+	}
+
+	/**
+	 * Number of elements in a descriptor
+	 */
+	public int getDescriptorLength() {
+		return orientationBins* cellsPerBlockX * cellsPerBlockY;
 	}
 }
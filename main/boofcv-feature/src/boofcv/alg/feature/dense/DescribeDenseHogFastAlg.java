@@ -25,6 +25,9 @@ import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 import georegression.metric.UtilAngle;
 import georegression.misc.GrlConstants;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
 
 import java.util.Arrays;
 import java.util.List;
@@ -54,6 +57,13 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	Cell cells[] = new Cell[0];
 	// number of cell rows and columns in the image
 	int cellRows,cellCols;
+	// number of rows and columns of blocks which a descriptor is computed for
+	int blockRows,blockCols;
+
+	// all the descriptors packed into a single array.  This is where descriptors are computed and stored
+	GrowQueue_F32 descriptionsPacked = new GrowQueue_F32();
+	// true if the list of descriptions is a copy of the current contents of the packed array
+	boolean descriptionsCurrent = true;
 
 	/**
 	 * Configures HOG descriptor computation
@@ -76,23 +86,47 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	 */
 	@Override
 	public void process() {
-		locations.reset();
-		descriptions.reset();
-
 		// see if the cell array needs to grow for this image.  Recycle data when growing
 		growCellArray(derivX.width, derivX.height);
 
 		computeCellHistograms();
 
+		declareDescriptors();
+
+		computeDescriptors(0, blockRows);
+	}
+
+	/**
+	 * Computes the number of blocks and resizes the packed array of descriptors and list of locations so that
+	 * there is one element for each block
+	 */
+	void declareDescriptors() {
 		int cellRowMax = (cellRows - (cellsPerBlockY -1));
 		int cellColMax = (cellCols - (cellsPerBlockX -1));
 
-		for (int i = 0; i < cellRowMax; i += stepBlock) {
-			for (int j = 0; j < cellColMax; j += stepBlock) {
-				computeDescriptor(i,j);
+		blockRows = cellRowMax <= 0 ? 0 : (cellRowMax + stepBlock - 1)/stepBlock;
+		blockCols = cellColMax <= 0 ? 0 : (cellColMax + stepBlock - 1)/stepBlock;
+
+		locations.resize(blockRows*blockCols);
+		descriptionsPacked.resize(blockRows*blockCols*getDescriptorLength());
+		descriptionsCurrent = false;
+	}
+
+	/**
+	 * Computes the descriptor for every block in the specified rows of blocks and writes it into the packed
+	 * array.  Must call {@link #declareDescriptors()} first.
+	 *
+	 * @param blockRow0 First row of blocks, inclusive
+	 * @param blockRow1 Last row of blocks, exclusive
+	 */
+	void computeDescriptors( int blockRow0 , int blockRow1 ) {
+		int length = getDescriptorLength();
+		for (int i = blockRow0; i < blockRow1; i++) {
+			int index = i*blockCols;
+			for (int j = 0; j < blockCols; j++, index++) {
+				computeDescriptor(i*stepBlock, j*stepBlock, index*length, locations.get(index));
 			}
 		}
-
 	}
 
 	/**
@@ -132,6 +166,7 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 		int gridX1 = pixelX1/ pixelsPerCell - cellsPerBlockX;
 		int gridY1 = pixelY1/ pixelsPerCell - cellsPerBlockY;
 
+		FastQueue<TupleDesc_F64> descriptions = getDescriptions();
 		for (int y = gridY0; y <= gridY1; y++) {
 			int index = y*cellCols + gridX0;
 			for (int x = gridX0; x <= gridX1; x++ ) {
@@ -146,39 +181,62 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 	 * @param col Lower extent of cell columns
 	 */
 	void computeDescriptor(int row, int col) {
-		// set location to top-left pixel
-		locations.grow().set(col* pixelsPerCell,row* pixelsPerCell);
+		int offset = descriptionsPacked.size;
+		for (int i = 0; i < getDescriptorLength(); i++) {
+			descriptionsPacked.add(0);
+		}
+		descriptionsCurrent = false;
+		computeDescriptor(row, col, offset, locations.grow());
+	}
 
-		TupleDesc_F64 d = descriptions.grow();
+	/**
+	 * Compute the descriptor from the specified cells and writes the results into the packed array.
+	 *
+	 * @param offset Index in the packed array of the descriptor's first element
+	 */
+	void computeDescriptor(int row, int col, int offset, Point2D_I32 location) {
+		// set location to top-left pixel
+		location.set(col* pixelsPerCell,row* pixelsPerCell);
 
-		int indexDesc = 0;
+		float[] d = descriptionsPacked.data;
+		int indexDesc = offset;
 		for (int i = 0; i < cellsPerBlockY; i++) {
 			for (int j = 0; j < cellsPerBlockX; j++) {
 				Cell c = cells[(row+i)*cellCols + (col+j)];
 
 				for (int k = 0; k < c.histogram.length; k++) {
-					d.value[indexDesc++] = c.histogram[k];
+					d[indexDesc++] = c.histogram[k];
 				}
 			}
 		}
 
 		// Apply SIFT style L2-Hys normalization
-		DescribeSiftCommon.normalizeDescriptor(d,0.2);
+		DescribeSiftCommon.normalizeDescriptor(d,offset,getDescriptorLength(),0.2);
 	}
 
 	/**
 	 * Compute histograms for all the cells inside the image using precomputed derivative.
-
 	 */
 	void computeCellHistograms() {
+		computeCellHistograms(0, cellRows);
+	}
+
+	/**
+	 * Compute histograms for the cells in the specified rows using precomputed derivative.  Each cell is
+	 * only written to by the pixels inside of it.
+	 *
+	 * @param cellRow0 First row of cells, inclusive
+	 * @param cellRow1 Last row of cells, exclusive
+	 */
+	void computeCellHistograms( int cellRow0 , int cellRow1 ) {
 
 		int width = cellCols* pixelsPerCell;
-		int height = cellRows* pixelsPerCell;
+		int height = cellRow1* pixelsPerCell;
 
 		float angleBinSize = GrlConstants.F_PI/orientationBins;
 
-		int indexCell = 0;
-		for (int i = 0; i < height; i += pixelsPerCell) {
+		int indexCell = cellRow0*cellCols;
+		for (int i = cellRow0*pixelsPerCell; i < height; i += pixelsPerCell) {
 			for (int j = 0; j < width; j += pixelsPerCell, indexCell++ ) {
 				Cell c = cells[indexCell];
 				c.reset();
@@ -220,6 +278,44 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 		return cellCols;
 	}
 
+	public int getBlockRows() {
+		return blockRows;
+	}
+
+	public int getBlockCols() {
+		return blockCols;
+	}
+
+	/**
+	 * List of descriptors.  Descriptors are stored in the {@link #getDescriptionsPacked() packed array} and this
+	 * list is only filled in with a copy of them the first time it's requested after {@link #process()}.
+	 */
+	@Override
+	public FastQueue<TupleDesc_F64> getDescriptions() {
+		if( !descriptionsCurrent ) {
+			int length = getDescriptorLength();
+			int total = descriptionsPacked.size/length;
+			descriptions.resize(total);
+			for (int i = 0; i < total; i++) {
+				double[] value = descriptions.get(i).value;
+				int offset = i*length;
+				for (int j = 0; j < length; j++) {
+					value[j] = descriptionsPacked.data[offset+j];
+				}
+			}
+			descriptionsCurrent = true;
+		}
+		return descriptions;
+	}
+
+	/**
+	 * Returns all the descriptors packed into a single array.  The descriptor for block (row,col) starts at
+	 * element (row*blockCols + col)*{@link #getDescriptorLength()}.
+	 */
+	public GrowQueue_F32 getDescriptionsPacked() {
+		return descriptionsPacked;
+	}
+
 	public Cell getCell( int row , int col ) {
 		return cells[row*cellCols + col];
 	}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseHogFastAlg}.  Cell histograms are computed in bands of cell
+ * rows, since each cell only depends on the pixels inside of it.  Once all the histograms are known, each band
+ * of block rows is normalized in its own thread and written directly into its slice of the
+ * {@link #getDescriptionsPacked() packed array}.
+ * Results are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeDenseHogFastAlg_MT<Input extends ImageBase<Input>> extends DescribeDenseHogFastAlg<Input> {
+
+	// minimum number of rows of cells or blocks in a band
+	int minBlockRows = 2;
+
+	/**
+	 * @see DescribeDenseHogFastAlg#DescribeDenseHogFastAlg
+	 */
+	public DescribeDenseHogFastAlg_MT(int orientationBins, int pixelsPerCell, int cellsPerBlockX, int cellsPerBlockY,
+									  int stepBlock, ImageType<Input> imageType) {
+		super(orientationBins, pixelsPerCell, cellsPerBlockX, cellsPerBlockY, stepBlock, imageType);
+	}
+
+	@Override
+	public void process() {
+		growCellArray(derivX.width, derivX.height);
+
+		BoofConcurrency.loopBlocks(0, cellRows, minBlockRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int row0, int row1) {
+				computeCellHistograms(row0, row1);
+			}
+		});
+
+		declareDescriptors();
+
+		BoofConcurrency.loopBlocks(0, blockRows, minBlockRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int row0, int row1) {
+				computeDescriptors(row0, row1);
+			}
+		});
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
@@ -30,6 +30,9 @@ import boofcv.struct.image.ImageGray;
 import georegression.metric.UtilAngle;
 import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F32;
+
+import java.util.Arrays;
 
 /**
  * <p>Computes {@link DescribePointSift SIFT} features in a regular grid across an entire image at a single
@@ -53,8 +56,12 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 	// wrapper around gradient images so that multiple types are supported
 	GImageGray imageDerivX,imageDerivY;
 
-	// storage for descriptors
+	// all the descriptors packed into a single array.  This is where descriptors are computed and stored
+	GrowQueue_F32 descriptorsPacked = new GrowQueue_F32();
+	// copy of the packed descriptors, only filled in when requested
 	FastQueue<TupleDesc_F64> descriptors;
+	// true if the list of descriptors is a copy of the current contents of the packed array
+	boolean descriptorsCurrent = true;
 
 	// storage for precomputed angle
 	GrayF64 savedAngle = new GrayF64(1,1);
@@ -63,6 +70,10 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 	// saved location of where in the image it sampled
 	FastQueue<Point2D_I32> sampleLocations = new FastQueue<>(Point2D_I32.class, true);
 
+	// extent of the sampling region and number of samples along each axis
+	int X0,X1,Y0,Y1;
+	int numX,numY;
+
 	/**
 	 * Specifies SIFT descriptor structure and sampling frequency.
 	 * @param widthSubregion Width of sub-region in samples.  Try 4
@@ -118,29 +129,48 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 	 * Computes SIFT descriptors across the entire image
 	 */
 	public void process() {
+		declareSamples();
+
+		computeDescriptors(0, numY);
+	}
 
+	/**
+	 * Computes the sampling grid and resizes the packed array of descriptors and list of locations so that
+	 * there is one element for each sample point
+	 */
+	void declareSamples() {
 		int width = widthSubregion*widthGrid;
 		int radius = width/2;
 
-		int X0 = radius,X1 = savedAngle.width-radius;
-		int Y0 = radius,Y1 = savedAngle.height-radius;
+		X0 = radius;X1 = savedAngle.width-radius;
+		Y0 = radius;Y1 = savedAngle.height-radius;
 
-		int numX = (int)((X1-X0)/periodColumns);
-		int numY = (int)((Y1-Y0)/periodRows);
+		numX = (int)((X1-X0)/periodColumns);
+		numY = (int)((Y1-Y0)/periodRows);
 
-		descriptors.reset();
-		sampleLocations.reset();
+		descriptorsPacked.resize(numX*numY*getDescriptorLength());
+		descriptorsCurrent = false;
+		sampleLocations.resize(numX*numY);
+	}
 
-		for (int i = 0; i < numY; i++) {
+	/**
+	 * Computes the descriptors for the specified rows in the sampling grid and writes them into the packed array.
+	 * Must call {@link #declareSamples()} first.
+	 *
+	 * @param row0 First row in the grid, inclusive
+	 * @param row1 Last row in the grid, exclusive
+	 */
+	void computeDescriptors( int row0 , int row1 ) {
+		int length = getDescriptorLength();
+		for (int i = row0; i < row1; i++) {
 			int y = (Y1-Y0)*i/(numY-1) + Y0;
+			int index = i*numX;
 
-			for (int j = 0; j < numX; j++) {
+			for (int j = 0; j < numX; j++, index++) {
 				int x = (X1-X0)*j/(numX-1) + X0;
 
-				TupleDesc_F64 desc = descriptors.grow();
-
-				computeDescriptor(x,y,desc);
-				sampleLocations.grow().set(x,y);
+				computeDescriptor(x,y,descriptorsPacked.data,index*length);
+				sampleLocations.get(index).set(x,y);
 			}
 		}
 	}
@@ -149,8 +179,18 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 	 * Computes the angle of each pixel and its gradient magnitude
 	 */
 	void precomputeAngles(D image) {
-		int savecIndex = 0;
-		for (int y = 0; y < image.height; y++) {
+		precomputeAngles(image, 0, image.height);
+	}
+
+	/**
+	 * Computes the angle and gradient magnitude of each pixel in the specified rows
+	 *
+	 * @param y0 First row, inclusive
+	 * @param y1 Last row, exclusive
+	 */
+	void precomputeAngles(D image, int y0 , int y1 ) {
+		int savecIndex = y0*image.width;
+		for (int y = y0; y < y1; y++) {
 			int pixelIndex = y*image.stride + image.startIndex;
 
 			for (int x = 0; x < image.width; x++, pixelIndex++, savecIndex++ ) {
@@ -197,6 +237,42 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 		normalizeDescriptor(desc,maxDescriptorElementValue);
 	}
 
+	/**
+	 * Computes the descriptor centered at the specified coordinate and writes it into a slice of an array
+	 * @param cx center of region x-axis
+	 * @param cy center of region y-axis
+	 * @param desc Array the descriptor is written into
+	 * @param offset Index of the descriptor's first element in the array
+	 */
+	public void computeDescriptor( int cx , int cy , float[] desc , int offset ) {
+
+		int length = getDescriptorLength();
+		Arrays.fill(desc,offset,offset+length,0);
+
+		int widthPixels = widthSubregion*widthGrid;
+		int radius = widthPixels/2;
+
+		for (int i = 0; i < widthPixels; i++) {
+			int angleIndex = (cy-radius+i)*savedAngle.width + (cx-radius);
+
+			float subY = i/(float)widthSubregion;
+
+			for (int j = 0; j < widthPixels; j++, angleIndex++ ) {
+				float subX = j/(float)widthSubregion;
+
+				double angle = savedAngle.data[angleIndex];
+
+				float weightGaussian = gaussianWeight[i*widthPixels+j];
+				float weightGradient = savedMagnitude.data[angleIndex];
+
+				// trilinear interpolation intro descriptor
+				trilinearInterpolation(weightGaussian*weightGradient,subX,subY,angle,desc,offset);
+			}
+		}
+
+		normalizeDescriptor(desc,offset,length,maxDescriptorElementValue);
+	}
+
 	public double getPeriodRows() {
 		return periodRows;
 	}
@@ -213,10 +289,35 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 		this.periodColumns = periodColumns;
 	}
 
+	/**
+	 * List of descriptors.  Descriptors are stored in the {@link #getDescriptorsPacked() packed array} and this
+	 * list is only filled in with a copy of them the first time it's requested after {@link #process()}.
+	 */
 	public FastQueue<TupleDesc_F64> getDescriptors() {
+		if( !descriptorsCurrent ) {
+			int length = getDescriptorLength();
+			int total = descriptorsPacked.size/length;
+			descriptors.resize(total);
+			for (int i = 0; i < total; i++) {
+				double[] value = descriptors.get(i).value;
+				int offset = i*length;
+				for (int j = 0; j < length; j++) {
+					value[j] = descriptorsPacked.data[offset+j];
+				}
+			}
+			descriptorsCurrent = true;
+		}
 		return descriptors;
 	}
 
+	/**
+	 * Returns all the descriptors packed into a single array.  Descriptor 'i' starts at element
+	 * i*{@link #getDescriptorLength()}.
+	 */
+	public GrowQueue_F32 getDescriptorsPacked() {
+		return descriptorsPacked;
+	}
+
 	/**
 	 * Returns where in the image it sampled the features
 	 */
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseSiftAlg}.  Pixel orientation and magnitude are computed in
+ * bands of image rows.  The sampling grid is then split into bands of rows and each band is described in its own
+ * thread, which writes into its own slice of the {@link #getDescriptorsPacked() packed array}.  Each descriptor
+ * is its own histogram and the saved orientation and magnitude images are only read from, so the threads share
+ * no writable data.  Results are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeDenseSiftAlg_MT<D extends ImageGray<D>> extends DescribeDenseSiftAlg<D> {
+
+	// minimum number of image rows in a band when precomputing angles
+	int minBlockPixelRows = 20;
+	// minimum number of rows in the sampling grid in a band
+	int minBlockSampleRows = 2;
+
+	/**
+	 * @see DescribeDenseSiftAlg#DescribeDenseSiftAlg
+	 */
+	public DescribeDenseSiftAlg_MT(int widthSubregion, int widthGrid, int numHistogramBins,
+								   double weightingSigmaFraction, double maxDescriptorElementValue,
+								   double periodColumns, double periodRows, Class<D> derivType) {
+		super(widthSubregion, widthGrid, numHistogramBins, weightingSigmaFraction, maxDescriptorElementValue,
+				periodColumns, periodRows, derivType);
+	}
+
+	@Override
+	public void process() {
+		declareSamples();
+
+		BoofConcurrency.loopBlocks(0, numY, minBlockSampleRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int row0, int row1) {
+				computeDescriptors(row0, row1);
+			}
+		});
+	}
+
+	@Override
+	void precomputeAngles(final D image) {
+		BoofConcurrency.loopBlocks(0, image.height, minBlockPixelRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int y0, int y1) {
+				precomputeAngles(image, y0, y1);
+			}
+		});
+	}
+
+	public int getMinBlockPixelRows() {
+		return minBlockPixelRows;
+	}
+
+	public void setMinBlockPixelRows(int minBlockPixelRows) {
+		this.minBlockPixelRows = minBlockPixelRows;
+	}
+
+	public int getMinBlockSampleRows() {
+		return minBlockSampleRows;
+	}
+
+	public void setMinBlockSampleRows(int minBlockSampleRows) {
+		this.minBlockSampleRows = minBlockSampleRows;
+	}
+}
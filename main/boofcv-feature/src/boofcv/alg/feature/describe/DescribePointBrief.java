@@ -76,6 +76,16 @@ public class DescribePointBrief<T extends ImageGray<T>> {
 		describe.setImage(image);
 	}
 
+	/**
+	 * Uses the image which was processed by a different instance with the same configuration instead of
+	 * blurring the image again.  Nothing in the source is modified.
+	 *
+	 * @param source Instance which has already processed the image.
+	 */
+	public void shareImage( DescribePointBrief<T> source ) {
+		describe.setImage(source.describe.image);
+	}
+
 	/**
 	 * Computes the descriptor at the specified point.  If the region go outside of the image then a description
 	 * will not be made.
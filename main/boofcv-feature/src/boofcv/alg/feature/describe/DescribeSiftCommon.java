@@ -97,6 +97,48 @@ public class DescribeSiftCommon {
 		UtilFeature.normalizeL2(descriptor);
 	}
 
+	/**
+	 * Same as {@link #normalizeDescriptor(TupleDesc_F64, double)} but for a descriptor which is stored inside
+	 * of a larger array.
+	 *
+	 * @param descriptor Array containing the descriptor
+	 * @param offset Index of the descriptor's first element
+	 * @param length Number of elements in the descriptor
+	 */
+	public static void normalizeDescriptor( float[] descriptor , int offset , int length ,
+											double maxDescriptorElementValue ) {
+		int end = offset + length;
+
+		// normalize descriptor to unit length
+		normalizeL2(descriptor, offset, end);
+
+		// clip the values
+		float maxValue = (float)maxDescriptorElementValue;
+		for (int i = offset; i < end; i++) {
+			if( descriptor[i] > maxValue ) {
+				descriptor[i] = maxValue;
+			}
+		}
+
+		// normalize again
+		normalizeL2(descriptor, offset, end);
+	}
+
+	private static void normalizeL2( float[] descriptor , int offset , int end ) {
+		double norm = 0;
+		for (int i = offset; i < end; i++) {
+			double v = descriptor[i];
+			norm += v*v;
+		}
+		if( norm == 0 )
+			return;
+
+		norm = Math.sqrt(norm);
+		for (int i = offset; i < end; i++) {
+			descriptor[i] = (float)(descriptor[i]/norm);
+		}
+	}
+
 	/**
 	 * Creates a gaussian weighting kernel with an even number of elements along its width
 	 */
@@ -130,6 +172,31 @@ public class DescribeSiftCommon {
 		}
 	}
 
+	/**
+	 * Same as {@link #trilinearInterpolation(float, float, float, double, TupleDesc_F64)} but for a descriptor
+	 * which is stored inside of a larger array, starting at element 'offset'.
+	 */
+	protected void trilinearInterpolation( float weight , float sampleX , float sampleY , double angle ,
+										   float[] descriptor , int offset )
+	{
+		for (int i = 0; i < widthGrid; i++) {
+			double weightGridY = 1.0 - Math.abs(sampleY-i);
+			if( weightGridY <= 0) continue;
+			for (int j = 0; j < widthGrid; j++) {
+				double weightGridX = 1.0 - Math.abs(sampleX-j);
+				if( weightGridX <= 0 ) continue;
+				for (int k = 0; k < numHistogramBins; k++) {
+					double angleBin = k*histogramBinWidth;
+					double weightHistogram = 1.0 - UtilAngle.dist(angle,angleBin)/histogramBinWidth;
+					if( weightHistogram <= 0 ) continue;
+
+					int descriptorIndex = offset + (i*widthGrid + j)*numHistogramBins + k;
+					descriptor[descriptorIndex] += weight*weightGridX*weightGridY*weightHistogram;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Number of elements in the descriptor.
 	 */
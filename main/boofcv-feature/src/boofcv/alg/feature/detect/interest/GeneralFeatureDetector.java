@@ -106,7 +106,18 @@ public class GeneralFeatureDetector<I extends ImageGray<I>, D extends ImageGray<
 	 */
 	public void process(I image, D derivX, D derivY, D derivXX, D derivYY, D derivXY) {
 		intensity.process(image, derivX, derivY, derivXX, derivYY, derivXY);
-		GrayF32 intensityImage = intensity.getIntensity();
+		process(intensity);
+	}
+
+	/**
+	 * Detects features using a feature intensity which has already processed the image.  It must have the same
+	 * configuration as the intensity passed into the constructor but can be a different instance, which allows
+	 * the intensity to be computed in a different thread.  Excluded pixels are marked in its intensity image.
+	 *
+	 * @param computed Feature intensity which has already processed the image.
+	 */
+	public void process( GeneralFeatureIntensity<I, D> computed ) {
+		GrayF32 intensityImage = computed.getIntensity();
 
 		int numSelectMin = -1;
 		int numSelectMax = -1;
@@ -137,8 +148,8 @@ public class GeneralFeatureDetector<I extends ImageGray<I>, D extends ImageGray<
 
 		foundMinimum.reset();
 		foundMaximum.reset();
-		if (intensity.hasCandidates()) {
-			extractor.process(intensityImage, intensity.getCandidatesMin(), intensity.getCandidatesMax(),foundMinimum, foundMaximum);
+		if (computed.hasCandidates()) {
+			extractor.process(intensityImage, computed.getCandidatesMin(), computed.getCandidatesMax(),foundMinimum, foundMaximum);
 		} else {
 			extractor.process(intensityImage, null, null,foundMinimum, foundMaximum);
 		}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.InputSanityCheck;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.*;
+import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HoughTransformLineFootOfNorm}.  The input image is split into bands of rows
+ * and each band votes into its own integer accumulator.  The accumulators are then summed into the transform
+ * image and candidates are selected from the total.  The transform is identical to the single threaded version
+ * and the same set of candidates is found, but they are ordered by row.
+ * </p>
+ *
+ * <p>
+ * Each thread has an accumulator which is the same size as the input image.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HoughTransformLineFootOfNorm_MT extends HoughTransformLineFootOfNorm {
+
+	// Minimum number of rows in each band
+	int minBlockRows = 10;
+
+	// vote accumulator for each band
+	FastQueue<GrowQueue_I32> accumulators = new FastQueue<>(GrowQueue_I32.class,true);
+	// candidates found in each band of the transform while summing
+	FastQueue<QueueCorner> bandCandidates = new FastQueue<>(QueueCorner.class,true);
+
+	/**
+	 * @see HoughTransformLineFootOfNorm#HoughTransformLineFootOfNorm
+	 */
+	public HoughTransformLineFootOfNorm_MT(NonMaxSuppression extractor, int minDistanceFromOrigin) {
+		super(extractor, minDistanceFromOrigin);
+	}
+
+	@Override
+	public <D extends ImageGray<D>> void transform(final D derivX, final D derivY, final GrayU8 binary) {
+		InputSanityCheck.checkSameShape(derivX,derivY,binary);
+
+		if( !(derivX instanceof GrayF32 || derivX instanceof GrayS16 || derivX instanceof GrayS32) )
+			throw new IllegalArgumentException("Unsupported derivative image type: "+derivX.getClass().getSimpleName());
+
+		transform.reshape(derivX.width,derivY.height);
+
+		originX = derivX.width/2;
+		originY = derivX.height/2;
+		candidates.reset();
+
+		final int numBins = transform.width*transform.height;
+
+		BoofConcurrency.loopBlocks(0,binary.height,minBlockRows,accumulators,
+				new IntRangeObjectConsumer<GrowQueue_I32>() {
+			@Override
+			public void accept(GrowQueue_I32 counts, int y0, int y1) {
+				counts.resize(numBins);
+				Arrays.fill(counts.data,0,numBins,0);
+
+				if( derivX instanceof GrayF32)
+					vote((GrayF32)derivX,(GrayF32)derivY,binary,y0,y1,counts.data);
+				else if( derivX instanceof GrayS16)
+					vote((GrayS16)derivX,(GrayS16)derivY,binary,y0,y1,counts.data);
+				else
+					vote((GrayS32)derivX,(GrayS32)derivY,binary,y0,y1,counts.data);
+			}
+		});
+
+		// sum up the votes from each band.  A pixel with more than one vote is a candidate
+		BoofConcurrency.loopBlocks(0,transform.height,minBlockRows,bandCandidates,
+				new IntRangeObjectConsumer<QueueCorner>() {
+			@Override
+			public void accept(QueueCorner found, int row0, int row1) {
+				found.reset();
+				for( int row = row0; row < row1; row++ ) {
+					int indexCount = row*transform.width;
+					int indexOut = transform.startIndex + row*transform.stride;
+					for( int col = 0; col < transform.width; col++ , indexCount++ ) {
+						int total = 0;
+						for( int i = 0; i < accumulators.size; i++ ) {
+							total += accumulators.data[i].data[indexCount];
+						}
+						transform.data[indexOut++] = total;
+						if( total >= 2 )
+							found.add(col,row);
+					}
+				}
+			}
+		});
+
+		for( int i = 0; i < bandCandidates.size; i++ ) {
+			QueueCorner found = bandCandidates.get(i);
+			for( int j = 0; j < found.size; j++ ) {
+				Point2D_I16 p = found.get(j);
+				candidates.add(p.x,p.y);
+			}
+		}
+	}
+
+	/**
+	 * Same as {@link #parameterize(int, int, float, float)} but votes into an integer accumulator with no padding
+	 */
+	private void vote( int x , int y , float derivX , float derivY , int counts[] ) {
+		x -= originX;
+		y -= originY;
+
+		float v = (x*derivX + y*derivY)/(derivX*derivX + derivY*derivY);
+
+		int x0 = (int)(v*derivX) + originX;
+		int y0 = (int)(v*derivY) + originY;
+
+		if( transform.isInBounds(x0,y0)) {
+			counts[y0*transform.width + x0]++;
+		}
+	}
+
+	private void vote(GrayF32 derivX , GrayF32 derivY , GrayU8 binary , int y0 , int y1 , int counts[] )
+	{
+		for( int y = y0; y < y1; y++ ) {
+			int start = binary.startIndex + y*binary.stride;
+			int end = start + binary.width;
+
+			for( int index = start; index < end; index++ ) {
+				if( binary.data[index] != 0 ) {
+					int x = index-start;
+					vote(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y),counts);
+				}
+			}
+		}
+	}
+
+	private void vote(GrayS16 derivX , GrayS16 derivY , GrayU8 binary , int y0 , int y1 , int counts[] )
+	{
+		for( int y = y0; y < y1; y++ ) {
+			int start = binary.startIndex + y*binary.stride;
+			int end = start + binary.width;
+
+			for( int index = start; index < end; index++ ) {
+				if( binary.data[index] != 0 ) {
+					int x = index-start;
+					vote(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y),counts);
+				}
+			}
+		}
+	}
+
+	private void vote(GrayS32 derivX , GrayS32 derivY , GrayU8 binary , int y0 , int y1 , int counts[] )
+	{
+		for( int y = y0; y < y1; y++ ) {
+			int start = binary.startIndex + y*binary.stride;
+			int end = start + binary.width;
+
+			for( int index = start; index < end; index++ ) {
+				if( binary.data[index] != 0 ) {
+					int x = index-start;
+					vote(x,y,derivX.unsafe_get(x,y),derivY.unsafe_get(x,y),counts);
+				}
+			}
+		}
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
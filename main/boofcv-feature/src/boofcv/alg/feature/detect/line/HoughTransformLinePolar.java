@@ -82,6 +82,9 @@ public class HoughTransformLinePolar {
 
 	// lookup tables for sine and cosine functions
 	CachedSineCosine_F32 tableTrig;
+	// sine and cosine tables scaled into the range's bin units.  Avoids a division for every vote
+	double binCos[] = new double[0];
+	double binSin[] = new double[0];
 
 	/**
 	 * Specifies parameters of transform.  The minimum number of points specified in the extractor
@@ -93,9 +96,20 @@ public class HoughTransformLinePolar {
 	 */
 	public HoughTransformLinePolar(NonMaxSuppression extractor , int numBinsRange , int numBinsAngle) {
 		this.extractor = extractor;
-		transform.reshape(numBinsRange,numBinsAngle);
+		setNumberOfBins(numBinsRange, numBinsAngle);
+	}
 
-		tableTrig = new CachedSineCosine_F32(0,(float)Math.PI,numBinsAngle);
+	/**
+	 * Changes the number of bins in the transform.  Use this instead of creating a new instance when the
+	 * input image's shape changes.
+	 *
+	 * @param numBinsRange How many bins are be used for line range.
+	 * @param numBinsAngle How many bins are used for angle.
+	 */
+	public void setNumberOfBins( int numBinsRange , int numBinsAngle ) {
+		if( tableTrig == null || transform.height != numBinsAngle )
+			tableTrig = new CachedSineCosine_F32(0,(float)Math.PI,numBinsAngle);
+		transform.reshape(numBinsRange,numBinsAngle);
 	}
 
 	public int getNumBinsRange() {
@@ -115,9 +129,7 @@ public class HoughTransformLinePolar {
 	{
 		ImageMiscOps.fill(transform, 0);
 
-		originX = binary.width/2;
-		originY = binary.height/2;
-		r_max = Math.sqrt(originX*originX+originY*originY);
+		setupCoordinateSystem(binary.width, binary.height);
 
 		for( int y = 0; y < binary.height; y++ ) {
 			int start = binary.startIndex + y*binary.stride;
@@ -131,6 +143,30 @@ public class HoughTransformLinePolar {
 		}
 	}
 
+	/**
+	 * Selects the transform's origin and precomputes the trig tables used to compute the range bin of a vote
+	 *
+	 * @param width Input image width
+	 * @param height Input image height
+	 */
+	protected void setupCoordinateSystem( int width , int height ) {
+		originX = width/2;
+		originY = height/2;
+		r_max = Math.sqrt(originX*originX+originY*originY);
+
+		int numBinsAngle = transform.height;
+		if( binCos.length != numBinsAngle ) {
+			binCos = new double[ numBinsAngle ];
+			binSin = new double[ numBinsAngle ];
+		}
+
+		double scale = (transform.width/2)/r_max;
+		for( int i = 0; i < numBinsAngle; i++ ) {
+			binCos[i] = tableTrig.c[i]*scale;
+			binSin[i] = tableTrig.s[i]*scale;
+		}
+	}
+
 	/**
 	 * Searches for local maximas and converts into lines.
 	 *
@@ -202,10 +238,10 @@ public class HoughTransformLinePolar {
 		// The line's slope is encoded using the tangent angle.  Those bins are along the image's y-axis
 		for( int i = 0; i < transform.height; i++ ) {
 			// distance of closest point on line from a line defined by the point (x,y) and
-			// the tangent theta=PI*i/height
-			double p = x*tableTrig.c[i] + y*tableTrig.s[i];
+			// the tangent theta=PI*i/height.  Scaled into bin units
+			double p = x*binCos[i] + y*binSin[i];
 
-			int col = (int)Math.floor(p * w2 / r_max) + w2;
+			int col = (int)Math.floor(p) + w2;
 			int index = transform.startIndex + i*transform.stride + col;
 			transform.data[index]++;
 		}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HoughTransformLinePolar}.  The input image is split into bands of rows
+ * and each band votes into its own integer accumulator.  Once all the votes have been cast the accumulators
+ * are summed into the transform image.  Integer counts are used while voting since they are exact and
+ * faster to increment than floats.  The output is identical to the single threaded version.
+ * </p>
+ *
+ * <p>
+ * Each thread has an accumulator which is the same size as the transform.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HoughTransformLinePolar_MT extends HoughTransformLinePolar {
+
+	// Minimum number of rows in each band
+	int minBlockRows = 10;
+
+	// vote accumulator for each band
+	FastQueue<GrowQueue_I32> accumulators = new FastQueue<>(GrowQueue_I32.class,true);
+
+	/**
+	 * @see HoughTransformLinePolar#HoughTransformLinePolar
+	 */
+	public HoughTransformLinePolar_MT(NonMaxSuppression extractor, int numBinsRange, int numBinsAngle) {
+		super(extractor, numBinsRange, numBinsAngle);
+	}
+
+	@Override
+	public void transform( final GrayU8 binary ) {
+		setupCoordinateSystem(binary.width, binary.height);
+
+		final int numBins = transform.width*transform.height;
+
+		BoofConcurrency.loopBlocks(0,binary.height,minBlockRows,accumulators,
+				new IntRangeObjectConsumer<GrowQueue_I32>() {
+			@Override
+			public void accept(GrowQueue_I32 counts, int y0, int y1) {
+				counts.resize(numBins);
+				Arrays.fill(counts.data,0,numBins,0);
+
+				for( int y = y0; y < y1; y++ ) {
+					int start = binary.startIndex + y*binary.stride;
+					int stop = start + binary.width;
+
+					for( int index = start; index < stop; index++ ) {
+						if( binary.data[index] != 0 ) {
+							vote(index-start,y,counts.data);
+						}
+					}
+				}
+			}
+		});
+
+		// sum up the votes from each band
+		BoofConcurrency.loopBlocks(0,transform.height,1,new IntRangeConsumer() {
+			@Override
+			public void accept(int row0, int row1) {
+				for( int row = row0; row < row1; row++ ) {
+					int indexCount = row*transform.width;
+					int indexOut = transform.startIndex + row*transform.stride;
+					for( int col = 0; col < transform.width; col++ , indexCount++ ) {
+						int total = 0;
+						for( int i = 0; i < accumulators.size; i++ ) {
+							total += accumulators.data[i].data[indexCount];
+						}
+						transform.data[indexOut++] = total;
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Same as {@link #parameterize(int, int)} but votes into an integer accumulator with no padding
+	 */
+	private void vote( int x , int y , int counts[] ) {
+		x -= originX;
+		y -= originY;
+
+		int w2 = transform.width/2;
+
+		for( int i = 0; i < transform.height; i++ ) {
+			double p = x*binCos[i] + y*binSin[i];
+
+			int col = (int)Math.floor(p) + w2;
+			counts[i*transform.width + col]++;
+		}
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link BroxWarpingSpacial}.  The SOR iterations are done using a red-black
+ * ordering.  Pixels are colored like a checker board and all the red pixels are updated before the black pixels.
+ * The smoothness term only depends on the 4-connected neighbors, which are all the opposite color, so the
+ * pixels of one color can be updated at the same time.  The update order is different from the single threaded
+ * implementation, so the results will not be identical, but they are independent of the number of threads.
+ * </p>
+ *
+ * <p>
+ * Warping of the images and the other per-pixel computations are not concurrent.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BroxWarpingSpacial_MT<T extends ImageGray<T>> extends BroxWarpingSpacial<T> {
+
+	// minimum number of rows in a block
+	int minBlockRows = 10;
+
+	// SOR error for each row
+	float[] rowError = new float[0];
+
+	public BroxWarpingSpacial_MT(ConfigBroxWarping config, InterpolatePixelS<GrayF32> interp) {
+		super(config, interp);
+	}
+
+	@Override
+	protected float iterationSorImage(final GrayF32 image1, final GrayF32 deriv1X, final GrayF32 deriv1Y) {
+		if( rowError.length < image1.height )
+			rowError = new float[image1.height];
+
+		// update the red pixels then the black pixels
+		for( int color = 0; color < 2; color++ ) {
+			final int _color = color;
+			BoofConcurrency.loopBlocks(0, image1.height, minBlockRows, new IntRangeConsumer() {
+				@Override
+				public void accept(int y0, int y1) {
+					for( int y = y0; y < y1; y++ ) {
+						float error = iterationSorRow(image1, deriv1X, deriv1Y, y, _color);
+						if( _color == 0 )
+							rowError[y] = error;
+						else
+							rowError[y] += error;
+					}
+				}
+			});
+		}
+
+		// add up the error in a fixed order so that the results don't depend on the number of threads
+		float error = 0;
+		for( int y = 0; y < image1.height; y++ ) {
+			error += rowError[y];
+		}
+		return error;
+	}
+
+	/**
+	 * Performs an SOR iteration on pixels in row y which are of the specified color
+	 *
+	 * @param color 0 = pixels where x+y is even, 1 = pixels where x+y is odd
+	 */
+	protected float iterationSorRow(GrayF32 image1, GrayF32 deriv1X, GrayF32 deriv1Y, int y , int color ) {
+		int width = image1.width;
+		int stride = image1.stride;
+		boolean borderRow = y == 0 || y == image1.height-1;
+
+		float error = 0;
+		for( int x = (y + color) % 2; x < width; x += 2 ) {
+			if( borderRow || x == 0 || x == width-1 ) {
+				error += iterationSor(image1, deriv1X, deriv1Y,
+						s(x, y), s(x + 1, y), s(x - 1, y), s(x, y + 1), s(x, y - 1));
+			} else {
+				int i = y*width + x;
+				error += iterationSor(image1, deriv1X, deriv1Y, i, i + 1, i - 1, i + stride, i - stride);
+			}
+		}
+		return error;
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
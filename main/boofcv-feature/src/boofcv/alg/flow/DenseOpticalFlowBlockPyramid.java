@@ -71,10 +71,16 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageGray<T>> {
 	// flow in the current layer
 	protected ImageFlow flowCurrLayer = new ImageFlow(1,1);
 
-	protected ImageFlow.D tmp = new ImageFlow.D();
+	// flow for the region centered at each pixel
+	protected ImageFlow flowCenter = new ImageFlow(1,1);
 
 	// fit score for each pixel
 	protected float scores[] = new float[0];
+	// fit score of the region centered at each pixel
+	protected float scoresCenter[] = new float[0];
+
+	// score which indicates that a pixel wasn't processed because the previous layer had no valid hint
+	protected static final float NO_HINT = -1;
 
 	/**
 	 * Configures the search.
@@ -112,62 +118,46 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageGray<T>> {
 			T curr = pyramidCurr.getLayer(i);
 
 			flowCurrLayer.reshape(prev.width, prev.height);
+			flowCenter.reshape(prev.width, prev.height);
 
 			int N = prev.width*prev.height;
-			if( scores.length < N )
+			if( scores.length < N ) {
 				scores = new float[N];
+				scoresCenter = new float[N];
+			}
 			// mark all the scores as being very large so that if it has not been processed its score
 			// will be set inside of checkNeighbors.
 			Arrays.fill(scores,0,N,Float.MAX_VALUE);
 
+			// the top most layer in the pyramid has no hint.  All the other layers use the hint of the previous
+			// layer to start its search
+			ImageFlow hint = null;
+			double scale = 1;
+			if( i != numLayers-1 ) {
+				hint = flowPrevLayer;
+				scale = pyramidPrev.getScale(i+1)/pyramidPrev.getScale(i);
+			}
+
+			// find the best flow for the region centered at each pixel
+			findCenterFlow(prev,curr,hint,scale);
+
+			// see if the flow of each pixel is better explained by one of the regions its inside of.  This needs
+			// to be done in the same order each time to ensure ties are resolved consistently
 			int x1 = prev.width-regionRadius;
 			int y1 = prev.height-regionRadius;
-
-			if( i == numLayers-1 ) {
-				// the top most layer in the pyramid has no hint
-				for( int y = regionRadius; y < y1; y++ ) {
-					for( int x = regionRadius; x < x1; x++ ) {
-						extractTemplate(x,y,prev);
-						float score = findFlow(x,y,curr,tmp);
-
-						if( tmp.isValid() )
-							checkNeighbors(x,y,tmp, flowCurrLayer,score);
-						else
-							flowCurrLayer.unsafe_get(x, y).markInvalid();
-					}
-				}
-			} else {
-				// for all the other layers use the hint of the previous layer to start its search
-				double scale = pyramidPrev.getScale(i+1)/pyramidPrev.getScale(i);
-				for( int y = regionRadius; y < y1; y++ ) {
-					for( int x = regionRadius; x < x1; x++ ) {
-						// grab the flow in higher level pyramid
-						ImageFlow.D p = flowPrevLayer.get((int)(x/scale),(int)(y/scale));
-						if( !p.isValid() )
-							continue;
-
-						// get the template around the current point in this layer
-						extractTemplate(x,y,prev);
-
-						// add the flow from the higher layer (adjusting for scale and rounding) as the start of
-						// this search
-						int deltaX = (int)(p.x*scale+0.5);
-						int deltaY = (int)(p.y*scale+0.5);
-
-						int startX = x + deltaX;
-						int startY = y + deltaY;
-
-						float score = findFlow(startX,startY,curr,tmp);
-
-						// find flow only does it relative to the starting point
-						tmp.x += deltaX;
-						tmp.y += deltaY;
-
-						if( tmp.isValid() )
-							checkNeighbors(x,y,tmp, flowCurrLayer,score);
-						else
-							flowCurrLayer.unsafe_get(x,y).markInvalid();
-					}
+			for( int y = regionRadius; y < y1; y++ ) {
+				for( int x = regionRadius; x < x1; x++ ) {
+					int index = y*prev.width + x;
+					float score = scoresCenter[index];
+					if( score == NO_HINT )
+						continue;
+
+					ImageFlow.D flow = flowCenter.data[index];
+
+					if( flow.isValid() )
+						checkNeighbors(x,y,flow, flowCurrLayer,score);
+					else
+						flowCurrLayer.data[index].markInvalid();
 				}
 			}
 
@@ -178,6 +168,67 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageGray<T>> {
 		}
 	}
 
+	/**
+	 * Finds the flow and score of the region centered around every pixel which is far enough away from the
+	 * image border.
+	 *
+	 * @param prev Previous image
+	 * @param curr Current image
+	 * @param hint Flow in the previous layer which is used to start the search. null if there is no hint.
+	 * @param scale Scale factor from the previous layer to this layer
+	 */
+	protected void findCenterFlow( T prev , T curr , ImageFlow hint , double scale ) {
+		findCenterFlow(prev, curr, hint, scale, regionRadius, prev.height-regionRadius, flowCenter, scoresCenter);
+	}
+
+	/**
+	 * Finds the flow and score of the region centered around pixels in rows y0 to y1-1.  Pixels without a valid
+	 * hint are marked with a score of {@link #NO_HINT}.
+	 *
+	 * @param centerFlow (Output) flow of the region centered at each pixel
+	 * @param centerScores (Output) score of the region centered at each pixel
+	 */
+	protected void findCenterFlow( T prev , T curr , ImageFlow hint , double scale , int y0 , int y1 ,
+								   ImageFlow centerFlow , float[] centerScores ) {
+		int x1 = prev.width-regionRadius;
+
+		for( int y = y0; y < y1; y++ ) {
+			for( int x = regionRadius; x < x1; x++ ) {
+				int index = y*prev.width + x;
+				ImageFlow.D flow = centerFlow.data[index];
+
+				if( hint == null ) {
+					extractTemplate(x,y,prev);
+					centerScores[index] = findFlow(x,y,curr,flow);
+				} else {
+					// grab the flow in higher level pyramid
+					ImageFlow.D p = hint.get((int)(x/scale),(int)(y/scale));
+					if( !p.isValid() ) {
+						centerScores[index] = NO_HINT;
+						continue;
+					}
+
+					// get the template around the current point in this layer
+					extractTemplate(x,y,prev);
+
+					// add the flow from the higher layer (adjusting for scale and rounding) as the start of
+					// this search
+					int deltaX = (int)(p.x*scale+0.5);
+					int deltaY = (int)(p.y*scale+0.5);
+
+					int startX = x + deltaX;
+					int startY = y + deltaY;
+
+					centerScores[index] = findFlow(startX,startY,curr,flow);
+
+					// find flow only does it relative to the starting point
+					flow.x += deltaX;
+					flow.y += deltaY;
+				}
+			}
+		}
+	}
+
 	/**
 	 * Performs an exhaustive search centered around (cx,cy) for the region in 'curr' which is the best
 	 * match for the template.  Results are written into 'flow'
@@ -250,6 +301,14 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageGray<T>> {
 		}
 	}
 
+	/**
+	 * Creates a new instance with the same configuration.  Internal work space is not shared.  Required by
+	 * {@link DenseOpticalFlowBlockPyramid_MT}, which uses a copy for each thread.  Not supported by default.
+	 */
+	public DenseOpticalFlowBlockPyramid<T> copy() {
+		throw new UnsupportedOperationException("Not supported by "+getClass().getSimpleName());
+	}
+
 	/**
 	 * Extracts a square template from the image 'prev' center at cx and cy
 	 */
@@ -276,6 +335,12 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageGray<T>> {
 			super(searchRadius, regionRadius, maxPerPixelError,GrayU8.class);
 		}
 
+		@Override
+		public U8 copy() {
+			int w = regionRadius*2+1;
+			return new U8(searchRadius,regionRadius,maxError/(w*w));
+		}
+
 		@Override
 		protected void extractTemplate( int cx , int cy , GrayU8 prev ) {
 			int index = 0;
@@ -312,6 +377,12 @@ public abstract class DenseOpticalFlowBlockPyramid<T extends ImageGray<T>> {
 			super(searchRadius, regionRadius, maxPerPixelError,GrayF32.class);
 		}
 
+		@Override
+		public F32 copy() {
+			int w = regionRadius*2+1;
+			return new F32(searchRadius,regionRadius,maxError/(w*w));
+		}
+
 		@Override
 		protected void extractTemplate( int cx , int cy , GrayF32 prev ) {
 			int index = 0;
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DenseOpticalFlowBlockPyramid}.  The exhaustive search for the region
+ * centered at each pixel is split into bands of rows and each band is searched by its own copy of the algorithm.
+ * Updating the flow of pixels using the regions they belong to is done afterwards in a single thread and in the
+ * same order, making the results identical to the single threaded algorithm.
+ * </p>
+ *
+ * <p>
+ * Functions which operate on a single region are passed on to the algorithm provided in the constructor.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DenseOpticalFlowBlockPyramid_MT<T extends ImageGray<T>> extends DenseOpticalFlowBlockPyramid<T> {
+
+	// minimum number of rows in a band
+	int minBlockRows = 10;
+
+	// algorithm which templates and errors are computed by
+	DenseOpticalFlowBlockPyramid<T> alg;
+
+	// copy of the algorithm for each band
+	FastQueue<DenseOpticalFlowBlockPyramid<T>> workers;
+
+	/**
+	 * Specifies the algorithm which is to be run concurrently
+	 *
+	 * @param alg Single threaded algorithm.  A copy is created for each thread, so it must implement
+	 *            {@link DenseOpticalFlowBlockPyramid#copy()}.
+	 */
+	public DenseOpticalFlowBlockPyramid_MT(final DenseOpticalFlowBlockPyramid<T> alg) {
+		super(alg.searchRadius, alg.regionRadius, 0, alg.template.getImageType().getImageClass());
+		this.alg = alg;
+		this.maxError = alg.maxError;
+		this.template = alg.template;
+
+		workers = new FastQueue<DenseOpticalFlowBlockPyramid<T>>(1,(Class)DenseOpticalFlowBlockPyramid.class,true) {
+			@Override
+			protected DenseOpticalFlowBlockPyramid<T> createInstance() {
+				return alg.copy();
+			}
+		};
+	}
+
+	@Override
+	protected void findCenterFlow(final T prev, final T curr, final ImageFlow hint, final double scale) {
+		BoofConcurrency.loopBlocks(regionRadius, prev.height - regionRadius, minBlockRows, workers,
+				new IntRangeObjectConsumer<DenseOpticalFlowBlockPyramid<T>>() {
+			@Override
+			public void accept(DenseOpticalFlowBlockPyramid<T> worker, int y0, int y1) {
+				worker.findCenterFlow(prev, curr, hint, scale, y0, y1, flowCenter, scoresCenter);
+			}
+		});
+	}
+
+	@Override
+	public DenseOpticalFlowBlockPyramid<T> copy() {
+		return new DenseOpticalFlowBlockPyramid_MT<>(alg.copy());
+	}
+
+	@Override
+	protected void extractTemplate(int cx, int cy, T prev) {
+		alg.extractTemplate(cx, cy, prev);
+	}
+
+	@Override
+	protected float computeError(int cx, int cy, T curr) {
+		return alg.computeError(cx, cy, curr);
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
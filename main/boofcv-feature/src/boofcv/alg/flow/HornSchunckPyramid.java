@@ -48,10 +48,10 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 		extends DenseFlowPyramidBase<T>
 {
 	// used to weight the error of image brightness and smoothness of velocity flow
-	private float alpha2;
+	protected float alpha2;
 
 	// relaxation parameter for SOR  0 < w < 2.  Recommended default is 1.9
-	private float SOR_RELAXATION;
+	protected float SOR_RELAXATION;
 
 	// number of warps for outer loop
 	private int numWarps;
@@ -220,9 +220,6 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 	 */
 	protected void processLayer(GrayF32 image1 , GrayF32 image2 , GrayF32 derivX2 , GrayF32 derivY2) {
 
-		float w = SOR_RELAXATION;
-		float uf,vf;
-
 		// outer Taylor expansion iterations
 		for( int warp = 0; warp < numWarps; warp++ ) {
 
@@ -238,61 +235,82 @@ public class HornSchunckPyramid<T extends ImageGray<T>>
 
 			do {
 				// inner SOR iteration.
-				error = 0;
+				error = iterationSor(image1);
+			} while( error > convergeTolerance*image1.width*image1.height && ++iter < maxInnerIterations);
+		}
+	}
 
-				// inner portion
-				for( int y = 1; y < image1.height-1; y++ ) {
-					int pixelIndex = y*image1.width+1;
-					for (int x = 1; x < image1.width-1; x++, pixelIndex++ ) {
-						// could speed this up a bit more by precomputing the constant portion before the do-while loop
-						float ui = initFlowX.data[pixelIndex];
-						float vi = initFlowY.data[pixelIndex];
+	/**
+	 * Performs a single SOR iteration across the whole image
+	 *
+	 * @return Sum of the squared change in flow
+	 */
+	protected float iterationSor(GrayF32 image1) {
+		float error = 0;
+
+		// inner portion
+		for( int y = 1; y < image1.height-1; y++ ) {
+			int pixelIndex = y*image1.width+1;
+			for (int x = 1; x < image1.width-1; x++, pixelIndex++ ) {
+				error += iterationSorInner(image1,x,y,pixelIndex);
+			}
+		}
 
-						float u = flowX.data[pixelIndex];
-						float v = flowY.data[pixelIndex];
+		// border regions require special treatment
+		int pixelIndex0 = 0;
+		int pixelIndex1 = (image1.height-1)*image1.width;
+		for (int x = 0; x < image1.width; x++ ) {
+			error += iterationSorSafe(image1,x,0,pixelIndex0++);
+			error += iterationSorSafe(image1,x,image1.height-1,pixelIndex1++);
+		}
 
-						float I1 = image1.data[pixelIndex];
-						float I2 = warpImage2.data[pixelIndex];
+		pixelIndex0 = image1.width;
+		pixelIndex1 = image1.width + image1.width-1;
+		for( int y = 1; y < image1.height-1; y++ ) {
+			error += iterationSorSafe(image1,0,y,pixelIndex0);
+			error += iterationSorSafe(image1,image1.width-1,y,pixelIndex1);
 
-						float I2x = warpDeriv2X.data[pixelIndex];
-						float I2y = warpDeriv2Y.data[pixelIndex];
+			pixelIndex0 += image1.width;
+			pixelIndex1 += image1.width;
+		}
 
-						float AU = A(x,y,flowX);
-						float AV = A(x,y,flowY);
+		return error;
+	}
 
-						flowX.data[pixelIndex] = uf = (1-w)*u + w*((I1-I2+I2x*ui - I2y*(v-vi))*I2x + alpha2*AU)/(I2x*I2x + alpha2);
-						flowY.data[pixelIndex] = vf = (1-w)*v + w*((I1-I2+I2y*vi - I2x*(uf-ui))*I2y + alpha2*AV)/(I2y*I2y + alpha2);
+	/**
+	 * SOR iteration for inner pixels
+	 */
+	protected float iterationSorInner(GrayF32 image1, int x, int y, int pixelIndex) {
+		float w = SOR_RELAXATION;
 
-						error += (uf - u)*(uf - u) + (vf - v)*(vf - v);
-					}
-				}
+		float uf,vf;
 
-				// border regions require special treatment
-				int pixelIndex0 = 0;
-				int pixelIndex1 = (image1.height-1)*image1.width;
-				for (int x = 0; x < image1.width; x++ ) {
-					error += iterationSorSafe(image1,x,0,pixelIndex0++);
-					error += iterationSorSafe(image1,x,image1.height-1,pixelIndex1++);
-				}
+		// could speed this up a bit more by precomputing the constant portion before the do-while loop
+		float ui = initFlowX.data[pixelIndex];
+		float vi = initFlowY.data[pixelIndex];
 
-				pixelIndex0 = image1.width;
-				 pixelIndex1 = image1.width + image1.width-1;
-				for( int y = 1; y < image1.height-1; y++ ) {
-					error += iterationSorSafe(image1,0,y,pixelIndex0);
-					error += iterationSorSafe(image1,image1.width-1,y,pixelIndex1);
+		float u = flowX.data[pixelIndex];
+		float v = flowY.data[pixelIndex];
 
-					pixelIndex0 += image1.width;
-					pixelIndex1 += image1.width;
-				}
+		float I1 = image1.data[pixelIndex];
+		float I2 = warpImage2.data[pixelIndex];
 
-			} while( error > convergeTolerance*image1.width*image1.height && ++iter < maxInnerIterations);
-		}
+		float I2x = warpDeriv2X.data[pixelIndex];
+		float I2y = warpDeriv2Y.data[pixelIndex];
+
+		float AU = A(x,y,flowX);
+		float AV = A(x,y,flowY);
+
+		flowX.data[pixelIndex] = uf = (1-w)*u + w*((I1-I2+I2x*ui - I2y*(v-vi))*I2x + alpha2*AU)/(I2x*I2x + alpha2);
+		flowY.data[pixelIndex] = vf = (1-w)*v + w*((I1-I2+I2y*vi - I2x*(uf-ui))*I2y + alpha2*AV)/(I2y*I2y + alpha2);
+
+		return (uf - u)*(uf - u) + (vf - v)*(vf - v);
 	}
 
 	/**
 	 * SOR iteration for border pixels
 	 */
-	private float iterationSorSafe(GrayF32 image1, int x, int y, int pixelIndex) {
+	protected float iterationSorSafe(GrayF32 image1, int x, int y, int pixelIndex) {
 		float w = SOR_RELAXATION;
 
 		float uf;
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.factory.flow.ConfigHornSchunckPyramid;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link HornSchunckPyramid}.  The SOR iterations are done using a red-black ordering
+ * of rows.  First all the even rows are updated, then all the odd rows.  The smoothness term depends on the
+ * pixels in the rows above and below, so the rows of one color can be updated at the same time.  Pixels inside
+ * a row are updated in sequence.  The update order is different from the single threaded implementation, so the
+ * results will not be identical, but they are independent of the number of threads.
+ * </p>
+ *
+ * <p>
+ * Warping of the image and scaling of the flow between layers is not concurrent.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class HornSchunckPyramid_MT<T extends ImageGray<T>> extends HornSchunckPyramid<T> {
+
+	// minimum number of rows of the same color in a block
+	int minBlockRows = 10;
+
+	// SOR error for each row
+	float[] rowError = new float[0];
+
+	public HornSchunckPyramid_MT(ConfigHornSchunckPyramid config, InterpolatePixelS<GrayF32> interp) {
+		super(config, interp);
+	}
+
+	@Override
+	protected float iterationSor(final GrayF32 image1) {
+		if( rowError.length < image1.height )
+			rowError = new float[image1.height];
+
+		// update the even rows then the odd rows
+		for( int color = 0; color < 2; color++ ) {
+			final int _color = color;
+			int numRows = (image1.height - color + 1)/2;
+			BoofConcurrency.loopBlocks(0, numRows, minBlockRows, new IntRangeConsumer() {
+				@Override
+				public void accept(int idx0, int idx1) {
+					for( int i = idx0; i < idx1; i++ ) {
+						int y = 2*i + _color;
+						rowError[y] = iterationSorRow(image1, y);
+					}
+				}
+			});
+		}
+
+		// add up the error in a fixed order so that the results don't depend on the number of threads
+		float error = 0;
+		for( int y = 0; y < image1.height; y++ ) {
+			error += rowError[y];
+		}
+		return error;
+	}
+
+	/**
+	 * Performs an SOR iteration on every pixel in row y
+	 */
+	protected float iterationSorRow(GrayF32 image1, int y) {
+		int width = image1.width;
+		int pixelIndex = y*width;
+
+		float error = 0;
+		if( y == 0 || y == image1.height-1 ) {
+			for( int x = 0; x < width; x++ ) {
+				error += iterationSorSafe(image1,x,y,pixelIndex+x);
+			}
+		} else {
+			error += iterationSorSafe(image1,0,y,pixelIndex);
+			for( int x = 1; x < width-1; x++ ) {
+				error += iterationSorInner(image1,x,y,pixelIndex+x);
+			}
+			if( width > 1 )
+				error += iterationSorSafe(image1,width-1,y,pixelIndex+width-1);
+		}
+		return error;
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
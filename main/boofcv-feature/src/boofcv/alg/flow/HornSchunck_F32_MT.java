@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+
+/**
+ * Concurrent implementation of {@link HornSchunck_F32}.  Each iteration computes the average flow from the
+ * previous estimate then updates every pixel independently, allowing both steps to be split into bands of rows.
+ * Results are identical to the single threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+public class HornSchunck_F32_MT extends HornSchunck_F32 {
+
+	// minimum number of rows in a block
+	int minBlockRows = 10;
+
+	public HornSchunck_F32_MT(float alpha, int numIterations) {
+		super(alpha, numIterations);
+	}
+
+	@Override
+	protected void findFlow(final GrayF32 derivX, final GrayF32 derivY,
+							final GrayF32 derivT, final ImageFlow output) {
+
+		IntRangeConsumer average = new IntRangeConsumer() {
+			@Override
+			public void accept(int y0, int y1) {
+				innerAverageFlow(output, averageFlow, y0, y1);
+			}
+		};
+
+		IntRangeConsumer update = new IntRangeConsumer() {
+			@Override
+			public void accept(int y0, int y1) {
+				updateFlow(derivX, derivY, derivT, output, y0*output.width, y1*output.width);
+			}
+		};
+
+		for( int iter = 0; iter < numIterations; iter++ ) {
+
+			borderAverageFlow(output,averageFlow);
+			BoofConcurrency.loopBlocks(1, output.height-1, minBlockRows, average);
+
+			BoofConcurrency.loopBlocks(0, output.height, minBlockRows, update);
+		}
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
@@ -162,6 +162,31 @@ public abstract class SegmentMeanShiftSearch<T extends ImageBase<T>> {
 	 */
 	public abstract void process( T image );
 
+	/**
+	 * Specifies the image which mean-shift is run on without processing it.  Only needs to be implemented by
+	 * searches used by a concurrent implementation.
+	 */
+	protected void setSearchImage( T image ) {
+		throw new UnsupportedOperationException("Not supported by "+getClass().getSimpleName());
+	}
+
+	/**
+	 * Runs mean-shift starting at the specified pixel using the pixel's color as the initial mean.  The mode is
+	 * saved in {@link #modeX} and {@link #modeY}.  Only needs to be implemented by searches used by a concurrent
+	 * implementation.
+	 */
+	protected void findPeakAtPixel( int x , int y ) {
+		throw new UnsupportedOperationException("Not supported by "+getClass().getSimpleName());
+	}
+
+	/**
+	 * Copies the mean color found by the most recent call to {@link #findPeakAtPixel}.  Only needs to be
+	 * implemented by searches used by a concurrent implementation.
+	 */
+	protected void copyMeanColor( float[] color ) {
+		throw new UnsupportedOperationException("Not supported by "+getClass().getSimpleName());
+	}
+
 	/**
 	 * Returns the Euclidean distance squared between the two vectors
 	 */
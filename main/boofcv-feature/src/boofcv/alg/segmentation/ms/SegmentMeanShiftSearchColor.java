@@ -143,6 +143,23 @@ public class SegmentMeanShiftSearchColor<T extends ImageMultiBand<T>> extends Se
 		}
 	}
 
+	@Override
+	protected void setSearchImage(T image) {
+		this.image = image;
+		interpolate.setImage(image);
+	}
+
+	@Override
+	protected void findPeakAtPixel(int x, int y) {
+		interpolate.get(x, y, meanColor);
+		findPeak(x, y, meanColor);
+	}
+
+	@Override
+	protected void copyMeanColor(float[] color) {
+		System.arraycopy(meanColor, 0, color, 0, meanColor.length);
+	}
+
 	@Override
 	public ImageType<T> getImageType() {
 		return imageType;
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolatePixelMB;
+import boofcv.struct.image.ImageMultiBand;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link SegmentMeanShiftSearchColor}.  The mode of each pixel is found in bands of
+ * rows, with each thread using its own interpolation instance.  If 'fast' is false then results are identical to the
+ * single threaded version.  If 'fast' is true then the single threaded trajectory approximation is replaced by
+ * a coarse seeded search, see {@link SegmentMeanShiftSearchConcurrent}.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class SegmentMeanShiftSearchColor_MT<T extends ImageMultiBand<T>> extends SegmentMeanShiftSearchColor<T> {
+
+	SegmentMeanShiftSearchConcurrent<T> concurrent;
+
+	/**
+	 * @see SegmentMeanShiftSearchColor#SegmentMeanShiftSearchColor
+	 *
+	 * @param factory Creates a new instance of interpolation for each thread
+	 */
+	public SegmentMeanShiftSearchColor_MT(final int maxIterations, final float convergenceTol,
+										  final FactoryInterpolate<T> factory,
+										  final int radiusX , final int radiusY , final float maxColorDistance ,
+										  boolean fast,
+										  final ImageType<T> imageType) {
+		super(maxIterations, convergenceTol, factory.create(), radiusX, radiusY, maxColorDistance, fast, imageType);
+
+		concurrent = new SegmentMeanShiftSearchConcurrent<>(
+				new FastQueue<SegmentMeanShiftSearch<T>>(1,(Class)SegmentMeanShiftSearch.class,true) {
+			@Override
+			protected SegmentMeanShiftSearch<T> createInstance() {
+				return new SegmentMeanShiftSearchColor<>(maxIterations, convergenceTol, factory.create(),
+						radiusX, radiusY, maxColorDistance, false, imageType);
+			}
+		});
+	}
+
+	@Override
+	public void process(T image) {
+		concurrent.process(this, image);
+	}
+
+	public int getMinBlockRows() {
+		return concurrent.minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		concurrent.minBlockRows = minBlockRows;
+	}
+
+	public int getSeedSpacing() {
+		return concurrent.seedSpacing;
+	}
+
+	/**
+	 * Spacing between seed pixels when 'fast' is true.  Larger values are faster but less accurate.
+	 *
+	 * @param seedSpacing Must be &ge; 1
+	 * @throws IllegalArgumentException If the spacing is less than 1
+	 */
+	public void setSeedSpacing(int seedSpacing) {
+		concurrent.setSeedSpacing(seedSpacing);
+	}
+
+	/**
+	 * Creates a new instance of {@link InterpolatePixelMB} for each thread
+	 */
+	public interface FactoryInterpolate<T extends ImageMultiBand<T>> {
+		InterpolatePixelMB<T> create();
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.ImageBase;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Concurrent mean-shift search used by {@link SegmentMeanShiftSearchGray_MT} and
+ * {@link SegmentMeanShiftSearchColor_MT}.  Each thread has its own instance of the single threaded search which
+ * finds the mode of every pixel inside a band of rows.  Modes are then assigned an index by traversing the image
+ * in the same order as the single threaded search.  The color of each mode is found by repeating the search
+ * from the first pixel which converged to it.
+ * </p>
+ *
+ * <p>
+ * The trajectory approximation in the single threaded 'fast' mode requires pixels to be processed in order.
+ * Instead, in fast mode, exact mean-shift is first run from a sparse grid of seed pixels.  Mean-shift from all
+ * the other pixels stops once it reaches a seed pixel and uses that seed's mode.  If the seed spacing is 1 then
+ * the results are identical to exact mean-shift.  The output does not depend on the number of threads.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+class SegmentMeanShiftSearchConcurrent<T extends ImageBase<T>> {
+	// minimum number of rows in a block
+	int minBlockRows = 10;
+	// minimum number of modes in a block when computing the color of each mode
+	int minBlockModes = 50;
+	// spacing between seed pixels in fast mode
+	int seedSpacing = 2;
+
+	// single threaded search used by each thread
+	FastQueue<SegmentMeanShiftSearch<T>> workers;
+
+	// pixel index of the mode that mean-shift converged to for each pixel
+	GrayS32 pixelToModePixel = new GrayS32(1,1);
+	// index of the mode for seed pixels and -1 for all other pixels
+	GrayS32 seedToMode = new GrayS32(1,1);
+	// pixel index of the first pixel which converged to each mode
+	GrowQueue_I32 modeFirstPixel = new GrowQueue_I32();
+
+	// if true the seeded approximation is used
+	boolean fast;
+
+	SegmentMeanShiftSearchConcurrent(FastQueue<SegmentMeanShiftSearch<T>> workers) {
+		this.workers = workers;
+	}
+
+	/**
+	 * Spacing between seed pixels in fast mode
+	 *
+	 * @param seedSpacing Must be &ge; 1
+	 */
+	void setSeedSpacing( int seedSpacing ) {
+		if( seedSpacing < 1 )
+			throw new IllegalArgumentException("Seed spacing must be at least 1, not "+seedSpacing);
+		this.seedSpacing = seedSpacing;
+	}
+
+	/**
+	 * Performs mean-shift clustering on the input image and saves the results in 'owner'
+	 */
+	void process( final SegmentMeanShiftSearch<T> owner , final T image ) {
+		if( seedSpacing < 1 )
+			throw new IllegalArgumentException("Seed spacing must be at least 1, not "+seedSpacing);
+
+		// initialize data structures
+		owner.setSearchImage(image);
+		fast = owner.fast;
+
+		owner.modeLocation.reset();
+		owner.modeColor.reset();
+		owner.modeMemberCount.reset();
+		modeFirstPixel.reset();
+
+		owner.pixelToMode.reshape(image.width, image.height);
+		owner.quickMode.reshape(image.width, image.height);
+		pixelToModePixel.reshape(image.width, image.height);
+		seedToMode.reshape(image.width, image.height);
+		// mark all pixels are not being a mode
+		ImageMiscOps.fill(owner.quickMode,-1);
+		ImageMiscOps.fill(seedToMode,-1);
+
+		if( fast ) {
+			// find the mode of each seed pixel using exact mean-shift
+			int seedRows = (image.height + seedSpacing - 1)/seedSpacing;
+			BoofConcurrency.loopBlocks(0, seedRows, Math.max(1, minBlockRows/seedSpacing), workers,
+					new IntRangeObjectConsumer<SegmentMeanShiftSearch<T>>() {
+				@Override
+				public void accept(SegmentMeanShiftSearch<T> worker, int row0, int row1) {
+					configure(worker, owner, image);
+					worker.fast = false;
+					for( int y = row0*seedSpacing; y < row1*seedSpacing && y < image.height; y += seedSpacing ) {
+						for( int x = 0; x < image.width; x += seedSpacing ) {
+							findMode(worker, x, y);
+						}
+					}
+				}
+			});
+
+			// seed modes are added first so that they can be looked up when searching from the other pixels
+			for( int y = 0; y < image.height; y += seedSpacing ) {
+				for( int x = 0; x < image.width; x += seedSpacing ) {
+					int indexPixel = y*image.width + x;
+					seedToMode.data[indexPixel] = addToMode(owner, indexPixel);
+				}
+			}
+		}
+
+		// find the mode of all the other pixels
+		BoofConcurrency.loopBlocks(0, image.height, minBlockRows, workers,
+				new IntRangeObjectConsumer<SegmentMeanShiftSearch<T>>() {
+			@Override
+			public void accept(SegmentMeanShiftSearch<T> worker, int y0, int y1) {
+				configure(worker, owner, image);
+				for( int y = y0; y < y1; y++ ) {
+					for( int x = 0; x < image.width; x++ ) {
+						if( !isSeed(x,y) )
+							findMode(worker, x, y);
+					}
+				}
+			}
+		});
+
+		int indexPixel = 0;
+		for( int y = 0; y < image.height; y++ ) {
+			for( int x = 0; x < image.width; x++ , indexPixel++ ) {
+				if( !isSeed(x,y) )
+					addToMode(owner, indexPixel);
+			}
+		}
+
+		// the color of a mode is the mean color found by the first pixel to converge to it
+		owner.modeColor.resize(owner.modeLocation.size);
+		BoofConcurrency.loopBlocks(0, owner.modeLocation.size, minBlockModes, workers,
+				new IntRangeObjectConsumer<SegmentMeanShiftSearch<T>>() {
+			@Override
+			public void accept(SegmentMeanShiftSearch<T> worker, int idx0, int idx1) {
+				configure(worker, owner, image);
+				for( int i = idx0; i < idx1; i++ ) {
+					int indexPixel = modeFirstPixel.data[i];
+					int x = indexPixel%image.width;
+					int y = indexPixel/image.width;
+					worker.fast = fast && !isSeed(x,y);
+					worker.findPeakAtPixel(x, y);
+					worker.copyMeanColor(owner.modeColor.get(i));
+				}
+			}
+		});
+	}
+
+	/**
+	 * Prepares the worker to search the image.  Seed modes are looked up from the shared data structures.
+	 */
+	private void configure( SegmentMeanShiftSearch<T> worker , SegmentMeanShiftSearch<T> owner , T image ) {
+		worker.setSearchImage(image);
+		worker.fast = fast;
+		worker.pixelToMode = seedToMode;
+		worker.modeLocation = owner.modeLocation;
+	}
+
+	private boolean isSeed( int x , int y ) {
+		return fast && x%seedSpacing == 0 && y%seedSpacing == 0;
+	}
+
+	/**
+	 * Runs mean-shift from the pixel and saves the pixel index of its mode
+	 */
+	private void findMode( SegmentMeanShiftSearch<T> worker , int x , int y ) {
+		worker.findPeakAtPixel(x, y);
+
+		// convert mean-shift location into pixel index
+		int modeX = (int)(worker.modeX + 0.5f);
+		int modeY = (int)(worker.modeY + 0.5f);
+
+		pixelToModePixel.data[y*pixelToModePixel.width + x] = modeY*pixelToModePixel.width + modeX;
+	}
+
+	/**
+	 * Adds the pixel to its mode.  If the mode is new then it's added to the list of modes
+	 *
+	 * @return index of the mode
+	 */
+	private int addToMode( SegmentMeanShiftSearch<T> owner , int indexPixel ) {
+		int modePixelIndex = pixelToModePixel.data[indexPixel];
+
+		// get index in the list of peaks
+		int modeIndex = owner.quickMode.data[modePixelIndex];
+		// If the mode is new add it to the list
+		if( modeIndex < 0 ) {
+			modeIndex = owner.modeLocation.size();
+			owner.modeLocation.grow().set(modePixelIndex%pixelToModePixel.width, modePixelIndex/pixelToModePixel.width);
+			owner.quickMode.data[modePixelIndex] = modeIndex;
+			owner.modeMemberCount.add(0);
+			modeFirstPixel.add(indexPixel);
+		}
+
+		owner.modeMemberCount.data[modeIndex]++;
+		owner.pixelToMode.data[indexPixel] = modeIndex;
+		return modeIndex;
+	}
+}
@@ -129,6 +129,22 @@ public class SegmentMeanShiftSearchGray<T extends ImageGray<T>> extends SegmentM
 		}
 	}
 
+	@Override
+	protected void setSearchImage(T image) {
+		this.image = image;
+		interpolate.setImage(image);
+	}
+
+	@Override
+	protected void findPeakAtPixel(int x, int y) {
+		findPeak(x, y, interpolate.get(x, y));
+	}
+
+	@Override
+	protected void copyMeanColor(float[] color) {
+		color[0] = meanGray;
+	}
+
 	@Override
 	public ImageType<T> getImageType() {
 		return interpolate.getImageType();
@@ -99,9 +99,19 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 	// ensures that all pixels in segment are connected
 	protected ClusterLabeledImage segment;
 
-	// storage for clusters and pixel information
+	// storage for clusters
 	protected FastQueue<Cluster> clusters;
-	protected FastQueue<Pixel> pixels = new FastQueue<>(Pixel.class, true);
+
+	// K-means information for each pixel, stored in packed arrays.  Each pixel has space for pixelCapacity
+	// clusters.  Elements for pixel i start at index i*pixelCapacity
+	// maximum number of clusters which can be associated with a pixel.  Grows as needed
+	protected int pixelCapacity = 9;
+	// number of clusters associated with each pixel.  Can be larger than pixelCapacity if storage ran out
+	protected int[] pixelCount = new int[0];
+	// index of the cluster in the list of clusters
+	protected int[] pixelCluster = new int[0];
+	// distance the cluster is from the pixel.  Converted into a weight when updating clusters
+	protected float[] pixelDistance = new float[0];
 
 	// type of input image
 	protected ImageType<T> imageType;
@@ -123,8 +133,15 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 		this.segment = new ClusterLabeledImage(connectRule);
 		this.regionColor = new ColorQueue_F32(numBands);
 
+		clusters = createClusterQueue();
+	}
+
+	/**
+	 * Creates a list of clusters with the color array declared for the number of bands
+	 */
+	protected FastQueue<Cluster> createClusterQueue() {
 		// custom declaration for pixel color
-		clusters = new FastQueue<Cluster>(Cluster.class,true) {
+		return new FastQueue<Cluster>(Cluster.class,true) {
 			@Override
 			protected Cluster createInstance() {
 				Cluster c = new Cluster();
@@ -168,7 +185,7 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 	 */
 	protected void initalize(T input) {
 		this.input = input;
-		pixels.resize(input.width * input.height);
+		declarePixels(input.width * input.height);
 		initialSegments.reshape(input.width, input.height);
 
 		// number of usable pixels that cluster centers can be placed in
@@ -182,6 +199,72 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 		adjustSpacial = m/gridInterval;
 	}
 
+	/**
+	 * Declares storage for the specified number of pixels and removes all cluster associations
+	 */
+	protected void declarePixels( int numPixels ) {
+		if( pixelCount.length < numPixels ) {
+			pixelCount = new int[numPixels];
+		}
+		if( pixelCluster.length < numPixels*pixelCapacity ) {
+			pixelCluster = new int[numPixels*pixelCapacity];
+			pixelDistance = new float[numPixels*pixelCapacity];
+		}
+		Arrays.fill(pixelCount, 0, numPixels, 0);
+	}
+
+	/**
+	 * Increases the number of clusters each pixel can store so that it can hold the most clusters any pixel
+	 * attempted to add.  Data stored in the old arrays is discarded.
+	 */
+	protected void growPixelCapacity( int numPixels ) {
+		int max = pixelCapacity;
+		for( int i = 0; i < numPixels; i++ ) {
+			if( pixelCount[i] > max )
+				max = pixelCount[i];
+		}
+		pixelCapacity = max;
+		pixelCluster = new int[numPixels*pixelCapacity];
+		pixelDistance = new float[numPixels*pixelCapacity];
+	}
+
+	/**
+	 * Associates the cluster with the pixel
+	 *
+	 * @param indexPixel Index of the pixel
+	 * @param indexCluster Index of the cluster in the list of clusters
+	 * @param distance Distance of the cluster from the pixel
+	 * @return true if there was enough storage or false if it needs to grow
+	 */
+	protected boolean addToPixel( int indexPixel , int indexCluster , float distance ) {
+		int count = pixelCount[indexPixel]++;
+		if( count >= pixelCapacity )
+			return false;
+		int index = indexPixel*pixelCapacity + count;
+		pixelCluster[index] = indexCluster;
+		pixelDistance[index] = distance;
+		return true;
+	}
+
+	/**
+	 * Converts the distance each cluster is from the pixel into weights
+	 */
+	protected void computeWeights( int indexPixel ) {
+		int count = pixelCount[indexPixel];
+		int index0 = indexPixel*pixelCapacity;
+		if( count == 1 ) {
+			pixelDistance[index0] = 1;
+		} else {
+			float sum = 0;
+			for( int i = 0; i < count; i++ ) {
+				sum += pixelDistance[index0+i];
+			}
+			for( int i = 0; i < count; i++ ) {
+				pixelDistance[index0+i] = 1.0f - pixelDistance[index0+i]/sum;
+			}
+		}
+	}
+
 	/**
 	 * initialize all the clusters at regularly spaced intervals.  Their locations are perturbed a bit to reduce
 	 * the likelihood of a bad location.  Initial color is set to the image color at the location
@@ -263,10 +346,23 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 	 * Computes how far away each cluster is from each pixel.  Expectation step.
 	 */
 	protected void computeClusterDistance() {
-		for( int i = 0; i < pixels.size; i++ ) {
-			pixels.data[i].reset();
+		while( !computeClusterDistance(0, input.height) ) {
+			growPixelCapacity(input.width*input.height);
 		}
+	}
 
+	/**
+	 * Computes how far away each cluster is from each pixel inside the specified rows.  Clusters are added to each
+	 * pixel in the same order they are in the cluster list.
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 * @return true if successful or false if a pixel ran out of storage
+	 */
+	protected boolean computeClusterDistance( int row0 , int row1 ) {
+		Arrays.fill(pixelCount, row0*input.width, row1*input.width, 0);
+
+		boolean success = true;
 		for( int i = 0; i < clusters.size; i++ ) {
 			Cluster c = clusters.data[i];
 
@@ -278,9 +374,9 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 			int y0 = centerY - gridInterval; int y1 = centerY + gridInterval + 1;
 
 			if( x0 < 0 ) x0 = 0;
-			if( y0 < 0 ) y0 = 0;
+			if( y0 < row0 ) y0 = row0;
 			if( x1 > input.width ) x1 = input.width;
-			if( y1 > input.height ) y1 = input.height;
+			if( y1 > row1 ) y1 = row1;
 
 			for( int y = y0; y < y1; y++ ) {
 				int indexPixel = y*input.width + x0;
@@ -293,10 +389,11 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 
 					float distanceColor = colorDistance(c.color,indexInput++);
 					float distanceSpacial = dx*dx + dy*dy;
-					pixels.data[indexPixel++].add(c,distanceColor + adjustSpacial*distanceSpacial);
+					success &= addToPixel(indexPixel++, i, distanceColor + adjustSpacial*distanceSpacial);
 				}
 			}
 		}
+		return success;
 	}
 
 	/**
@@ -307,28 +404,66 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 			clusters.data[i].reset();
 		}
 
-		int indexPixel = 0;
-		for( int y = 0; y < input.height; y++ ) {
+		accumulateClusters(0, input.height, clusters);
+
+		// recompute the center of each cluster
+		for( int i = 0; i < clusters.size; i++ ) {
+			clusters.data[i].update();
+		}
+	}
+
+	/**
+	 * Converts the distance of each pixel in the specified rows into weights and adds the weighted location and
+	 * color of the pixel to the sums of the clusters it's associated with.
+	 *
+	 * @param row0 First row, inclusive
+	 * @param row1 Last row, exclusive
+	 * @param sums Weighted sums for each cluster, in the same order as the list of clusters.  Not reset.
+	 */
+	protected void accumulateClusters( int row0 , int row1 , FastQueue<Cluster> sums ) {
+		int indexPixel = row0*input.width;
+		for( int y = row0; y < row1; y++ ) {
 			int indexInput = input.startIndex + y*input.stride;
 			for( int x =0; x < input.width; x++ , indexPixel++ , indexInput++) {
-				Pixel p = pixels.get(indexPixel);
-
 				// convert the distance each cluster is from the pixel into weights
-				p.computeWeights();
-
-				for( int i = 0; i < p.clusters.size; i++ ) {
-					ClusterDistance d = p.clusters.data[i];
-					d.cluster.x += x*d.distance;
-					d.cluster.y += y*d.distance;
-					d.cluster.totalWeight += d.distance;
-					addColor(d.cluster.color,indexInput,d.distance);
+				computeWeights(indexPixel);
+
+				int index0 = indexPixel*pixelCapacity;
+				int index1 = index0 + pixelCount[indexPixel];
+				for( int i = index0; i < index1; i++ ) {
+					Cluster c = sums.data[pixelCluster[i]];
+					float weight = pixelDistance[i];
+					c.x += x*weight;
+					c.y += y*weight;
+					c.totalWeight += weight;
+					addColor(c.color,indexInput,weight);
 				}
 			}
 		}
+	}
 
-		// recompute the center of each cluster
+	/**
+	 * Sets each cluster to the sum of the partial sums computed for each block of rows and recomputes its center.
+	 * Blocks are added in order, so the results only depend on how the rows were split into blocks.
+	 *
+	 * @param blockSums Weighted sums for each cluster computed by {@link #accumulateClusters} for each block
+	 */
+	protected void updateClusters( FastQueue<FastQueue<Cluster>> blockSums ) {
 		for( int i = 0; i < clusters.size; i++ ) {
-			clusters.data[i].update();
+			Cluster c = clusters.data[i];
+			c.reset();
+
+			for( int block = 0; block < blockSums.size; block++ ) {
+				Cluster b = blockSums.data[block].data[i];
+				c.x += b.x;
+				c.y += b.y;
+				c.totalWeight += b.totalWeight;
+				for( int j = 0; j < numBands; j++ ) {
+					c.color[j] += b.color[j];
+				}
+			}
+
+			c.update();
 		}
 	}
 
@@ -355,18 +490,18 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 		for( int y = 0; y < pixelToRegions.height; y++ ) {
 			int indexOutput = pixelToRegions.startIndex + y*pixelToRegions.stride;
 			for( int x =0; x < pixelToRegions.width; x++ , indexPixel++ , indexOutput++) {
-				Pixel p = pixels.data[indexPixel];
+				int index0 = indexPixel*pixelCapacity;
+				int index1 = index0 + pixelCount[indexPixel];
 
 				// It is possible for a pixel to be unassigned if all the means move too far away from it
 				// Default to a non-existant cluster if that's the case
 				int best = -1;
 				float bestDistance = Float.MAX_VALUE;
 				// find the region/cluster which it is closest to
-				for( int j = 0; j < p.clusters.size; j++ ) {
-					ClusterDistance d = p.clusters.data[j];
-					if( d.distance < bestDistance ) {
-						bestDistance = d.distance;
-						best = d.cluster.id;
+				for( int j = index0; j < index1; j++ ) {
+					if( pixelDistance[j] < bestDistance ) {
+						bestDistance = pixelDistance[j];
+						best = clusters.data[pixelCluster[j]].id;
 					}
 				}
 				if( best == -1 ) {
@@ -389,52 +524,6 @@ public abstract class SegmentSlic<T extends ImageBase<T>> {
 		return clusters;
 	}
 
-	/**
-	 * K-means clustering information for each pixel.  Stores distance from each cluster mean.
-	 */
-	public static class Pixel
-	{
-		// list of clusters it is interacting with
-		public FastQueue<ClusterDistance> clusters = new FastQueue<>(12, ClusterDistance.class, true);
-
-		public void add( Cluster c , float distance ) {
-			// make sure it isn't already full.  THis should almost never happen
-			ClusterDistance d = clusters.grow();
-
-			d.cluster = c;
-			d.distance = distance;
-		}
-
-		public void computeWeights() {
-			if( clusters.size == 1 ) {
-				clusters.data[0].distance = 1;
-			} else {
-				float sum = 0;
-				for( int i = 0; i < clusters.size; i++ ) {
-					sum += clusters.data[i].distance;
-				}
-				for( int i = 0; i < clusters.size; i++ ) {
-					clusters.data[i].distance =  1.0f - clusters.data[i].distance/sum;
-				}
-			}
-		}
-
-		public void reset() {
-			clusters.reset();
-		}
-	}
-
-	/**
-	 * Stores how far a cluster is from the specified pixel
-	 */
-	public static class ClusterDistance
-	{
-		// the cluster
-		public Cluster cluster;
-		// how far the pixel is from the cluster
-		public float distance;
-	}
-
 	/**
 	 * The mean in k-means.  Point in image (x,y) and color space.
 	 */
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.segmentation.slic;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.ConnectRule;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link SegmentSlic_U8}.  Distances to each cluster are computed in bands
+ * of rows.  When updating the clusters, each band of rows sums the weighted location and color of its pixels
+ * into its own copy of the clusters.  These partial sums are then added together in the order of the bands.
+ * Results are deterministic for a given number of threads and identical to the single threaded version when
+ * there is one thread.  With more threads, cluster centers can differ by floating point round off since
+ * the sums are grouped differently.
+ *
+ * @author Peter Abeles
+ */
+public class SegmentSlic_U8_MT extends SegmentSlic_U8 {
+	// minimum number of rows in a block
+	int minBlockRows = 10;
+
+	// weighted sums of each cluster computed by each block of rows
+	FastQueue<FastQueue<Cluster>> blockSums = new FastQueue<FastQueue<Cluster>>((Class)FastQueue.class,true) {
+		@Override
+		protected FastQueue<Cluster> createInstance() {
+			return createClusterQueue();
+		}
+	};
+
+	public SegmentSlic_U8_MT(int numberOfRegions, float m, int totalIterations,
+			ConnectRule connectRule) {
+		super(numberOfRegions, m, totalIterations, connectRule);
+	}
+
+	@Override
+	protected boolean computeClusterDistance(int row0, int row1) {
+		final boolean[] success = new boolean[]{true};
+		BoofConcurrency.loopBlocks(row0, row1, minBlockRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int y0, int y1) {
+				if( !SegmentSlic_U8_MT.super.computeClusterDistance(y0, y1) )
+					success[0] = false;
+			}
+		});
+		return success[0];
+	}
+
+	@Override
+	protected void updateClusters() {
+		BoofConcurrency.loopBlocks(0, input.height, minBlockRows, blockSums,
+				new IntRangeObjectConsumer<FastQueue<Cluster>>() {
+			@Override
+			public void accept(FastQueue<Cluster> sums, int y0, int y1) {
+				sums.resize(clusters.size);
+				for( int i = 0; i < sums.size; i++ ) {
+					sums.data[i].reset();
+				}
+				accumulateClusters(y0, y1, sums);
+			}
+		});
+		updateClusters(blockSums);
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
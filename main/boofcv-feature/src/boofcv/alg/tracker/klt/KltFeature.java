@@ -51,6 +51,9 @@ public class KltFeature {
 	 */
 	public GrayF32 derivY;
 
+	// NOTE: desc, derivX, and derivY can be sub-images.  Pixels in each are assumed to be stored in a single
+	//       continuous block (stride == width) which starts at the image's startIndex
+
 	/**
 	 * spatial gradient matrix used in updating the feature's position
 	 */
@@ -65,6 +68,22 @@ public class KltFeature {
 		derivY = new GrayF32(sideLength,sideLength);
 	}
 
+	/**
+	 * Creates a feature which uses the provided images to store its description.  Used when the description of
+	 * many features is packed into a single array.
+	 *
+	 * @param radius The feature's radius
+	 * @param desc Storage for pixel intensity. Must be a (2*radius+1) square image with stride == width.
+	 * @param derivX Storage for x-derivative. Must be a (2*radius+1) square image with stride == width.
+	 * @param derivY Storage for y-derivative. Must be a (2*radius+1) square image with stride == width.
+	 */
+	public KltFeature(int radius, GrayF32 desc, GrayF32 derivX, GrayF32 derivY) {
+		this.radius = radius;
+		this.desc = desc;
+		this.derivX = derivX;
+		this.derivY = derivY;
+	}
+
 	public void setPosition(float x, float y) {
 		this.x = x;
 		this.y = y;
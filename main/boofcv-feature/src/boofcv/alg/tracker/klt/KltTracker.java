@@ -109,6 +109,16 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 		this.config = config;
 	}
 
+	/**
+	 * Creates a new tracker with the same configuration and its own copy of internal work space.  The
+	 * configuration is shared and the image is not set.
+	 *
+	 * @return New tracker
+	 */
+	public KltTracker<I,D> copy() {
+		return new KltTracker<>(interpInput.copy(),interpDeriv.copy(),config);
+	}
+
 	/**
 	 * Sets the current image it should be tracking with.
 	 *
@@ -171,10 +181,13 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 		interpDeriv.setImage(derivY);
 		interpDeriv.region(tl_x, tl_y, feature.derivY);
 
+		int indexDX = feature.derivX.startIndex;
+		int indexDY = feature.derivY.startIndex;
+
 		float Gxx = 0, Gyy = 0, Gxy = 0;
 		for (int i = 0; i < size; i++) {
-			float dX = feature.derivX.data[i];
-			float dY = feature.derivY.data[i];
+			float dX = feature.derivX.data[indexDX+i];
+			float dY = feature.derivY.data[indexDY+i];
 
 			Gxx += dX * dX;
 			Gyy += dY * dY;
@@ -212,17 +225,21 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 		interpDeriv.setImage(derivY);
 		interpDeriv.region(srcX0, srcY0, subimage);
 
+		int indexDesc = feature.desc.startIndex;
+		int indexDX = feature.derivX.startIndex;
+		int indexDY = feature.derivY.startIndex;
+
 		int total= 0;
 
 		Gxx = Gyy = Gxy = 0;
 		for( int i = 0; i < lengthFeature; i++ ) {
-			if( Float.isNaN(feature.desc.data[i]))
+			if( Float.isNaN(feature.desc.data[indexDesc+i]))
 				continue;
 
 			total++;
 
-			float dX = feature.derivX.data[i];
-			float dY = feature.derivY.data[i];
+			float dX = feature.derivX.data[indexDX+i];
+			float dY = feature.derivY.data[indexDY+i];
 
 			Gxx += dX * dX;
 			Gyy += dY * dY;
@@ -344,15 +361,18 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 	}
 
 	private float computeError(KltFeature feature) {
+		int indexDesc = feature.desc.startIndex;
+
 		float error = 0;
 		int total = 0;
 		for (int i = 0; i < lengthFeature; i++) {
+			float template = feature.desc.data[indexDesc+i];
 
-			if( Float.isNaN(feature.desc.data[i]) || Float.isNaN(currDesc.data[i]))
+			if( Float.isNaN(template) || Float.isNaN(currDesc.data[i]))
 				continue;
 
 			// compute the difference between the previous and the current image
-			error += Math.abs(feature.desc.data[i] - currDesc.data[i]);
+			error += Math.abs(template - currDesc.data[i]);
 			total++;
 		}
 		return error / total;
@@ -362,14 +382,18 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 		// extract the region in the current image
 		interpInput.region(x - feature.radius, y - feature.radius, currDesc);
 
+		int indexDesc = feature.desc.startIndex;
+		int indexDX = feature.derivX.startIndex;
+		int indexDY = feature.derivY.startIndex;
+
 		Ex = 0;
 		Ey = 0;
 		for (int i = 0; i < lengthFeature; i++) {
 			// compute the difference between the previous and the current image
-			float d = feature.desc.data[i] - currDesc.data[i];
+			float d = feature.desc.data[indexDesc+i] - currDesc.data[i];
 
-			Ex += d * feature.derivX.data[i];
-			Ey += d * feature.derivY.data[i];
+			Ex += d * feature.derivX.data[indexDX+i];
+			Ey += d * feature.derivY.data[indexDY+i];
 		}
 	}
 
@@ -385,13 +409,17 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 		interpInput.setImage(image);
 		interpInput.region(srcX0, srcY0, subimage);
 
+		int indexDesc = feature.desc.startIndex;
+		int indexDX = feature.derivX.startIndex;
+		int indexDY = feature.derivY.startIndex;
+
 		int total = 0;
 
 		Gxx = 0; Gyy = 0; Gxy = 0;
 		Ex = 0; Ey = 0;
 
 		for( int i = 0; i < lengthFeature; i++ ) {
-			float template = feature.desc.data[i];
+			float template = feature.desc.data[indexDesc+i];
 			float current = currDesc.data[i];
 
 			// if the description was outside of the image here skip it
@@ -401,8 +429,8 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 			// count total number of points inbounds
 			total++;
 
-			float dX = feature.derivX.data[i];
-			float dY = feature.derivY.data[i];
+			float dX = feature.derivX.data[indexDX+i];
+			float dY = feature.derivY.data[indexDY+i];
 
 			// compute the difference between the previous and the current image
 			float d = template - current;
@@ -461,8 +489,9 @@ public class KltTracker<I extends ImageGray<I>, D extends ImageGray<D>> {
 	 * outside the image
 	 */
 	public boolean isDescriptionComplete( KltFeature feature ) {
+		int indexDesc = feature.desc.startIndex;
 		for( int i = 0; i < lengthFeature; i++ ) {
-			if( Float.isNaN(feature.desc.data[i]) )
+			if( Float.isNaN(feature.desc.data[indexDesc+i]) )
 				return false;
 		}
 		return true;
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.struct.image.GrayF32;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Storage for {@link PyramidKltFeature} which packs the description of all the features into one array
+ * for each layer in the pyramid.  Features are never discarded.  Once a feature is no longer needed it should be
+ * returned using {@link #recycle} and it will be handed out again by {@link #grab}.  This avoids creating new
+ * images each time a track is spawned and keeps the templates for each layer close together in memory.
+ * </p>
+ *
+ * <p>
+ * Each feature is assigned a slot.  Inside a layer's array a slot contains the template's pixel intensity,
+ * x-derivative, and y-derivative, one after another.  When the storage is full the capacity is doubled and the
+ * images of existing features are updated to reference the new arrays.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidKltFeatureStore {
+
+	// number of layers in the pyramid
+	private int numLayers;
+	// radius of each feature's template
+	private int radius;
+	// width of a template
+	private int widthTemplate;
+	// number of elements in a template's image
+	private int lengthTemplate;
+
+	// packed description for each layer
+	private float[][] data;
+
+	// every feature which has been created. A feature's index is its slot
+	private List<PyramidKltFeature> features = new ArrayList<>();
+	// features which are not in use
+	private List<PyramidKltFeature> available = new ArrayList<>();
+
+	/**
+	 * Configures the storage
+	 *
+	 * @param numLayers Number of layers inside the image pyramid
+	 * @param radius Radius of the feature description in each layer
+	 * @param initialCapacity Number of features storage is initially declared for
+	 */
+	public PyramidKltFeatureStore(int numLayers, int radius, int initialCapacity) {
+		this.numLayers = numLayers;
+		this.radius = radius;
+		this.widthTemplate = radius*2+1;
+		this.lengthTemplate = widthTemplate*widthTemplate;
+
+		data = new float[numLayers][];
+		for (int layer = 0; layer < numLayers; layer++) {
+			data[layer] = new float[0];
+		}
+
+		growCapacity(initialCapacity);
+	}
+
+	/**
+	 * Returns a feature which isn't being used.  If there are none available then more are declared.
+	 *
+	 * @return A feature.  Its description will contain values from when it was last used.
+	 */
+	public PyramidKltFeature grab() {
+		if( available.isEmpty() )
+			growCapacity(Math.max(10,features.size()*2));
+
+		return available.remove(available.size() - 1);
+	}
+
+	/**
+	 * Returns a feature so that it can be used again.  The feature must have been created by this storage and
+	 * should not be recycled more than once.
+	 */
+	public void recycle( PyramidKltFeature feature ) {
+		available.add(feature);
+	}
+
+	/**
+	 * Ensures that there is storage for at least the specified number of features.
+	 *
+	 * @param capacity Total number of features.
+	 */
+	public void growCapacity( int capacity ) {
+		int previous = features.size();
+		if( capacity <= previous )
+			return;
+
+		int lengthSlot = 3*lengthTemplate;
+
+		// copy the old description into the larger arrays
+		for (int layer = 0; layer < numLayers; layer++) {
+			float[] larger = new float[capacity*lengthSlot];
+			System.arraycopy(data[layer],0,larger,0,data[layer].length);
+			data[layer] = larger;
+		}
+
+		// features which already exist need to reference the new arrays
+		for (int i = 0; i < previous; i++) {
+			KltFeature[] desc = features.get(i).desc;
+			for (int layer = 0; layer < numLayers; layer++) {
+				KltFeature f = desc[layer];
+				f.desc.data = data[layer];
+				f.derivX.data = data[layer];
+				f.derivY.data = data[layer];
+			}
+		}
+
+		for (int i = previous; i < capacity; i++) {
+			KltFeature[] desc = new KltFeature[numLayers];
+			for (int layer = 0; layer < numLayers; layer++) {
+				int index = i*lengthSlot;
+				desc[layer] = new KltFeature(radius,
+						declareView(layer,index),
+						declareView(layer,index+lengthTemplate),
+						declareView(layer,index+2*lengthTemplate));
+			}
+			PyramidKltFeature f = new PyramidKltFeature(desc);
+			features.add(f);
+			available.add(f);
+		}
+	}
+
+	/**
+	 * Creates an image which references a template inside the packed array
+	 */
+	private GrayF32 declareView( int layer , int startIndex ) {
+		GrayF32 view = new GrayF32();
+		view.data = data[layer];
+		view.startIndex = startIndex;
+		view.width = view.height = view.stride = widthTemplate;
+		view.subImage = true;
+		return view;
+	}
+
+	/**
+	 * Total number of features which have been created
+	 */
+	public int getCapacity() {
+		return features.size();
+	}
+
+	/**
+	 * Number of features which are available to be grabbed
+	 */
+	public int getAvailableSize() {
+		return available.size();
+	}
+
+	public int getNumLayers() {
+		return numLayers;
+	}
+
+	public int getRadius() {
+		return radius;
+	}
+}
@@ -21,6 +21,9 @@ package boofcv.alg.tracker.klt;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.pyramid.ImagePyramid;
 
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * <p>
  * A pyramid Kanade-Lucas-Tomasi (KLT) tracker that allows features to be tracker over a larger region than the basic
@@ -44,6 +47,11 @@ public class PyramidKltTracker<InputImage extends ImageGray<InputImage>, Derivat
 	protected DerivativeImage[] derivX;
 	protected DerivativeImage[] derivY;
 
+	// if true the time spent tracking features in each layer is recorded
+	protected boolean profile = false;
+	// total time in nanoseconds spent tracking features in each layer
+	protected long[] layerTime = new long[0];
+
 	public PyramidKltTracker(KltTracker<InputImage, DerivativeImage> tracker) {
 		this.tracker = tracker;
 	}
@@ -84,6 +92,7 @@ public class PyramidKltTracker<InputImage extends ImageGray<InputImage>, Derivat
 		this.image = image;
 		this.derivX = derivX;
 		this.derivY = derivY;
+		declareLayerTime();
 	}
 
 	/**
@@ -94,6 +103,15 @@ public class PyramidKltTracker<InputImage extends ImageGray<InputImage>, Derivat
 		this.image = image;
 		this.derivX = null;
 		this.derivY = null;
+		declareLayerTime();
+	}
+
+	/**
+	 * Makes sure there is a time for each layer in the pyramid
+	 */
+	protected void declareLayerTime() {
+		if( layerTime.length != image.getNumLayers() )
+			layerTime = new long[image.getNumLayers()];
 	}
 
 	/**
@@ -129,7 +147,14 @@ public class PyramidKltTracker<InputImage extends ImageGray<InputImage>, Derivat
 
 			KltFeature f = feature.desc[layer];
 			f.setPosition(x, y);
-			KltTrackFault ret = tracker.track(f);
+			KltTrackFault ret;
+			if( profile ) {
+				long before = System.nanoTime();
+				ret = tracker.track(f);
+				layerTime[layer] += System.nanoTime() - before;
+			} else {
+				ret = tracker.track(f);
+			}
 
 			if (ret == KltTrackFault.SUCCESS) {
 				if( firstLevelTracked == -1 )
@@ -150,6 +175,53 @@ public class PyramidKltTracker<InputImage extends ImageGray<InputImage>, Derivat
 		return KltTrackFault.SUCCESS;
 	}
 
+	/**
+	 * <p>
+	 * Tracks all the features in the list.  The fault for each feature is written into the output array at
+	 * the same index as the feature.  Optionally the description of every successfully tracked feature is updated
+	 * using the current image.  If a description can't be updated then its fault is set to
+	 * {@link KltTrackFault#FAILED}.
+	 * </p>
+	 *
+	 * <p>
+	 * Features are processed independently of each other, making the results the same as calling
+	 * {@link #track(PyramidKltFeature)} and {@link #setDescription(PyramidKltFeature)} for each feature.
+	 * </p>
+	 *
+	 * @param features List of features which are to be tracked
+	 * @param updateDescription If true then the description is updated after successfully tracking a feature.
+	 *                          Requires that the derivatives have been set.
+	 * @param faults (Output) Storage for the fault of each feature.  If null or too small a new array is declared.
+	 * @return Array containing the fault of each feature
+	 */
+	public KltTrackFault[] trackAll( List<PyramidKltFeature> features , boolean updateDescription ,
+									 KltTrackFault[] faults ) {
+		if( faults == null || faults.length < features.size() )
+			faults = new KltTrackFault[features.size()];
+
+		trackRange(features,updateDescription,faults,0,features.size());
+
+		return faults;
+	}
+
+	/**
+	 * Tracks the features inside the specified range.
+	 *
+	 * @see #trackAll(List, boolean, KltTrackFault[])
+	 */
+	protected void trackRange( List<PyramidKltFeature> features , boolean updateDescription ,
+							   KltTrackFault[] faults , int idx0 , int idx1 ) {
+		for( int i = idx0; i < idx1; i++ ) {
+			PyramidKltFeature f = features.get(i);
+			KltTrackFault ret = track(f);
+
+			if( ret == KltTrackFault.SUCCESS && updateDescription && !setDescription(f) )
+				ret = KltTrackFault.FAILED;
+
+			faults[i] = ret;
+		}
+	}
+
 	/**
 	 * Average error between track template and the image.
 	 *
@@ -161,6 +233,32 @@ public class PyramidKltTracker<InputImage extends ImageGray<InputImage>, Derivat
 		return tracker.getError();
 	}
 
+	/**
+	 * If true then the time spent tracking features in each layer will be recorded.
+	 */
+	public void setProfile(boolean profile) {
+		this.profile = profile;
+	}
+
+	public boolean isProfile() {
+		return profile;
+	}
+
+	/**
+	 * Total time in nanoseconds spent tracking features in each layer since the last call to
+	 * {@link #resetLayerTime()}.  Only updated when profiling is turned on.
+	 */
+	public long[] getLayerTime() {
+		return layerTime;
+	}
+
+	/**
+	 * Sets the time for every layer to zero
+	 */
+	public void resetLayerTime() {
+		Arrays.fill(layerTime,0);
+	}
+
 	private void setupKltTracker(int layer) {
 		if (derivX != null)
 			tracker.unsafe_setImage(image.getLayer(layer), derivX[layer], derivY[layer]);
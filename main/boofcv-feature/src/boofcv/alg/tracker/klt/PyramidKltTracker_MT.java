@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link PyramidKltTracker}.  When a batch of features is tracked with
+ * {@link #trackAll} the list is split into blocks and each block is tracked by its own copy of {@link KltTracker},
+ * which contains all the internal work space.  The image pyramid and gradient are shared between all threads
+ * and are only read from.  Since each feature is tracked independently the output is identical to the single
+ * threaded version and in the same order.
+ * </p>
+ *
+ * <p>
+ * Single feature functions, e.g. {@link #track(PyramidKltFeature)}, are not concurrent.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PyramidKltTracker_MT<InputImage extends ImageGray<InputImage>, DerivativeImage extends ImageGray<DerivativeImage>>
+	extends PyramidKltTracker<InputImage,DerivativeImage>
+{
+	// minimum number of features in a block
+	int minBlockSize = 50;
+
+	// tracker for each block
+	FastQueue<PyramidKltTracker<InputImage,DerivativeImage>> workers;
+
+	public PyramidKltTracker_MT(final KltTracker<InputImage, DerivativeImage> tracker) {
+		super(tracker);
+
+		workers = new FastQueue<PyramidKltTracker<InputImage,DerivativeImage>>(1,(Class)PyramidKltTracker.class,true) {
+			@Override
+			protected PyramidKltTracker<InputImage, DerivativeImage> createInstance() {
+				return new PyramidKltTracker<>(tracker.copy());
+			}
+		};
+	}
+
+	@Override
+	public KltTrackFault[] trackAll(final List<PyramidKltFeature> features, final boolean updateDescription,
+									KltTrackFault[] faults) {
+		if( faults == null || faults.length < features.size() )
+			faults = new KltTrackFault[features.size()];
+
+		final KltTrackFault[] _faults = faults;
+
+		BoofConcurrency.loopBlocks(0,features.size(),minBlockSize,workers,
+				new IntRangeObjectConsumer<PyramidKltTracker<InputImage, DerivativeImage>>() {
+			@Override
+			public void accept(PyramidKltTracker<InputImage, DerivativeImage> worker, int idx0, int idx1) {
+				worker.image = image;
+				worker.derivX = derivX;
+				worker.derivY = derivY;
+				worker.profile = profile;
+				worker.declareLayerTime();
+				worker.trackRange(features,updateDescription,_faults,idx0,idx1);
+			}
+		});
+
+		// add up the time each worker spent in a layer
+		if( profile ) {
+			for (int i = 0; i < workers.size(); i++) {
+				long[] workerTime = workers.get(i).layerTime;
+				for (int layer = 0; layer < layerTime.length; layer++) {
+					layerTime[layer] += workerTime[layer];
+				}
+				Arrays.fill(workerTime,0);
+			}
+		}
+
+		return faults;
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+}
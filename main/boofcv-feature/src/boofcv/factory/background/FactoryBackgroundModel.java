@@ -21,6 +21,7 @@ package boofcv.factory.background;
 import boofcv.alg.background.BackgroundModelStationary;
 import boofcv.alg.background.moving.*;
 import boofcv.alg.background.stationary.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.distort.Point2Transform2Model_F32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
@@ -93,6 +94,8 @@ public class FactoryBackgroundModel {
 	/**
 	 * Creates an instance of {@link BackgroundStationaryGaussian}.
 	 *
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.
+	 *
 	 * @param config Configures the background model
 	 * @param imageType Type of input image
 	 * @return new instance of the background model
@@ -106,15 +109,24 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				ret = new BackgroundStationaryGaussian_SB(config.learnRate,config.threshold,imageType.getImageClass());
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundStationaryGaussian_SB_MT(config.learnRate,config.threshold,imageType.getImageClass());
+				else
+					ret = new BackgroundStationaryGaussian_SB(config.learnRate,config.threshold,imageType.getImageClass());
 				break;
 
 			case PLANAR:
-				ret =  new BackgroundStationaryGaussian_PL(config.learnRate,config.threshold,imageType);
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundStationaryGaussian_PL_MT(config.learnRate,config.threshold,imageType);
+				else
+					ret = new BackgroundStationaryGaussian_PL(config.learnRate,config.threshold,imageType);
 				break;
 
 			case INTERLEAVED:
-				ret =  new BackgroundStationaryGaussian_IL(config.learnRate,config.threshold,imageType);
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundStationaryGaussian_IL_MT(config.learnRate,config.threshold,imageType);
+				else
+					ret = new BackgroundStationaryGaussian_IL(config.learnRate,config.threshold,imageType);
 				break;
 
 			default:
@@ -130,6 +142,8 @@ public class FactoryBackgroundModel {
 	/**
 	 * Creates an instance of {@link BackgroundMovingGaussian}.
 	 *
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.
+	 *
 	 * @param config Configures the background model
 	 * @param imageType Type of input image
 	 * @return new instance of the background model
@@ -145,18 +159,30 @@ public class FactoryBackgroundModel {
 
 		switch( imageType.getFamily() ) {
 			case GRAY:
-				ret = new BackgroundMovingGaussian_SB(config.learnRate,config.threshold,
-						transform,config.interpolation,imageType.getImageClass());
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundMovingGaussian_SB_MT(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType.getImageClass());
+				else
+					ret = new BackgroundMovingGaussian_SB(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType.getImageClass());
 				break;
 
 			case PLANAR:
-				ret =  new BackgroundMovingGaussian_PL(config.learnRate,config.threshold,
-						transform,config.interpolation,imageType);
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundMovingGaussian_PL_MT(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				else
+					ret = new BackgroundMovingGaussian_PL(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
 				break;
 
 			case INTERLEAVED:
-				ret =  new BackgroundMovingGaussian_IL(config.learnRate,config.threshold,
-						transform,config.interpolation,imageType);
+				if( BoofConcurrency.USE_CONCURRENT )
+					ret = new BackgroundMovingGaussian_IL_MT(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
+				else
+					ret = new BackgroundMovingGaussian_IL(config.learnRate,config.threshold,
+							transform,config.interpolation,imageType);
 				break;
 
 			default:
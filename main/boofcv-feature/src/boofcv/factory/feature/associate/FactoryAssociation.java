@@ -20,6 +20,11 @@ package boofcv.factory.feature.associate;
 
 import boofcv.abst.feature.associate.*;
 import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedy_MT;
+import boofcv.alg.feature.associate.AssociateMaxDistance;
+import boofcv.alg.feature.associate.AssociateMaxDistanceGrid;
+import boofcv.alg.feature.associate.AssociateMaxDistanceGrid_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.feature.*;
 import org.ddogleg.nn.FactoryNearestNeighbor;
 import org.ddogleg.nn.NearestNeighbor;
@@ -35,7 +40,8 @@ public class FactoryAssociation {
 
 	/**
 	 * Returns an algorithm for associating features together which uses a brute force greedy algorithm.
-	 * See {@link AssociateGreedy} for details.
+	 * See {@link AssociateGreedy} for details.  If {@link BoofConcurrency#USE_CONCURRENT} is true then source
+	 * features are processed concurrently and the score must not have any internal state.
 	 * 
 	 * @param score Computes the fit score between two features.
 	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
@@ -49,12 +55,41 @@ public class FactoryAssociation {
 			double maxError ,
 			boolean backwardsValidation )
 	{
-		AssociateGreedy<D> alg = new AssociateGreedy<>(score, backwardsValidation);
+		AssociateGreedy<D> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new AssociateGreedy_MT<>(score, backwardsValidation);
+		else
+			alg = new AssociateGreedy<>(score, backwardsValidation);
 		alg.setMaxFitError(maxError);
 		WrapAssociateGreedy<D> ret = new WrapAssociateGreedy<>(alg);
 		return ret;
 	}
 
+	/**
+	 * Returns an algorithm for associating features together which only considers features within a maximum
+	 * distance of each other in the image.  Features are indexed with a grid so that features which are far away
+	 * are not scored.  If {@link BoofConcurrency#USE_CONCURRENT} is true then source features are processed
+	 * concurrently.
+	 *
+	 * @see AssociateMaxDistanceGrid
+	 *
+	 * @param score Computes the fit score between two features.  Must not have any internal state.
+	 * @param backwardsValidation If true associations are validated by associating in the reverse direction.
+	 * @param maxError Maximum allowed error/fit score between two features.  To disable set to Double.MAX_VALUE
+	 * @param maxDistance Maximum distance between two features in pixels
+	 * @param <D> Data structure being associated
+	 * @return AssociateMaxDistance
+	 */
+	public static <D> AssociateMaxDistance<D>
+	maxDistance( ScoreAssociation<D> score ,
+				 boolean backwardsValidation ,
+				 double maxError ,
+				 double maxDistance )
+	{
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new AssociateMaxDistanceGrid_MT<>(score, backwardsValidation, maxError, maxDistance);
+		return new AssociateMaxDistanceGrid<>(score, backwardsValidation, maxError, maxDistance);
+	}
 
 	/**
 	 * Approximate association using a K-D tree degree of moderate size (10-15) that uses a best-bin-first search
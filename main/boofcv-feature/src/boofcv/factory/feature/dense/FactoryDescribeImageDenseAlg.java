@@ -20,6 +20,8 @@ package boofcv.factory.feature.dense;
 
 import boofcv.alg.feature.dense.DescribeDenseHogAlg;
 import boofcv.alg.feature.dense.DescribeDenseHogFastAlg;
+import boofcv.alg.feature.dense.DescribeDenseHogFastAlg_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
@@ -41,10 +43,19 @@ public class FactoryDescribeImageDenseAlg {
 
 	}
 
+	/**
+	 * Creates the fast variant of HOG.  If {@link BoofConcurrency#USE_CONCURRENT} is true then the concurrent
+	 * implementation is returned.
+	 *
+	 * @see DescribeDenseHogFastAlg
+	 */
 	public static <T extends ImageBase<T>>
 	DescribeDenseHogFastAlg<T> hogFast(ConfigDenseHoG config , ImageType<T> imageType ) {
 		config.checkValidity();
 
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new DescribeDenseHogFastAlg_MT(config.orientationBins,config.pixelsPerCell
+							,config.cellsPerBlockX,config.cellsPerBlockY,config.stepBlock, imageType);
 		return new DescribeDenseHogFastAlg(config.orientationBins,config.pixelsPerCell
 							,config.cellsPerBlockX,config.cellsPerBlockY,config.stepBlock, imageType);
 	}
@@ -39,6 +39,7 @@ import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.alg.feature.detect.interest.SiftScaleSpace;
 import boofcv.alg.feature.orientation.OrientationHistogramSift;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.feature.detect.interest.FactoryInterestPointAlgs;
@@ -102,6 +103,10 @@ public class FactoryDetectDescribe {
 	 * [1] Add tech report when its finished.  See SURF performance web page for now.
 	 * </p>
 	 *
+	 * <p>
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then detected features are described concurrently.
+	 * </p>
+	 *
 	 * @see FastHessianFeatureDetector
 	 * @see DescribePointSurf
 	 * @see DescribePointSurfPlanar
@@ -113,13 +118,28 @@ public class FactoryDetectDescribe {
 	 */
 	public static <T extends ImageGray<T>, II extends ImageGray<II>>
 	DetectDescribePoint<T,BrightFeature> surfFast(ConfigFastHessian configDetector ,
-												  ConfigSurfDescribe.Speed configDesc,
-												  ConfigAverageIntegral configOrientation,
+												  final ConfigSurfDescribe.Speed configDesc,
+												  final ConfigAverageIntegral configOrientation,
 												  Class<T> imageType) {
 
-		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+		final Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
 		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new WrapDetectDescribeSurf_MT<>(detector, new WrapDetectDescribeSurf_MT.FactoryDescribe<II>() {
+				@Override
+				public OrientationIntegral<II> createOrientation() {
+					return FactoryOrientationAlgs.average_ii(configOrientation, integralType);
+				}
+
+				@Override
+				public DescribePointSurf<II> createDescribe() {
+					return FactoryDescribePointAlgs.surfSpeed(configDesc, integralType);
+				}
+			});
+		}
+
 		DescribePointSurf<II> describe = FactoryDescribePointAlgs.surfSpeed(configDesc, integralType);
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.average_ii(configOrientation, integralType);
 
@@ -179,6 +199,10 @@ public class FactoryDetectDescribe {
 	 * [1] Add tech report when its finished.  See SURF performance web page for now.
 	 * </p>
 	 *
+	 * <p>
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then detected features are described concurrently.
+	 * </p>
+	 *
 	 * @see DescribePointSurfPlanar
 	 * @see FastHessianFeatureDetector
 	 * @see boofcv.alg.feature.describe.DescribePointSurfMod
@@ -191,13 +215,27 @@ public class FactoryDetectDescribe {
 	 */
 	public static <T extends ImageGray<T>, II extends ImageGray<II>>
 	DetectDescribePoint<T,BrightFeature> surfStable(ConfigFastHessian configDetector,
-													ConfigSurfDescribe.Stability configDescribe,
-													ConfigSlidingIntegral configOrientation,
+													final ConfigSurfDescribe.Stability configDescribe,
+													final ConfigSlidingIntegral configOrientation,
 													Class<T> imageType ) {
 
-		Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
+		final Class<II> integralType = GIntegralImageOps.getIntegralType(imageType);
 
 		FastHessianFeatureDetector<II> detector = FactoryInterestPointAlgs.fastHessian(configDetector);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new WrapDetectDescribeSurf_MT<>(detector, new WrapDetectDescribeSurf_MT.FactoryDescribe<II>() {
+				@Override
+				public OrientationIntegral<II> createOrientation() {
+					return FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
+				}
+
+				@Override
+				public DescribePointSurf<II> createDescribe() {
+					return FactoryDescribePointAlgs.surfStability(configDescribe, integralType);
+				}
+			});
+		}
 		DescribePointSurfMod<II> describe = FactoryDescribePointAlgs.surfStability(configDescribe, integralType);
 		OrientationIntegral<II> orientation = FactoryOrientationAlgs.sliding_ii(configOrientation, integralType);
 
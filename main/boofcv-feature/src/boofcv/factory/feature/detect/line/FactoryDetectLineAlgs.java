@@ -19,6 +19,8 @@
 package boofcv.factory.feature.detect.line;
 
 
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.feature.detect.line.DetectLineHoughFoot;
 import boofcv.abst.feature.detect.line.DetectLineHoughFootSubimage;
 import boofcv.abst.feature.detect.line.DetectLineHoughPolar;
@@ -26,7 +28,13 @@ import boofcv.abst.feature.detect.line.DetectLineSegmentsGridRansac;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.line.ConnectLinesGrid;
 import boofcv.alg.feature.detect.line.GridRansacLineDetector;
+import boofcv.alg.feature.detect.line.HoughTransformLineFootOfNorm;
+import boofcv.alg.feature.detect.line.HoughTransformLineFootOfNorm_MT;
+import boofcv.alg.feature.detect.line.HoughTransformLinePolar;
+import boofcv.alg.feature.detect.line.HoughTransformLinePolar_MT;
 import boofcv.alg.feature.detect.line.gridline.*;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
@@ -112,8 +120,10 @@ public class FactoryDetectLineAlgs {
 
 		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType,derivType);
 
-		return new DetectLineHoughFoot<>(config.localMaxRadius, config.minCounts, config.minDistanceFromOrigin,
-				config.thresholdEdge, config.maxLines, gradient);
+		HoughTransformLineFootOfNorm alg = houghFootTransform(config.localMaxRadius, config.minCounts,
+				config.minDistanceFromOrigin);
+
+		return new DetectLineHoughFoot<>(alg, config.thresholdEdge, config.maxLines, gradient);
 	}
 
 	/**
@@ -139,13 +149,16 @@ public class FactoryDetectLineAlgs {
 
 		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType,derivType);
 
-		return new DetectLineHoughFootSubimage<>(config.localMaxRadius,
-				config.minCounts, config.minDistanceFromOrigin, config.thresholdEdge,
+		HoughTransformLineFootOfNorm alg = houghFootTransform(config.localMaxRadius, config.minCounts,
+				config.minDistanceFromOrigin);
+
+		return new DetectLineHoughFootSubimage<>(alg, config.thresholdEdge,
 				config.totalHorizontalDivisions, config.totalVerticalDivisions, config.maxLines, gradient);
 	}
 
 	/**
-	 * Creates a Hough line detector based on polar parametrization.
+	 * Creates a Hough line detector based on polar parametrization.  If {@link BoofConcurrency#USE_CONCURRENT}
+	 * is true then votes are accumulated using multiple threads.
 	 *
 	 * @see DetectLineHoughPolar
 	 *
@@ -166,8 +179,32 @@ public class FactoryDetectLineAlgs {
 
 		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType,derivType);
 
-		return new DetectLineHoughPolar<>(config.localMaxRadius, config.minCounts, config.resolutionRange,
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(
+				new ConfigExtract(config.localMaxRadius, config.minCounts, 0, false));
+
+		HoughTransformLinePolar alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new HoughTransformLinePolar_MT(extractor,1,1);
+		else
+			alg = new HoughTransformLinePolar(extractor,1,1);
+
+		return new DetectLineHoughPolar<>(alg, config.localMaxRadius, config.resolutionRange,
 				config.resolutionAngle, config.thresholdEdge, config.maxLines, gradient);
 	}
 
+	/**
+	 * Creates the foot of norm Hough transform.  If {@link BoofConcurrency#USE_CONCURRENT} is true then
+	 * the concurrent implementation is returned.
+	 */
+	private static HoughTransformLineFootOfNorm houghFootTransform( int localMaxRadius , int minCounts ,
+																	int minDistanceFromOrigin ) {
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmaxCandidate(
+				new ConfigExtract(localMaxRadius, minCounts, 0, false));
+
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new HoughTransformLineFootOfNorm_MT(extractor,minDistanceFromOrigin);
+		else
+			return new HoughTransformLineFootOfNorm(extractor,minDistanceFromOrigin);
+	}
+
 }
@@ -21,11 +21,13 @@ package boofcv.factory.feature.disparity;
 import boofcv.abst.feature.disparity.StereoDisparity;
 import boofcv.abst.feature.disparity.StereoDisparitySparse;
 import boofcv.abst.feature.disparity.WrapDisparitySadRect;
+import boofcv.abst.feature.disparity.WrapDisparitySadRect_MT;
 import boofcv.abst.feature.disparity.WrapDisparitySparseSadRect;
 import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
 import boofcv.alg.feature.disparity.DisparitySelect;
 import boofcv.alg.feature.disparity.DisparitySparseScoreSadRect;
 import boofcv.alg.feature.disparity.DisparitySparseSelect;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
@@ -66,6 +68,10 @@ public class FactoryStereoDisparity {
 	 * NOTE: For RECT_FIVE the size of the sub-regions it uses is what is specified.
 	 * </p>
 	 *
+	 * <p>
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.
+	 * </p>
+	 *
 	 * @param minDisparity Minimum disparity that it will check. Must be &ge; 0 and &lt; maxDisparity
 	 * @param maxDisparity Maximum disparity that it will calculate. Must be &gt; 0
 	 * @param regionRadiusX Radius of the rectangular region along x-axis.
@@ -78,66 +84,27 @@ public class FactoryStereoDisparity {
 	 * @return Rectangular region based WTA disparity.algorithm.
 	 */
 	public static <T extends ImageGray<T>> StereoDisparity<T,GrayU8>
-	regionWta( DisparityAlgorithms whichAlg ,
-			   int minDisparity , int maxDisparity,
-			   int regionRadiusX, int regionRadiusY ,
-			   double maxPerPixelError ,
-			   int validateRtoL ,
-			   double texture ,
-			   Class<T> imageType ) {
-
-		double maxError = (regionRadiusX*2+1)*(regionRadiusY*2+1)*maxPerPixelError;
-
-		// 3 regions are used not just one in this case
-		if( whichAlg == DisparityAlgorithms.RECT_FIVE )
-			maxError *= 3;
-
-		DisparitySelect select;
-		if( imageType == GrayU8.class || imageType == GrayS16.class ) {
-			select = selectDisparity_S32((int) maxError, validateRtoL, texture);
-		} else if( imageType == GrayF32.class ) {
-			select = selectDisparity_F32((int) maxError, validateRtoL, texture);
-		} else {
-			throw new IllegalArgumentException("Unknown image type");
-		}
-
-		DisparityScoreRowFormat<T,GrayU8> alg = null;
-
-		switch( whichAlg ) {
-			case RECT:
-				if( imageType == GrayU8.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
-				} else if( imageType == GrayS16.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				} else if( imageType == GrayF32.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRect_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				}
-				break;
+	regionWta( final DisparityAlgorithms whichAlg ,
+			   final int minDisparity , final int maxDisparity,
+			   final int regionRadiusX, final int regionRadiusY ,
+			   final double maxPerPixelError ,
+			   final int validateRtoL ,
+			   final double texture ,
+			   final Class<T> imageType ) {
 
-			case RECT_FIVE:
-				if( imageType == GrayU8.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_U8(minDisparity,
-							maxDisparity,regionRadiusX,regionRadiusY,select);
-				} else if( imageType == GrayS16.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_S16(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
-				} else if( imageType == GrayF32.class ) {
-					alg = FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_F32(minDisparity,
-							maxDisparity, regionRadiusX, regionRadiusY, select);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new WrapDisparitySadRect_MT<>(new WrapDisparitySadRect_MT.FactoryAlg<T,GrayU8>() {
+				@Override
+				public DisparityScoreRowFormat<T,GrayU8> create() {
+					return createRegionWta(whichAlg, minDisparity, maxDisparity, regionRadiusX, regionRadiusY,
+							maxPerPixelError, validateRtoL, texture, false, imageType);
 				}
-				break;
-
-			default:
-				throw new IllegalArgumentException("Unknown algorithms "+whichAlg);
-
+			});
 		}
-		if( alg == null)
-			throw new RuntimeException("Image type not supported: "+imageType.getSimpleName() );
 
-		return new WrapDisparitySadRect<>(alg);
+		return new WrapDisparitySadRect<>((DisparityScoreRowFormat<T,GrayU8>)createRegionWta(whichAlg,
+				minDisparity, maxDisparity, regionRadiusX, regionRadiusY,
+				maxPerPixelError, validateRtoL, texture, false, imageType));
 	}
 
 	/**
@@ -149,6 +116,10 @@ public class FactoryStereoDisparity {
 	 * NOTE: For RECT_FIVE the size of the sub-regions it uses is what is specified.
 	 * </p>
 	 *
+	 * <p>
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.
+	 * </p>
+	 *
 	 * @param minDisparity Minimum disparity that it will check. Must be &ge; 0 and &lt; maxDisparity
 	 * @param maxDisparity Maximum disparity that it will calculate. Must be &gt; 0
 	 * @param regionRadiusX Radius of the rectangular region along x-axis. Try 3.
@@ -161,14 +132,40 @@ public class FactoryStereoDisparity {
 	 * @return Rectangular region based WTA disparity.algorithm.
 	 */
 	public static <T extends ImageGray<T>> StereoDisparity<T,GrayF32>
-	regionSubpixelWta( DisparityAlgorithms whichAlg ,
-					   int minDisparity , int maxDisparity,
-					   int regionRadiusX, int regionRadiusY ,
-					   double maxPerPixelError ,
-					   int validateRtoL ,
-					   double texture ,
-					   Class<T> imageType ) {
+	regionSubpixelWta( final DisparityAlgorithms whichAlg ,
+					   final int minDisparity , final int maxDisparity,
+					   final int regionRadiusX, final int regionRadiusY ,
+					   final double maxPerPixelError ,
+					   final int validateRtoL ,
+					   final double texture ,
+					   final Class<T> imageType ) {
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new WrapDisparitySadRect_MT<>(new WrapDisparitySadRect_MT.FactoryAlg<T,GrayF32>() {
+				@Override
+				public DisparityScoreRowFormat<T,GrayF32> create() {
+					return createRegionWta(whichAlg, minDisparity, maxDisparity, regionRadiusX, regionRadiusY,
+							maxPerPixelError, validateRtoL, texture, true, imageType);
+				}
+			});
+		}
+
+		return new WrapDisparitySadRect<>((DisparityScoreRowFormat<T,GrayF32>)createRegionWta(whichAlg,
+				minDisparity, maxDisparity, regionRadiusX, regionRadiusY,
+				maxPerPixelError, validateRtoL, texture, true, imageType));
+	}
+
+	/**
+	 * Creates the dense disparity algorithm used by {@link #regionWta} and {@link #regionSubpixelWta}
+	 */
+	private static DisparityScoreRowFormat createRegionWta( DisparityAlgorithms whichAlg ,
+															int minDisparity , int maxDisparity,
+															int regionRadiusX, int regionRadiusY ,
+															double maxPerPixelError ,
+															int validateRtoL ,
+															double texture ,
+															boolean subpixel ,
+															Class imageType ) {
 		double maxError = (regionRadiusX*2+1)*(regionRadiusY*2+1)*maxPerPixelError;
 
 		// 3 regions are used not just one in this case
@@ -177,14 +174,20 @@ public class FactoryStereoDisparity {
 
 		DisparitySelect select;
 		if( imageType == GrayU8.class || imageType == GrayS16.class ) {
-			select = selectDisparitySubpixel_S32((int) maxError, validateRtoL, texture);
+			if( subpixel )
+				select = selectDisparitySubpixel_S32((int) maxError, validateRtoL, texture);
+			else
+				select = selectDisparity_S32((int) maxError, validateRtoL, texture);
 		} else if( imageType == GrayF32.class ) {
-			select = selectDisparitySubpixel_F32((int) maxError, validateRtoL, texture);
+			if( subpixel )
+				select = selectDisparitySubpixel_F32((int) maxError, validateRtoL, texture);
+			else
+				select = selectDisparity_F32((int) maxError, validateRtoL, texture);
 		} else {
 			throw new IllegalArgumentException("Unknown image type");
 		}
 
-		DisparityScoreRowFormat<T,GrayF32> alg = null;
+		DisparityScoreRowFormat alg = null;
 
 		switch( whichAlg ) {
 			case RECT:
@@ -220,7 +223,7 @@ public class FactoryStereoDisparity {
 		if( alg == null)
 			throw new RuntimeException("Image type not supported: "+imageType.getSimpleName() );
 
-		return new WrapDisparitySadRect<>(alg);
+		return alg;
 	}
 
 	/**
@@ -25,6 +25,7 @@ import boofcv.alg.flow.*;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.tracker.klt.PkltConfig;
 import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.interpolate.FactoryInterpolation;
@@ -80,7 +81,8 @@ public class FactoryDenseOpticalFlow {
 	}
 
 	/**
-	 * Creates a pyramidal block
+	 * Creates a pyramidal block.  If {@link BoofConcurrency#USE_CONCURRENT} is true then the search for each
+	 * region is done concurrently.
 	 *
 	 * @see boofcv.alg.flow.DenseOpticalFlowBlockPyramid
 	 * @see boofcv.alg.flow.UtilDenseOpticalFlow#standardPyramid(int, int, double, double, int, int, Class)
@@ -105,11 +107,15 @@ public class FactoryDenseOpticalFlow {
 		else
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new DenseOpticalFlowBlockPyramid_MT<>(alg);
+
 		return new FlowBlock_to_DenseOpticalFlow<>(alg, config.pyramidScale, config.maxPyramidLayers, imageType);
 	}
 
 	/**
-	 * The original Horn-Schunck algorithm.  Only good for very small motions.
+	 * The original Horn-Schunck algorithm.  Only good for very small motions.  If
+	 * {@link BoofConcurrency#USE_CONCURRENT} is true then {@link GrayF32} images are processed concurrently.
 	 *
 	 * @see HornSchunck
 	 *
@@ -127,8 +133,12 @@ public class FactoryDenseOpticalFlow {
 		if( imageType == GrayU8.class )
 			alg = (HornSchunck)new HornSchunck_U8(config.alpha,config.numIterations);
 		else
-		if( imageType == GrayF32.class )
-			alg = (HornSchunck)new HornSchunck_F32(config.alpha,config.numIterations);
+		if( imageType == GrayF32.class ) {
+			if( BoofConcurrency.USE_CONCURRENT )
+				alg = (HornSchunck)new HornSchunck_F32_MT(config.alpha,config.numIterations);
+			else
+				alg = (HornSchunck)new HornSchunck_F32(config.alpha,config.numIterations);
+		}
 		else
 			throw new IllegalArgumentException("Unsupported image type "+imageType);
 
@@ -136,7 +146,8 @@ public class FactoryDenseOpticalFlow {
 	}
 
 	/**
-	 * Creates an instance of {@link HornSchunckPyramid}
+	 * Creates an instance of {@link HornSchunckPyramid}.  If {@link BoofConcurrency#USE_CONCURRENT} is true
+	 * then the SOR iterations are done concurrently using a red-black ordering of rows.
 	 *
 	 * @see HornSchunckPyramid
 	 *
@@ -152,11 +163,24 @@ public class FactoryDenseOpticalFlow {
 		InterpolatePixelS<GrayF32> interpolate =
 				FactoryInterpolation.createPixelS(0,255,config.interpolation, BorderType.EXTENDED, GrayF32.class);
 
-		HornSchunckPyramid<T> alg = new HornSchunckPyramid<>(config, interpolate);
+		HornSchunckPyramid<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new HornSchunckPyramid_MT<>(config, interpolate);
+		else
+			alg = new HornSchunckPyramid<>(config, interpolate);
 
 		return new HornSchunckPyramid_to_DenseOpticalFlow<>(alg, imageType);
 	}
 
+	/**
+	 * Creates an instance of {@link BroxWarpingSpacial}.  If {@link BoofConcurrency#USE_CONCURRENT} is true
+	 * then the SOR iterations are done concurrently using a red-black ordering of pixels.
+	 *
+	 * @see BroxWarpingSpacial
+	 *
+	 * @param config Configuration parameters.  If null defaults will be used.
+	 * @return Dense optical flow implementation of BroxWarpingSpacial
+	 */
 	public static <T extends ImageGray<T>>
 	DenseOpticalFlow<T> broxWarping( ConfigBroxWarping config , Class<T> imageType )
 	{
@@ -166,7 +190,11 @@ public class FactoryDenseOpticalFlow {
 		InterpolatePixelS<GrayF32> interpolate =
 				FactoryInterpolation.createPixelS(0,255,config.interpolation, BorderType.EXTENDED, GrayF32.class);
 
-		BroxWarpingSpacial<T> alg = new BroxWarpingSpacial<>(config, interpolate);
+		BroxWarpingSpacial<T> alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new BroxWarpingSpacial_MT<>(config, interpolate);
+		else
+			alg = new BroxWarpingSpacial<>(config, interpolate);
 
 		return new BroxWarpingSpacial_to_DenseOpticalFlow<>(alg, imageType);
 	}
@@ -40,7 +40,8 @@ public class ConfigSegmentMeanShift {
 	 */
 	public int minimumRegionSize = 30;
 	/**
-	 * Improve runtime by approximating running mean-shift on each pixel. Try true.
+	 * Improve runtime by approximating running mean-shift on each pixel. Try true.  The concurrent implementation
+	 * uses a different approximation, see {@link boofcv.alg.segmentation.ms.SegmentMeanShiftSearchGray_MT}.
 	 */
 	public boolean fast = true;
 	/**
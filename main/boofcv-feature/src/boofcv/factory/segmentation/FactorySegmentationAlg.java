@@ -28,6 +28,7 @@ import boofcv.alg.segmentation.fh04.impl.*;
 import boofcv.alg.segmentation.ms.*;
 import boofcv.alg.segmentation.slic.*;
 import boofcv.alg.segmentation.watershed.WatershedVincentSoille1991;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.ConnectRule;
@@ -71,7 +72,7 @@ public class FactorySegmentationAlg {
 
 	/**
 	 * Creates an instance of {@link boofcv.alg.segmentation.ms.SegmentMeanShift}.  Uniform distributions are used for spacial and color
-	 * weights.
+	 * weights.  If {@link BoofConcurrency#USE_CONCURRENT} is true then the mean-shift search is done concurrently.
 	 *
 	 * @param config Specify configuration for mean-shift
 	 * @param imageType Type of input image
@@ -92,14 +93,37 @@ public class FactorySegmentationAlg {
 		SegmentMeanShiftSearch<T> search;
 
 		if( imageType.getFamily() == ImageType.Family.GRAY) {
-			InterpolatePixelS interp = FactoryInterpolation.bilinearPixelS(imageType.getImageClass(), BorderType.EXTENDED);
-			search = new SegmentMeanShiftSearchGray(maxIterations,convergenceTol,interp,
-					spacialRadius,spacialRadius,colorRadius,config.fast);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				final Class imageClass = imageType.getImageClass();
+				search = new SegmentMeanShiftSearchGray_MT(maxIterations,convergenceTol,
+						new SegmentMeanShiftSearchGray_MT.FactoryInterpolate() {
+							@Override
+							public InterpolatePixelS create() {
+								return FactoryInterpolation.bilinearPixelS(imageClass, BorderType.EXTENDED);
+							}
+						},spacialRadius,spacialRadius,colorRadius,config.fast);
+			} else {
+				InterpolatePixelS interp = FactoryInterpolation.bilinearPixelS(imageType.getImageClass(), BorderType.EXTENDED);
+				search = new SegmentMeanShiftSearchGray(maxIterations,convergenceTol,interp,
+						spacialRadius,spacialRadius,colorRadius,config.fast);
+			}
 		} else {
-			InterpolatePixelMB interp = FactoryInterpolation.createPixelMB(0,255,
-					InterpolationType.BILINEAR, BorderType.EXTENDED,(ImageType)imageType);
-			search = new SegmentMeanShiftSearchColor(maxIterations,convergenceTol,interp,
-					spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			if( BoofConcurrency.USE_CONCURRENT ) {
+				final ImageType interpType = imageType;
+				search = new SegmentMeanShiftSearchColor_MT(maxIterations,convergenceTol,
+						new SegmentMeanShiftSearchColor_MT.FactoryInterpolate() {
+							@Override
+							public InterpolatePixelMB create() {
+								return FactoryInterpolation.createPixelMB(0,255,
+										InterpolationType.BILINEAR, BorderType.EXTENDED,interpType);
+							}
+						},spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			} else {
+				InterpolatePixelMB interp = FactoryInterpolation.createPixelMB(0,255,
+						InterpolationType.BILINEAR, BorderType.EXTENDED,(ImageType)imageType);
+				search = new SegmentMeanShiftSearchColor(maxIterations,convergenceTol,interp,
+						spacialRadius,spacialRadius,colorRadius,config.fast,imageType);
+			}
 		}
 
 		ComputeRegionMeanColor<T> regionColor = regionMeanColor(imageType);
@@ -170,18 +194,34 @@ public class FactorySegmentationAlg {
 		return alg;
 	}
 
+	/**
+	 * Creates an instance of {@link SegmentSlic} for the specified image type.  If
+	 * {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.
+	 *
+	 * @param config Configuration. Can't be null.
+	 * @param imageType Type of input image
+	 * @return SegmentSlic
+	 */
 	public static<T extends ImageBase<T>>
 	SegmentSlic<T> slic( ConfigSlic config , ImageType<T> imageType )
 	{
 		if( config == null )
 			throw new IllegalArgumentException("No default configuration since the number of segments must be specified.");
 
+		boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+
 		if( imageType.getFamily() == ImageType.Family.GRAY) {
 				switch( imageType.getDataType() ) {
 					case U8:
+						if( concurrent )
+							return (SegmentSlic)new SegmentSlic_U8_MT(config.numberOfRegions,
+									config.spacialWeight,config.totalIterations,config.connectRule);
 						return (SegmentSlic)new SegmentSlic_U8(config.numberOfRegions,
 								config.spacialWeight,config.totalIterations,config.connectRule);
 					case F32:
+						if( concurrent )
+							return (SegmentSlic)new SegmentSlic_F32_MT(config.numberOfRegions,
+									config.spacialWeight,config.totalIterations,config.connectRule);
 						return (SegmentSlic)new SegmentSlic_F32(config.numberOfRegions,
 								config.spacialWeight,config.totalIterations,config.connectRule);
 				}
@@ -189,9 +229,15 @@ public class FactorySegmentationAlg {
 			int N = imageType.getNumBands();
 				switch( imageType.getDataType() ) {
 					case U8:
+						if( concurrent )
+							return (SegmentSlic)new SegmentSlic_PlU8_MT(config.numberOfRegions,
+									config.spacialWeight,config.totalIterations,config.connectRule,N);
 						return (SegmentSlic)new SegmentSlic_PlU8(config.numberOfRegions,
 								config.spacialWeight,config.totalIterations,config.connectRule,N);
 					case F32:
+						if( concurrent )
+							return (SegmentSlic)new SegmentSlic_PlF32_MT(config.numberOfRegions,
+									config.spacialWeight,config.totalIterations,config.connectRule,N);
 						return (SegmentSlic)new SegmentSlic_PlF32(config.numberOfRegions,
 								config.spacialWeight,config.totalIterations,config.connectRule,N);
 				}
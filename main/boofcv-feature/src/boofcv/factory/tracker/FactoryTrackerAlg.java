@@ -28,6 +28,8 @@ import boofcv.alg.tracker.klt.KltConfig;
 import boofcv.alg.tracker.klt.KltTracker;
 import boofcv.alg.tracker.klt.PkltConfig;
 import boofcv.alg.tracker.klt.PyramidKltTracker;
+import boofcv.alg.tracker.klt.PyramidKltTracker_MT;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.feature.TupleDesc;
 import boofcv.struct.image.ImageGray;
@@ -43,6 +45,7 @@ public class FactoryTrackerAlg {
 	 * Creates a {@link KltTracker}.
 	 *
 	 * NOTE: The pyramid's structure is determined by the input pyramid that is processed.
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then batches of features are tracked concurrently.
 	 *
 	 * @param config KLT configuration
 	 * @param imageType Type of input image
@@ -69,6 +72,7 @@ public class FactoryTrackerAlg {
 	 * Creates a {@link PyramidKltTracker}.
 	 *
 	 * NOTE: The pyramid's structure is determined by the input pyramid that is processed.
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then batches of features are tracked concurrently.
 	 *
 	 * @param config KLT configuration
 	 * @param imageType Type of input image
@@ -91,7 +95,10 @@ public class FactoryTrackerAlg {
 		InterpolateRectangle<D> interpDeriv = FactoryInterpolation.<D>bilinearRectangle(derivType);
 
 		KltTracker<I, D> klt = new KltTracker<>(interpInput, interpDeriv, config);
-		return new PyramidKltTracker<>(klt);
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new PyramidKltTracker_MT<>(klt);
+		else
+			return new PyramidKltTracker<>(klt);
 	}
 
 	/**
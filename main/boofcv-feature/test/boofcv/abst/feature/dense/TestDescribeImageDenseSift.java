@@ -77,7 +77,7 @@ public class TestDescribeImageDenseSift {
 				TupleDesc_F64 found = (TupleDesc_F64)alg.getDescriptions().get(i);
 
 				for (int j = 0; j < expected.size(); j++) {
-					assertEquals(expected.value[j],found.value[j],1e-8);
+					assertEquals(expected.value[j],found.value[j],1e-6);
 				}
 			}
 		}
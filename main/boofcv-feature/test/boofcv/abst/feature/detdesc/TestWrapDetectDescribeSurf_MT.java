@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.detdesc;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detdesc.FactoryDetectDescribe;
+import boofcv.struct.feature.BrightFeature;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWrapDetectDescribeSurf_MT extends GenericTestsDetectDescribePoint<GrayF32,BrightFeature>
+{
+	int maxThreads;
+
+	public TestWrapDetectDescribeSurf_MT() {
+		super(true, true, ImageType.single(GrayF32.class), BrightFeature.class);
+	}
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Override
+	public DetectDescribePoint<GrayF32, BrightFeature> createDetDesc() {
+		return createDetDesc(true);
+	}
+
+	private DetectDescribePoint<GrayF32, BrightFeature> createDetDesc( boolean concurrent ) {
+		boolean original = BoofConcurrency.USE_CONCURRENT;
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		try {
+			DetectDescribePoint<GrayF32, BrightFeature> alg =
+					FactoryDetectDescribe.surfStable(null,null,null, GrayF32.class);
+			if( concurrent )
+				((WrapDetectDescribeSurf_MT)alg).setMinBlockSize(5);
+			return alg;
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = original;
+		}
+	}
+
+	@Test
+	public void compareToSingle() {
+		DetectDescribePoint<GrayF32, BrightFeature> single = createDetDesc(false);
+		DetectDescribePoint<GrayF32, BrightFeature> alg = createDetDesc(true);
+
+		single.detect(image);
+		alg.detect(image);
+
+		assertTrue(single.getNumberOfFeatures() > 20);
+		assertEquals(single.getNumberOfFeatures(), alg.getNumberOfFeatures());
+		for (int i = 0; i < single.getNumberOfFeatures(); i++) {
+			assertEquals(single.getLocation(i).x, alg.getLocation(i).x, 0);
+			assertEquals(single.getLocation(i).y, alg.getLocation(i).y, 0);
+			assertEquals(single.getRadius(i), alg.getRadius(i), 0);
+			assertEquals(single.getOrientation(i), alg.getOrientation(i), 0);
+
+			BrightFeature e = single.getDescription(i);
+			BrightFeature f = alg.getDescription(i);
+			assertEquals(e.white, f.white);
+			for (int j = 0; j < e.size(); j++) {
+				assertEquals(e.value[j], f.value[j], 0);
+			}
+		}
+	}
+}
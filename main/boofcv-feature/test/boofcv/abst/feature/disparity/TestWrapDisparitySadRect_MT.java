@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.disparity;
+
+import boofcv.alg.feature.disparity.DisparityScoreRowFormat;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.disparity.FactoryStereoDisparityAlgs;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWrapDisparitySadRect_MT {
+
+	Random rand = new Random(234);
+
+	int width = 80;
+	int height = 95;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		GrayU8 left = new GrayU8(width,height);
+		GrayU8 right = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(left,rand,0,100);
+		// shift the image so that there is a meaningful disparity
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				right.set(x,y,left.get(Math.min(width-1,x+5),y)+rand.nextInt(3));
+			}
+		}
+
+		compare(new WrapDisparitySadRect_MT.FactoryAlg<GrayU8,GrayU8>() {
+			@Override
+			public DisparityScoreRowFormat<GrayU8,GrayU8> create() {
+				return FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(1,12,2,3,
+						FactoryStereoDisparityAlgs.selectDisparity_S32(-1,1,0.1));
+			}
+		},left,right);
+
+		compare(new WrapDisparitySadRect_MT.FactoryAlg<GrayU8,GrayU8>() {
+			@Override
+			public DisparityScoreRowFormat<GrayU8,GrayU8> create() {
+				return FactoryStereoDisparityAlgs.scoreDisparitySadRectFive_U8(0,12,2,2,
+						FactoryStereoDisparityAlgs.selectDisparity_S32(-1,1,0.1));
+			}
+		},left,right);
+
+		compare(new WrapDisparitySadRect_MT.FactoryAlg<GrayU8,GrayF32>() {
+			@Override
+			public DisparityScoreRowFormat<GrayU8,GrayF32> create() {
+				return FactoryStereoDisparityAlgs.scoreDisparitySadRect_U8(0,12,3,2,
+						FactoryStereoDisparityAlgs.selectDisparitySubpixel_S32(-1,1,0.1));
+			}
+		},left,right);
+	}
+
+	private <D extends ImageGray<D>>
+	void compare( WrapDisparitySadRect_MT.FactoryAlg<GrayU8,D> factory , GrayU8 left , GrayU8 right ) {
+		WrapDisparitySadRect<GrayU8,D> expected = new WrapDisparitySadRect<>(factory.create());
+		WrapDisparitySadRect_MT<GrayU8,D> alg = new WrapDisparitySadRect_MT<>(factory);
+		alg.setMinBlockRows(3);
+
+		expected.process(left,right);
+		alg.process(left,right);
+
+		BoofTesting.assertEquals(expected.getDisparity(),alg.getDisparity(),0);
+
+		// sub-images should produce the same results too
+		alg.process(BoofTesting.createSubImageOf(left),BoofTesting.createSubImageOf(right));
+		BoofTesting.assertEquals(expected.getDisparity(),alg.getDisparity(),0);
+	}
+}
@@ -155,6 +155,39 @@ public abstract class GenericBackgroundModelStationaryChecks {
 		BoofTesting.assertEquals(expected, segmented, 1e-8);
 	}
 
+	/**
+	 * The fused call should produce the same results as segmenting then updating
+	 */
+	@Test
+	public void segmentAndUpdate() {
+		for( ImageType type : imageTypes ) {
+			segmentAndUpdate(type);
+		}
+	}
+
+	private <T extends ImageBase<T>>
+	void segmentAndUpdate( ImageType<T> imageType ) {
+		T frame = imageType.createImage(width, height);
+
+		BackgroundModelStationary<T> algA = create(frame.getImageType());
+		BackgroundModelStationary<T> algB = create(frame.getImageType());
+
+		GrayU8 expected = new GrayU8(width,height);
+		GrayU8 found = new GrayU8(width,height);
+
+		for (int i = 0; i < 6; i++) {
+			noise(100, 30, frame);
+			if( i == 5 )
+				GImageMiscOps.fillRectangle(frame, 200, 10, 12, 20, 15);
+
+			algA.segment(frame, expected);
+			algA.updateBackground(frame);
+			algB.segmentAndUpdate(frame, found);
+
+			BoofTesting.assertEquals(expected, found, 1e-8);
+		}
+	}
+
 	@Test
 	public void checkSubImage() {
 		for( ImageType type : imageTypes ) {
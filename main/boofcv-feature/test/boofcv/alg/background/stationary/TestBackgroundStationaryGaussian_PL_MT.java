@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.background.stationary;
+
+import boofcv.alg.background.BackgroundModelStationary;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBackgroundStationaryGaussian_PL_MT extends GenericBackgroundStationaryGaussianChecks {
+
+	int originalThreads;
+
+	public TestBackgroundStationaryGaussian_PL_MT() {
+		imageTypes.add(ImageType.pl(2, GrayU8.class));
+		imageTypes.add(ImageType.pl(3, GrayU8.class));
+		imageTypes.add(ImageType.pl(3, GrayF32.class));
+	}
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Override
+	public <T extends ImageBase<T>> BackgroundModelStationary<T>
+	create(ImageType<T> imageType) {
+		BackgroundStationaryGaussian alg = new BackgroundStationaryGaussian_PL_MT(0.05f,10f,imageType);
+		if( !Float.isNaN(initialVariance))
+			alg.setInitialVariance(initialVariance);
+		return alg;
+	}
+
+	/**
+	 * Should produce identical results to the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		for( ImageType type : imageTypes ) {
+			compareToSingle(type);
+		}
+	}
+
+	private <T extends ImageBase<T>> void compareToSingle( ImageType<T> imageType ) {
+		BackgroundStationaryGaussian<T> single = new BackgroundStationaryGaussian_PL(0.05f,10f,imageType);
+		BackgroundStationaryGaussian<T> multi = (BackgroundStationaryGaussian)create(imageType);
+		single.setInitialVariance(initialVariance);
+		single.setMinimumDifference(5);
+		multi.setMinimumDifference(5);
+
+		T frame = imageType.createImage(width,height);
+		GrayU8 expected = new GrayU8(width,height);
+		GrayU8 found = new GrayU8(width,height);
+
+		for (int i = 0; i < 10; i++) {
+			noise(100, 30, frame);
+			GImageMiscOps.fillRectangle(frame, 200, i*3, 12, 20, 15);
+
+			single.segment(frame, expected);
+			multi.segment(frame, found);
+			BoofTesting.assertEquals(expected, found, 1e-8);
+
+			if( i % 2 == 0 ) {
+				single.updateBackground(frame);
+				multi.updateBackground(frame);
+			} else {
+				single.segmentAndUpdate(frame, expected);
+				multi.segmentAndUpdate(frame, found);
+				BoofTesting.assertEquals(expected, found, 1e-8);
+			}
+		}
+	}
+}
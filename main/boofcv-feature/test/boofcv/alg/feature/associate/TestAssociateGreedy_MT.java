@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclidean_F64;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateGreedy_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Test
+	public void compareToSingle() {
+		// only a few possible values so that there are ties
+		FastQueue<TupleDesc_F64> src = createData(300);
+		FastQueue<TupleDesc_F64> dst = createData(250);
+
+		for( boolean backwards : new boolean[]{true,false} ) {
+			AssociateGreedy<TupleDesc_F64> single = new AssociateGreedy<>(new ScoreAssociateEuclidean_F64(), backwards);
+			AssociateGreedy_MT<TupleDesc_F64> alg = new AssociateGreedy_MT<>(new ScoreAssociateEuclidean_F64(), backwards);
+			alg.setMinBlockSize(10);
+			single.setMaxFitError(1.5);
+			alg.setMaxFitError(1.5);
+
+			single.associate(src,dst);
+			alg.associate(src,dst);
+
+			for (int i = 0; i < src.size; i++) {
+				assertEquals(single.getPairs()[i], alg.getPairs()[i]);
+				assertEquals(single.getFitQuality()[i], alg.getFitQuality()[i], 0);
+			}
+		}
+	}
+
+	private FastQueue<TupleDesc_F64> createData( int total ) {
+		FastQueue<TupleDesc_F64> ret = new FastQueue<TupleDesc_F64>(10,TupleDesc_F64.class, true) {
+			@Override
+			protected TupleDesc_F64 createInstance() {
+				return new TupleDesc_F64(2);
+			}
+		};
+
+		for( int i = 0; i < total; i++ ) {
+			ret.grow().set(rand.nextInt(20), rand.nextInt(20));
+		}
+		return ret;
+	}
+}
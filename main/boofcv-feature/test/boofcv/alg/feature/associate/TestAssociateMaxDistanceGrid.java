@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateMaxDistanceGrid {
+
+	Random rand = new Random(234);
+
+	FastQueue<Point2D_F64> locSrc = new FastQueue<>(Point2D_F64.class, true);
+	FastQueue<Point2D_F64> locDst = new FastQueue<>(Point2D_F64.class, true);
+	FastQueue<TupleDesc_F64> descSrc = createDescQueue();
+	FastQueue<TupleDesc_F64> descDst = createDescQueue();
+
+	/**
+	 * Results should be identical to the naive implementation
+	 */
+	@Test
+	public void compareToNaive() {
+		createFeatures(300, 250);
+
+		double[] distances = new double[]{0.5, 10, 40, Double.MAX_VALUE};
+		for( double distance : distances ) {
+			for( boolean backwards : new boolean[]{true,false} ) {
+				AssociateMaxDistanceNaive<TupleDesc_F64> naive =
+						new AssociateMaxDistanceNaive<>(new ScoreAssociateEuclideanSq_F64(), backwards, 5, distance);
+				AssociateMaxDistanceGrid<TupleDesc_F64> alg =
+						new AssociateMaxDistanceGrid<>(new ScoreAssociateEuclideanSq_F64(), backwards, 5, distance);
+
+				checkIdentical(naive, alg);
+			}
+		}
+	}
+
+	@Test
+	public void changeSettings() {
+		createFeatures(100, 120);
+
+		AssociateMaxDistanceNaive<TupleDesc_F64> naive =
+				new AssociateMaxDistanceNaive<>(new ScoreAssociateEuclideanSq_F64(), true, 5, 10);
+		AssociateMaxDistanceGrid<TupleDesc_F64> alg =
+				new AssociateMaxDistanceGrid<>(new ScoreAssociateEuclideanSq_F64(), true, 5, 10);
+
+		naive.setMaxDistance(20);
+		alg.setMaxDistance(20);
+		assertEquals(20, alg.getMaxDistance(), 0);
+		naive.setThreshold(2);
+		alg.setThreshold(2);
+
+		checkIdentical(naive, alg);
+	}
+
+	void checkIdentical( AssociateMaxDistance<TupleDesc_F64> expected , AssociateMaxDistance<TupleDesc_F64> found ) {
+		expected.setSource(locSrc, descSrc);
+		expected.setDestination(locDst, descDst);
+		expected.associate();
+
+		found.setSource(locSrc, descSrc);
+		found.setDestination(locDst, descDst);
+		found.associate();
+
+		FastQueue<AssociatedIndex> a = expected.getMatches();
+		FastQueue<AssociatedIndex> b = found.getMatches();
+		assertEquals(a.size, b.size);
+		for (int i = 0; i < a.size; i++) {
+			assertEquals(a.get(i).src, b.get(i).src);
+			assertEquals(a.get(i).dst, b.get(i).dst);
+			assertEquals(a.get(i).fitScore, b.get(i).fitScore, 0);
+		}
+
+		assertEquals(expected.getUnassociatedSource().size, found.getUnassociatedSource().size);
+		for (int i = 0; i < expected.getUnassociatedSource().size; i++) {
+			assertEquals(expected.getUnassociatedSource().get(i), found.getUnassociatedSource().get(i));
+		}
+		assertEquals(expected.getUnassociatedDestination().size, found.getUnassociatedDestination().size);
+	}
+
+	/**
+	 * Destination features are perturbed copies of the source features plus some random ones.  Descriptors
+	 * only have a few possible values so there are lots of ties.
+	 */
+	void createFeatures( int numSrc , int numDst ) {
+		locSrc.reset(); locDst.reset();
+		descSrc.reset(); descDst.reset();
+
+		for (int i = 0; i < numSrc; i++) {
+			locSrc.grow().set(rand.nextDouble()*400, rand.nextDouble()*300);
+			descSrc.grow().value[0] = rand.nextInt(4);
+		}
+		for (int i = 0; i < numDst; i++) {
+			if( i < numSrc && rand.nextBoolean() ) {
+				Point2D_F64 p = locSrc.get(i);
+				locDst.grow().set(p.x + rand.nextGaussian()*5, p.y + rand.nextGaussian()*5);
+			} else {
+				locDst.grow().set(rand.nextDouble()*400, rand.nextDouble()*300);
+			}
+			descDst.grow().value[0] = rand.nextInt(4);
+		}
+		assertTrue(locDst.size > 0);
+	}
+
+	static FastQueue<TupleDesc_F64> createDescQueue() {
+		return new FastQueue<TupleDesc_F64>(TupleDesc_F64.class,true) {
+			@Override
+			protected TupleDesc_F64 createInstance() {
+				return new TupleDesc_F64(2);
+			}
+		};
+	}
+}
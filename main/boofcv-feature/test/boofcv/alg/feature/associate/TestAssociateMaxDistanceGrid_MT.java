@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq_F64;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestAssociateMaxDistanceGrid_MT {
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Test
+	public void compareToSingle() {
+		TestAssociateMaxDistanceGrid helper = new TestAssociateMaxDistanceGrid();
+		helper.createFeatures(400, 350);
+
+		for( boolean backwards : new boolean[]{true,false} ) {
+			AssociateMaxDistanceGrid<TupleDesc_F64> single =
+					new AssociateMaxDistanceGrid<>(new ScoreAssociateEuclideanSq_F64(), backwards, 5, 20);
+			AssociateMaxDistanceGrid_MT<TupleDesc_F64> alg =
+					new AssociateMaxDistanceGrid_MT<>(new ScoreAssociateEuclideanSq_F64(), backwards, 5, 20);
+			alg.setMinBlockSize(10);
+
+			helper.checkIdentical(single, alg);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPointGridIndex {
+
+	Random rand = new Random(234);
+
+	FastQueue<Point2D_F64> points = new FastQueue<>(Point2D_F64.class, true);
+	GrowQueue_I32 found = new GrowQueue_I32();
+
+	/**
+	 * Every point inside the query rectangle must be returned exactly once
+	 */
+	@Test
+	public void findCandidates() {
+		for (int i = 0; i < 300; i++) {
+			points.grow().set(rand.nextDouble()*200 - 50, rand.nextDouble()*100 + 20);
+		}
+
+		PointGridIndex alg = new PointGridIndex();
+		double[] cellSizes = new double[]{0, 2, 15, 500, Double.MAX_VALUE, Double.POSITIVE_INFINITY};
+		for( double cell : cellSizes ) {
+			alg.process(points, cell, cell*0.5);
+			assertTrue(alg.getCols()*alg.getRows() <= 4*points.size);
+
+			for (int trial = 0; trial < 50; trial++) {
+				double x = rand.nextDouble()*300 - 100;
+				double y = rand.nextDouble()*200 - 30;
+				double r = rand.nextDouble()*30;
+
+				alg.findCandidates(x - r, y - r, x + r, y + r, found);
+				checkCandidates(x - r, y - r, x + r, y + r);
+			}
+		}
+	}
+
+	/**
+	 * Query with an unbounded rectangle
+	 */
+	@Test
+	public void findCandidates_unbounded() {
+		for (int i = 0; i < 100; i++) {
+			points.grow().set(rand.nextDouble()*200, rand.nextDouble()*100);
+		}
+
+		PointGridIndex alg = new PointGridIndex();
+		alg.process(points, Double.POSITIVE_INFINITY, 3);
+		assertEquals(1, alg.getCols());
+
+		alg.findCandidates(-Double.MAX_VALUE, 40, 100, 45, found);
+		checkCandidates(-Double.MAX_VALUE, 40, 100, 45);
+
+		alg.findCandidates(-Double.MAX_VALUE, -Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE, found);
+		assertEquals(points.size, found.size);
+	}
+
+	private void checkCandidates( double x0 , double y0 , double x1 , double y1 ) {
+		boolean[] returned = new boolean[points.size];
+		for (int i = 0; i < found.size; i++) {
+			assertFalse(returned[found.get(i)]);
+			returned[found.get(i)] = true;
+		}
+		for (int i = 0; i < points.size; i++) {
+			Point2D_F64 p = points.get(i);
+			if( p.x >= x0 && p.x <= x1 && p.y >= y0 && p.y <= y1 )
+				assertTrue(returned[i]);
+		}
+	}
+
+	@Test
+	public void degenerate() {
+		PointGridIndex alg = new PointGridIndex();
+
+		// no points
+		alg.process(points, 5, 5);
+		alg.findCandidates(-10, -10, 10, 10, found);
+		assertEquals(0, found.size);
+
+		// all the points are at the same location
+		for (int i = 0; i < 5; i++) {
+			points.grow().set(3, 4);
+		}
+		alg.process(points, 5, 5);
+		alg.findCandidates(2, 3, 4, 5, found);
+		assertEquals(5, found.size);
+		// points in the same cell are in order
+		for (int i = 0; i < 5; i++) {
+			assertEquals(i, found.get(i));
+		}
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.associate;
+
+import boofcv.struct.feature.AssociatedIndex;
+import org.ddogleg.struct.FastQueue;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSortAssociatedByScore {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void sort() {
+		FastQueue<AssociatedIndex> matches = new FastQueue<>(AssociatedIndex.class,true);
+		for (int i = 0; i < 100; i++) {
+			// use a small number of distinct scores so that there are ties
+			matches.grow().setAssociation(i,i+1,rand.nextInt(10)-5);
+		}
+
+		SortAssociatedByScore.sort(matches);
+
+		assertEquals(100,matches.size);
+		for (int i = 1; i < matches.size; i++) {
+			AssociatedIndex a = matches.get(i-1);
+			AssociatedIndex b = matches.get(i);
+			assertTrue(a.fitScore <= b.fitScore);
+			// ties should keep the original order
+			if( a.fitScore == b.fitScore )
+				assertTrue(a.src < b.src);
+		}
+	}
+}
@@ -30,6 +30,7 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -107,6 +108,35 @@ public class TestDescribeDenseHogFastAlg {
 		}
 	}
 
+	/**
+	 * The list of descriptions should be a copy of the packed array and be updated each time an image is processed
+	 */
+	@Test
+	public void getDescriptionsPacked() {
+		DescribeDenseHogFastAlg<GrayF32> helper = new DescribeDenseHogFastAlg<>(10,8,2,2,1,imageType);
+
+		Random rand = new Random(234);
+		GrayF32 input = new GrayF32(120,110);
+
+		for (int trial = 0; trial < 2; trial++) {
+			ImageMiscOps.fillUniform(input, rand, 0, 200);
+			helper.setInput(input);
+			helper.process();
+
+			int N = helper.getDescriptions().size;
+			int length = helper.getDescriptorLength();
+			assertTrue(N > 0);
+			assertEquals(N*length, helper.getDescriptionsPacked().size);
+
+			for (int i = 0; i < N; i++) {
+				double[] expected = helper.getDescriptions().get(i).value;
+				for (int j = 0; j < length; j++) {
+					assertEquals(expected[j], helper.getDescriptionsPacked().data[i*length+j], 0);
+				}
+			}
+		}
+	}
+
 	@Test
 	public void computeDescriptor() {
 		DescribeDenseHogFastAlg<GrayF32> helper = new DescribeDenseHogFastAlg<>(10,8,2,2,1,imageType);
@@ -127,13 +157,13 @@ public class TestDescribeDenseHogFastAlg {
 		helper.computeDescriptor(0,2);
 
 		Point2D_I32 where = helper.locations.get(0);
-		TupleDesc_F64 found = helper.descriptions.get(0);
+		TupleDesc_F64 found = helper.getDescriptions().get(0);
 
 		assertEquals(8*2,where.x);
 		assertEquals(0,where.y);
 
 		assertEquals(40,found.size());
-		assertTrue(DescriptorDistance.euclidean(expected,found) < 1e-8 );
+		assertTrue(DescriptorDistance.euclidean(expected,found) < 1e-6 );
 	}
 
 	private void setHistogram( float histogram[] , int a , int b , double expected[], int index0 ) {
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDescribeDenseHogFastAlg_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Test
+	public void compareToSingle() {
+		compareToSingle(ImageType.single(GrayF32.class), 1);
+		compareToSingle(ImageType.single(GrayF32.class), 2);
+		compareToSingle(ImageType.pl(2, GrayF32.class), 1);
+	}
+
+	private <T extends ImageBase<T>> void compareToSingle( ImageType<T> imageType , int stepBlock ) {
+		DescribeDenseHogFastAlg<T> single = new DescribeDenseHogFastAlg<>(9, 6, 3, 2, stepBlock, imageType);
+		DescribeDenseHogFastAlg_MT<T> alg = new DescribeDenseHogFastAlg_MT<>(9, 6, 3, 2, stepBlock, imageType);
+		alg.setMinBlockRows(1);
+
+		// process a larger image first to make sure old results don't leak through
+		int[] widths = new int[]{203,151,40};
+		int[] heights = new int[]{180,137,10};
+
+		for (int trial = 0; trial < widths.length; trial++) {
+			T image = imageType.createImage(widths[trial], heights[trial]);
+			GImageMiscOps.fillUniform(image, rand, 0, 200);
+
+			single.setInput(image);
+			single.process();
+			alg.setInput(image);
+			alg.process();
+
+			assertEquals(single.getDescriptions().size, alg.getDescriptions().size);
+			assertEquals(single.getLocations().size, alg.getLocations().size);
+			assertEquals(single.getDescriptionsPacked().size, alg.getDescriptionsPacked().size);
+			if( trial < 2 )
+				assertTrue(alg.getDescriptions().size > 10);
+
+			for (int i = 0; i < single.getDescriptions().size; i++) {
+				assertEquals(single.getLocations().get(i).x, alg.getLocations().get(i).x);
+				assertEquals(single.getLocations().get(i).y, alg.getLocations().get(i).y);
+				double[] expected = single.getDescriptions().get(i).value;
+				double[] found = alg.getDescriptions().get(i).value;
+				float[] packed = alg.getDescriptionsPacked().data;
+				for (int j = 0; j < expected.length; j++) {
+					assertEquals(expected[j], found[j], 0);
+					assertEquals(expected[j], packed[i*expected.length + j], 0);
+				}
+			}
+		}
+	}
+}
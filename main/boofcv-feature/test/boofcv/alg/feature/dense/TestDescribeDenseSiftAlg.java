@@ -72,6 +72,7 @@ public class TestDescribeDenseSiftAlg {
 		int rows = (102-2*r)/10;
 
 		assertEquals(cols*rows,list.size());
+		assertEquals(cols*rows*128,alg.getDescriptorsPacked().size);
 
 		int w = derivX.width-2*r;
 		int h = derivX.height-2*r;
@@ -88,7 +89,9 @@ public class TestDescribeDenseSiftAlg {
 				alg.computeDescriptor(x,y,expected);
 
 				for (int j = 0; j < 128; j++) {
-					assertEquals(expected.value[j],found.value[j],1e-8);
+					// descriptors are stored as floats
+					assertEquals(expected.value[j],found.value[j],1e-6);
+					assertEquals(found.value[j],alg.getDescriptorsPacked().data[i*128+j],0);
 				}
 			}
 		}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDescribeDenseSiftAlg_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Test
+	public void compareToSingle() {
+		DescribeDenseSiftAlg<GrayF32> single = new DescribeDenseSiftAlg<>(4,4,8,0.5,0.2,7,5,GrayF32.class);
+		DescribeDenseSiftAlg_MT<GrayF32> alg = new DescribeDenseSiftAlg_MT<>(4,4,8,0.5,0.2,7,5,GrayF32.class);
+		alg.setMinBlockPixelRows(3);
+		alg.setMinBlockSampleRows(1);
+
+		// the second image is smaller to make sure old results don't leak through
+		int[] widths = new int[]{120,83};
+		int[] heights = new int[]{95,61};
+
+		for (int trial = 0; trial < widths.length; trial++) {
+			GrayF32 derivX = new GrayF32(widths[trial], heights[trial]);
+			GrayF32 derivY = new GrayF32(widths[trial], heights[trial]);
+			GImageMiscOps.fillUniform(derivX, rand, -100, 100);
+			GImageMiscOps.fillUniform(derivY, rand, -100, 100);
+
+			single.setImageGradient(derivX, derivY);
+			alg.setImageGradient(derivX, derivY);
+
+			BoofTesting.assertEquals(single.savedAngle, alg.savedAngle, 0);
+			BoofTesting.assertEquals(single.savedMagnitude, alg.savedMagnitude, 0);
+
+			single.process();
+			alg.process();
+
+			assertEquals(single.getDescriptors().size, alg.getDescriptors().size);
+			assertEquals(single.getLocations().size, alg.getLocations().size);
+			assertEquals(single.getDescriptorsPacked().size, alg.getDescriptorsPacked().size);
+			assertTrue(alg.getDescriptors().size > 10);
+
+			for (int i = 0; i < single.getDescriptors().size; i++) {
+				assertEquals(single.getLocations().get(i).x, alg.getLocations().get(i).x);
+				assertEquals(single.getLocations().get(i).y, alg.getLocations().get(i).y);
+				double[] expected = single.getDescriptors().get(i).value;
+				double[] found = alg.getDescriptors().get(i).value;
+				float[] packed = alg.getDescriptorsPacked().data;
+				for (int j = 0; j < expected.length; j++) {
+					assertEquals(expected[j], found[j], 0);
+					assertEquals(expected[j], packed[i*expected.length + j], 0);
+				}
+			}
+		}
+	}
+}
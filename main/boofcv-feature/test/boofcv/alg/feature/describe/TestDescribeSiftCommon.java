@@ -45,6 +45,38 @@ public class TestDescribeSiftCommon {
 		assertEquals(descriptor.value[5],descriptor.value[20],1e-8);
 	}
 
+	/**
+	 * Normalize a descriptor inside of a larger array and compare against the TupleDesc version
+	 */
+	@Test
+	public void normalizeDescriptor_array() {
+		TupleDesc_F64 expected = new TupleDesc_F64(128);
+		expected.value[5] = 100;
+		expected.value[20] = 120;
+		expected.value[60] = 20;
+
+		int offset = 7;
+		float[] array = new float[128 + 2*offset];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = 3;
+		}
+		for (int i = 0; i < 128; i++) {
+			array[offset+i] = (float)expected.value[i];
+		}
+
+		DescribeSiftCommon.normalizeDescriptor(expected,0.2);
+		DescribeSiftCommon.normalizeDescriptor(array,offset,128,0.2);
+
+		for (int i = 0; i < 128; i++) {
+			assertEquals(expected.value[i],array[offset+i],1e-6);
+		}
+		// elements outside the descriptor should not be modified
+		for (int i = 0; i < offset; i++) {
+			assertEquals(3,array[i],0);
+			assertEquals(3,array[offset+128+i],0);
+		}
+	}
+
 	private double normL2( TupleDesc_F64 desc ) {
 		double total = 0;
 		for( double d : desc.value) {
@@ -99,4 +131,29 @@ public class TestDescribeSiftCommon {
 		}
 		assertEquals(1,count);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Interpolating into a slice of an array should produce the same results as interpolating into a descriptor
+	 */
+	@Test
+	public void trilinearInterpolation_array() {
+		DescribeSiftCommon alg = new DescribeSiftCommon(4,4,8,0.5,0.2);
+
+		TupleDesc_F64 expected = new TupleDesc_F64(128);
+		int offset = 5;
+		float[] array = new float[128 + 2*offset];
+
+		alg.trilinearInterpolation(2.0f,1.25f,2.0f,0.5,expected);
+		alg.trilinearInterpolation(1.5f,3.25f,0.5f,4.0,expected);
+		alg.trilinearInterpolation(2.0f,1.25f,2.0f,0.5,array,offset);
+		alg.trilinearInterpolation(1.5f,3.25f,0.5f,4.0,array,offset);
+
+		for (int i = 0; i < 128; i++) {
+			assertEquals(expected.value[i],array[offset+i],1e-6);
+		}
+		for (int i = 0; i < offset; i++) {
+			assertEquals(0,array[i],0);
+			assertEquals(0,array[offset+128+i],0);
+		}
+	}
+}
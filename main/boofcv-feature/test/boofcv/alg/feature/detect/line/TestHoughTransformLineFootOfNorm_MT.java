@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I16;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHoughTransformLineFootOfNorm_MT {
+
+	Random rand = new Random(234);
+	int width = 50;
+	int height = 60;
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Compare against the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		compareToSingle(GrayF32.class);
+		compareToSingle(GrayS16.class);
+		compareToSingle(GrayS32.class);
+	}
+
+	private <D extends ImageGray<D>> void compareToSingle(Class<D> derivType ) {
+		GrayU8 binary = new GrayU8(width,height);
+		D derivX = GeneralizedImageOps.createSingleBand(derivType, width, height);
+		D derivY = GeneralizedImageOps.createSingleBand(derivType, width, height);
+
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+		GImageMiscOps.fillUniform(derivX,rand,-20,20);
+		GImageMiscOps.fillUniform(derivY,rand,-20,20);
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmaxCandidate(new ConfigExtract(2, 2, 0, false));
+		HoughTransformLineFootOfNorm expected = new HoughTransformLineFootOfNorm(extractor,2);
+		HoughTransformLineFootOfNorm_MT found = new HoughTransformLineFootOfNorm_MT(extractor,2);
+		found.setMinBlockRows(3);
+
+		// call it twice to make sure the state is reset
+		found.transform(derivX,derivY,binary);
+		expected.transform(derivX,derivY,binary);
+		found.transform(derivX,derivY,binary);
+
+		BoofTesting.assertEquals(expected.getTransform(),found.getTransform(),0);
+
+		// the same candidates should be found but the order can be different
+		assertEquals(expected.candidates.size,found.candidates.size);
+		Set<Integer> set = new HashSet<>();
+		for (int i = 0; i < expected.candidates.size; i++) {
+			Point2D_I16 p = expected.candidates.get(i);
+			set.add(p.y*width+p.x);
+		}
+		QueueCorner candidates = found.candidates;
+		for (int i = 0; i < candidates.size; i++) {
+			Point2D_I16 p = candidates.get(i);
+			assertTrue(set.contains(p.y*width+p.x));
+		}
+
+		assertEquals(expected.extractLines().size,found.extractLines().size);
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.line;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.line.LineParametric2D_F32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHoughTransformLinePolar_MT {
+
+	Random rand = new Random(234);
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Compare against the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		GrayU8 binary = new GrayU8(60,45);
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(new ConfigExtract(2, 5, 0, true));
+		HoughTransformLinePolar expected = new HoughTransformLinePolar(extractor,40,180);
+		HoughTransformLinePolar_MT found = new HoughTransformLinePolar_MT(extractor,40,180);
+		found.setMinBlockRows(2);
+
+		expected.transform(binary);
+		found.transform(binary);
+
+		BoofTesting.assertEquals(expected.getTransform(),found.getTransform(),0);
+
+		FastQueue<LineParametric2D_F32> linesExpected = expected.extractLines();
+		FastQueue<LineParametric2D_F32> linesFound = found.extractLines();
+
+		assertEquals(linesExpected.size,linesFound.size);
+		for (int i = 0; i < linesExpected.size; i++) {
+			assertEquals(linesExpected.get(i).p.x,linesFound.get(i).p.x,0);
+			assertEquals(linesExpected.get(i).p.y,linesFound.get(i).p.y,0);
+		}
+	}
+
+	/**
+	 * The transform should be completely recomputed each time
+	 */
+	@Test
+	public void multipleCalls() {
+		GrayU8 binary = new GrayU8(60,45);
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+
+		NonMaxSuppression extractor = FactoryFeatureExtractor.nonmax(new ConfigExtract(2, 5, 0, true));
+		HoughTransformLinePolar expected = new HoughTransformLinePolar(extractor,40,180);
+		HoughTransformLinePolar_MT found = new HoughTransformLinePolar_MT(extractor,40,180);
+		found.setMinBlockRows(2);
+
+		found.transform(binary);
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+		expected.transform(binary);
+		found.transform(binary);
+
+		BoofTesting.assertEquals(expected.getTransform(),found.getTransform(),0);
+	}
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.pyramid.PyramidFloat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBroxWarpingSpacial_MT {
+
+	int width = 30;
+	int height = 40;
+
+	int originalThreads;
+
+	PyramidFloat<GrayF32> pyr1 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,5,12,GrayF32.class);
+	PyramidFloat<GrayF32> pyr2 = UtilDenseOpticalFlow.standardPyramid(width,height,0.7,0,5,12,GrayF32.class);
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+
+		GrayF32 original1 = new GrayF32(width,height);
+		GrayF32 original2 = new GrayF32(width,height);
+
+		ImageMiscOps.fillRectangle(original1,40,10,0,10,height);
+		ImageMiscOps.fillRectangle(original2,40,15,0,10,height);
+
+		pyr1.process(original1);
+		pyr2.process(original2);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Test
+	public void process() {
+		BroxWarpingSpacial_MT<GrayF32> alg = createAlg();
+		alg.process(pyr1,pyr2);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 10; x < 20; x++ ) {
+				assertEquals(5,alg.getFlowX().get(x,y),1);
+				assertEquals(0,alg.getFlowY().get(x,y),1);
+			}
+		}
+	}
+
+	/**
+	 * The update order doesn't depend on the number of threads so the results should be identical
+	 */
+	@Test
+	public void independentOfThreads() {
+		BroxWarpingSpacial_MT<GrayF32> alg = createAlg();
+		alg.process(pyr1,pyr2);
+		GrayF32 expectedX = alg.getFlowX().clone();
+		GrayF32 expectedY = alg.getFlowY().clone();
+
+		BoofConcurrency.setMaxThreads(1);
+		alg = createAlg();
+		alg.process(pyr1,pyr2);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				assertEquals(expectedX.get(x,y),alg.getFlowX().get(x,y),0);
+				assertEquals(expectedY.get(x,y),alg.getFlowY().get(x,y),0);
+			}
+		}
+	}
+
+	private BroxWarpingSpacial_MT<GrayF32> createAlg() {
+		InterpolatePixelS<GrayF32> interpolate = FactoryInterpolation.bilinearPixelS(
+				GrayF32.class, BorderType.EXTENDED);
+		BroxWarpingSpacial_MT<GrayF32> alg = new BroxWarpingSpacial_MT<>(new ConfigBroxWarping(),interpolate);
+		alg.setMinBlockRows(2);
+		return alg;
+	}
+}
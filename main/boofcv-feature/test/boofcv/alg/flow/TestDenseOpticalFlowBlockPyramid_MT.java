@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.ImagePyramid;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDenseOpticalFlowBlockPyramid_MT extends ChecksDenseOpticalFlowBlockPyramid<GrayF32> {
+
+	int originalThreads;
+
+	public TestDenseOpticalFlowBlockPyramid_MT() {
+		super(GrayF32.class);
+	}
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Override
+	public DenseOpticalFlowBlockPyramid<GrayF32> createAlg(int searchRadius, int regionRadius, int maxPerPixelError) {
+		DenseOpticalFlowBlockPyramid_MT<GrayF32> alg = new DenseOpticalFlowBlockPyramid_MT<>(
+				new DenseOpticalFlowBlockPyramid.F32(searchRadius,regionRadius,maxPerPixelError));
+		alg.setMinBlockRows(2);
+		return alg;
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		compareToSingle(new DenseOpticalFlowBlockPyramid.U8(2,3,20),GrayU8.class);
+		compareToSingle(new DenseOpticalFlowBlockPyramid.F32(2,3,20),GrayF32.class);
+	}
+
+	private <T extends ImageGray<T>> void compareToSingle(DenseOpticalFlowBlockPyramid<T> expected, Class<T> type) {
+		DenseOpticalFlowBlockPyramid_MT<T> found = new DenseOpticalFlowBlockPyramid_MT<>(expected.copy());
+		found.setMinBlockRows(2);
+
+		T image1 = GeneralizedImageOps.createSingleBand(type,40,50);
+		T image2 = GeneralizedImageOps.createSingleBand(type,40,50);
+
+		// the second image is shifted with some noise and regions of constant value
+		GImageMiscOps.fillUniform(image1,rand,0,200);
+		GImageMiscOps.fillRectangle(image1,50,5,10,15,10);
+		GImageMiscOps.copy(0,0,2,1,38,49,image1,image2);
+		GImageMiscOps.addUniform(image2,rand,0,5);
+
+		ImagePyramid<T> pyramid1 = FactoryPyramid.discreteGaussian(
+				new int[]{1,2,4},0,2,false, ImageType.single(type));
+		ImagePyramid<T> pyramid2 = FactoryPyramid.discreteGaussian(
+				new int[]{1,2,4},0,2,false, ImageType.single(type));
+		pyramid1.process(image1);
+		pyramid2.process(image2);
+
+		expected.process(pyramid1,pyramid2);
+		found.process(pyramid1,pyramid2);
+
+		ImageFlow flowExpected = expected.getOpticalFlow();
+		ImageFlow flowFound = found.getOpticalFlow();
+
+		for( int y = 0; y < flowExpected.height; y++ ) {
+			for (int x = 0; x < flowExpected.width; x++) {
+				ImageFlow.D a = flowExpected.get(x,y);
+				ImageFlow.D b = flowFound.get(x,y);
+				assertEquals(a.isValid(),b.isValid());
+				if( a.isValid() ) {
+					assertEquals(a.x, b.x, 0);
+					assertEquals(a.y, b.y, 0);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.flow;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.flow.ImageFlow;
+import boofcv.struct.image.GrayF32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestHornSchunck_F32_MT extends ChecksHornSchunck<GrayF32,GrayF32> {
+
+	int originalThreads;
+
+	public TestHornSchunck_F32_MT() {
+		super(GrayF32.class, GrayF32.class);
+	}
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Override
+	public HornSchunck<GrayF32, GrayF32> createAlg() {
+		HornSchunck_F32_MT alg = new HornSchunck_F32_MT(0.2f,1);
+		alg.setMinBlockRows(2);
+		return alg;
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		GrayF32 image1 = new GrayF32(width,height);
+		GrayF32 image2 = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(image1,rand,0,100);
+		ImageMiscOps.fillUniform(image2,rand,0,100);
+
+		HornSchunck_F32 expected = new HornSchunck_F32(2f,20);
+		HornSchunck_F32_MT found = new HornSchunck_F32_MT(2f,20);
+		found.setMinBlockRows(2);
+
+		ImageFlow flowExpected = new ImageFlow(width,height);
+		ImageFlow flowFound = new ImageFlow(width,height);
+
+		expected.process(image1,image2,flowExpected);
+		found.process(image1,image2,flowFound);
+
+		for( int y = 0; y < height; y++ ) {
+			for( int x = 0; x < width; x++ ) {
+				assertEquals(flowExpected.get(x,y).x,flowFound.get(x,y).x,0);
+				assertEquals(flowExpected.get(x,y).y,flowFound.get(x,y).y,0);
+			}
+		}
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.segmentation.ms;
+
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSegmentMeanShiftSearchGray_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	SegmentMeanShiftSearchGray_MT.FactoryInterpolate<GrayF32> factory =
+			new SegmentMeanShiftSearchGray_MT.FactoryInterpolate<GrayF32>() {
+		@Override
+		public InterpolatePixelS<GrayF32> create() {
+			return FactoryInterpolation.bilinearPixelS(GrayF32.class, BorderType.EXTENDED);
+		}
+	};
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	private SegmentMeanShiftSearchGray<GrayF32> createSingle( boolean fast ) {
+		return new SegmentMeanShiftSearchGray<>(30,0.05f,factory.create(),2,2,100,fast);
+	}
+
+	private SegmentMeanShiftSearchGray_MT<GrayF32> createMT( boolean fast ) {
+		return new SegmentMeanShiftSearchGray_MT<>(30,0.05f,factory,2,2,100,fast);
+	}
+
+	private GrayF32 createImage( int width , int height ) {
+		GrayF32 image = new GrayF32(width,height);
+		ImageMiscOps.fillUniform(image, rand, 0, 256);
+		return image;
+	}
+
+	/**
+	 * With exact mean-shift the results should be identical to the single threaded version
+	 */
+	@Test
+	public void compareToSingle() {
+		SegmentMeanShiftSearchGray<GrayF32> single = createSingle(false);
+		SegmentMeanShiftSearchGray_MT<GrayF32> alg = createMT(false);
+		alg.setMinBlockRows(3);
+
+		// the second image is smaller to make sure old results don't leak through
+		for (int trial = 0; trial < 2; trial++) {
+			GrayF32 image = createImage(40-trial*9, 35-trial*7);
+
+			single.process(image);
+			alg.process(image);
+
+			checkIdentical(single, alg);
+		}
+	}
+
+	/**
+	 * Every pixel is a seed so fast mode should produce the same results as exact mean-shift
+	 */
+	@Test
+	public void fast_seedSpacingOne() {
+		SegmentMeanShiftSearchGray<GrayF32> single = createSingle(false);
+		SegmentMeanShiftSearchGray_MT<GrayF32> alg = createMT(true);
+		alg.setMinBlockRows(3);
+		alg.setSeedSpacing(1);
+
+		GrayF32 image = createImage(40, 35);
+
+		single.process(image);
+		alg.process(image);
+
+		checkIdentical(single, alg);
+	}
+
+	@Test
+	public void setSeedSpacing_invalid() {
+		SegmentMeanShiftSearchGray_MT<GrayF32> alg = createMT(true);
+		try {
+			alg.setSeedSpacing(0);
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ){}
+		assertEquals(2, alg.getSeedSpacing());
+	}
+
+	/**
+	 * Sanity check the seeded approximation and make sure the results don't depend on how the image is split
+	 */
+	@Test
+	public void fast_seeded() {
+		SegmentMeanShiftSearchGray_MT<GrayF32> algA = createMT(true);
+		SegmentMeanShiftSearchGray_MT<GrayF32> algB = createMT(true);
+		algA.setMinBlockRows(3);
+		algB.setMinBlockRows(100);
+
+		GrayF32 image = createImage(40, 35);
+
+		algA.process(image);
+		algB.process(image);
+
+		checkIdentical(algA, algB);
+
+		FastQueue<Point2D_I32> locations = algA.getModeLocation();
+		GrowQueue_I32 counts = algA.getRegionMemberCount();
+		GrayS32 peaks = algA.getPixelToRegion();
+
+		assertTrue(locations.size > 20);
+		assertEquals(locations.size, counts.size);
+		assertEquals(locations.size, algA.getModeColor().size);
+
+		// the member count should match the number of pixels which point to the mode
+		int[] found = new int[counts.size];
+		for (int y = 0; y < peaks.height; y++) {
+			for (int x = 0; x < peaks.width; x++) {
+				found[peaks.get(x,y)]++;
+			}
+		}
+		for (int i = 0; i < counts.size; i++) {
+			assertEquals(counts.get(i), found[i]);
+		}
+	}
+
+	private void checkIdentical( SegmentMeanShiftSearch expected , SegmentMeanShiftSearch found ) {
+		BoofTesting.assertEquals(expected.getPixelToRegion(), found.getPixelToRegion(), 0);
+
+		assertEquals(expected.getModeLocation().size, found.getModeLocation().size);
+		for (int i = 0; i < expected.getModeLocation().size; i++) {
+			Point2D_I32 a = (Point2D_I32)expected.getModeLocation().get(i);
+			Point2D_I32 b = (Point2D_I32)found.getModeLocation().get(i);
+			assertEquals(a.x, b.x);
+			assertEquals(a.y, b.y);
+			assertEquals(expected.getRegionMemberCount().get(i), found.getRegionMemberCount().get(i));
+
+			float[] colorA = (float[])expected.getModeColor().get(i);
+			float[] colorB = (float[])found.getModeColor().get(i);
+			for (int j = 0; j < colorA.length; j++) {
+				assertEquals(colorA[j], colorB[j], 0);
+			}
+		}
+		assertEquals(expected.getRegionMemberCount().size, found.getRegionMemberCount().size);
+		assertEquals(expected.getModeColor().size, found.getModeColor().size);
+	}
+}
@@ -28,6 +28,7 @@ import org.ddogleg.struct.GrowQueue_I32;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -88,24 +89,50 @@ public class TestSegmentSlic {
 		alg.gridInterval = 2;
 		alg.computeClusterDistance();
 
-		checkPixelContains(0,2,0,2,c0,alg);
-		checkPixelContains(5,7,0,2,c1,alg);
-		checkPixelContains(5,7,7,9,c2,alg);
-		checkPixelContains(0,2,7,9,c3,alg);
+		checkPixelContains(0,2,0,2,0,alg);
+		checkPixelContains(5,7,0,2,1,alg);
+		checkPixelContains(5,7,7,9,2,alg);
+		checkPixelContains(0,2,7,9,3,alg);
+	}
+
+	/**
+	 * Storage for each pixel is too small and needs to grow
+	 */
+	@Test
+	public void computeClusterDistance_grow() {
+		DummySlic alg = new DummySlic(4,1,10);
+		alg.pixelCapacity = 2;
+
+		GrayU8 input = new GrayU8(7,9);
+		alg.initalize(input);
+
+		// all the clusters are on top of each other
+		for( int i = 0; i < 4; i++ ) {
+			SegmentSlic.Cluster c = alg.clusters.grow();
+			c.x = 3; c.y = 4;
+		}
+
+		alg.gridInterval = 2;
+		alg.computeClusterDistance();
+
+		assertEquals(4,alg.pixelCapacity);
+		for( int i = 0; i < 4; i++ ) {
+			checkPixelContains(1,6,2,7,i,alg);
+		}
 	}
 
 	private void checkPixelContains( int x0 , int x1 , int y0 , int y1 ,
-									 SegmentSlic.Cluster c ,
+									 int indexCluster ,
 									 DummySlic alg ) {
 
 		for( int y = y0; y < y1; y++ ) {
 			for( int x = x0; x < x1; x++ ) {
-				int index = y*alg.input.width + x;
-				SegmentSlic.Pixel p = alg.pixels.get(index);
+				int indexPixel = y*alg.input.width + x;
+				assertTrue(alg.pixelCount[indexPixel] <= alg.pixelCapacity);
 
 				boolean contains = false;
-				for( int i = 0; i < p.clusters.size; i++ ) {
-					if( p.clusters.data[i].cluster == c )
+				for( int i = 0; i < alg.pixelCount[indexPixel]; i++ ) {
+					if( alg.pixelCluster[indexPixel*alg.pixelCapacity+i] == indexCluster )
 						contains = true;
 				}
 				assertTrue(contains);
@@ -121,15 +148,15 @@ public class TestSegmentSlic {
 		SegmentSlic.Cluster c1 = alg.clusters.grow();
 		SegmentSlic.Cluster c2 = alg.clusters.grow();
 
-		alg.pixels.resize(6);
-		alg.pixels.get(0).add(c0,2); // 0.666666
-		alg.pixels.get(0).add(c1,4); // 0.333333
+		alg.declarePixels(6);
+		alg.addToPixel(0,0,2); // 0.666666
+		alg.addToPixel(0,1,4); // 0.333333
 
-		alg.pixels.get(1).add(c1,1); // 0.75
-		alg.pixels.get(1).add(c0,3); // 0.25
+		alg.addToPixel(1,1,1); // 0.75
+		alg.addToPixel(1,0,3); // 0.25
 
 		for( int i = 2; i < 6; i++ ) {
-			alg.pixels.get(i).add(c2,0.2f);
+			alg.addToPixel(i,2,0.2f);
 		}
 
 		alg.input = new GrayU8(2,3);
@@ -156,17 +183,17 @@ public class TestSegmentSlic {
 		SegmentSlic.Cluster c2 = alg.clusters.grow();
 		c0.id = 0; c1.id = 1; c2.id = 2;
 
-		alg.pixels.resize(6);
-		alg.pixels.get(0).add(c0,2);
-		alg.pixels.get(0).add(c1,4);
-		alg.pixels.get(0).add(c2,0.1f);
+		alg.declarePixels(6);
+		alg.addToPixel(0,0,2);
+		alg.addToPixel(0,1,4);
+		alg.addToPixel(0,2,0.1f);
 
-		alg.pixels.get(1).add(c1,1);
-		alg.pixels.get(1).add(c0,2);
+		alg.addToPixel(1,1,1);
+		alg.addToPixel(1,0,2);
 
 		for( int i = 2; i < 6; i++ ) {
-			alg.pixels.get(i).add(c1,0);
-			alg.pixels.get(i).add(c2,0.2f);
+			alg.addToPixel(i,1,0);
+			alg.addToPixel(i,2,0.2f);
 		}
 
 		GrayS32 image = new GrayS32(2,3);
@@ -191,46 +218,53 @@ public class TestSegmentSlic {
 	}
 
 	@Test
-	public void Pixel_add()
+	public void addToPixel()
 	{
-		SegmentSlic.Cluster c0 = new SegmentSlic.Cluster();
-		SegmentSlic.Cluster c1 = new SegmentSlic.Cluster();
-
-		SegmentSlic.Pixel p = new SegmentSlic.Pixel();
-
-		assertEquals(0,p.clusters.size);
-
-		p.add(c0, 2.2f);
-		assertEquals(1, p.clusters.size);
-		assertEquals(2.2f, p.clusters.data[0].distance, 1e-4f);
-		assertTrue(c0 == p.clusters.data[0].cluster);
-
-		p.add(c1, 1.2f);
-		assertEquals(2, p.clusters.size);
-		assertEquals(1.2f, p.clusters.data[1].distance, 1e-4f);
-		assertTrue(c1 == p.clusters.data[1].cluster);
+		DummySlic alg = new DummySlic(4,1,10);
+		alg.pixelCapacity = 2;
+		alg.declarePixels(3);
+
+		assertEquals(0,alg.pixelCount[1]);
+
+		assertTrue(alg.addToPixel(1, 4, 2.2f));
+		assertEquals(1, alg.pixelCount[1]);
+		assertEquals(2.2f, alg.pixelDistance[2], 1e-4f);
+		assertEquals(4, alg.pixelCluster[2]);
+
+		assertTrue(alg.addToPixel(1, 3, 1.2f));
+		assertEquals(2, alg.pixelCount[1]);
+		assertEquals(1.2f, alg.pixelDistance[3], 1e-4f);
+		assertEquals(3, alg.pixelCluster[3]);
+
+		// it's full now. the next pixel shouldn't be modified
+		assertFalse(alg.addToPixel(1, 5, 1.5f));
+		assertEquals(3, alg.pixelCount[1]);
+		assertEquals(0, alg.pixelCount[2]);
+		assertEquals(0, alg.pixelDistance[4], 1e-4f);
 	}
 
 
 	@Test
-	public void Pixel_computeWeights() {
-		SegmentSlic.Pixel p = new SegmentSlic.Pixel();
+	public void computeWeights() {
+		DummySlic alg = new DummySlic(4,1,10);
+		alg.declarePixels(2);
 
-		p.clusters.grow().distance = 2;
-		p.clusters.grow().distance = 0.3f;
+		alg.addToPixel(1,0,2);
+		alg.addToPixel(1,1,0.3f);
 
-		p.computeWeights();
+		alg.computeWeights(1);
 
-		assertEquals(1.0f - 2f/2.3f,p.clusters.data[0].distance,1e-4f);
-		assertEquals(1.0f - 0.3f/2.3f,p.clusters.data[1].distance,1e-4f);
+		int index0 = alg.pixelCapacity;
+		assertEquals(1.0f - 2f/2.3f,alg.pixelDistance[index0],1e-4f);
+		assertEquals(1.0f - 0.3f/2.3f,alg.pixelDistance[index0+1],1e-4f);
 
 		// check special case of 1 item.  The weight will be 1 since it is the only one
-		p.clusters.size = 1;
-		p.clusters.data[0].distance = 2;
+		alg.pixelCount[1] = 1;
+		alg.pixelDistance[index0] = 2;
 
-		p.computeWeights();
+		alg.computeWeights(1);
 
-		assertEquals(1.0f,p.clusters.data[0].distance,1e-4f);
+		assertEquals(1.0f,alg.pixelDistance[index0],1e-4f);
 	}
 
 	@Test
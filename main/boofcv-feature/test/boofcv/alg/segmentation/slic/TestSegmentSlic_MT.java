@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.segmentation.slic;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestSegmentSlic_MT {
+
+	Random rand = new Random(234);
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Test
+	public void compareToSingle_U8() {
+		compareToSingle(new SegmentSlic_U8(40,200,10,ConnectRule.EIGHT),
+				new SegmentSlic_U8_MT(40,200,10,ConnectRule.EIGHT),
+				ImageType.single(GrayU8.class));
+	}
+
+	@Test
+	public void compareToSingle_F32() {
+		compareToSingle(new SegmentSlic_F32(40,200,10,ConnectRule.FOUR),
+				new SegmentSlic_F32_MT(40,200,10,ConnectRule.FOUR),
+				ImageType.single(GrayF32.class));
+	}
+
+	@Test
+	public void compareToSingle_PlU8() {
+		compareToSingle(new SegmentSlic_PlU8(40,200,10,ConnectRule.EIGHT,3),
+				new SegmentSlic_PlU8_MT(40,200,10,ConnectRule.EIGHT,3),
+				ImageType.pl(3,GrayU8.class));
+	}
+
+	@Test
+	public void compareToSingle_PlF32() {
+		compareToSingle(new SegmentSlic_PlF32(40,200,10,ConnectRule.FOUR,3),
+				new SegmentSlic_PlF32_MT(40,200,10,ConnectRule.FOUR,3),
+				ImageType.pl(3,GrayF32.class));
+	}
+
+	private <T extends ImageBase<T>>
+	void compareToSingle( SegmentSlic<T> single , SegmentSlic<T> alg , ImageType<T> imageType ) {
+		setMinBlockRows(alg,3);
+
+		// With one thread there is a single block and the results should be identical.  With more threads the
+		// cluster sums are grouped by block and can differ by round off
+		compareToSingle(single, alg, imageType, 1, 0);
+		compareToSingle(single, alg, imageType, 4, 1e-2);
+	}
+
+	private <T extends ImageBase<T>>
+	void compareToSingle( SegmentSlic<T> single , SegmentSlic<T> alg , ImageType<T> imageType ,
+						  int threads , double tol ) {
+		BoofConcurrency.setMaxThreads(threads);
+
+		// the second image is smaller to make sure old results don't leak through
+		int[] widths = new int[]{60,45};
+		int[] heights = new int[]{50,33};
+
+		for (int trial = 0; trial < widths.length; trial++) {
+			// force the pixel storage to grow in the second trial
+			if( trial == 1 ) {
+				single.pixelCapacity = 2;
+				alg.pixelCapacity = 2;
+			}
+
+			T input = imageType.createImage(widths[trial], heights[trial]);
+			GImageMiscOps.fillUniform(input, rand, 0, 200);
+			GImageMiscOps.fillRectangle(input, 250, 10, 5, 20, 15);
+
+			GrayS32 expected = new GrayS32(widths[trial], heights[trial]);
+			GrayS32 found = new GrayS32(widths[trial], heights[trial]);
+
+			single.process(input, expected);
+			alg.process(input, found);
+
+			if( tol == 0 ) {
+				BoofTesting.assertEquals(expected, found, 0);
+			} else {
+				// round off can change which cluster a few pixels on the boundary are assigned to
+				int different = 0;
+				for (int i = 0; i < expected.data.length; i++) {
+					if( expected.data[i] != found.data[i] )
+						different++;
+				}
+				assertTrue(different <= expected.data.length/100);
+			}
+
+			assertEquals(single.getClusters().size, alg.getClusters().size);
+			assertTrue(alg.getClusters().size > 10);
+			for (int i = 0; i < single.getClusters().size; i++) {
+				SegmentSlic.Cluster a = single.getClusters().get(i);
+				SegmentSlic.Cluster b = alg.getClusters().get(i);
+				assertEquals(a.x, b.x, tol);
+				assertEquals(a.y, b.y, tol);
+				for (int j = 0; j < a.color.length; j++) {
+					assertEquals(a.color[j], b.color[j], tol);
+				}
+			}
+
+			if( tol == 0 ) {
+				assertEquals(single.getRegionMemberCount().size, alg.getRegionMemberCount().size);
+				for (int i = 0; i < single.getRegionMemberCount().size; i++) {
+					assertEquals(single.getRegionMemberCount().get(i), alg.getRegionMemberCount().get(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Partial sums are reduced in a fixed order so the same input should always produce the same output
+	 */
+	@Test
+	public void deterministic() {
+		SegmentSlic_PlF32_MT alg = new SegmentSlic_PlF32_MT(40,200,10,ConnectRule.FOUR,3);
+		alg.setMinBlockRows(3);
+
+		Planar<GrayF32> input = new Planar<>(GrayF32.class,60,50,3);
+		GImageMiscOps.fillUniform(input, rand, 0, 200);
+
+		GrayS32 expected = new GrayS32(60,50);
+		GrayS32 found = new GrayS32(60,50);
+
+		alg.process(input, expected);
+		float[] expectedX = new float[alg.getClusters().size];
+		float[] expectedY = new float[alg.getClusters().size];
+		for (int i = 0; i < expectedX.length; i++) {
+			expectedX[i] = alg.getClusters().get(i).x;
+			expectedY[i] = alg.getClusters().get(i).y;
+		}
+
+		for (int trial = 0; trial < 5; trial++) {
+			alg.process(input, found);
+			BoofTesting.assertEquals(expected, found, 0);
+			for (int i = 0; i < expectedX.length; i++) {
+				assertEquals(expectedX[i], alg.getClusters().get(i).x, 0);
+				assertEquals(expectedY[i], alg.getClusters().get(i).y, 0);
+			}
+		}
+	}
+
+	private void setMinBlockRows( SegmentSlic alg , int rows ) {
+		if( alg instanceof SegmentSlic_U8_MT ) {
+			((SegmentSlic_U8_MT)alg).setMinBlockRows(rows);
+		} else if( alg instanceof SegmentSlic_F32_MT ) {
+			((SegmentSlic_F32_MT)alg).setMinBlockRows(rows);
+		} else if( alg instanceof SegmentSlic_PlU8_MT ) {
+			((SegmentSlic_PlU8_MT)alg).setMinBlockRows(rows);
+		} else {
+			((SegmentSlic_PlF32_MT)alg).setMinBlockRows(rows);
+		}
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPyramidKltFeatureStore {
+
+	@Test
+	public void grab_recycle() {
+		PyramidKltFeatureStore alg = new PyramidKltFeatureStore(3,2,5);
+
+		assertEquals(5,alg.getCapacity());
+		assertEquals(5,alg.getAvailableSize());
+
+		PyramidKltFeature f = alg.grab();
+		assertEquals(3,f.desc.length);
+		assertEquals(4,alg.getAvailableSize());
+
+		alg.recycle(f);
+		assertEquals(5,alg.getAvailableSize());
+		assertTrue(f == alg.grab());
+
+		// should grow when empty
+		for (int i = 0; i < 4; i++) {
+			alg.grab();
+		}
+		assertEquals(0,alg.getAvailableSize());
+		alg.grab();
+		assertTrue(alg.getCapacity() > 5);
+		assertEquals(5,alg.getCapacity()-alg.getAvailableSize()-1);
+	}
+
+	/**
+	 * Every template should have its own region inside the array and be a 5x5 image
+	 */
+	@Test
+	public void packedDescription() {
+		PyramidKltFeatureStore alg = new PyramidKltFeatureStore(2,2,4);
+
+		List<PyramidKltFeature> features = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			features.add(alg.grab());
+		}
+
+		for (int layer = 0; layer < 2; layer++) {
+			float[] data = features.get(0).desc[layer].desc.data;
+			assertEquals(4*3*25,data.length);
+
+			for (int i = 0; i < features.size(); i++) {
+				KltFeature f = features.get(i).desc[layer];
+				assertEquals(2,f.radius);
+				assertEquals(5,f.desc.width);
+				assertEquals(5,f.desc.height);
+				assertEquals(5,f.desc.stride);
+				assertTrue(data == f.desc.data);
+				assertTrue(data == f.derivX.data);
+				assertTrue(data == f.derivY.data);
+
+				f.desc.set(4,4,i*3+1);
+				f.derivX.set(4,4,i*3+2);
+				f.derivY.set(4,4,i*3+3);
+			}
+
+			// each template should write to a different location
+			for (int i = 0; i < features.size(); i++) {
+				KltFeature f = features.get(i).desc[layer];
+				assertEquals(i*3+1,f.desc.get(4,4),0);
+				assertEquals(i*3+2,f.derivX.get(4,4),0);
+				assertEquals(i*3+3,f.derivY.get(4,4),0);
+			}
+		}
+	}
+
+	/**
+	 * When the storage grows existing features should keep their description and reference the new array
+	 */
+	@Test
+	public void growCapacity() {
+		PyramidKltFeatureStore alg = new PyramidKltFeatureStore(2,2,2);
+
+		PyramidKltFeature a = alg.grab();
+		a.desc[1].derivY.set(1,2,5);
+
+		alg.growCapacity(6);
+		assertEquals(6,alg.getCapacity());
+		assertEquals(5,alg.getAvailableSize());
+
+		assertEquals(5,a.desc[1].derivY.get(1,2),0);
+		PyramidKltFeature b = alg.grab();
+		assertTrue(a.desc[1].derivY.data == b.desc[1].derivY.data);
+		assertEquals(6*3*25,b.desc[1].desc.data.length);
+
+		// should do nothing if already large enough
+		alg.growCapacity(3);
+		assertEquals(6,alg.getCapacity());
+	}
+}
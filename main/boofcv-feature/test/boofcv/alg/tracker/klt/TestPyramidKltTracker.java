@@ -25,6 +25,9 @@ import boofcv.core.image.border.ImageBorder1D_F32;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 /**
@@ -95,6 +98,101 @@ public class TestPyramidKltTracker extends PyramidKltTestBase {
 		assertFalse(tracker.setDescription(feature));
 	}
 
+	/**
+	 * Batch tracking should produce the same results as tracking each feature individually
+	 */
+	@Test
+	public void trackAll() {
+		tracker.setImage(pyramid,derivX,derivY);
+
+		List<PyramidKltFeature> expected = new ArrayList<>();
+		List<PyramidKltFeature> found = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			PyramidKltFeature a = new PyramidKltFeature(pyramid.getNumLayers(),featureReadius);
+			PyramidKltFeature b = new PyramidKltFeature(pyramid.getNumLayers(),featureReadius);
+			a.setPosition(rand.nextFloat()*width,rand.nextFloat()*height);
+			b.setPosition(a.x,a.y);
+			tracker.setDescription(a);
+			tracker.setDescription(b);
+			a.setPosition(a.x+rand.nextFloat()*4-2,a.y+rand.nextFloat()*4-2);
+			b.setPosition(a.x,a.y);
+			expected.add(a);
+			found.add(b);
+		}
+
+		KltTrackFault[] faults = tracker.trackAll(found,true,null);
+		assertTrue(faults.length >= found.size());
+
+		for (int i = 0; i < expected.size(); i++) {
+			PyramidKltFeature a = expected.get(i);
+			KltTrackFault ret = tracker.track(a);
+			if( ret == KltTrackFault.SUCCESS && !tracker.setDescription(a))
+				ret = KltTrackFault.FAILED;
+
+			assertTrue(ret == faults[i]);
+			assertEquals(a.x,found.get(i).x,0);
+			assertEquals(a.y,found.get(i).y,0);
+			assertEquals(a.desc[0].Gxx,found.get(i).desc[0].Gxx,0);
+		}
+	}
+
+	/**
+	 * Features with their description packed into a shared array should produce the same results
+	 */
+	@Test
+	public void track_packedFeature() {
+		PyramidKltFeatureStore store = new PyramidKltFeatureStore(pyramid.getNumLayers(),featureReadius,1);
+		tracker.setImage(pyramid,derivX,derivY);
+
+		// positions inside, along the border, and partially outside the image
+		float[] positions = new float[]{cornerX,cornerY, 1,2, width-1,height-2};
+		for (int i = 0; i < positions.length; i += 2) {
+			PyramidKltFeature a = new PyramidKltFeature(pyramid.getNumLayers(),featureReadius);
+			PyramidKltFeature b = store.grab();
+			a.setPosition(positions[i],positions[i+1]);
+			b.setPosition(positions[i],positions[i+1]);
+			assertEquals(tracker.setDescription(a),tracker.setDescription(b));
+
+			a.setPosition(positions[i]-1.2f,positions[i+1]+1.1f);
+			b.setPosition(positions[i]-1.2f,positions[i+1]+1.1f);
+			assertTrue(tracker.track(a) == tracker.track(b));
+			assertEquals(a.x,b.x,0);
+			assertEquals(a.y,b.y,0);
+			for (int layer = 0; layer < pyramid.getNumLayers(); layer++) {
+				assertEquals(a.desc[layer].Gxx,b.desc[layer].Gxx,0);
+				assertEquals(a.desc[layer].Gxy,b.desc[layer].Gxy,0);
+			}
+		}
+	}
+
+	@Test
+	public void profile() {
+		PyramidKltFeature feature = new PyramidKltFeature(pyramid.getNumLayers(),featureReadius);
+		feature.setPosition(cornerX,cornerY);
+		tracker.setImage(pyramid,derivX,derivY);
+		tracker.setDescription(feature);
+
+		// nothing should be recorded when profiling is off
+		tracker.track(feature);
+		assertEquals(pyramid.getNumLayers(),tracker.getLayerTime().length);
+		for (int layer = 0; layer < pyramid.getNumLayers(); layer++) {
+			assertEquals(0,tracker.getLayerTime()[layer]);
+		}
+
+		tracker.setProfile(true);
+		for (int i = 0; i < 10; i++) {
+			tracker.track(feature);
+		}
+		for (int layer = 0; layer < pyramid.getNumLayers(); layer++) {
+			assertTrue(tracker.getLayerTime()[layer] > 0);
+		}
+
+		tracker.resetLayerTime();
+		for (int layer = 0; layer < pyramid.getNumLayers(); layer++) {
+			assertEquals(0,tracker.getLayerTime()[layer]);
+		}
+	}
+
 	/**
 	 * Test positive examples of tracking when there should be no fault at any point.
 	 *
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.tracker.klt;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPyramidKltTracker_MT extends PyramidKltTestBase {
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		super.setup();
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Compare against the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		compareToSingle(true);
+		compareToSingle(false);
+	}
+
+	/**
+	 * Time spent by each worker should be added to the total
+	 */
+	@Test
+	public void profile() {
+		PyramidKltTracker_MT<GrayF32,GrayF32> alg =
+				new PyramidKltTracker_MT<>(TestKltTracker.createDefaultTracker());
+		alg.setMinBlockSize(5);
+		alg.setProfile(true);
+		alg.setImage(pyramid,derivX,derivY);
+
+		List<PyramidKltFeature> features = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			PyramidKltFeature f = new PyramidKltFeature(pyramid.getNumLayers(),featureReadius);
+			f.setPosition(cornerX,cornerY);
+			alg.setDescription(f);
+			features.add(f);
+		}
+
+		alg.trackAll(features,false,null);
+		long[] time = alg.getLayerTime();
+		assertEquals(pyramid.getNumLayers(),time.length);
+		for (int layer = 0; layer < time.length; layer++) {
+			assertTrue(time[layer] > 0);
+		}
+	}
+
+	private void compareToSingle( boolean updateDescription ) {
+		PyramidKltTracker_MT<GrayF32,GrayF32> alg =
+				new PyramidKltTracker_MT<>(TestKltTracker.createDefaultTracker());
+		alg.setMinBlockSize(5);
+
+		tracker.setImage(pyramid,derivX,derivY);
+		alg.setImage(pyramid,derivX,derivY);
+
+		List<PyramidKltFeature> expected = new ArrayList<>();
+		List<PyramidKltFeature> found = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			PyramidKltFeature a = new PyramidKltFeature(pyramid.getNumLayers(),featureReadius);
+			PyramidKltFeature b = new PyramidKltFeature(pyramid.getNumLayers(),featureReadius);
+			a.setPosition(rand.nextFloat()*width,rand.nextFloat()*height);
+			b.setPosition(a.x,a.y);
+			tracker.setDescription(a);
+			alg.setDescription(b);
+			a.setPosition(a.x+rand.nextFloat()*4-2,a.y+rand.nextFloat()*4-2);
+			b.setPosition(a.x,a.y);
+			expected.add(a);
+			found.add(b);
+		}
+
+		KltTrackFault[] faultsExpected = tracker.trackAll(expected,updateDescription,null);
+		KltTrackFault[] faultsFound = alg.trackAll(found,updateDescription,new KltTrackFault[5]);
+
+		for (int i = 0; i < expected.size(); i++) {
+			PyramidKltFeature a = expected.get(i);
+			PyramidKltFeature b = found.get(i);
+			assertTrue(faultsExpected[i] == faultsFound[i]);
+			assertEquals(a.x,b.x,0);
+			assertEquals(a.y,b.y,0);
+			for (int layer = 0; layer < pyramid.getNumLayers(); layer++) {
+				assertEquals(a.desc[layer].Gxx,b.desc[layer].Gxx,0);
+				assertEquals(a.desc[layer].Gyy,b.desc[layer].Gyy,0);
+			}
+		}
+	}
+}
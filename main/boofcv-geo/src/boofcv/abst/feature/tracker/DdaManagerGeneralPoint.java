@@ -39,15 +39,15 @@ public class DdaManagerGeneralPoint<I extends ImageGray<I>, D extends ImageGray<
 		implements DdaFeatureManager<I, Desc> {
 
 	// feature detector
-	private EasyGeneralFeatureDetector<I,D> detector;
+	protected EasyGeneralFeatureDetector<I,D> detector;
 	// feature descriptor
-	private DescribeRegionPoint<I, Desc> describe;
+	protected DescribeRegionPoint<I, Desc> describe;
 	// scale that features should be created at
-	private double scale;
+	protected double scale;
 
 	// storage for descriptors
-	private FastQueue<Desc> descriptors;
-	private FastQueue<Point2D_F64> locations = new FastQueue<>(100, Point2D_F64.class, true);
+	protected FastQueue<Desc> descriptors;
+	protected FastQueue<Point2D_F64> locations = new FastQueue<>(100, Point2D_F64.class, true);
 
 	public DdaManagerGeneralPoint(EasyGeneralFeatureDetector<I, D> detector,
 								  DescribeRegionPoint<I, Desc> describe,
@@ -66,9 +66,13 @@ public class DdaManagerGeneralPoint<I extends ImageGray<I>, D extends ImageGray<
 		detector.detect(input,null);
 		describe.setImage(input);
 
-		QueueCorner found = detector.getMaximums();
+		describeFeatures(detector.getMaximums(), locDst, featDst);
+	}
 
-		// compute descriptors and populate results list
+	/**
+	 * Computes a description for each detected feature and adds the ones which could be described to the output
+	 */
+	protected void describeFeatures(QueueCorner found, FastQueue<Point2D_F64> locDst, FastQueue<Desc> featDst) {
 		descriptors.reset();
 		locations.reset();
 		for( int i = 0; i < found.size; i++ ) {
@@ -78,7 +82,6 @@ public class DdaManagerGeneralPoint<I extends ImageGray<I>, D extends ImageGray<
 			if( describe.process(p.x,p.y,0,scale,desc) ) {
 				Point2D_F64 loc = locations.grow();
 				loc.set(p.x,p.y);
-				describe.process(loc.x,loc.y,0,scale,desc);
 				featDst.add(desc);
 				locDst.add( loc );
 			} else {
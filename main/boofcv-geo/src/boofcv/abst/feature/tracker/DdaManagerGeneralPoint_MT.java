@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.describe.DescribeRegionPointShareImage;
+import boofcv.alg.feature.detect.interest.EasyGeneralFeatureDetector;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point2D_I16;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link DdaManagerGeneralPoint}.  Detected features are split into blocks and each
+ * block is described in its own thread using its own instance of {@link DescribeRegionPoint}.  The image is only
+ * passed to one instance.  If the describer implements {@link DescribeRegionPointShareImage} then the other
+ * instances share what it computed, e.g. the blurred image used by BRIEF, otherwise the image is passed to each
+ * instance.  Features which could be described are returned in the same order as the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DdaManagerGeneralPoint_MT<I extends ImageGray<I>, D extends ImageGray<D>, Desc extends TupleDesc>
+		extends DdaManagerGeneralPoint<I,D,Desc> {
+
+	// minimum number of features in a block
+	int minBlockSize = 20;
+
+	// describer used by each block
+	FastQueue<DescribeRegionPoint<I,Desc>> workers;
+
+	// indicates if the description for a feature is valid
+	boolean[] valid = new boolean[1];
+
+	/**
+	 * Configures the manager
+	 *
+	 * @param detector Feature detector
+	 * @param factory Creates a new instance of the describer for each thread
+	 * @param scale Scale that features are described at
+	 */
+	public DdaManagerGeneralPoint_MT(EasyGeneralFeatureDetector<I, D> detector,
+									 final FactoryDescribe<I, Desc> factory,
+									 double scale) {
+		super(detector, factory.create(), scale);
+
+		workers = new FastQueue<DescribeRegionPoint<I,Desc>>(1,(Class)DescribeRegionPoint.class,true) {
+			@Override
+			protected DescribeRegionPoint<I, Desc> createInstance() {
+				return factory.create();
+			}
+		};
+	}
+
+	@Override
+	public void detectFeatures(final I input, FastQueue<Point2D_F64> locDst, FastQueue<Desc> featDst) {
+		detector.detect(input,null);
+		describe.setImage(input);
+
+		final QueueCorner found = detector.getMaximums();
+
+		descriptors.resize(found.size);
+		locations.resize(found.size);
+		if( valid.length < found.size )
+			valid = new boolean[found.size];
+
+		BoofConcurrency.loopBlocks(0, found.size, minBlockSize, workers,
+				new IntRangeObjectConsumer<DescribeRegionPoint<I, Desc>>() {
+			@Override
+			public void accept(DescribeRegionPoint<I, Desc> worker, int idx0, int idx1) {
+				if( worker instanceof DescribeRegionPointShareImage )
+					((DescribeRegionPointShareImage)worker).shareImage((DescribeRegionPointShareImage)describe);
+				else
+					worker.setImage(input);
+				for (int i = idx0; i < idx1; i++) {
+					Point2D_I16 p = found.get(i);
+					locations.get(i).set(p.x,p.y);
+					valid[i] = worker.process(p.x,p.y,0,scale,descriptors.get(i));
+				}
+			}
+		});
+
+		for (int i = 0; i < found.size; i++) {
+			if( valid[i] ) {
+				featDst.add(descriptors.get(i));
+				locDst.add(locations.get(i));
+			}
+		}
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+
+	/**
+	 * Creates a new instance of {@link DescribeRegionPoint} for each thread
+	 */
+	public interface FactoryDescribe<I extends ImageGray<I>, Desc extends TupleDesc> {
+		DescribeRegionPoint<I,Desc> create();
+	}
+}
@@ -18,6 +18,7 @@
 
 package boofcv.abst.feature.tracker;
 
+import boofcv.abst.feature.detect.intensity.GeneralFeatureIntensity;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
 import boofcv.alg.interpolate.InterpolateRectangle;
@@ -29,6 +30,7 @@ import boofcv.struct.pyramid.PyramidDiscrete;
 import georegression.struct.point.Point2D_I16;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -36,10 +38,14 @@ import java.util.List;
  * Wrapper around {@link boofcv.alg.tracker.klt.PyramidKltTracker} for {@link PointTracker}.  Every track
  * will have the same size and shaped descriptor.  If any fault is encountered the track will be dropped.
  *
+ * Images can be prepared ahead of time as described in {@link PointTrackerLookAhead} once a {@link FrameFactory}
+ * has been specified.  A prepared image contains its own pyramid, gradient and the feature intensity used when
+ * spawning tracks.
+ *
  * @author Peter Abeles
  */
 public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D>>
-		implements PointTracker<I>
+		implements PointTrackerLookAhead<I>
 {
 	// reference to input image
 	protected I input;
@@ -66,6 +72,8 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	protected List<PyramidKltFeature> dropped = new ArrayList<>();
 	// feature data available for future tracking
 	protected List<PyramidKltFeature> unused = new ArrayList<>();
+	// storage for the description of every feature.  All templates in a layer are packed into one array
+	protected PyramidKltFeatureStore store;
 
 	// the tracker
 	protected PyramidKltTracker<I, D> tracker;
@@ -75,9 +83,23 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	// list of corners which should be ignored by the corner detector
 	private QueueCorner excludeList = new QueueCorner(10);
 
+	// creates the storage for prepared images. null if images can't be prepared
+	protected FrameFactory<I,D> frameFactory;
+	// feature intensity of the current image.  Only valid if hasIntensity is true
+	protected GeneralFeatureIntensity<I,D> intensity;
+	protected boolean hasIntensity;
+
 	// number of features tracked so far
 	private long totalFeatures = 0;
 
+	// storage for the fault of each track
+	protected KltTrackFault[] faults = new KltTrackFault[0];
+
+	// Statistics for how the tracker is doing.  Not reset by reset()
+	protected long totalSpawned;
+	protected long totalDropped;
+	protected long[] totalFaults = new long[KltTrackFault.values().length];
+
 	/**
 	 * Constructor which specified the KLT track manager and how the image pyramids are computed.
 	 *
@@ -98,15 +120,36 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 								  InterpolateRectangle<I> interpInput,
 								  InterpolateRectangle<D> interpDeriv,
 								  Class<D> derivType ) {
+		this(config, templateRadius, pyramid, detector, gradient,
+				new PyramidKltTracker<>(new KltTracker<>(interpInput, interpDeriv, config)), derivType);
+	}
+
+	/**
+	 * Constructor which specifies the KLT tracker directly.
+	 *
+	 * @param config KLT tracker configuration
+	 * @param templateRadius Radius of square templates that are tracked
+	 * @param pyramid The image pyramid which KLT is tracking inside of
+	 * @param detector Feature detector.   If null then no feature detector will be available and spawn won't work.
+	 * @param gradient Computes gradient image pyramid.
+	 * @param tracker Pyramidal KLT tracker.  Features are tracked in a batch using {@link PyramidKltTracker#trackAll}.
+	 * @param derivType Type of image the gradient is
+	 */
+	public PointTrackerKltPyramid(KltConfig config,
+								  int templateRadius ,
+								  PyramidDiscrete<I> pyramid,
+								  GeneralFeatureDetector<I, D> detector,
+								  ImageGradient<I, D> gradient,
+								  PyramidKltTracker<I, D> tracker,
+								  Class<D> derivType ) {
 
 		this.config = config;
 		this.templateRadius = templateRadius;
 		this.gradient = gradient;
 		this.basePyramid = pyramid;
 		this.derivType = derivType;
-
-		KltTracker<I, D> klt = new KltTracker<>(interpInput, interpDeriv, config);
-		tracker = new PyramidKltTracker<>(klt);
+		this.tracker = tracker;
+		this.store = new PyramidKltFeatureStore(pyramid.getNumLayers(),templateRadius,0);
 
 		if( detector != null) {
 			if (detector.getRequiresHessian())
@@ -117,8 +160,7 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	}
 
 	private void addTrackToUnused() {
-		int numLayers = basePyramid.getNumLayers();
-		PyramidKltFeature t = new PyramidKltFeature(numLayers, templateRadius);
+		PyramidKltFeature t = store.grab();
 
 		PointTrack p = new PointTrack();
 		p.setDescription(t);
@@ -155,9 +197,11 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 
 		if( checkValidSpawn(p) ) {
 			active.add(t);
+			totalSpawned++;
 			return p;
 		}
 
+		unused.add(t);
 		return null;
 	}
 
@@ -177,14 +221,20 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 
 		// find new tracks, but no more than the max
 		detector.setExcludeMaximum(excludeList);
-		detector.process(basePyramid.getLayer(0), derivX[0], derivY[0], null, null, null);
+		if( hasIntensity )
+			detector.process(intensity);
+		else
+			detector.process(basePyramid.getLayer(0), derivX[0], derivY[0], null, null, null);
 
 		// extract the features
 		QueueCorner found = detector.getMaximums();
 
 		// grow the number of tracks if needed
-		while( unused.size() < found.size() )
-			addTrackToUnused();
+		if( unused.size() < found.size() ) {
+			store.growCapacity(store.getCapacity() + found.size() - unused.size());
+			while( unused.size() < found.size() )
+				addTrackToUnused();
+		}
 
 		for (int i = 0; i < found.size() && !unused.isEmpty(); i++) {
 			Point2D_I16 pt = found.get(i);
@@ -206,6 +256,7 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 				// add to appropriate lists
 				active.add(t);
 				spawned.add(t);
+				totalSpawned++;
 			} else {
 				unused.add(t);
 			}
@@ -230,38 +281,115 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	public void process(I image) {
 		this.input = image;
 
-		spawned.clear();
-		dropped.clear();
-
 		// update image pyramids
 		basePyramid.process(image);
 		declareOutput();
 		PyramidOps.gradient(basePyramid, gradient, derivX,derivY);
+		hasIntensity = false;
 
-		// track features
+		trackFeatures();
+	}
+
+	@Override
+	public Frame createFrame() {
+		if( frameFactory == null )
+			throw new IllegalArgumentException("A FrameFactory must be specified before images can be prepared");
+
+		KltFrame<I,D> frame = new KltFrame<>();
+		frame.pyramid = frameFactory.createPyramid();
+		frame.gradient = frameFactory.createGradient();
+		return frame;
+	}
+
+	@Override
+	public void prepare(I image, Frame frame) {
+		KltFrame<I,D> f = (KltFrame<I,D>)frame;
+		f.input = image;
+
+		f.pyramid.process(image);
+		if( f.derivX == null ) {
+			f.derivX = PyramidOps.declareOutput(f.pyramid, derivType);
+			f.derivY = PyramidOps.declareOutput(f.pyramid, derivType);
+		} else if( f.derivX[0].width != f.pyramid.getLayer(0).width ||
+				f.derivX[0].height != f.pyramid.getLayer(0).height ) {
+			PyramidOps.reshapeOutput(f.pyramid,f.derivX);
+			PyramidOps.reshapeOutput(f.pyramid,f.derivY);
+		}
+		PyramidOps.gradient(f.pyramid, f.gradient, f.derivX, f.derivY);
+
+		// the intensity is computed even if no tracks are spawned since it's done outside the tracker's thread
+		if( detector != null ) {
+			if( f.intensity == null )
+				f.intensity = frameFactory.createIntensity();
+			f.intensity.process(f.pyramid.getLayer(0), f.derivX[0], f.derivY[0], null, null, null);
+		}
+	}
+
+	@Override
+	public void process(Frame frame) {
+		KltFrame<I,D> f = (KltFrame<I,D>)frame;
+
+		// swap the storage so that the previous storage can be used to prepare another image
+		this.input = f.input;
+		f.input = null;
+
+		PyramidDiscrete<I> pyramid = basePyramid;
+		basePyramid = f.pyramid;
+		f.pyramid = pyramid;
+
+		ImageGradient<I,D> gradient = this.gradient;
+		this.gradient = f.gradient;
+		f.gradient = gradient;
+
+		D[] derivX = this.derivX;
+		this.derivX = f.derivX;
+		f.derivX = derivX;
+
+		D[] derivY = this.derivY;
+		this.derivY = f.derivY;
+		f.derivY = derivY;
+
+		GeneralFeatureIntensity<I,D> intensity = this.intensity;
+		this.intensity = f.intensity;
+		f.intensity = intensity;
+		hasIntensity = this.intensity != null;
+
+		trackFeatures();
+	}
+
+	/**
+	 * Tracks features into the current image after its pyramid and gradient have been computed
+	 */
+	protected void trackFeatures() {
+		spawned.clear();
+		dropped.clear();
+
+		// track features and update their description
 		tracker.setImage(basePyramid,derivX,derivY);
-		for( int i = 0; i < active.size(); ) {
+		faults = tracker.trackAll(active,true,faults);
+
+		// update the track lists while preserving the order of active tracks
+		int numActive = 0;
+		for( int i = 0; i < active.size(); i++ ) {
 			PyramidKltFeature t = active.get(i);
-			KltTrackFault ret = tracker.track(t);
-
-			boolean success = false;
-
-			if( ret == KltTrackFault.SUCCESS ) {
-				// discard a track if its center drifts outside the image.
-				if( image.isInBounds((int)t.x,(int)t.y) && tracker.setDescription(t) ) {
-					PointTrack p = t.getCookie();
-					p.set(t.x,t.y);
-					i++;
-					success = true;
-				}
-			}
 
-			if( !success ) {
-				active.remove(i);
+			// discard a track if its center drifts outside the image.
+			KltTrackFault fault = faults[i];
+			if( fault == KltTrackFault.SUCCESS && !input.isInBounds((int)t.x,(int)t.y) )
+				fault = KltTrackFault.OUT_OF_BOUNDS;
+			totalFaults[fault.ordinal()]++;
+
+			if( fault == KltTrackFault.SUCCESS ) {
+				PointTrack p = t.getCookie();
+				p.set(t.x,t.y);
+				active.set(numActive++,t);
+			} else {
 				dropped.add( t );
 				unused.add( t );
 			}
 		}
+		active.subList(numActive,active.size()).clear();
+		totalDropped += dropped.size();
 	}
 
 	protected void declareOutput() {
@@ -341,9 +469,99 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		}
 	}
 
+	/**
+	 * Specifies how the storage for prepared images is created.  Must create the same type of pyramid,
+	 * gradient and feature intensity as was passed into the constructor.
+	 */
+	public void setFrameFactory( FrameFactory<I,D> frameFactory ) {
+		this.frameFactory = frameFactory;
+	}
+
+	public FrameFactory<I,D> getFrameFactory() {
+		return frameFactory;
+	}
+
+	/**
+	 * Total number of tracks which have been spawned, including those added with {@link #addTrack}.
+	 */
+	public long getTotalSpawned() {
+		return totalSpawned;
+	}
+
+	/**
+	 * Total number of tracks which have been dropped because tracking failed.  Tracks dropped by request are
+	 * not included.
+	 */
+	public long getTotalDropped() {
+		return totalDropped;
+	}
+
+	/**
+	 * Number of times a track has finished with the specified result. A track whose center leaves the image
+	 * is counted as {@link KltTrackFault#OUT_OF_BOUNDS}.
+	 */
+	public long getTotalFaults( KltTrackFault fault ) {
+		return totalFaults[fault.ordinal()];
+	}
+
+	/**
+	 * Total time in nanoseconds spent tracking features at each layer in the pyramid.  Only recorded
+	 * if profiling has been turned on.
+	 *
+	 * @see PyramidKltTracker#setProfile(boolean)
+	 */
+	public long[] getLayerTime() {
+		return tracker.getLayerTime();
+	}
+
+	/**
+	 * Turns on and off recording of time spent in each layer
+	 */
+	public void setProfile( boolean profile ) {
+		tracker.setProfile(profile);
+	}
+
+	/**
+	 * Sets all the statistics back to zero
+	 */
+	public void resetStatistics() {
+		totalSpawned = 0;
+		totalDropped = 0;
+		Arrays.fill(totalFaults,0);
+		tracker.resetLayerTime();
+	}
+
 	@Override
 	public void reset() {
 		dropAllTracks();
 		totalFeatures = 0;
 	}
+
+	/**
+	 * Creates new instances of the image processing used to prepare an image.  Each call must return a new
+	 * instance since prepared images can be processed in different threads.
+	 */
+	public interface FrameFactory<I extends ImageGray<I>,D extends ImageGray<D>> {
+		PyramidDiscrete<I> createPyramid();
+
+		ImageGradient<I,D> createGradient();
+
+		/**
+		 * Creates the same feature intensity which is used by the feature detector
+		 */
+		GeneralFeatureIntensity<I,D> createIntensity();
+	}
+
+	/**
+	 * Storage for an image which has been prepared by a {@link PointTrackerKltPyramid}
+	 */
+	public static class KltFrame<I extends ImageGray<I>,D extends ImageGray<D>> implements Frame {
+		I input;
+		PyramidDiscrete<I> pyramid;
+		ImageGradient<I,D> gradient;
+		D[] derivX;
+		D[] derivY;
+		// feature intensity of layer 0.  null if there is no detector
+		GeneralFeatureIntensity<I,D> intensity;
+	}
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.struct.image.ImageBase;
+
+/**
+ * <p>
+ * Extension of {@link PointTracker} which splits processing of an image into two stages.  The first stage,
+ * {@link #prepare}, computes everything which only depends on the image itself, e.g. image pyramids, gradients and
+ * the intensity used to detect new tracks.  The second stage, {@link #process(Frame)}, updates the tracks using
+ * the prepared data.  Since the first stage doesn't access the state of the tracker the next image can be prepared
+ * in a different thread while the current image is still being processed.
+ * </p>
+ *
+ * <p>
+ * Calling {@link #process(ImageBase)} is equivalent to preparing the image and then processing it.  The input image
+ * must not be modified until the tracker has finished with it.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface PointTrackerLookAhead<T extends ImageBase<T>> extends PointTracker<T> {
+
+	/**
+	 * Creates storage for a prepared image.  Each frame has its own storage and can be used in a different thread.
+	 */
+	Frame createFrame();
+
+	/**
+	 * Computes everything which only depends on the image and saves it into the frame.  Does not modify the
+	 * state of the tracker and can be called while a different frame is being processed.
+	 *
+	 * @param image Input image
+	 * @param frame Storage for the prepared image.  Must have been created by this tracker.
+	 */
+	void prepare( T image , Frame frame );
+
+	/**
+	 * Tracks features into a prepared image.  The tracker takes ownership of the frame's storage and moves
+	 * its previous storage into the frame, which can then be used to prepare another image.
+	 *
+	 * @param frame A prepared image.
+	 */
+	void process( Frame frame );
+
+	/**
+	 * Storage for an image which has been prepared by a {@link PointTrackerLookAhead}.
+	 */
+	interface Frame {
+	}
+}
@@ -24,7 +24,7 @@ import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.klt.KltConfig;
 import boofcv.alg.tracker.klt.KltTrackFault;
 import boofcv.alg.tracker.klt.PyramidKltFeature;
-import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
 import boofcv.misc.BoofMiscOps;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.pyramid.PyramidDiscrete;
@@ -61,19 +61,23 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray<I>,D extends Imag
 				gradient.getDerivativeType().getImageClass());
 	}
 
-	@Override
-	public void process(I image) {
-		this.input = image;
+	public PointTrackerTwoPassKltPyramid(KltConfig config,
+										 int templateRadius ,
+										 PyramidDiscrete<I> pyramid,
+										 GeneralFeatureDetector<I, D> detector,
+										 ImageGradient<I, D> gradient,
+										 PyramidKltTracker<I, D> tracker)
+	{
+		super(config, templateRadius, pyramid , detector, gradient, tracker,
+				gradient.getDerivativeType().getImageClass());
+	}
 
+	@Override
+	protected void trackFeatures() {
 		finishedTracking = false;
 		spawned.clear();
 		dropped.clear();
 
-		// update image pyramids
-		basePyramid.process(image);
-		declareOutput();
-		PyramidOps.gradient(basePyramid, gradient, derivX, derivY);
-
 		// setup active list
 		originalActive.clear();
 		originalActive.addAll( active );
@@ -83,9 +87,10 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray<I>,D extends Imag
 		active.clear();
 
 		tracker.setImage(basePyramid,derivX,derivY);
+		faults = tracker.trackAll(originalActive,false,faults);
 		for( int i = 0; i < originalActive.size(); i++ ) {
 			PyramidKltFeature t = originalActive.get(i);
-			KltTrackFault ret = tracker.track(t);
+			KltTrackFault ret = faults[i];
 
 			boolean success = false;
 
@@ -96,6 +101,8 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray<I>,D extends Imag
 					PointTrack p = t.getCookie();
 					p.set(t.x,t.y);
 					success = true;
+				} else {
+					faults[i] = KltTrackFault.OUT_OF_BOUNDS;
 				}
 			}
 
@@ -110,9 +117,10 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray<I>,D extends Imag
 		candidateDrop.clear();
 		active.clear();
 
+		faults = tracker.trackAll(originalActive,false,faults);
 		for( int i = 0; i < originalActive.size(); i++ ) {
 			PyramidKltFeature t = originalActive.get(i);
-			KltTrackFault ret = tracker.track(t);
+			KltTrackFault ret = faults[i];
 
 			boolean success = false;
 
@@ -123,6 +131,8 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray<I>,D extends Imag
 					PointTrack p = t.getCookie();
 					p.set(t.x,t.y);
 					success = true;
+				} else {
+					faults[i] = KltTrackFault.OUT_OF_BOUNDS;
 				}
 			}
 			if( !success) {
@@ -140,9 +150,18 @@ public class PointTrackerTwoPassKltPyramid<I extends ImageGray<I>,D extends Imag
 			} else {
 				candidateDrop.add(t);
 				active.remove(i);
+				totalFaults[KltTrackFault.FAILED.ordinal()]++;
 			}
 		}
 
+		// update statistics using the results from the last pass
+		for( int i = 0; i < originalActive.size(); i++ ) {
+			if( faults[i] != KltTrackFault.SUCCESS )
+				totalFaults[faults[i].ordinal()]++;
+		}
+		totalFaults[KltTrackFault.SUCCESS.ordinal()] += active.size();
+		totalDropped += candidateDrop.size();
+
 		for( int i = 0; i < candidateDrop.size(); i++ ) {
 			PyramidKltFeature t = candidateDrop.get(i);
 			dropped.add( t );
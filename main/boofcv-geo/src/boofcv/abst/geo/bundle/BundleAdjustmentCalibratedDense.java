@@ -20,6 +20,7 @@ package boofcv.abst.geo.bundle;
 
 import boofcv.abst.geo.BundleAdjustmentCalibrated;
 import boofcv.alg.geo.bundle.*;
+import boofcv.concurrency.BoofConcurrency;
 import georegression.struct.se.Se3_F64;
 import org.ddogleg.optimization.FactoryOptimization;
 import org.ddogleg.optimization.RegionStepType;
@@ -43,14 +44,33 @@ public class BundleAdjustmentCalibratedDense
 	// minimization algorithm
 	UnconstrainedLeastSquares minimizer;
 	// computes residuals for least-squares
-	CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
-	CalibPoseAndPointRodriguesJacobian jacobian = new CalibPoseAndPointRodriguesJacobian();
+	CalibPoseAndPointResiduals func;
+	CalibPoseAndPointRodriguesJacobian jacobian;
 
 	int maxIterations;
 	double convergenceTol;
 
+	/**
+	 * Configures the optimization.  If {@link BoofConcurrency#USE_CONCURRENT} is true then the residuals and
+	 * Jacobian are computed concurrently.
+	 */
 	public BundleAdjustmentCalibratedDense(double convergenceTol,
 										   int maxIterations ) {
+		this(convergenceTol, maxIterations,
+				BoofConcurrency.USE_CONCURRENT ? new CalibPoseAndPointResiduals_MT() : new CalibPoseAndPointResiduals(),
+				BoofConcurrency.USE_CONCURRENT ?
+						new CalibPoseAndPointRodriguesJacobian_MT() : new CalibPoseAndPointRodriguesJacobian());
+	}
+
+	/**
+	 * Configures the optimization and specifies how the residuals and Jacobian are computed
+	 */
+	public BundleAdjustmentCalibratedDense(double convergenceTol,
+										   int maxIterations ,
+										   CalibPoseAndPointResiduals func,
+										   CalibPoseAndPointRodriguesJacobian jacobian ) {
+		this.func = func;
+		this.jacobian = jacobian;
 		this.convergenceTol = convergenceTol;
 		minimizer = FactoryOptimization.leastSquaresTrustRegion(1, RegionStepType.DOG_LEG_F,false);
 		codec = new CalibPoseAndPointRodriguesCodec();
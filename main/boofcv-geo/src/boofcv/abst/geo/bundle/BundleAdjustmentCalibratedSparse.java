@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.geo.bundle;
+
+import boofcv.abst.geo.BundleAdjustmentCalibrated;
+import boofcv.alg.geo.bundle.CalibPoseAndPointSchurLM;
+import boofcv.alg.geo.bundle.CalibratedPoseAndPoint;
+import boofcv.alg.geo.bundle.ViewPointObservations;
+
+import java.util.List;
+
+/**
+ * Performs bundle adjustment by exploiting the sparse block structure of the problem.  Memory and
+ * computations scale with the number of observations instead of the square of the number of parameters.
+ * See {@link CalibPoseAndPointSchurLM} for details.
+ *
+ * @author Peter Abeles
+ */
+public class BundleAdjustmentCalibratedSparse
+		implements BundleAdjustmentCalibrated
+{
+	// sparse Levenberg-Marquardt optimization
+	CalibPoseAndPointSchurLM alg;
+
+	public BundleAdjustmentCalibratedSparse(double convergenceTol,
+											int maxIterations ) {
+		this(new CalibPoseAndPointSchurLM(convergenceTol,maxIterations));
+	}
+
+	/**
+	 * Specifies the optimization algorithm.  Can be used to provide the concurrent implementation.
+	 */
+	public BundleAdjustmentCalibratedSparse( CalibPoseAndPointSchurLM alg ) {
+		this.alg = alg;
+	}
+
+	@Override
+	public boolean process(CalibratedPoseAndPoint initialModel,
+						   List<ViewPointObservations> observations)
+	{
+		return alg.process(initialModel,observations);
+	}
+
+	public CalibPoseAndPointSchurLM getAlgorithm() {
+		return alg;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.geo.optimization;
+
+import boofcv.alg.geo.ModelObservationResidualN;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import org.ddogleg.fitting.modelset.ModelCodec;
+
+/**
+ * Concurrent implementation of {@link ResidualsCodecToMatrix}.  The observations are split into blocks
+ * which are processed at the same time.  The residual function must support calls to
+ * {@link ModelObservationResidualN#computeResiduals} from multiple threads after the model has been set.
+ *
+ * @author Peter Abeles
+ */
+public class ResidualsCodecToMatrix_MT<Model,Observation> extends ResidualsCodecToMatrix<Model,Observation> {
+
+	// minimum number of observations in a block
+	int minBlockSize = 50;
+
+	/**
+	 * @see ResidualsCodecToMatrix#ResidualsCodecToMatrix
+	 */
+	public ResidualsCodecToMatrix_MT(ModelCodec<Model> param,
+									 ModelObservationResidualN<Model, Observation> residual,
+									 Model storage) {
+		super(param, residual, storage);
+	}
+
+	@Override
+	public void process(double[] input, final double[] output) {
+		param.decode(input, pose);
+
+		residual.setModel(pose);
+		final int N = residual.getN();
+		BoofConcurrency.loopBlocks(0, obs.size(), minBlockSize, new IntRangeConsumer() {
+			@Override
+			public void accept(int i0, int i1) {
+				int index = i0*N;
+				for( int i = i0; i < i1; i++ ) {
+					index = residual.computeResiduals(obs.get(i),output,index);
+				}
+			}
+		});
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.geo.pose;
+
+import boofcv.abst.geo.optimization.ResidualsCodecToMatrix_MT;
+import boofcv.alg.geo.pose.PnPJacobianRodrigues_MT;
+import boofcv.alg.geo.pose.PnPResidualReprojection;
+import georegression.struct.se.Se3_F64;
+
+/**
+ * Concurrent implementation of {@link PnPRefineRodrigues}.  Residuals and the Jacobian are computed
+ * by splitting the observations into blocks.  The optimization itself is single threaded.
+ *
+ * @author Peter Abeles
+ */
+public class PnPRefineRodrigues_MT extends PnPRefineRodrigues {
+
+	/**
+	 * @see PnPRefineRodrigues#PnPRefineRodrigues
+	 */
+	public PnPRefineRodrigues_MT(double convergenceTol, int maxIterations) {
+		super(convergenceTol, maxIterations);
+
+		func = new ResidualsCodecToMatrix_MT<>(paramModel, new PnPResidualReprojection(), new Se3_F64());
+		jacobian = new PnPJacobianRodrigues_MT();
+	}
+}
@@ -20,10 +20,12 @@ package boofcv.alg.distort;
 
 import boofcv.alg.distort.pinhole.LensDistortionPinhole;
 import boofcv.alg.distort.radtan.LensDistortionRadialTangential;
+import boofcv.alg.distort.radtan.LensDistortionRadialTangentialGrid;
 import boofcv.alg.distort.universal.LensDistortionUniversalOmni;
 import boofcv.alg.geo.PerspectiveOps;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.interpolate.InterpolationType;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.interpolate.FactoryInterpolation;
@@ -34,6 +36,9 @@ import boofcv.struct.calib.CameraUniversalOmni;
 import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.distort.PixelTransform2_F64;
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F64;
 import boofcv.struct.distort.SequencePoint2Transform2_F32;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
@@ -190,6 +195,26 @@ public class LensDistortionOps {
 	}
 
 
+	/**
+	 * Same as {@link #narrow(CameraModel)} except removing radial-tangential distortion from pixels is
+	 * approximated using a precomputed grid, which is much faster than the iterative solution.  The image
+	 * shape must be specified in the camera model.
+	 *
+	 * @see LensDistortionRadialTangentialGrid
+	 *
+	 * @param param Camera model
+	 * @param tolerance Maximum approximation error in pixels. Try 0.01
+	 */
+	public static LensDistortionNarrowFOV narrowGrid(CameraModel param , double tolerance ) {
+		if( param instanceof CameraPinholeRadial ) {
+			CameraPinholeRadial c = (CameraPinholeRadial)param;
+
+			if (c.isDistorted())
+				return new LensDistortionRadialTangentialGrid(c,tolerance);
+		}
+		return narrow(param);
+	}
+
 	/**
 	 * <p>
 	 * Creates the {@link LensDistortionWideFOV lens distortion} for the specified camera parameters.
@@ -203,6 +228,44 @@ public class LensDistortionOps {
 		}
 	}
 
+	/**
+	 * Converts a point transform, e.g. one from {@link LensDistortionNarrowFOV}, into a transform which
+	 * processes packed arrays of points.  Transforms with a specialized batch implementation are used directly,
+	 * all others are applied one point at a time.  If {@link BoofConcurrency#USE_CONCURRENT} is true and the
+	 * transform has a specialized batch implementation then a concurrent implementation is returned.
+	 *
+	 * @param transform The point transform
+	 * @return Batch transform
+	 */
+	public static Point2TransformBatch2_F64 batch( Point2Transform2_F64 transform ) {
+		if( transform instanceof Point2TransformBatch2_F64 ) {
+			Point2TransformBatch2_F64 batch = (Point2TransformBatch2_F64)transform;
+			if( BoofConcurrency.USE_CONCURRENT )
+				return new Point2TransformBatch_F64_MT(batch);
+			return batch;
+		}
+		return new Point2TransformToBatch_F64(transform);
+	}
+
+	/**
+	 * Converts a point transform, e.g. one from {@link LensDistortionNarrowFOV}, into a transform which
+	 * processes packed arrays of points.  Transforms with a specialized batch implementation are used directly,
+	 * all others are applied one point at a time.  If {@link BoofConcurrency#USE_CONCURRENT} is true and the
+	 * transform has a specialized batch implementation then a concurrent implementation is returned.
+	 *
+	 * @param transform The point transform
+	 * @return Batch transform
+	 */
+	public static Point2TransformBatch2_F32 batch( Point2Transform2_F32 transform ) {
+		if( transform instanceof Point2TransformBatch2_F32 ) {
+			Point2TransformBatch2_F32 batch = (Point2TransformBatch2_F32)transform;
+			if( BoofConcurrency.USE_CONCURRENT )
+				return new Point2TransformBatch_F32_MT(batch);
+			return batch;
+		}
+		return new Point2TransformToBatch_F32(transform);
+	}
+
 	/**
 	 * Finds the maximum area axis-aligned rectangle contained inside the transformed image which
 	 * does not include any pixels outside the sources border.  Assumes that the coordinates are not
@@ -19,6 +19,7 @@
 package boofcv.alg.distort;
 
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
 import georegression.struct.point.Point2D_F32;
 
 /**
@@ -27,7 +28,7 @@ import georegression.struct.point.Point2D_F32;
  *
  * @author Peter Abeles
  */
-public class Transform2ThenPixel_F32 implements Point2Transform2_F32 {
+public class Transform2ThenPixel_F32 implements Point2Transform2_F32, Point2TransformBatch2_F32 {
 
 	float fx, fy, skew, cx, cy;
 	Point2Transform2_F32 first;
@@ -53,4 +54,20 @@ public class Transform2ThenPixel_F32 implements Point2Transform2_F32 {
 		out.x = fx*x + skew*y + cx;
 		out.y = fy*y + cy;
 	}
+
+	/**
+	 * Applies the first transform to a batch of points then converts them into pixels. If the first
+	 * transform has a batch implementation it's used.
+	 */
+	@Override
+	public void compute(float[] input, float[] output, int offset, int length) {
+		Point2TransformToBatch_F32.wrap(first).compute(input,output,offset,length);
+
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			float x = output[i], y = output[i+1];
+			output[i] = fx*x + skew*y + cx;
+			output[i+1] = fy*y + cy;
+		}
+	}
 }
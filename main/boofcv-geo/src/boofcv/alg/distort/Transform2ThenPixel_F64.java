@@ -19,6 +19,7 @@
 package boofcv.alg.distort;
 
 import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.Point2TransformBatch2_F64;
 import georegression.struct.point.Point2D_F64;
 
 /**
@@ -27,7 +28,7 @@ import georegression.struct.point.Point2D_F64;
  *
  * @author Peter Abeles
  */
-public class Transform2ThenPixel_F64 implements Point2Transform2_F64 {
+public class Transform2ThenPixel_F64 implements Point2Transform2_F64, Point2TransformBatch2_F64 {
 
 	double fx, fy, skew, cx, cy;
 	Point2Transform2_F64 first;
@@ -53,4 +54,20 @@ public class Transform2ThenPixel_F64 implements Point2Transform2_F64 {
 		out.x = fx*x + skew*y + cx;
 		out.y = fy*y + cy;
 	}
+
+	/**
+	 * Applies the first transform to a batch of points then converts them into pixels. If the first
+	 * transform has a batch implementation it's used.
+	 */
+	@Override
+	public void compute(double[] input, double[] output, int offset, int length) {
+		Point2TransformToBatch_F64.wrap(first).compute(input,output,offset,length);
+
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			double x = output[i], y = output[i+1];
+			output[i] = fx*x + skew*y + cx;
+			output[i+1] = fy*y + cy;
+		}
+	}
 }
@@ -19,6 +19,7 @@
 package boofcv.alg.distort.pinhole;
 
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
 import georegression.struct.point.Point2D_F32;
 
 /**
@@ -26,7 +27,7 @@ import georegression.struct.point.Point2D_F32;
  *
  * @author Peter Abeles
  */
-public class PinholeNtoP_F32 implements Point2Transform2_F32 {
+public class PinholeNtoP_F32 implements Point2Transform2_F32, Point2TransformBatch2_F32 {
 
 	// camera calibration matrix
 	private float fx, fy, skew, cx, cy;
@@ -46,4 +47,14 @@ public class PinholeNtoP_F32 implements Point2Transform2_F32 {
 		out.x = fx * x + skew * y + cx;
 		out.y = fy * y + cy;
 	}
+
+	@Override
+	public void compute(float[] input, float[] output, int offset, int length) {
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			float x = input[i], y = input[i+1];
+			output[i] = fx * x + skew * y + cx;
+			output[i+1] = fy * y + cy;
+		}
+	}
 }
@@ -19,6 +19,7 @@
 package boofcv.alg.distort.pinhole;
 
 import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.Point2TransformBatch2_F64;
 import georegression.struct.point.Point2D_F64;
 
 /**
@@ -26,7 +27,7 @@ import georegression.struct.point.Point2D_F64;
  *
  * @author Peter Abeles
  */
-public class PinholeNtoP_F64 implements Point2Transform2_F64 {
+public class PinholeNtoP_F64 implements Point2Transform2_F64, Point2TransformBatch2_F64 {
 
 	// camera calibration matrix
 	private double fx, fy, skew, cx, cy;
@@ -46,4 +47,14 @@ public class PinholeNtoP_F64 implements Point2Transform2_F64 {
 		out.x = fx * x + skew * y + cx;
 		out.y = fy * y + cy;
 	}
+
+	@Override
+	public void compute(double[] input, double[] output, int offset, int length) {
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			double x = input[i], y = input[i+1];
+			output[i] = fx * x + skew * y + cx;
+			output[i+1] = fy * y + cy;
+		}
+	}
 }
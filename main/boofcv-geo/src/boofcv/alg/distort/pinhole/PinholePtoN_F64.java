@@ -19,6 +19,7 @@
 package boofcv.alg.distort.pinhole;
 
 import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.Point2TransformBatch2_F64;
 import georegression.struct.point.Point2D_F64;
 
 /**
@@ -27,7 +28,7 @@ import georegression.struct.point.Point2D_F64;
  *
  * @author Peter Abeles
  */
-public class PinholePtoN_F64 implements Point2Transform2_F64 {
+public class PinholePtoN_F64 implements Point2Transform2_F64, Point2TransformBatch2_F64 {
 
 	// inverse of camera calibration matrix
 	// These are the upper triangular elements in a 3x3 matrix
@@ -49,4 +50,14 @@ public class PinholePtoN_F64 implements Point2Transform2_F64 {
 		out.x = a11*x + a12*y + a13;
 		out.y = a22*y + a23;
 	}
+
+	@Override
+	public void compute(double[] input, double[] output, int offset, int length) {
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			double x = input[i], y = input[i+1];
+			output[i] = a11*x + a12*y + a13;
+			output[i+1] = a22*y + a23;
+		}
+	}
 }
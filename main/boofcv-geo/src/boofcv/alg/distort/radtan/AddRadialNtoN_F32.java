@@ -19,6 +19,7 @@
 package boofcv.alg.distort.radtan;
 
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
 import georegression.struct.point.Point2D_F32;
 
 /**
@@ -26,7 +27,7 @@ import georegression.struct.point.Point2D_F32;
  *
  * @author Peter Abeles
  */
-public class AddRadialNtoN_F32 implements Point2Transform2_F32 {
+public class AddRadialNtoN_F32 implements Point2Transform2_F32, Point2TransformBatch2_F32 {
 
 	private RadialTangential_F32 params;
 
@@ -72,4 +73,33 @@ public class AddRadialNtoN_F32 implements Point2Transform2_F32 {
 		out.x += 2*t1*x*y + t2*(r2 + 2*x*x);
 		out.y += t1*(r2 + 2*y*y) + 2*t2*x*y;
 	}
+
+	/**
+	 * Adds radial distortion to a batch of points.
+	 *
+	 * @see Point2TransformBatch2_F32
+	 */
+	@Override
+	public void compute(float[] input, float[] output, int offset, int length) {
+		float[] radial = params.radial;
+		float t1 = params.t1;
+		float t2 = params.t2;
+
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			float x = input[i], y = input[i+1];
+
+			float r2 = x*x + y*y;
+			float ri2 = r2;
+
+			float sum = 0;
+			for( int j = 0; j < radial.length; j++ ) {
+				sum += radial[j]*ri2;
+				ri2 *= r2;
+			}
+
+			output[i] = x*( 1 + sum) + (2*t1*x*y + t2*(r2 + 2*x*x));
+			output[i+1] = y*( 1 + sum) + (t1*(r2 + 2*y*y) + 2*t2*x*y);
+		}
+	}
 }
@@ -19,6 +19,7 @@
 package boofcv.alg.distort.radtan;
 
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
 import georegression.struct.point.Point2D_F32;
 
 /**
@@ -26,7 +27,7 @@ import georegression.struct.point.Point2D_F32;
  *
  * @author Peter Abeles
  */
-public class AddRadialPtoN_F32 implements Point2Transform2_F32 {
+public class AddRadialPtoN_F32 implements Point2Transform2_F32, Point2TransformBatch2_F32 {
 
 	// distortion parameters
 	protected RadialTangential_F32 params;
@@ -102,4 +103,39 @@ public class AddRadialPtoN_F32 implements Point2Transform2_F32 {
 		out.x = out.x*(1 + sum) + tx;
 		out.y = out.y*(1 + sum) + ty;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Adds radial distortion to a batch of points.
+	 *
+	 * @see Point2TransformBatch2_F32
+	 */
+	@Override
+	public void compute(float[] input, float[] output, int offset, int length) {
+		float radial[] = params.radial;
+		float t1 = params.t1, t2 = params.t2;
+
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			float px = input[i], py = input[i+1];
+
+			// undistorted normalized image coordinate
+			float x = a11*px + a12*py + a13;
+			float y = a22*py + a23;
+
+			float sum = 0;
+			float r2 = x * x + y * y;
+			float ri2 = r2;
+
+			for (int j = 0; j < radial.length; j++) {
+				sum += radial[j] * ri2;
+				ri2 *= r2;
+			}
+
+			float tx = 2 * t1 * x * y + t2 * (r2 + 2 * x * x);
+			float ty = t1 * (r2 + 2 * y * y) + 2 * t2 * x * y;
+
+			output[i] = x*(1 + sum) + tx;
+			output[i+1] = y*(1 + sum) + ty;
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.alg.distort.radtan;
 
 import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.Point2TransformBatch2_F64;
 import georegression.struct.point.Point2D_F64;
 
 /**
@@ -26,7 +27,7 @@ import georegression.struct.point.Point2D_F64;
  *
  * @author Peter Abeles
  */
-public class AddRadialPtoN_F64 implements Point2Transform2_F64 {
+public class AddRadialPtoN_F64 implements Point2Transform2_F64, Point2TransformBatch2_F64 {
 
 	// distortion parameters
 	protected RadialTangential_F64 params;
@@ -102,4 +103,39 @@ public class AddRadialPtoN_F64 implements Point2Transform2_F64 {
 		out.x = out.x*(1 + sum) + tx;
 		out.y = out.y*(1 + sum) + ty;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Adds radial distortion to a batch of points.
+	 *
+	 * @see Point2TransformBatch2_F64
+	 */
+	@Override
+	public void compute(double[] input, double[] output, int offset, int length) {
+		double radial[] = params.radial;
+		double t1 = params.t1, t2 = params.t2;
+
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			double px = input[i], py = input[i+1];
+
+			// undistorted normalized image coordinate
+			double x = a11*px + a12*py + a13;
+			double y = a22*py + a23;
+
+			double sum = 0;
+			double r2 = x * x + y * y;
+			double ri2 = r2;
+
+			for (int j = 0; j < radial.length; j++) {
+				sum += radial[j] * ri2;
+				ri2 *= r2;
+			}
+
+			double tx = 2 * t1 * x * y + t2 * (r2 + 2 * x * x);
+			double ty = t1 * (r2 + 2 * y * y) + 2 * t2 * x * y;
+
+			output[i] = x*(1 + sum) + tx;
+			output[i+1] = y*(1 + sum) + ty;
+		}
+	}
+}
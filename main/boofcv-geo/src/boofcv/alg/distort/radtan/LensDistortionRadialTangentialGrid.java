@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort.radtan;
+
+import boofcv.alg.distort.Point2TransformGrid_F32;
+import boofcv.alg.distort.Point2TransformGrid_F64;
+import boofcv.struct.calib.CameraPinholeRadial;
+import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2Transform2_F64;
+
+/**
+ * Radial-Tangential lens distortion where removing distortion from pixels is approximated with a
+ * precomputed grid, see {@link Point2TransformGrid_F64}, instead of an iterative solver for every point.
+ * The grid is computed the first time a transform is requested and the same instance is returned
+ * afterwards. Transforms which take normalized image coordinates as input are computed exactly.
+ *
+ * @author Peter Abeles
+ */
+public class LensDistortionRadialTangentialGrid extends LensDistortionRadialTangential {
+
+	// maximum error in pixels
+	double tolerance;
+
+	// cached undistortion grids. index 0 = normalized output, 1 = pixel output
+	Point2TransformGrid_F64[] undistort64 = new Point2TransformGrid_F64[2];
+	Point2TransformGrid_F32[] undistort32 = new Point2TransformGrid_F32[2];
+
+	/**
+	 * @param p Camera model. The image shape must be specified.
+	 * @param tolerance Maximum error in pixels. Try 0.01
+	 */
+	public LensDistortionRadialTangentialGrid(CameraPinholeRadial p, double tolerance) {
+		super(p);
+		if( p.width <= 0 || p.height <= 0 )
+			throw new IllegalArgumentException("The camera's image shape must be specified");
+		this.tolerance = tolerance;
+	}
+
+	@Override
+	public synchronized Point2Transform2_F64 undistort_F64(boolean pixelIn, boolean pixelOut) {
+		if( !pixelIn )
+			return super.undistort_F64(pixelIn, pixelOut);
+
+		int index = pixelOut ? 1 : 0;
+		if( undistort64[index] == null ) {
+			undistort64[index] = new Point2TransformGrid_F64(super.undistort_F64(true, pixelOut),
+					p.width, p.height, outputTolerance(pixelOut));
+		}
+		return undistort64[index];
+	}
+
+	@Override
+	public synchronized Point2Transform2_F32 undistort_F32(boolean pixelIn, boolean pixelOut) {
+		if( !pixelIn )
+			return super.undistort_F32(pixelIn, pixelOut);
+
+		int index = pixelOut ? 1 : 0;
+		if( undistort32[index] == null ) {
+			undistort32[index] = new Point2TransformGrid_F32(super.undistort_F32(true, pixelOut),
+					p.width, p.height, outputTolerance(pixelOut));
+		}
+		return undistort32[index];
+	}
+
+	/**
+	 * Converts the tolerance from pixels into the output's units
+	 */
+	private double outputTolerance( boolean pixelOut ) {
+		if( pixelOut )
+			return tolerance;
+		return tolerance/Math.max(p.fx, p.fy);
+	}
+
+	public double getTolerance() {
+		return tolerance;
+	}
+}
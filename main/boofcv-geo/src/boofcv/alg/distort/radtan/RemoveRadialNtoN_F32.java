@@ -19,6 +19,7 @@
 package boofcv.alg.distort.radtan;
 
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point2D_F32;
 
@@ -27,7 +28,7 @@ import georegression.struct.point.Point2D_F32;
  *
  * @author Peter Abeles
  */
-public class RemoveRadialNtoN_F32 implements Point2Transform2_F32 {
+public class RemoveRadialNtoN_F32 implements Point2Transform2_F32, Point2TransformBatch2_F32 {
 
 	// distortion parameters
 	protected RadialTangential_F32 params;
@@ -107,4 +108,20 @@ public class RemoveRadialNtoN_F32 implements Point2Transform2_F32 {
 		}
 		out.set(x,y);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Removes radial distortion from a batch of points.
+	 *
+	 * @see Point2TransformBatch2_F32
+	 */
+	@Override
+	public void compute(float[] input, float[] output, int offset, int length) {
+		Point2D_F32 p = new Point2D_F32();
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			removeRadial(input[i], input[i+1], params.radial, params.t1, params.t2, p, tol );
+			output[i] = p.x;
+			output[i+1] = p.y;
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.alg.distort.radtan;
 
 import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.Point2TransformBatch2_F64;
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point2D_F64;
 
@@ -27,7 +28,7 @@ import georegression.struct.point.Point2D_F64;
  *
  * @author Peter Abeles
  */
-public class RemoveRadialNtoN_F64 implements Point2Transform2_F64 {
+public class RemoveRadialNtoN_F64 implements Point2Transform2_F64, Point2TransformBatch2_F64 {
 
 	// distortion parameters
 	protected RadialTangential_F64 params;
@@ -107,4 +108,20 @@ public class RemoveRadialNtoN_F64 implements Point2Transform2_F64 {
 		}
 		out.set(x,y);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Removes radial distortion from a batch of points.
+	 *
+	 * @see Point2TransformBatch2_F64
+	 */
+	@Override
+	public void compute(double[] input, double[] output, int offset, int length) {
+		Point2D_F64 p = new Point2D_F64();
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			removeRadial(input[i], input[i+1], params.radial, params.t1, params.t2, p, tol );
+			output[i] = p.x;
+			output[i+1] = p.y;
+		}
+	}
+}
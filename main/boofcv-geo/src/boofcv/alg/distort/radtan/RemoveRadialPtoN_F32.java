@@ -19,6 +19,7 @@
 package boofcv.alg.distort.radtan;
 
 import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point2D_F32;
 
@@ -29,7 +30,7 @@ import static boofcv.alg.distort.radtan.RemoveRadialNtoN_F32.removeRadial;
  *
  * @author Peter Abeles
  */
-public class RemoveRadialPtoN_F32 implements Point2Transform2_F32 {
+public class RemoveRadialPtoN_F32 implements Point2Transform2_F32, Point2TransformBatch2_F32 {
 
 	// principle point / image center
 	protected float cx, cy;
@@ -103,4 +104,22 @@ public class RemoveRadialPtoN_F32 implements Point2Transform2_F32 {
 
 		removeRadial(out.x, out.y, params.radial, params.t1, params.t2, out, tol );
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Removes radial distortion from a batch of points.
+	 *
+	 * @see Point2TransformBatch2_F32
+	 */
+	@Override
+	public void compute(float[] input, float[] output, int offset, int length) {
+		Point2D_F32 p = new Point2D_F32();
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			float x = input[i], y = input[i+1];
+			// initial estimate of undistorted point
+			removeRadial(a11*x + a12*y + a13, a22*y + a23, params.radial, params.t1, params.t2, p, tol );
+			output[i] = p.x;
+			output[i+1] = p.y;
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.alg.distort.radtan;
 
 import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.Point2TransformBatch2_F64;
 import georegression.misc.GrlConstants;
 import georegression.struct.point.Point2D_F64;
 
@@ -29,7 +30,7 @@ import static boofcv.alg.distort.radtan.RemoveRadialNtoN_F64.removeRadial;
  *
  * @author Peter Abeles
  */
-public class RemoveRadialPtoN_F64 implements Point2Transform2_F64 {
+public class RemoveRadialPtoN_F64 implements Point2Transform2_F64, Point2TransformBatch2_F64 {
 
 	// principle point / image center
 	protected double cx, cy;
@@ -103,4 +104,22 @@ public class RemoveRadialPtoN_F64 implements Point2Transform2_F64 {
 
 		removeRadial(out.x, out.y, params.radial, params.t1, params.t2, out, tol );
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Removes radial distortion from a batch of points.
+	 *
+	 * @see Point2TransformBatch2_F64
+	 */
+	@Override
+	public void compute(double[] input, double[] output, int offset, int length) {
+		Point2D_F64 p = new Point2D_F64();
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			double x = input[i], y = input[i+1];
+			// initial estimate of undistorted point
+			removeRadial(a11*x + a12*y + a13, a22*y + a23, params.radial, params.t1, params.t2, p, tol );
+			output[i] = p.x;
+			output[i+1] = p.y;
+		}
+	}
+}
@@ -22,10 +22,6 @@ import boofcv.alg.distort.ImageDistort;
 import boofcv.alg.distort.LensDistortionWideFOV;
 import boofcv.alg.distort.PixelTransformCached_F32;
 import boofcv.alg.distort.PointToPixelTransform_F32;
-import boofcv.alg.misc.GImageMiscOps;
-import boofcv.alg.misc.GPixelMath;
-import boofcv.alg.misc.PixelMath;
-import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.distort.Point2Transform3_F32;
 import boofcv.struct.distort.Point3Transform2_F32;
@@ -33,6 +29,8 @@ import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedF32;
+import boofcv.struct.image.Planar;
 import georegression.geometry.GeometryMath_F32;
 import georegression.geometry.UtilVector3D_F32;
 import georegression.metric.UtilAngle;
@@ -42,12 +40,15 @@ import georegression.struct.se.Se3_F32;
 import org.ejml.data.FMatrixRMaj;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * Fuses information from multiple camera to create a single equirectangular image.  Each image
  * is rendered independently and added to the output image, but weighted by the mask.  The mask
- * describes the region of pixels in the equirectangular image which it represents.
+ * describes the region of pixels in the equirectangular image which it represents.  The transform from
+ * equirectangular to camera pixels is precomputed when a camera is added and only the region inside
+ * the camera's mask is rendered.
  *
  * @author Peter Abeles
  */
@@ -57,12 +58,17 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 	private int equiWidth, equHeight;
 
 	List<Camera> cameras = new ArrayList<>();
+	// transform from equirectangular to camera pixels for each camera
+	List<PixelTransformCached_F32> transforms = new ArrayList<>();
 
 	private T averageImage;
-	private T workImage;
 	private T cameraRendered;
 	private GrayF32 weightImage;
 
+	// bands inside of the average and rendered images. null for interleaved images
+	private GrayF32[] averageBands;
+	private GrayF32[] renderedBands;
+
 	private ImageDistort<T,T> distort;
 
 	// how close two spherical coordinates need to be to be considered a match when doing back and forth validation
@@ -89,8 +95,15 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 
 		weightImage = new GrayF32(equiWidth,equiHeight);
 		averageImage = imageType.createImage(equiWidth, equiHeight);
-		workImage = averageImage.createSameShape();
 		cameraRendered = averageImage.createSameShape();
+
+		if( averageImage instanceof GrayF32 ) {
+			averageBands = new GrayF32[]{(GrayF32)averageImage};
+			renderedBands = new GrayF32[]{(GrayF32)cameraRendered};
+		} else if( averageImage instanceof Planar ) {
+			averageBands = ((Planar<GrayF32>)averageImage).bands;
+			renderedBands = ((Planar<GrayF32>)cameraRendered).bands;
+		}
 	}
 
 	/**
@@ -105,43 +118,7 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 	 * @param height Input image height
 	 */
 	public void addCamera(Se3_F32 cameraToCommon , LensDistortionWideFOV factory , int width , int height ) {
-		Point2Transform3_F32 p2s = factory.undistortPtoS_F32();
-		Point3Transform2_F32 s2p = factory.distortStoP_F32();
-
-		EquiToCamera equiToCamera = new EquiToCamera(cameraToCommon.getR(),s2p);
-
-		GrayF32 equiMask = new GrayF32(equiWidth, equHeight);
-
-		PixelTransform2_F32 transformEquiToCam = new PixelTransformCached_F32(equiWidth, equHeight,
-				new PointToPixelTransform_F32(equiToCamera));
-
-		Point3D_F32 p3b = new Point3D_F32();
-		Point2D_F32 p2 = new Point2D_F32();
-
-		for (int row = 0; row < equHeight; row++) {
-			for (int col = 0; col < equiWidth; col++) {
-				equiToCamera.compute(col,row,p2);
-
-				int camX = (int)(p2.x+0.5f);
-				int camY = (int)(p2.y+0.5f);
-
-				if( Double.isNaN(p2.x) || Double.isNaN(p2.y) ||
-						camX < 0 || camY < 0 || camX >= width || camY >= height )
-					continue;
-
-				p2s.compute(p2.x,p2.y,p3b);
-
-				if( Double.isNaN(p3b.x) || Double.isNaN(p3b.y) || Double.isNaN(p3b.z))
-					continue;
-
-				double angle = UtilVector3D_F32.acute(equiToCamera.unitCam,p3b);
-
-				if( angle < maskToleranceAngle) {
-					equiMask.set(col,row,1);
-				}
-			}
-		}
-		cameras.add( new Camera(equiMask, transformEquiToCam));
+		addCamera(cameraToCommon, factory, width, height, null);
 	}
 
 	/**
@@ -155,7 +132,11 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 	 * @param camMask Binary mask with invalid pixels marked as not zero.  Pixels are in camera image frame.
 	 */
 	public void addCamera(Se3_F32 cameraToCommon , LensDistortionWideFOV factory , GrayU8 camMask ) {
+		addCamera(cameraToCommon, factory, camMask.width, camMask.height, camMask);
+	}
 
+	private void addCamera(Se3_F32 cameraToCommon , LensDistortionWideFOV factory , int width , int height ,
+						   GrayU8 camMask ) {
 		Point2Transform3_F32 p2s = factory.undistortPtoS_F32();
 		Point3Transform2_F32 s2p = factory.distortStoP_F32();
 
@@ -163,76 +144,199 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 
 		GrayF32 equiMask = new GrayF32(equiWidth, equHeight);
 
-		PixelTransform2_F32 transformEquiToCam = new PixelTransformCached_F32(equiWidth, equHeight,
+		PixelTransformCached_F32 transformEquiToCam = new PixelTransformCached_F32(equiWidth, equHeight,
 				new PointToPixelTransform_F32(equiToCamera));
 
-		int width = camMask.width;
-		int height = camMask.height;
+		// bounding box of pixels inside the mask
+		int x0 = equiWidth, y0 = equHeight, x1 = 0, y1 = 0;
 
 		Point3D_F32 p3b = new Point3D_F32();
-		Point2D_F32 p2 = new Point2D_F32();
 		for (int row = 0; row < equHeight; row++) {
 			for (int col = 0; col < equiWidth; col++) {
-				equiToCamera.compute(col,row,p2);
+				// use the precomputed location in the camera image instead of computing it again
+				transformEquiToCam.compute(col,row);
+				float camXf = transformEquiToCam.distX;
+				float camYf = transformEquiToCam.distY;
 
-				int camX = (int)(p2.x+0.5f);
-				int camY = (int)(p2.y+0.5f);
+				int camX = (int)(camXf+0.5f);
+				int camY = (int)(camYf+0.5f);
 
-				if( Double.isNaN(p2.x) || Double.isNaN(p2.y) ||
+				if( Double.isNaN(camXf) || Double.isNaN(camYf) ||
 						camX < 0 || camY < 0 || camX >= width || camY >= height )
 					continue;
 
-				if( camMask.unsafe_get(camX,camY) == 1 ) {
-					p2s.compute(p2.x,p2.y,p3b);
+				if( camMask != null && camMask.unsafe_get(camX,camY) != 1 )
+					continue;
 
-					if( Double.isNaN(p3b.x) || Double.isNaN(p3b.y) || Double.isNaN(p3b.z))
-						continue;
+				p2s.compute(camXf,camYf,p3b);
 
-					double angle = UtilVector3D_F32.acute(equiToCamera.unitCam,p3b);
+				if( Double.isNaN(p3b.x) || Double.isNaN(p3b.y) || Double.isNaN(p3b.z))
+					continue;
 
-					if( angle < maskToleranceAngle) {
-						equiMask.set(col,row,1);
-					}
+				equiToCamera.computeUnitCam(col,row);
+				double angle = UtilVector3D_F32.acute(equiToCamera.unitCam,p3b);
+
+				if( angle < maskToleranceAngle) {
+					equiMask.set(col,row,1);
+					x0 = Math.min(x0,col); x1 = Math.max(x1,col+1);
+					y0 = Math.min(y0,row); y1 = Math.max(y1,row+1);
 				}
 			}
 		}
 
-		cameras.add( new Camera(equiMask, transformEquiToCam));
+		Camera c = new Camera(equiMask, transformEquiToCam);
+		if( x0 < x1 ) {
+			c.x0 = x0; c.y0 = y0; c.x1 = x1; c.y1 = y1;
+		}
+		cameras.add(c);
+		transforms.add(transformEquiToCam);
 	}
 
 	/**
 	 * Provides recent images from all the cameras (should be time and lighting synchronized) and renders them
 	 * into an equirectangular image.  The images must be in the same order that the cameras were added.
+	 * All internal buffers are reused between calls.
 	 *
 	 * @param cameraImages List of camera images
 	 */
 	public void render( List<T> cameraImages ) {
+		checkRenderInput(cameraImages);
+		renderRows(cameraImages, 0, equHeight, distort, transforms);
+	}
+
+	protected void checkRenderInput( List<T> cameraImages ) {
 		if( cameraImages.size() != cameras.size())
 			throw new IllegalArgumentException("Input camera image count doesn't equal the expected number");
+	}
 
+	/**
+	 * Renders rows in the range [y0,y1) of the equirectangular image.  Rows are rendered independently, so
+	 * different ranges can be rendered at the same time if each has its own distortion and transforms.
+	 *
+	 * @param cameraImages List of camera images
+	 * @param y0 First row
+	 * @param y1 Last row, exclusive
+	 * @param distort Used to render the camera images
+	 * @param equiToCamera Transform from equirectangular to camera pixels for each camera
+	 */
+	protected void renderRows( List<T> cameraImages , int y0 , int y1 , ImageDistort<T,T> distort ,
+							   List<PixelTransformCached_F32> equiToCamera ) {
 		// avoid divide by zero errors by initializing it to a small non-zero value
-		GImageMiscOps.fill(weightImage,1e-4);
-		GImageMiscOps.fill(averageImage,0);
+		initializeRows(y0,y1);
 
 		for (int i = 0; i < cameras.size(); i++) {
 			Camera c = cameras.get(i);
-			T cameraImage = cameraImages.get(i);
 
-			distort.setModel(c.equiToCamera);
-			distort.apply(cameraImage,cameraRendered);
+			// only pixels inside the mask contribute, so only render those
+			int r0 = Math.max(y0,c.y0);
+			int r1 = Math.min(y1,c.y1);
+			if( r0 >= r1 )
+				continue;
 
-			/// sum up the total weight for each pixel
-			PixelMath.add(weightImage,c.mask,weightImage);
+			distort.setModel(equiToCamera.get(i));
+			distort.apply(cameraImages.get(i),cameraRendered,c.x0,r0,c.x1,r1);
 
-			// apply the weight for this image to the rendered image
-			GPixelMath.multiply(c.mask,cameraRendered,workImage);
+			// add the rendered image weighted by the mask to the average image
+			accumulate(c.mask,c.x0,r0,c.x1,r1);
+		}
+
+		// compute the final output by dividing
+		divideRows(y0,y1);
+	}
+
+	private void initializeRows( int y0 , int y1 ) {
+		for (int y = y0; y < y1; y++) {
+			int index = weightImage.startIndex + y*weightImage.stride;
+			Arrays.fill(weightImage.data,index,index+equiWidth,1e-4f);
+
+			if( averageBands == null ) {
+				InterleavedF32 average = (InterleavedF32)averageImage;
+				index = average.startIndex + y*average.stride;
+				Arrays.fill(average.data,index,index+equiWidth*average.numBands,0);
+			} else {
+				for (int band = 0; band < averageBands.length; band++) {
+					GrayF32 average = averageBands[band];
+					index = average.startIndex + y*average.stride;
+					Arrays.fill(average.data,index,index+equiWidth,0);
+				}
+			}
+		}
+	}
 
-			// add the result to the average image
-			GPixelMath.add(workImage, averageImage, averageImage);
+	/**
+	 * Sums up the total weight for each pixel and adds the rendered image weighted by the mask to the average
+	 * image.  Pixels with a weight of zero are skipped.
+	 */
+	private void accumulate( GrayF32 mask , int x0 , int y0 , int x1 , int y1 ) {
+		for (int y = y0; y < y1; y++) {
+			int indexMask = mask.startIndex + y*mask.stride + x0;
+			int indexWeight = weightImage.startIndex + y*weightImage.stride + x0;
+			for (int x = x0; x < x1; x++, indexMask++, indexWeight++) {
+				weightImage.data[indexWeight] += mask.data[indexMask];
+			}
 		}
 
-		// comput the final output by dividing
-		GPixelMath.divide(averageImage,weightImage,averageImage);
+		if( averageBands == null ) {
+			InterleavedF32 average = (InterleavedF32)averageImage;
+			InterleavedF32 rendered = (InterleavedF32)cameraRendered;
+			int numBands = average.numBands;
+			for (int y = y0; y < y1; y++) {
+				int indexMask = mask.startIndex + y*mask.stride + x0;
+				int indexAve = average.startIndex + y*average.stride + x0*numBands;
+				int indexRen = rendered.startIndex + y*rendered.stride + x0*numBands;
+				for (int x = x0; x < x1; x++, indexMask++, indexAve += numBands, indexRen += numBands ) {
+					float weight = mask.data[indexMask];
+					if( weight == 0 )
+						continue;
+					for (int band = 0; band < numBands; band++) {
+						average.data[indexAve+band] += weight*rendered.data[indexRen+band];
+					}
+				}
+			}
+		} else {
+			for (int band = 0; band < averageBands.length; band++) {
+				GrayF32 average = averageBands[band];
+				GrayF32 rendered = renderedBands[band];
+				for (int y = y0; y < y1; y++) {
+					int indexMask = mask.startIndex + y*mask.stride + x0;
+					int indexAve = average.startIndex + y*average.stride + x0;
+					int indexRen = rendered.startIndex + y*rendered.stride + x0;
+					for (int x = x0; x < x1; x++, indexMask++, indexAve++, indexRen++ ) {
+						float weight = mask.data[indexMask];
+						if( weight != 0 )
+							average.data[indexAve] += weight*rendered.data[indexRen];
+					}
+				}
+			}
+		}
+	}
+
+	private void divideRows( int y0 , int y1 ) {
+		if( averageBands == null ) {
+			InterleavedF32 average = (InterleavedF32)averageImage;
+			int numBands = average.numBands;
+			for (int y = y0; y < y1; y++) {
+				int indexWeight = weightImage.startIndex + y*weightImage.stride;
+				int indexAve = average.startIndex + y*average.stride;
+				for (int x = 0; x < equiWidth; x++, indexWeight++ ) {
+					float weight = weightImage.data[indexWeight];
+					for (int band = 0; band < numBands; band++, indexAve++ ) {
+						average.data[indexAve] /= weight;
+					}
+				}
+			}
+		} else {
+			for (int band = 0; band < averageBands.length; band++) {
+				GrayF32 average = averageBands[band];
+				for (int y = y0; y < y1; y++) {
+					int indexWeight = weightImage.startIndex + y*weightImage.stride;
+					int indexAve = average.startIndex + y*average.stride;
+					for (int x = 0; x < equiWidth; x++, indexWeight++, indexAve++ ) {
+						average.data[indexAve] /= weightImage.data[indexWeight];
+					}
+				}
+			}
+		}
 	}
 
 	public T getRenderedImage() {
@@ -266,9 +370,12 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 		// weighted pixel mask in equi image.  0 = ignore pixel.  1 = 100% contribution
 		GrayF32 mask;
 
-		PixelTransform2_F32 equiToCamera;
+		// bounding box of pixels in the mask with a non-zero weight. x1 and y1 are exclusive
+		int x0,y0,x1,y1;
+
+		PixelTransformCached_F32 equiToCamera;
 
-		public Camera(GrayF32 mask, PixelTransform2_F32 equiToCamera) {
+		public Camera(GrayF32 mask, PixelTransformCached_F32 equiToCamera) {
 			this.mask = mask;
 			this.equiToCamera = equiToCamera;
 		}
@@ -292,14 +399,21 @@ public class MultiCameraToEquirectangular<T extends ImageBase<T>> {
 
 		@Override
 		public void compute(float x, float y, Point2D_F32 out) {
+			computeUnitCam(x,y);
+
+			// input camera image pixels
+			s2p.compute(unitCam.x, unitCam.y, unitCam.z , out);
+		}
+
+		/**
+		 * Computes the pointing vector of the equirectangular pixel in the camera frame and stores it in unitCam
+		 */
+		void computeUnitCam(float x, float y) {
 			// go from equirectangular pixel to unit sphere in common frame
 			tools.equiToNormFV(x,y, unitCommon);
 
 			// rotate the point into camera frame
 			GeometryMath_F32.multTran(cameraToCommon, unitCommon, unitCam);
-
-			// input camera image pixels
-			s2p.compute(unitCam.x, unitCam.y, unitCam.z , out);
 		}
 	}
 }
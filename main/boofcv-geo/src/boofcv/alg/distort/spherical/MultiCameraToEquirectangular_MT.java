@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort.spherical;
+
+import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.PixelTransformCached_F32;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link MultiCameraToEquirectangular}.  The equirectangular image is split into
+ * bands of rows and each band is rendered and blended by a different thread.  Each thread has its own
+ * {@link ImageDistort}, created by the factory, and its own view of the precomputed camera transforms.
+ *
+ * @author Peter Abeles
+ */
+public class MultiCameraToEquirectangular_MT<T extends ImageBase<T>> extends MultiCameraToEquirectangular<T> {
+
+	// minimum number of rows in a band
+	int minBlockRows = 10;
+
+	FactoryImageDistort<T> factory;
+
+	// storage used by each thread
+	FastQueue<Workspace> workspace;
+
+	/**
+	 * Configuration constructor
+	 * @param factory Creates the distortion used to render images from each camera. Called once for each thread.
+	 * @param equiWidth Width of output equirectangular image
+	 * @param equiHeight Height of output equirectangular image
+	 * @param imageType Type of image it processes and outputs.  Must be floating point.
+	 */
+	public MultiCameraToEquirectangular_MT(FactoryImageDistort<T> factory, int equiWidth, int equiHeight,
+										   ImageType<T> imageType) {
+		super(factory.create(), equiWidth, equiHeight, imageType);
+		this.factory = factory;
+		workspace = new FastQueue<Workspace>(1,(Class)Workspace.class,true) {
+			@Override
+			protected Workspace createInstance() {
+				return new Workspace();
+			}
+		};
+	}
+
+	@Override
+	public void render(final List<T> cameraImages) {
+		checkRenderInput(cameraImages);
+
+		BoofConcurrency.loopBlocks(0, getRenderedImage().height, minBlockRows, workspace,
+				new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace work, int y0, int y1) {
+				// cameras could have been added since the last time this workspace was used
+				while( work.transforms.size() < transforms.size() ) {
+					work.transforms.add(new PixelTransformCached_F32(transforms.get(work.transforms.size())));
+				}
+				renderRows(cameraImages, y0, y1, work.distort, work.transforms);
+			}
+		});
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+
+	/**
+	 * Creates a new instance of {@link ImageDistort} for each thread
+	 */
+	public interface FactoryImageDistort<T extends ImageBase<T>> {
+		ImageDistort<T,T> create();
+	}
+
+	class Workspace {
+		ImageDistort<T,T> distort = factory.create();
+		List<PixelTransformCached_F32> transforms = new ArrayList<>();
+	}
+}
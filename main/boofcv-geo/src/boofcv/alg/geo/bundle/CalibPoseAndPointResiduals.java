@@ -52,6 +52,8 @@ public class CalibPoseAndPointResiduals
 
 	// number of observations.  2 for each point in each view
 	int numObservations;
+	// index in the output array of the first residual in each view
+	int[] viewOutputStart = new int[0];
 
 	// local variable which stores the predicted location of the feature in the camera frame
 	Point3D_F64 cameraPt = new Point3D_F64();
@@ -70,8 +72,12 @@ public class CalibPoseAndPointResiduals
 		this.codec = codec;
 		this.observations = obs;
 
+		if( viewOutputStart.length < model.getNumViews() )
+			viewOutputStart = new int[model.getNumViews()];
+
 		numObservations = 0;
 		for( int view = 0; view < model.getNumViews(); view++ ) {
+			viewOutputStart[view] = numObservations;
 			numObservations += obs.get(view).getPoints().size()*2;
 		}
 	}
@@ -95,23 +101,32 @@ public class CalibPoseAndPointResiduals
 	}
 
 	public void process(CalibratedPoseAndPoint model , double[] output) {
-		int outputIndex = 0;
-
 		for( int view = 0; view < model.getNumViews(); view++) {
-			Se3_F64 worldToCamera = model.getWorldToCamera(view);
+			processView(model, view, output, cameraPt);
+		}
+	}
+
+	/**
+	 * Computes the residuals for all the observations in a single view
+	 *
+	 * @param cameraPt storage for the point in the camera frame
+	 */
+	protected void processView( CalibratedPoseAndPoint model , int view , double[] output , Point3D_F64 cameraPt ) {
+		int outputIndex = viewOutputStart[view];
+
+		Se3_F64 worldToCamera = model.getWorldToCamera(view);
 
-			FastQueue<PointIndexObservation> observedPts = observations.get(view).getPoints();
+		FastQueue<PointIndexObservation> observedPts = observations.get(view).getPoints();
 
-			for( int i = 0; i < observedPts.size; i++ ) {
-				PointIndexObservation o = observedPts.data[i];
+		for( int i = 0; i < observedPts.size; i++ ) {
+			PointIndexObservation o = observedPts.data[i];
 
-				Point3D_F64 worldPt = model.getPoint(o.pointIndex);
+			Point3D_F64 worldPt = model.getPoint(o.pointIndex);
 
-				SePointOps_F64.transform(worldToCamera, worldPt, cameraPt);
+			SePointOps_F64.transform(worldToCamera, worldPt, cameraPt);
 
-				output[outputIndex++] = cameraPt.x/cameraPt.z - o.obs.x;
-				output[outputIndex++] = cameraPt.y/cameraPt.z - o.obs.y;
-			}
+			output[outputIndex++] = cameraPt.x/cameraPt.z - o.obs.x;
+			output[outputIndex++] = cameraPt.y/cameraPt.z - o.obs.y;
 		}
 	}
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link CalibPoseAndPointResiduals}.  The views are split into blocks
+ * and each view writes to its own section of the output array.  Results are identical to the single
+ * threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointResiduals_MT extends CalibPoseAndPointResiduals {
+
+	// minimum number of views in a block
+	int minBlockViews = 5;
+
+	// storage for the point in the camera frame used by each thread
+	FastQueue<Point3D_F64> workspace = new FastQueue<>(Point3D_F64.class,true);
+
+	@Override
+	public void process(final CalibratedPoseAndPoint model, final double[] output) {
+		BoofConcurrency.loopBlocks(0, model.getNumViews(), minBlockViews, workspace,
+				new IntRangeObjectConsumer<Point3D_F64>() {
+			@Override
+			public void accept(Point3D_F64 cameraPt, int view0, int view1) {
+				for( int view = view0; view < view1; view++ ) {
+					processView(model, view, output, cameraPt);
+				}
+			}
+		});
+	}
+
+	public int getMinBlockViews() {
+		return minBlockViews;
+	}
+
+	public void setMinBlockViews(int minBlockViews) {
+		this.minBlockViews = minBlockViews;
+	}
+}
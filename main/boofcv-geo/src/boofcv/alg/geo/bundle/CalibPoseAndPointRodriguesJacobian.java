@@ -54,32 +54,17 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 	// total number of parameters being optimized
 	int numParameters;
 
-	// used to compute the Jacobian from Rodrigues coordinates
-	RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
-
-	// local variable which stores the predicted location of the feature in the camera frame
-	Rodrigues_F64 rodrigues = new Rodrigues_F64();
-	// rotation matrix
-	DMatrixRMaj R = new DMatrixRMaj(3,3);
-	// translation vector
-	Vector3D_F64 T = new Vector3D_F64();
-	// feature location in world coordinates
-	Point3D_F64 worldPt = new Point3D_F64();
-	// feature location in camera coordinates
-	Point3D_F64 cameraPt = new Point3D_F64();
-
 	// index in parameters of the first point
 	int indexFirstPoint;
-	// how many point observations have been processed
-	int countPointObs;
 
-	// Jacobian matrix index of x and y partial
-	int indexX;
-	int indexY;
+	// index of the first parameter of each view.  -1 if the view is known
+	int[] viewParamStart = new int[0];
+	// number of point observations in all the views before a view
+	int[] viewObsStart = new int[0];
+
+	// storage used when processing a view
+	Workspace work = new Workspace();
 
-	// reference to output Jacobian matrix
-	double[] output;
-	
 	public void configure( List<ViewPointObservations> observations , int numPoints , Se3_F64 ...extrinsic) {
 		if( extrinsic.length < observations.size() )
 			throw new RuntimeException("knownExtrinsic length is less than the number of views in 'observations'");
@@ -88,12 +73,20 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 		this.extrinsic = extrinsic;
 		this.numViews = observations.size();
 		this.numPoints = numPoints;
-		
+
+		if( viewParamStart.length < numViews ) {
+			viewParamStart = new int[numViews];
+			viewObsStart = new int[numViews];
+		}
+
 		numViewsUnknown = 0;
 		numObservations = 0;
 		for( int i = 0; i < numViews; i++ ) {
+			viewObsStart[i] = numObservations;
 			if( extrinsic[i] == null )
-				numViewsUnknown++;
+				viewParamStart[i] = 6*numViewsUnknown++;
+			else
+				viewParamStart[i] = -1;
 			numObservations += observations.get(i).points.size;
 		}
 		
@@ -113,36 +106,45 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 
 	@Override
 	public void process(double[] input, double[] output) {
-		this.output = output;
-		int paramIndex = 0;
-		countPointObs = 0;
-		
-		Arrays.fill(output,0);
-		
-		// first decode the transformation
 		for( int i = 0; i < numViews; i++ ) {
-			if( extrinsic[i] == null ) {
-				double rodX = input[paramIndex++];
-				double rodY = input[paramIndex++];
-				double rodZ = input[paramIndex++];
+			processView(input, output, i, work);
+		}
+	}
+
+	/**
+	 * Computes the rows in the Jacobian for all the observations in a view.  Each view
+	 * writes to its own set of rows, which are zeroed first.
+	 *
+	 * @param work storage for the view
+	 */
+	protected void processView( double[] input , double[] output , int view , Workspace work ) {
+		work.output = output;
+		work.countPointObs = viewObsStart[view];
 
-				T.x = input[paramIndex++];
-				T.y = input[paramIndex++];
-				T.z = input[paramIndex++];
+		ViewPointObservations obs = observations.get(view);
+		int row0 = viewObsStart[view]*2;
+		Arrays.fill(output,row0*numParameters,(row0+obs.points.size*2)*numParameters,0);
 
-				rodrigues.setParamVector(rodX,rodY,rodZ);
-				rodJacobian.process(rodX,rodY,rodZ);
-			
-				ConvertRotation3D_F64.rodriguesToMatrix(rodrigues,R);
-				ViewPointObservations obs = observations.get(i);
-				gradientViewMotionAndPoint(input, paramIndex-6, obs);
-			} else {
-				T.set( extrinsic[i].getT());
-				R.set( extrinsic[i].getR());
-				
-				ViewPointObservations obs = observations.get(i);
-				gradientViewPoint(input, obs);
-			}
+		if( extrinsic[view] == null ) {
+			int paramIndex = viewParamStart[view];
+			double rodX = input[paramIndex++];
+			double rodY = input[paramIndex++];
+			double rodZ = input[paramIndex++];
+
+			work.T.x = input[paramIndex++];
+			work.T.y = input[paramIndex++];
+			work.T.z = input[paramIndex];
+
+			work.rodrigues.setParamVector(rodX,rodY,rodZ);
+			work.rodJacobian.process(rodX,rodY,rodZ);
+
+			ConvertRotation3D_F64.rodriguesToMatrix(work.rodrigues,work.R);
+			gradientViewMotionAndPoint(input, viewParamStart[view], obs, work);
+		} else {
+			work.T.set( extrinsic[view].getT());
+			work.R.set( extrinsic[view].getR());
+
+			gradientViewPoint(input, obs, work);
 		}
 	}
 
@@ -151,9 +153,13 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 	 */
 	private void gradientViewMotionAndPoint(double[] input,
 											int extrinsicParamStart,
-											ViewPointObservations obs) 
+											ViewPointObservations obs,
+											Workspace work )
 	{
-		for( int j = 0; j < obs.points.size; j++ , countPointObs++ ) {
+		Point3D_F64 worldPt = work.worldPt;
+		Point3D_F64 cameraPt = work.cameraPt;
+
+		for( int j = 0; j < obs.points.size; j++ , work.countPointObs++ ) {
 			PointIndexObservation o = obs.points.get(j);
 			int indexParamWorld = indexFirstPoint+o.pointIndex*3;
 			
@@ -163,27 +169,27 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 			worldPt.z = input[indexParamWorld];
 
 			// compute the index in output matrix for derivatives
-			indexX = numParameters*countPointObs*2 + extrinsicParamStart;
-			indexY = indexX + numParameters;
+			work.indexX = numParameters*work.countPointObs*2 + extrinsicParamStart;
+			work.indexY = work.indexX + numParameters;
 
 			// location of point in camera view
-			GeometryMath_F64.mult(R, worldPt, cameraPt);
-			cameraPt.x += T.x;
-			cameraPt.y += T.y;
-			cameraPt.z += T.z;
+			GeometryMath_F64.mult(work.R, worldPt, cameraPt);
+			cameraPt.x += work.T.x;
+			cameraPt.y += work.T.y;
+			cameraPt.z += work.T.z;
 
 			// add gradient from rotation
-			addRodriguesJacobian(rodJacobian.Rx,worldPt);
-			addRodriguesJacobian(rodJacobian.Ry,worldPt);
-			addRodriguesJacobian(rodJacobian.Rz,worldPt);
+			addRodriguesJacobian(work.rodJacobian.Rx,worldPt,work);
+			addRodriguesJacobian(work.rodJacobian.Ry,worldPt,work);
+			addRodriguesJacobian(work.rodJacobian.Rz,worldPt,work);
 
 			// add gradient from translation
-			addTranslationJacobian();
+			addTranslationJacobian(work);
 			
 			// add gradient for the point in this view
-			indexX = numParameters*countPointObs*2 + indexFirstPoint+o.pointIndex*3;
-			indexY = indexX + numParameters;
-			addWorldPointGradient(R);
+			work.indexX = numParameters*work.countPointObs*2 + indexFirstPoint+o.pointIndex*3;
+			work.indexY = work.indexX + numParameters;
+			addWorldPointGradient(work.R,work);
 		}
 	}
 
@@ -191,9 +197,13 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 	 * Computes the partials for observed points at this view
 	 */
 	private void gradientViewPoint(double[] input,
-								   ViewPointObservations obs) 
+								   ViewPointObservations obs,
+								   Workspace work )
 	{
-		for( int j = 0; j < obs.points.size; j++, countPointObs++ ) {
+		Point3D_F64 worldPt = work.worldPt;
+		Point3D_F64 cameraPt = work.cameraPt;
+
+		for( int j = 0; j < obs.points.size; j++, work.countPointObs++ ) {
 			PointIndexObservation o = obs.points.get(j);
 			int indexParamWorld = indexFirstPoint+o.pointIndex*3;
 
@@ -203,15 +213,15 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 			worldPt.z = input[indexParamWorld+2];
 
 			// location of point in camera view
-			GeometryMath_F64.mult(R, worldPt, cameraPt);
-			cameraPt.x += T.x;
-			cameraPt.y += T.y;
-			cameraPt.z += T.z;
+			GeometryMath_F64.mult(work.R, worldPt, cameraPt);
+			cameraPt.x += work.T.x;
+			cameraPt.y += work.T.y;
+			cameraPt.z += work.T.z;
 
 			// add gradient for the point in this view
-			indexX = numParameters*countPointObs*2 + indexFirstPoint+o.pointIndex*3;
-			indexY = indexX + numParameters;
-			addWorldPointGradient(R);
+			work.indexX = numParameters*work.countPointObs*2 + indexFirstPoint+o.pointIndex*3;
+			work.indexY = work.indexX + numParameters;
+			addWorldPointGradient(work.R,work);
 		}
 	}
 
@@ -225,8 +235,10 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 	 * @param Rj Jacobian for Rodrigues
 	 * @param worldPt Location of point in world coordinates
 	 */
-	private void addRodriguesJacobian( DMatrixRMaj Rj , Point3D_F64 worldPt )
+	private static void addRodriguesJacobian( DMatrixRMaj Rj , Point3D_F64 worldPt , Workspace work )
 	{
+		Point3D_F64 cameraPt = work.cameraPt;
+
 		// (1/z)*dot(R)*X
 		double Rx = (Rj.data[0]*worldPt.x + Rj.data[1]*worldPt.y + Rj.data[2]*worldPt.z)/cameraPt.z;
 		double Ry = (Rj.data[3]*worldPt.x + Rj.data[4]*worldPt.y + Rj.data[5]*worldPt.z)/cameraPt.z;
@@ -235,8 +247,8 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 		double zDot_div_z2 = (Rj.data[6]*worldPt.x + Rj.data[7]*worldPt.y + Rj.data[8]*worldPt.z)/
 				(cameraPt.z*cameraPt.z);
 
-		output[indexX++] = -zDot_div_z2*cameraPt.x + Rx;
-		output[indexY++] = -zDot_div_z2*cameraPt.y + Ry;
+		work.output[work.indexX++] = -zDot_div_z2*cameraPt.x + Rx;
+		work.output[work.indexY++] = -zDot_div_z2*cameraPt.y + Ry;
 	}
 
 	/**
@@ -246,20 +258,23 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 	 *
 	 * where T is translation, z = z-coordinate of point in camera frame
 	 */
-	private void addTranslationJacobian()
+	private static void addTranslationJacobian( Workspace work )
 	{
+		Point3D_F64 cameraPt = work.cameraPt;
+		double[] output = work.output;
+
 		double divZ = 1.0/cameraPt.z;
 		double divZ2 = 1.0/(cameraPt.z*cameraPt.z);
 
 		// partial T.x
-		output[indexX++] = divZ;
-		output[indexY++] = 0;
+		output[work.indexX++] = divZ;
+		output[work.indexY++] = 0;
 		// partial T.y
-		output[indexX++] = 0;
-		output[indexY++] = divZ;
+		output[work.indexX++] = 0;
+		output[work.indexY++] = divZ;
 		// partial T.z
-		output[indexX++] = -cameraPt.x*divZ2;
-		output[indexY++] = -cameraPt.y*divZ2;
+		output[work.indexX++] = -cameraPt.x*divZ2;
+		output[work.indexY++] = -cameraPt.y*divZ2;
 	}
 
 	/**
@@ -269,17 +284,49 @@ public class CalibPoseAndPointRodriguesJacobian implements FunctionNtoMxN {
 	 *
 	 * @param R rotation matrix
 	 */
-	private void addWorldPointGradient( DMatrixRMaj R ) {
+	private static void addWorldPointGradient( DMatrixRMaj R , Workspace work ) {
+		Point3D_F64 cameraPt = work.cameraPt;
+		double[] output = work.output;
+
 		double divZ2 = 1.0/(cameraPt.z*cameraPt.z);
 
 		// partial P.x
-		output[indexX++] = -R.data[6]*divZ2*cameraPt.x + R.data[0]/cameraPt.z;
-		output[indexY++] = -R.data[6]*divZ2*cameraPt.y + R.data[3]/cameraPt.z;
+		output[work.indexX++] = -R.data[6]*divZ2*cameraPt.x + R.data[0]/cameraPt.z;
+		output[work.indexY++] = -R.data[6]*divZ2*cameraPt.y + R.data[3]/cameraPt.z;
 		// partial P.y
-		output[indexX++] = -R.data[7]*divZ2*cameraPt.x + R.data[1]/cameraPt.z;
-		output[indexY++] = -R.data[7]*divZ2*cameraPt.y + R.data[4]/cameraPt.z;
+		output[work.indexX++] = -R.data[7]*divZ2*cameraPt.x + R.data[1]/cameraPt.z;
+		output[work.indexY++] = -R.data[7]*divZ2*cameraPt.y + R.data[4]/cameraPt.z;
 		// partial P.z
-		output[indexX++] = -R.data[8]*divZ2*cameraPt.x + R.data[2]/cameraPt.z;
-		output[indexY++] = -R.data[8]*divZ2*cameraPt.y + R.data[5]/cameraPt.z;
+		output[work.indexX++] = -R.data[8]*divZ2*cameraPt.x + R.data[2]/cameraPt.z;
+		output[work.indexY++] = -R.data[8]*divZ2*cameraPt.y + R.data[5]/cameraPt.z;
+	}
+
+	/**
+	 * Storage used when computing the Jacobian of a single view
+	 */
+	public static class Workspace {
+		// used to compute the Jacobian from Rodrigues coordinates
+		RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
+
+		// local variable which stores the predicted location of the feature in the camera frame
+		Rodrigues_F64 rodrigues = new Rodrigues_F64();
+		// rotation matrix
+		DMatrixRMaj R = new DMatrixRMaj(3,3);
+		// translation vector
+		Vector3D_F64 T = new Vector3D_F64();
+		// feature location in world coordinates
+		Point3D_F64 worldPt = new Point3D_F64();
+		// feature location in camera coordinates
+		Point3D_F64 cameraPt = new Point3D_F64();
+
+		// how many point observations have been processed
+		int countPointObs;
+
+		// Jacobian matrix index of x and y partial
+		int indexX;
+		int indexY;
+
+		// reference to output Jacobian matrix
+		double[] output;
 	}
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link CalibPoseAndPointRodriguesJacobian}.  The views are split into blocks.
+ * Each thread has its own rotation matrix and Rodrigues Jacobian and only writes to the rows of the
+ * observations in its views.  Results are identical to the single threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointRodriguesJacobian_MT extends CalibPoseAndPointRodriguesJacobian {
+
+	// minimum number of views in a block
+	int minBlockViews = 5;
+
+	// storage used by each thread
+	FastQueue<Workspace> workspace = new FastQueue<>(Workspace.class,true);
+
+	@Override
+	public void process(final double[] input, final double[] output) {
+		BoofConcurrency.loopBlocks(0, numViews, minBlockViews, workspace,
+				new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace work, int view0, int view1) {
+				for( int view = view0; view < view1; view++ ) {
+					processView(input, output, view, work);
+				}
+			}
+		});
+	}
+
+	public int getMinBlockViews() {
+		return minBlockViews;
+	}
+
+	public void setMinBlockViews(int minBlockViews) {
+		this.minBlockViews = minBlockViews;
+	}
+}
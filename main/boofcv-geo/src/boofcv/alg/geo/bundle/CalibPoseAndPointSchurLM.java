@@ -0,0 +1,919 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.alg.geo.RodriguesRotationJacobian;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.so.Rodrigues_F64;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.interfaces.linsol.LinearSolver;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p>
+ * Sparse Levenberg-Marquardt bundle adjustment for calibrated cameras.  Minimizes the same cost function as
+ * {@link CalibPoseAndPointResiduals} using the parametrization in {@link CalibPoseAndPointRodriguesCodec}, but
+ * never creates the full Jacobian or normal equations.  Instead the block structure of the problem is exploited.
+ * Each observation only depends on one view and one point, so the normal equations are composed of a 6x6 block
+ * for each view, a 3x3 block for each point, and a 6x3 block for each observation.  The points are eliminated
+ * using the Schur complement, leaving a reduced camera system which has 6 unknowns for each view.
+ * </p>
+ *
+ * <p>
+ * If the reduced camera system is small it is solved using a dense Cholesky decomposition.  Otherwise it is
+ * solved using preconditioned conjugate gradient (PCG) with a block Jacobi preconditioner, where multiplication
+ * by the reduced camera matrix is done implicitly from the observation blocks.  Memory usage grows linearly
+ * with the number of observations in that case, allowing thousands of views and hundreds of thousands of points.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointSchurLM {
+
+	// smallest and largest allowed value of the dampening parameter
+	private static final double MIN_LAMBDA = 1e-12;
+	private static final double MAX_LAMBDA = 1e16;
+	// dampening added to diagonal elements which are zero
+	private static final double MIN_DIAGONAL = 1e-9;
+
+	// converts to and from a parameterized version of the model
+	CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+
+	// used to compute the Jacobian from Rodrigues coordinates
+	RodriguesRotationJacobian rodJacobian = new RodriguesRotationJacobian();
+	Rodrigues_F64 rodrigues = new Rodrigues_F64();
+	DMatrixRMaj R = new DMatrixRMaj(3,3);
+
+	// convergence parameters
+	double convergenceTol;
+	int maxIterations;
+
+	// If the reduced camera system has this many parameters or fewer a dense solver is used
+	int maxDenseParameters = 1200;
+	// convergence parameters for preconditioned conjugate gradient
+	int maxIterationsPCG = 500;
+	double tolerancePCG = 1e-12;
+	// initial value of the dampening parameter
+	double initialDampening = 1e-3;
+
+	// size of the problem
+	int numViews;
+	int numPoints;
+	int numUnknown;
+	int numObservations;
+
+	// index of each view in the reduced camera system.  -1 if the view is known
+	int[] viewToUnknown = new int[0];
+
+	// index of the first observation in each view.  Observations are ordered by view
+	int[] viewObsStart = new int[0];
+	// view and point index of each observation
+	int[] obsView = new int[0];
+	int[] obsPoint = new int[0];
+	// observed location in normalized image coordinates.  x and y interleaved
+	double[] obsXY = new double[0];
+	// observations of each point stored in compressed row format
+	int[] pointObsStart = new int[0];
+	int[] pointObs = new int[0];
+
+	// rotation matrix and translation of each view for the most recently decoded parameters
+	double[] viewR = new double[0];
+	double[] viewT = new double[0];
+	// partials of the rotation matrix for each unknown view
+	double[] viewRodJac = new double[0];
+
+	// normal equations. U = camera block, V = point block, W = observation block, g = gradient
+	double[] U = new double[0];
+	double[] V = new double[0];
+	double[] W = new double[0];
+	double[] gc = new double[0];
+	double[] gp = new double[0];
+
+	// damped and inverted point blocks
+	double[] Vinv = new double[0];
+	// W*inv(V) for each observation
+	double[] Y = new double[0];
+
+	// reduced camera system
+	double[] rhs = new double[0];
+	double[] deltaCamera = new double[0];
+	double[] deltaPoint = new double[0];
+	DMatrixRMaj S = new DMatrixRMaj(1,1);
+	LinearSolver<DMatrixRMaj> solver;
+
+	// storage for PCG
+	double[] precond = new double[0];
+	double[] pcgR = new double[0];
+	double[] pcgZ = new double[0];
+	double[] pcgP = new double[0];
+	double[] pcgQ = new double[0];
+	double[] pointWork = new double[0];
+	DMatrixRMaj block = new DMatrixRMaj(6,6);
+
+	// storage used when computing the normal equations in a single thread
+	Workspace work = new Workspace();
+
+	// model parameters and candidate parameters being evaluated
+	double[] param = new double[0];
+	double[] candidate = new double[0];
+
+	// statistics from the last call to process
+	double initialCost;
+	double finalCost;
+	int iterations;
+
+	/**
+	 * Configures the optimization
+	 *
+	 * @param convergenceTol Stops when the relative change in cost is less than this value.  Try 1e-8
+	 * @param maxIterations Maximum number of iterations.
+	 */
+	public CalibPoseAndPointSchurLM(double convergenceTol, int maxIterations) {
+		this.convergenceTol = convergenceTol;
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Refines the model using the observations
+	 *
+	 * @param model Initial estimate at parameters.  Modified on output with refined results.
+	 * @param observations Observation of image features in each frame. Normalized coordinates.
+	 * @return true if successful or false if it failed
+	 */
+	public boolean process( CalibratedPoseAndPoint model , List<ViewPointObservations> observations ) {
+		initialize(model, observations);
+
+		optimize();
+
+		if( Double.isNaN(finalCost) || Double.isInfinite(finalCost) )
+			return false;
+
+		codec.decode(param, model);
+		return true;
+	}
+
+	/**
+	 * Declares storage and encodes the initial model into parameters
+	 */
+	protected void initialize( CalibratedPoseAndPoint model , List<ViewPointObservations> observations ) {
+		numViews = model.getNumViews();
+		numPoints = model.getNumPoints();
+		numUnknown = model.getNumUnknownViews();
+
+		codec.configure(numViews,numPoints,numUnknown,model.getKnownArray());
+
+		declareStorage(model, observations);
+
+		codec.encode(model,param);
+
+		// the pose of known views never changes
+		for( int view = 0; view < numViews; view++ ) {
+			if( viewToUnknown[view] < 0 ) {
+				Se3_F64 worldToCamera = model.getWorldToCamera(view);
+				System.arraycopy(worldToCamera.getR().data,0,viewR,view*9,9);
+				viewT[view*3  ] = worldToCamera.getT().x;
+				viewT[view*3+1] = worldToCamera.getT().y;
+				viewT[view*3+2] = worldToCamera.getT().z;
+			}
+		}
+	}
+
+	/**
+	 * Declares storage and converts observations into a compact format
+	 */
+	private void declareStorage( CalibratedPoseAndPoint model , List<ViewPointObservations> observations ) {
+		if( observations.size() < numViews )
+			throw new IllegalArgumentException("Fewer observation lists than views");
+
+		numObservations = 0;
+		for( int view = 0; view < numViews; view++ ) {
+			numObservations += observations.get(view).getPoints().size;
+		}
+
+		if( viewToUnknown.length < numViews ) {
+			viewToUnknown = new int[numViews];
+			viewObsStart = new int[numViews+1];
+			viewR = new double[numViews*9];
+			viewT = new double[numViews*3];
+		}
+		if( U.length < numUnknown*36 ) {
+			viewRodJac = new double[numUnknown*27];
+			U = new double[numUnknown*36];
+			gc = new double[numUnknown*6];
+			rhs = new double[numUnknown*6];
+			deltaCamera = new double[numUnknown*6];
+			precond = new double[numUnknown*36];
+			pcgR = new double[numUnknown*6];
+			pcgZ = new double[numUnknown*6];
+			pcgP = new double[numUnknown*6];
+			pcgQ = new double[numUnknown*6];
+		}
+		if( V.length < numPoints*9 ) {
+			V = new double[numPoints*9];
+			Vinv = new double[numPoints*9];
+			gp = new double[numPoints*3];
+			deltaPoint = new double[numPoints*3];
+			pointWork = new double[numPoints*3];
+			pointObsStart = new int[numPoints+1];
+		}
+		if( obsView.length < numObservations ) {
+			obsView = new int[numObservations];
+			obsPoint = new int[numObservations];
+			obsXY = new double[numObservations*2];
+			pointObs = new int[numObservations];
+			W = new double[numObservations*18];
+			Y = new double[numObservations*18];
+		}
+		int N = codec.getParamLength();
+		if( param.length < N ) {
+			param = new double[N];
+			candidate = new double[N];
+		}
+
+		int indexUnknown = 0;
+		for( int view = 0; view < numViews; view++ ) {
+			viewToUnknown[view] = model.isViewKnown(view) ? -1 : indexUnknown++;
+		}
+
+		// copy the observations and count how many times each point was observed
+		Arrays.fill(pointObsStart,0,numPoints+1,0);
+		int k = 0;
+		for( int view = 0; view < numViews; view++ ) {
+			viewObsStart[view] = k;
+			FastQueue<PointIndexObservation> points = observations.get(view).getPoints();
+			for( int i = 0; i < points.size; i++ , k++ ) {
+				PointIndexObservation o = points.data[i];
+				Point2D_F64 obs = o.getObservation();
+				obsView[k] = view;
+				obsPoint[k] = o.pointIndex;
+				obsXY[k*2  ] = obs.x;
+				obsXY[k*2+1] = obs.y;
+				pointObsStart[o.pointIndex+1]++;
+			}
+		}
+		viewObsStart[numViews] = k;
+
+		// bucket observations by point
+		for( int i = 0; i < numPoints; i++ ) {
+			pointObsStart[i+1] += pointObsStart[i];
+		}
+		int[] count = new int[numPoints];
+		for( k = 0; k < numObservations; k++ ) {
+			int point = obsPoint[k];
+			pointObs[pointObsStart[point] + count[point]++] = k;
+		}
+
+		int N_c = numUnknown*6;
+		if( N_c > 0 && N_c <= maxDenseParameters && S.getNumRows() != N_c ) {
+			S.reshape(N_c,N_c);
+			solver = LinearSolverFactory_DDRM.chol(N_c);
+		}
+	}
+
+	/**
+	 * Levenberg-Marquardt.  Dampening is decreased after a successful step and increased when a step fails
+	 */
+	private void optimize() {
+		double cost = computeCost(param);
+		double lambda = initialDampening;
+		initialCost = cost;
+		iterations = 0;
+
+		boolean done = cost == 0 || Double.isNaN(cost);
+		while( !done && iterations < maxIterations ) {
+			iterations++;
+			computeNormalEquations(param);
+
+			while( true ) {
+				if( solveStep(lambda) ) {
+					applyStep();
+					double candidateCost = computeCost(candidate);
+
+					if( candidateCost < cost ) {
+						double[] tmp = param;
+						param = candidate;
+						candidate = tmp;
+
+						done = cost - candidateCost <= convergenceTol*cost;
+						cost = candidateCost;
+						lambda = Math.max(MIN_LAMBDA, lambda/10);
+						break;
+					}
+				}
+				lambda *= 10;
+				if( lambda > MAX_LAMBDA ) {
+					// no step can reduce the cost any further
+					done = true;
+					break;
+				}
+			}
+		}
+
+		finalCost = cost;
+	}
+
+	/**
+	 * Computes the rotation matrix and translation of each unknown view from the parameters
+	 *
+	 * @param jacobian If true the partials of each rotation matrix will also be computed
+	 */
+	protected void decodeViews( double[] param , boolean jacobian ) {
+		for( int view = 0; view < numViews; view++ ) {
+			int u = viewToUnknown[view];
+			if( u < 0 )
+				continue;
+
+			int index = u*6;
+			double rodX = param[index];
+			double rodY = param[index+1];
+			double rodZ = param[index+2];
+
+			rodrigues.setParamVector(rodX,rodY,rodZ);
+			ConvertRotation3D_F64.rodriguesToMatrix(rodrigues,R);
+			System.arraycopy(R.data,0,viewR,view*9,9);
+			viewT[view*3  ] = param[index+3];
+			viewT[view*3+1] = param[index+4];
+			viewT[view*3+2] = param[index+5];
+
+			if( jacobian ) {
+				rodJacobian.process(rodX,rodY,rodZ);
+				System.arraycopy(rodJacobian.Rx.data,0,viewRodJac,u*27,9);
+				System.arraycopy(rodJacobian.Ry.data,0,viewRodJac,u*27+9,9);
+				System.arraycopy(rodJacobian.Rz.data,0,viewRodJac,u*27+18,9);
+			}
+		}
+	}
+
+	/**
+	 * Computes the sum of squared residuals
+	 */
+	protected double computeCost( double[] param ) {
+		decodeViews(param,false);
+
+		return computeCost(param, 0, numViews);
+	}
+
+	/**
+	 * Computes the sum of squared residuals for the observations in the specified views.  The views must
+	 * already have been decoded.
+	 *
+	 * @param view0 First view, inclusive
+	 * @param view1 Last view, exclusive
+	 */
+	protected double computeCost( double[] param , int view0 , int view1 ) {
+		int indexFirstPoint = numUnknown*6;
+		double total = 0;
+		int k1 = viewObsStart[view1];
+		for( int k = viewObsStart[view0]; k < k1; k++ ) {
+			int indexR = obsView[k]*9;
+			int indexT = obsView[k]*3;
+			int indexP = indexFirstPoint + obsPoint[k]*3;
+
+			double wx = param[indexP], wy = param[indexP+1], wz = param[indexP+2];
+
+			double cx = viewR[indexR  ]*wx + viewR[indexR+1]*wy + viewR[indexR+2]*wz + viewT[indexT];
+			double cy = viewR[indexR+3]*wx + viewR[indexR+4]*wy + viewR[indexR+5]*wz + viewT[indexT+1];
+			double cz = viewR[indexR+6]*wx + viewR[indexR+7]*wy + viewR[indexR+8]*wz + viewT[indexT+2];
+
+			double rx = cx/cz - obsXY[k*2];
+			double ry = cy/cz - obsXY[k*2+1];
+
+			total += rx*rx + ry*ry;
+		}
+		return total;
+	}
+
+	/**
+	 * Computes the blocks in the normal equations, J<sup>T</sup>J, and the gradient, J<sup>T</sup>r.
+	 * The Jacobian of each observation is computed then immediately discarded.
+	 */
+	protected void computeNormalEquations( double[] param ) {
+		decodeViews(param,true);
+
+		Arrays.fill(U,0,numUnknown*36,0);
+		Arrays.fill(gc,0,numUnknown*6,0);
+		Arrays.fill(V,0,numPoints*9,0);
+		Arrays.fill(gp,0,numPoints*3,0);
+
+		computeNormalEquations(param, 0, numViews, work, V, gp);
+	}
+
+	/**
+	 * Adds the observations in the specified views to the normal equations.  The camera blocks and W are
+	 * written directly since they belong to a single view.  Point blocks can be shared between views, so they
+	 * are added to the provided arrays.  The views must already have been decoded.
+	 *
+	 * @param view0 First view, inclusive
+	 * @param view1 Last view, exclusive
+	 * @param work Storage for the partials of a single observation
+	 * @param V (Output) Point blocks are added to this array
+	 * @param gp (Output) Point gradient is added to this array
+	 */
+	protected void computeNormalEquations( double[] param , int view0 , int view1 , Workspace work ,
+										   double[] V , double[] gp ) {
+		double[] Ax = work.Ax, Ay = work.Ay;
+		double[] Bx = work.Bx, By = work.By;
+
+		int indexFirstPoint = numUnknown*6;
+		int k1 = viewObsStart[view1];
+		for( int k = viewObsStart[view0]; k < k1; k++ ) {
+			int view = obsView[k];
+			int point = obsPoint[k];
+			int u = viewToUnknown[view];
+			int indexR = view*9;
+			int indexT = view*3;
+			int indexP = indexFirstPoint + point*3;
+
+			double wx = param[indexP], wy = param[indexP+1], wz = param[indexP+2];
+
+			double cx = viewR[indexR  ]*wx + viewR[indexR+1]*wy + viewR[indexR+2]*wz + viewT[indexT];
+			double cy = viewR[indexR+3]*wx + viewR[indexR+4]*wy + viewR[indexR+5]*wz + viewT[indexT+1];
+			double cz = viewR[indexR+6]*wx + viewR[indexR+7]*wy + viewR[indexR+8]*wz + viewT[indexT+2];
+
+			double divZ = 1.0/cz;
+			double rx = cx*divZ - obsXY[k*2];
+			double ry = cy*divZ - obsXY[k*2+1];
+
+			// partial of the projection with respect to the point in the camera frame
+			double px = -cx*divZ*divZ;
+			double py = -cy*divZ*divZ;
+
+			// partial with respect to the world point.  d(camera point)/d(world point) = R
+			for( int i = 0; i < 3; i++ ) {
+				Bx[i] = divZ*viewR[indexR+i] + px*viewR[indexR+6+i];
+				By[i] = divZ*viewR[indexR+3+i] + py*viewR[indexR+6+i];
+			}
+			addInnerProduct(Bx,By,3,V,point*9);
+			addGradient(Bx,By,3,rx,ry,gp,point*3);
+
+			if( u < 0 )
+				continue;
+
+			// partial with respect to rotation.  d(camera point)/d(rod) = dot(R)*X
+			for( int i = 0; i < 3; i++ ) {
+				int indexJ = u*27 + i*9;
+				double dx = viewRodJac[indexJ  ]*wx + viewRodJac[indexJ+1]*wy + viewRodJac[indexJ+2]*wz;
+				double dy = viewRodJac[indexJ+3]*wx + viewRodJac[indexJ+4]*wy + viewRodJac[indexJ+5]*wz;
+				double dz = viewRodJac[indexJ+6]*wx + viewRodJac[indexJ+7]*wy + viewRodJac[indexJ+8]*wz;
+				Ax[i] = divZ*dx + px*dz;
+				Ay[i] = divZ*dy + py*dz;
+			}
+			// partial with respect to translation
+			Ax[3] = divZ; Ax[4] = 0;    Ax[5] = px;
+			Ay[3] = 0;    Ay[4] = divZ; Ay[5] = py;
+
+			addInnerProduct(Ax,Ay,6,U,u*36);
+			addGradient(Ax,Ay,6,rx,ry,gc,u*6);
+
+			// W = A^T*B
+			int indexW = k*18;
+			for( int i = 0; i < 6; i++ ) {
+				for( int j = 0; j < 3; j++ ) {
+					W[indexW++] = Ax[i]*Bx[j] + Ay[i]*By[j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds J<sup>T</sup>J to the square block in output, where J is a 2xN matrix
+	 */
+	private static void addInnerProduct( double[] Jx , double[] Jy , int N , double[] output , int offset ) {
+		for( int i = 0; i < N; i++ ) {
+			for( int j = 0; j < N; j++ ) {
+				output[offset++] += Jx[i]*Jx[j] + Jy[i]*Jy[j];
+			}
+		}
+	}
+
+	/**
+	 * Adds J<sup>T</sup>r to the vector in output, where J is a 2xN matrix
+	 */
+	private static void addGradient( double[] Jx , double[] Jy , int N , double rx , double ry ,
+									 double[] output , int offset ) {
+		for( int i = 0; i < N; i++ ) {
+			output[offset+i] += Jx[i]*rx + Jy[i]*ry;
+		}
+	}
+
+	/**
+	 * Solves for the change in camera and point parameters given the dampening
+	 *
+	 * @return true if successful
+	 */
+	protected boolean solveStep( double lambda ) {
+		// invert damped point blocks
+		for( int point = 0; point < numPoints; point++ ) {
+			int index = point*9;
+			if( pointObsStart[point] == pointObsStart[point+1] ) {
+				// the point was never observed and will not be modified
+				Arrays.fill(Vinv,index,index+9,0);
+			} else if( !invertDamped3(V,Vinv,index,lambda) ) {
+				return false;
+			}
+		}
+
+		// W*inv(V) for each observation and the reduced right hand side
+		for( int i = 0; i < numUnknown*6; i++ ) {
+			rhs[i] = -gc[i];
+		}
+		for( int k = 0; k < numObservations; k++ ) {
+			int u = viewToUnknown[obsView[k]];
+			if( u < 0 )
+				continue;
+			int indexV = obsPoint[k]*9;
+			int indexW = k*18;
+			for( int i = 0; i < 6; i++ , indexW += 3 ) {
+				double w0 = W[indexW], w1 = W[indexW+1], w2 = W[indexW+2];
+				for( int j = 0; j < 3; j++ ) {
+					Y[indexW+j] = w0*Vinv[indexV+j] + w1*Vinv[indexV+3+j] + w2*Vinv[indexV+6+j];
+				}
+				int indexG = obsPoint[k]*3;
+				rhs[u*6+i] += Y[indexW]*gp[indexG] + Y[indexW+1]*gp[indexG+1] + Y[indexW+2]*gp[indexG+2];
+			}
+		}
+
+		if( numUnknown > 0 ) {
+			boolean success;
+			if( numUnknown*6 <= maxDenseParameters )
+				success = solveDense(lambda);
+			else
+				success = solvePCG(lambda);
+			if( !success )
+				return false;
+		}
+
+		// back substitute to find the change in each point
+		Arrays.fill(pointWork,0,numPoints*3,0);
+		for( int k = 0; k < numObservations; k++ ) {
+			int u = viewToUnknown[obsView[k]];
+			if( u < 0 )
+				continue;
+			addTransposeW(k,deltaCamera,u*6,pointWork,obsPoint[k]*3);
+		}
+		for( int point = 0; point < numPoints; point++ ) {
+			int index = point*3;
+			for( int i = 0; i < 3; i++ ) {
+				pointWork[index+i] += gp[index+i];
+			}
+			multBlock(Vinv,point*9,pointWork,index,deltaPoint,index);
+			for( int i = 0; i < 3; i++ ) {
+				deltaPoint[index+i] = -deltaPoint[index+i];
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Forms the reduced camera matrix explicitly and solves it using Cholesky decomposition
+	 */
+	private boolean solveDense( double lambda ) {
+		int N = numUnknown*6;
+		S.reshape(N,N);
+		S.zero();
+
+		for( int u = 0; u < numUnknown; u++ ) {
+			for( int i = 0; i < 6; i++ ) {
+				for( int j = 0; j < 6; j++ ) {
+					S.data[(u*6+i)*N + u*6+j] = U[u*36 + i*6 + j];
+				}
+				S.data[(u*6+i)*N + u*6+i] += dampening(U[u*36 + i*7],lambda);
+			}
+		}
+
+		// subtract W*inv(V)*W^T for every pair of observations of the same point
+		for( int point = 0; point < numPoints; point++ ) {
+			for( int a = pointObsStart[point]; a < pointObsStart[point+1]; a++ ) {
+				int ka = pointObs[a];
+				int ua = viewToUnknown[obsView[ka]];
+				if( ua < 0 )
+					continue;
+				for( int b = pointObsStart[point]; b < pointObsStart[point+1]; b++ ) {
+					int kb = pointObs[b];
+					int ub = viewToUnknown[obsView[kb]];
+					if( ub < 0 )
+						continue;
+					for( int i = 0; i < 6; i++ ) {
+						int indexY = ka*18 + i*3;
+						int indexS = (ua*6+i)*N + ub*6;
+						for( int j = 0; j < 6; j++ ) {
+							int indexW = kb*18 + j*3;
+							S.data[indexS+j] -= Y[indexY]*W[indexW] + Y[indexY+1]*W[indexW+1] + Y[indexY+2]*W[indexW+2];
+						}
+					}
+				}
+			}
+		}
+
+		if( !solver.setA(S) )
+			return false;
+
+		solver.solve(DMatrixRMaj.wrap(N,1,rhs),DMatrixRMaj.wrap(N,1,deltaCamera));
+
+		return true;
+	}
+
+	/**
+	 * Solves the reduced camera system using preconditioned conjugate gradient.  The preconditioner is the
+	 * inverse of the block diagonal part of the reduced camera matrix.
+	 */
+	private boolean solvePCG( double lambda ) {
+		int N = numUnknown*6;
+
+		// block diagonal part of the reduced camera system
+		for( int u = 0; u < numUnknown; u++ ) {
+			System.arraycopy(U,u*36,precond,u*36,36);
+			for( int i = 0; i < 6; i++ ) {
+				precond[u*36+i*7] += dampening(U[u*36+i*7],lambda);
+			}
+		}
+		for( int k = 0; k < numObservations; k++ ) {
+			int u = viewToUnknown[obsView[k]];
+			if( u < 0 )
+				continue;
+			for( int i = 0; i < 6; i++ ) {
+				int indexY = k*18 + i*3;
+				for( int j = 0; j < 6; j++ ) {
+					int indexW = k*18 + j*3;
+					precond[u*36+i*6+j] -= Y[indexY]*W[indexW] + Y[indexY+1]*W[indexW+1] + Y[indexY+2]*W[indexW+2];
+				}
+			}
+		}
+		for( int u = 0; u < numUnknown; u++ ) {
+			block.reshape(6,6);
+			System.arraycopy(precond,u*36,block.data,0,36);
+			if( !CommonOps_DDRM.invert(block) )
+				return false;
+			System.arraycopy(block.data,0,precond,u*36,36);
+		}
+
+		Arrays.fill(deltaCamera,0,N,0);
+		System.arraycopy(rhs,0,pcgR,0,N);
+		applyPreconditioner(pcgR,pcgZ);
+		System.arraycopy(pcgZ,0,pcgP,0,N);
+
+		double rz = dot(pcgR,pcgZ,N);
+		double threshold = tolerancePCG*dot(rhs,rhs,N);
+		for( int iter = 0; iter < maxIterationsPCG; iter++ ) {
+			if( dot(pcgR,pcgR,N) <= threshold )
+				break;
+
+			multReduced(pcgP,pcgQ,lambda);
+			double pq = dot(pcgP,pcgQ,N);
+			if( pq <= 0 )
+				break;
+			double alpha = rz/pq;
+			for( int i = 0; i < N; i++ ) {
+				deltaCamera[i] += alpha*pcgP[i];
+				pcgR[i] -= alpha*pcgQ[i];
+			}
+			applyPreconditioner(pcgR,pcgZ);
+			double rzNext = dot(pcgR,pcgZ,N);
+			double beta = rzNext/rz;
+			rz = rzNext;
+			for( int i = 0; i < N; i++ ) {
+				pcgP[i] = pcgZ[i] + beta*pcgP[i];
+			}
+		}
+
+		for( int i = 0; i < N; i++ ) {
+			if( Double.isNaN(deltaCamera[i]) )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Multiplies the vector by the reduced camera matrix without forming the matrix.
+	 *
+	 * output = (U - W*inv(V)*W<sup>T</sup>)*x
+	 */
+	private void multReduced( double[] x , double[] output , double lambda ) {
+		for( int u = 0; u < numUnknown; u++ ) {
+			int index = u*6;
+			for( int i = 0; i < 6; i++ ) {
+				double sum = dampening(U[u*36+i*7],lambda)*x[index+i];
+				for( int j = 0; j < 6; j++ ) {
+					sum += U[u*36+i*6+j]*x[index+j];
+				}
+				output[index+i] = sum;
+			}
+		}
+
+		// W^T*x summed for each point
+		Arrays.fill(pointWork,0,numPoints*3,0);
+		for( int k = 0; k < numObservations; k++ ) {
+			int u = viewToUnknown[obsView[k]];
+			if( u < 0 )
+				continue;
+			addTransposeW(k,x,u*6,pointWork,obsPoint[k]*3);
+		}
+
+		// subtract W*inv(V)*(W^T*x)
+		for( int k = 0; k < numObservations; k++ ) {
+			int u = viewToUnknown[obsView[k]];
+			if( u < 0 )
+				continue;
+			int indexP = obsPoint[k]*3;
+			for( int i = 0; i < 6; i++ ) {
+				int indexY = k*18 + i*3;
+				output[u*6+i] -= Y[indexY]*pointWork[indexP] + Y[indexY+1]*pointWork[indexP+1] +
+						Y[indexY+2]*pointWork[indexP+2];
+			}
+		}
+	}
+
+	private void applyPreconditioner( double[] x , double[] output ) {
+		for( int u = 0; u < numUnknown; u++ ) {
+			int index = u*6;
+			for( int i = 0; i < 6; i++ ) {
+				double sum = 0;
+				for( int j = 0; j < 6; j++ ) {
+					sum += precond[u*36+i*6+j]*x[index+j];
+				}
+				output[index+i] = sum;
+			}
+		}
+	}
+
+	/**
+	 * Adds W<sup>T</sup>*x to output for observation k
+	 */
+	private void addTransposeW( int k , double[] x , int indexX , double[] output , int indexOut ) {
+		int indexW = k*18;
+		for( int i = 0; i < 6; i++ , indexW += 3 ) {
+			double v = x[indexX+i];
+			output[indexOut  ] += W[indexW  ]*v;
+			output[indexOut+1] += W[indexW+1]*v;
+			output[indexOut+2] += W[indexW+2]*v;
+		}
+	}
+
+	/**
+	 * Adds the change in parameters to the current parameters and saves the results in candidate
+	 */
+	private void applyStep() {
+		int N_c = numUnknown*6;
+		for( int i = 0; i < N_c; i++ ) {
+			candidate[i] = param[i] + deltaCamera[i];
+		}
+		for( int i = 0; i < numPoints*3; i++ ) {
+			candidate[N_c+i] = param[N_c+i] + deltaPoint[i];
+		}
+	}
+
+	/**
+	 * Amount added to a diagonal element by dampening
+	 */
+	private static double dampening( double diagonal , double lambda ) {
+		return lambda*Math.max(diagonal,MIN_DIAGONAL);
+	}
+
+	/**
+	 * Inverts the 3x3 block after adding dampening to its diagonal
+	 */
+	private static boolean invertDamped3( double[] input , double[] output , int index , double lambda ) {
+		double a11 = input[index  ] + dampening(input[index  ],lambda);
+		double a12 = input[index+1];
+		double a13 = input[index+2];
+		double a21 = input[index+3];
+		double a22 = input[index+4] + dampening(input[index+4],lambda);
+		double a23 = input[index+5];
+		double a31 = input[index+6];
+		double a32 = input[index+7];
+		double a33 = input[index+8] + dampening(input[index+8],lambda);
+
+		double m11 = a22*a33 - a23*a32;
+		double m12 = -(a21*a33 - a23*a31);
+		double m13 = a21*a32 - a22*a31;
+
+		double det = a11*m11 + a12*m12 + a13*m13;
+		if( det == 0 || Double.isNaN(det) || Double.isInfinite(det) )
+			return false;
+
+		output[index  ] = m11/det;
+		output[index+1] = -(a12*a33 - a13*a32)/det;
+		output[index+2] = (a12*a23 - a13*a22)/det;
+		output[index+3] = m12/det;
+		output[index+4] = (a11*a33 - a13*a31)/det;
+		output[index+5] = -(a11*a23 - a13*a21)/det;
+		output[index+6] = m13/det;
+		output[index+7] = -(a11*a32 - a12*a31)/det;
+		output[index+8] = (a11*a22 - a12*a21)/det;
+
+		return true;
+	}
+
+	/**
+	 * output = A*x, where A is a 3x3 block
+	 */
+	private static void multBlock( double[] A , int indexA , double[] x , int indexX , double[] output , int indexOut ) {
+		double x0 = x[indexX], x1 = x[indexX+1], x2 = x[indexX+2];
+		output[indexOut  ] = A[indexA  ]*x0 + A[indexA+1]*x1 + A[indexA+2]*x2;
+		output[indexOut+1] = A[indexA+3]*x0 + A[indexA+4]*x1 + A[indexA+5]*x2;
+		output[indexOut+2] = A[indexA+6]*x0 + A[indexA+7]*x1 + A[indexA+8]*x2;
+	}
+
+	private static double dot( double[] a , double[] b , int N ) {
+		double total = 0;
+		for( int i = 0; i < N; i++ ) {
+			total += a[i]*b[i];
+		}
+		return total;
+	}
+
+	/**
+	 * If the reduced camera system has this many parameters or fewer then it's solved using a dense
+	 * Cholesky decomposition, otherwise preconditioned conjugate gradient is used.
+	 */
+	public void setMaxDenseParameters(int maxDenseParameters) {
+		this.maxDenseParameters = maxDenseParameters;
+	}
+
+	public int getMaxDenseParameters() {
+		return maxDenseParameters;
+	}
+
+	public void setConfigPCG( int maxIterations , double tolerance ) {
+		this.maxIterationsPCG = maxIterations;
+		this.tolerancePCG = tolerance;
+	}
+
+	public void setInitialDampening(double initialDampening) {
+		this.initialDampening = initialDampening;
+	}
+
+	/**
+	 * Sum of squared residuals before optimization
+	 */
+	public double getInitialCost() {
+		return initialCost;
+	}
+
+	/**
+	 * Sum of squared residuals after optimization
+	 */
+	public double getFinalCost() {
+		return finalCost;
+	}
+
+	/**
+	 * Number of iterations performed in the last call to process
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Storage used when computing the normal equations for a block of views
+	 */
+	public static class Workspace {
+		// partials of the x and y residual for an observation with respect to the camera and the point
+		double[] Ax = new double[6], Ay = new double[6];
+		double[] Bx = new double[3], By = new double[3];
+
+		// point blocks and gradient from the observations in this block
+		double[] V = new double[0];
+		double[] gp = new double[0];
+
+		// sum of squared residuals in this block
+		double cost;
+
+		/**
+		 * Ensures there is enough storage for the point blocks and sets them to zero
+		 */
+		void resetPoints( int numPoints ) {
+			if( V.length < numPoints*9 ) {
+				V = new double[numPoints*9];
+				gp = new double[numPoints*3];
+			} else {
+				Arrays.fill(V,0,numPoints*9,0);
+				Arrays.fill(gp,0,numPoints*3,0);
+			}
+		}
+	}
+}
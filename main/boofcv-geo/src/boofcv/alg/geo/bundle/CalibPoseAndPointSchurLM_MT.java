@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link CalibPoseAndPointSchurLM}.  The residuals and the normal equations are
+ * computed from blocks of views in parallel.  Camera blocks are only modified by the block which contains the
+ * view, while each block sums the point blocks and gradient into its own storage.  The per block point sums are
+ * then added together in the order of the blocks, so the results are deterministic for a given number of
+ * threads.  With a single thread they are identical to the single threaded implementation.  With more threads
+ * they can differ by floating point round off.
+ * </p>
+ *
+ * <p>
+ * The reduced camera system is solved in the calling thread.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class CalibPoseAndPointSchurLM_MT extends CalibPoseAndPointSchurLM {
+
+	// minimum number of views in a block
+	int minBlockViews = 5;
+	// minimum number of points in a block when summing the point blocks
+	int minBlockPoints = 500;
+
+	// storage used by each block of views
+	FastQueue<Workspace> workspace = new FastQueue<>(Workspace.class,true);
+
+	/**
+	 * @see CalibPoseAndPointSchurLM#CalibPoseAndPointSchurLM
+	 */
+	public CalibPoseAndPointSchurLM_MT(double convergenceTol, int maxIterations) {
+		super(convergenceTol, maxIterations);
+	}
+
+	@Override
+	protected double computeCost(final double[] param) {
+		decodeViews(param,false);
+
+		BoofConcurrency.loopBlocks(0, numViews, minBlockViews, workspace,
+				new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace work, int view0, int view1) {
+				work.cost = computeCost(param, view0, view1);
+			}
+		});
+
+		double total = 0;
+		for( int i = 0; i < workspace.size; i++ ) {
+			total += workspace.data[i].cost;
+		}
+		return total;
+	}
+
+	@Override
+	protected void computeNormalEquations(final double[] param) {
+		decodeViews(param,true);
+
+		Arrays.fill(U,0,numUnknown*36,0);
+		Arrays.fill(gc,0,numUnknown*6,0);
+
+		BoofConcurrency.loopBlocks(0, numViews, minBlockViews, workspace,
+				new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace work, int view0, int view1) {
+				work.resetPoints(numPoints);
+				computeNormalEquations(param, view0, view1, work, work.V, work.gp);
+			}
+		});
+
+		// each element is the sum of the blocks in the same order no matter how the points are split up
+		BoofConcurrency.loopBlocks(0, numPoints, minBlockPoints, new IntRangeConsumer() {
+			@Override
+			public void accept(int point0, int point1) {
+				Arrays.fill(V,point0*9,point1*9,0);
+				Arrays.fill(gp,point0*3,point1*3,0);
+				for( int block = 0; block < workspace.size; block++ ) {
+					Workspace work = workspace.data[block];
+					for( int i = point0*9; i < point1*9; i++ ) {
+						V[i] += work.V[i];
+					}
+					for( int i = point0*3; i < point1*3; i++ ) {
+						gp[i] += work.gp[i];
+					}
+				}
+			}
+		});
+	}
+
+	public int getMinBlockViews() {
+		return minBlockViews;
+	}
+
+	public void setMinBlockViews(int minBlockViews) {
+		this.minBlockViews = minBlockViews;
+	}
+
+	public int getMinBlockPoints() {
+		return minBlockPoints;
+	}
+
+	public void setMinBlockPoints(int minBlockPoints) {
+		this.minBlockPoints = minBlockPoints;
+	}
+}
@@ -52,12 +52,6 @@ public class PnPJacobianRodrigues implements FunctionNtoMxN {
 	// 3D location of point in camera frame
 	private Point3D_F64 cameraPt = new Point3D_F64();
 
-	// output array
-	private double[] output;
-	// index for x component
-	private int indexX;
-	private int indexY;
-
 	public void setObservations(List<Point2D3D> observations) {
 		this.observations = observations;
 	}
@@ -74,10 +68,15 @@ public class PnPJacobianRodrigues implements FunctionNtoMxN {
 
 	@Override
 	public void process(double[] input, double[] output) {
+		setParameters(input);
 
-		this.output = output;
+		processObservations(output, 0, observations.size(), cameraPt);
+	}
 
-		// initialize data structures
+	/**
+	 * Computes the pose and the Jacobian of the rotation from the parameters.  Shared by all observations.
+	 */
+	protected void setParameters( double[] input ) {
 		rodrigues.setParamVector(input[0],input[1],input[2]);
 		rodJacobian.process(input[0], input[1], input[2]);
 
@@ -86,23 +85,30 @@ public class PnPJacobianRodrigues implements FunctionNtoMxN {
 		worldToCamera.T.z = input[5];
 
 		ConvertRotation3D_F64.rodriguesToMatrix(rodrigues, worldToCamera.getR());
+	}
 
-		// compute the gradient for each observation
-		for( int i = 0; i < observations.size(); i++ ) {
+	/**
+	 * Computes the gradient for observations in the range [i0,i1).  Only reads from the pose,
+	 * making it safe to process different ranges at the same time.
+	 *
+	 * @param cameraPt storage for the point in the camera frame
+	 */
+	protected void processObservations( double[] output , int i0 , int i1 , Point3D_F64 cameraPt ) {
+		for( int i = i0; i < i1; i++ ) {
 			Point2D3D o = observations.get(i);
 
 			SePointOps_F64.transform(worldToCamera,o.location, cameraPt);
 
-			indexX = 2*6*i;
-			indexY = indexX + 6;
+			int indexX = 2*6*i;
+			int indexY = indexX + 6;
 
 			// add gradient from rotation
-			addRodriguesJacobian(rodJacobian.Rx,o.location,cameraPt);
-			addRodriguesJacobian(rodJacobian.Ry,o.location,cameraPt);
-			addRodriguesJacobian(rodJacobian.Rz,o.location,cameraPt);
+			addRodriguesJacobian(rodJacobian.Rx,o.location,cameraPt,output,indexX++,indexY++);
+			addRodriguesJacobian(rodJacobian.Ry,o.location,cameraPt,output,indexX++,indexY++);
+			addRodriguesJacobian(rodJacobian.Rz,o.location,cameraPt,output,indexX++,indexY++);
 
 			// add gradient from translation
-			addTranslationJacobian(cameraPt);
+			addTranslationJacobian(cameraPt,output,indexX,indexY);
 		}
 	}
 
@@ -117,7 +123,8 @@ public class PnPJacobianRodrigues implements FunctionNtoMxN {
 	 * @param worldPt Location of point in world coordinates
 	 * @param cameraPt Location of point in camera coordinates
 	 */
-	private void addRodriguesJacobian( DMatrixRMaj Rj , Point3D_F64 worldPt , Point3D_F64 cameraPt )
+	private static void addRodriguesJacobian( DMatrixRMaj Rj , Point3D_F64 worldPt , Point3D_F64 cameraPt ,
+											  double[] output , int indexX , int indexY )
 	{
 		// (1/z)*dot(R)*X
 		double Rx = (Rj.data[0]*worldPt.x + Rj.data[1]*worldPt.y + Rj.data[2]*worldPt.z)/cameraPt.z;
@@ -127,8 +134,8 @@ public class PnPJacobianRodrigues implements FunctionNtoMxN {
 		double zDot_div_z2 = (Rj.data[6]*worldPt.x + Rj.data[7]*worldPt.y + Rj.data[8]*worldPt.z)/
 				(cameraPt.z*cameraPt.z);
 
-		output[indexX++] = -zDot_div_z2*cameraPt.x + Rx;
-		output[indexY++] = -zDot_div_z2*cameraPt.y + Ry;
+		output[indexX] = -zDot_div_z2*cameraPt.x + Rx;
+		output[indexY] = -zDot_div_z2*cameraPt.y + Ry;
 	}
 
 	/**
@@ -138,7 +145,7 @@ public class PnPJacobianRodrigues implements FunctionNtoMxN {
 	 *
 	 * where T is translation, z = z-coordinate of point in camera frame
 	 */
-	private void addTranslationJacobian( Point3D_F64 cameraPt )
+	private static void addTranslationJacobian( Point3D_F64 cameraPt , double[] output , int indexX , int indexY )
 	{
 		double divZ = 1.0/cameraPt.z;
 		double divZ2 = 1.0/(cameraPt.z*cameraPt.z);
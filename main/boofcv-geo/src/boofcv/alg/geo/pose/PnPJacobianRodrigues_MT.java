@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.pose;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import georegression.struct.point.Point3D_F64;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link PnPJacobianRodrigues}.  The rotation and its Jacobian are computed
+ * once then the observations are split into blocks.  Each observation writes to its own rows, so results
+ * are identical to the single threaded implementation.
+ *
+ * @author Peter Abeles
+ */
+public class PnPJacobianRodrigues_MT extends PnPJacobianRodrigues {
+
+	// minimum number of observations in a block
+	int minBlockSize = 50;
+
+	// storage for the point in the camera frame used by each thread
+	FastQueue<Point3D_F64> workspace = new FastQueue<>(Point3D_F64.class,true);
+
+	@Override
+	public void process(double[] input, final double[] output) {
+		setParameters(input);
+
+		BoofConcurrency.loopBlocks(0, getNumOfOutputsM()/2, minBlockSize, workspace,
+				new IntRangeObjectConsumer<Point3D_F64>() {
+			@Override
+			public void accept(Point3D_F64 cameraPt, int i0, int i1) {
+				processObservations(output, i0, i1, cameraPt);
+			}
+		});
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+}
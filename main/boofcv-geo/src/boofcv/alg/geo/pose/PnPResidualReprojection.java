@@ -22,11 +22,11 @@ import boofcv.alg.geo.ModelObservationResidualN;
 import boofcv.struct.geo.Point2D3D;
 import georegression.struct.point.Point3D_F64;
 import georegression.struct.se.Se3_F64;
-import georegression.transform.se.SePointOps_F64;
 
 /**
  * Computes the predicted residual as a simple geometric distance between the observed and predicted
- * point observation in normalized pixel coordinates.
+ * point observation in normalized pixel coordinates.  Once the model has been set, residuals
+ * can be computed for different observations at the same time.
  *
  * @author Peter Abeles
  */
@@ -35,8 +35,6 @@ public class PnPResidualReprojection
 {
 	Se3_F64 motion;
 
-	Point3D_F64 temp = new Point3D_F64();
-
 	@Override
 	public void setModel(Se3_F64 model) {
 		this.motion = model;
@@ -45,10 +43,16 @@ public class PnPResidualReprojection
 	@Override
 	public int computeResiduals(Point2D3D data, double[] residuals, int index) {
 
-		SePointOps_F64.transform(motion,data.location,temp);
+		// transform into the camera frame without using shared storage
+		double[] R = motion.R.data;
+		Point3D_F64 X = data.location;
+
+		double cameraX = R[0]*X.x + R[1]*X.y + R[2]*X.z + motion.T.x;
+		double cameraY = R[3]*X.x + R[4]*X.y + R[5]*X.z + motion.T.y;
+		double cameraZ = R[6]*X.x + R[7]*X.y + R[8]*X.z + motion.T.z;
 
-		double expectedX = temp.x / temp.z;
-		double expectedY = temp.y / temp.z;
+		double expectedX = cameraX / cameraZ;
+		double expectedY = cameraY / cameraZ;
 
 		residuals[index++] = expectedX - data.observation.x;
 		residuals[index++] = expectedY - data.observation.y;
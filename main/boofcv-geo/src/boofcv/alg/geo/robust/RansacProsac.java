@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.robust;
+
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Progressive sample consensus (PROSAC) [1].  The input points must be sorted from best to worst quality,
+ * e.g. by their association score.  Samples are initially drawn from the highest quality points and the
+ * set being sampled is progressively expanded until it includes every point, at which point it is the same as
+ * RANSAC.  When the quality ordering is meaningful a good hypothesis is typically found after far fewer
+ * iterations.  Hypotheses can also be verified with SPRT, see {@link RansacSprt}.
+ * </p>
+ *
+ * <p>
+ * [1] Chum, Ondrej, and Jiri Matas. "Matching with PROSAC-progressive sample consensus." CVPR 2005.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RansacProsac<Model,Point> extends RansacSprt<Model,Point> {
+
+	// number of points at the top of the list which are being sampled
+	int n;
+	// iteration counter
+	int t;
+	// expected number of samples drawn from the top n points in standard RANSAC, T_n in the paper
+	double Tn;
+	// iteration at which the sampling set is expanded, T'_n in the paper
+	int TnPrime;
+
+	// indexes of points in the sampling set
+	int[] indexes = new int[0];
+
+	/**
+	 * @see RansacSprt#RansacSprt
+	 */
+	public RansacProsac(long randSeed,
+						ModelManager<Model> modelManager,
+						ModelGenerator<Model, Point> modelGenerator,
+						DistanceFromModel<Model, Point> modelDistance,
+						int maxIterations,
+						double thresholdFit) {
+		super(randSeed, modelManager, modelGenerator, modelDistance, maxIterations, thresholdFit);
+	}
+
+	@Override
+	protected void initializeSampling(int N) {
+		if( indexes.length < N )
+			indexes = new int[N];
+		for (int i = 0; i < N; i++) {
+			indexes[i] = i;
+		}
+
+		n = sampleSize;
+		t = 0;
+		TnPrime = 1;
+
+		// T_m = T_N * C(m,m)/C(N,m)
+		Tn = maxIterations;
+		for (int i = 0; i < sampleSize; i++) {
+			Tn *= (sampleSize-i)/(double)(N-i);
+		}
+	}
+
+	@Override
+	protected void drawSample(List<Point> dataSet, List<Point> sample) {
+		t++;
+
+		// see if the sampling set should be expanded
+		if( t == TnPrime && n < dataSet.size() ) {
+			double TnNext = Tn*(n+1)/(n+1-sampleSize);
+			TnPrime += (int)Math.ceil(TnNext-Tn);
+			Tn = TnNext;
+			n++;
+		}
+
+		sample.clear();
+		if( TnPrime < t ) {
+			// sample from all the top n points
+			drawFromTop(dataSet, sample, n, sampleSize);
+		} else {
+			// always include the n-th point since it's the one which was just added
+			drawFromTop(dataSet, sample, n-1, sampleSize-1);
+			sample.add(dataSet.get(n-1));
+		}
+	}
+
+	/**
+	 * Randomly draws points from the first 'total' points without replacement.  Only elements inside the
+	 * range are swapped, so the range always contains the same points.
+	 */
+	private void drawFromTop( List<Point> dataSet , List<Point> sample , int total , int count ) {
+		for (int i = 0; i < count; i++) {
+			int j = i + rand.nextInt(total-i);
+			int tmp = indexes[i]; indexes[i] = indexes[j]; indexes[j] = tmp;
+			sample.add(dataSet.get(indexes[i]));
+		}
+	}
+
+	/**
+	 * Number of points at the top of the list which are currently being sampled
+	 */
+	public int getSamplingSetSize() {
+		return n;
+	}
+}
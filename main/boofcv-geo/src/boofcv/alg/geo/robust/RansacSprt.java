@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.robust;
+
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ransac.Ransac;
+
+import java.util.List;
+
+/**
+ * <p>
+ * RANSAC where each hypothesis is verified using Wald's sequential probability ratio test (SPRT) [1].  Points
+ * are examined in a random order and after each point the likelihood ratio of the model being bad versus good
+ * is updated.  Once it exceeds a threshold the hypothesis is abandoned without examining the remaining points.
+ * The threshold is selected to minimize the expected run time using the estimated inlier fraction (epsilon),
+ * the probability that a point is consistent with a bad model (delta), and the relative cost of generating a
+ * model.  Epsilon is updated each time a better model is found and delta is estimated from rejected hypotheses.
+ * </p>
+ *
+ * <p>
+ * Until {@link #configureSprt} has been called every point is examined, just like {@link Ransac}.  The number
+ * of hypotheses and points examined is recorded so that the savings can be measured.
+ * </p>
+ *
+ * <p>
+ * [1] Chum, Ondrej, and Jiri Matas. "Optimal randomized RANSAC." IEEE Transactions on Pattern Analysis and
+ * Machine Intelligence 30.8 (2008): 1472-1482.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class RansacSprt<Model,Point> extends Ransac<Model,Point> {
+
+	// true if SPRT is used to reject hypotheses
+	boolean sprt = false;
+	// initial estimates of the parameters
+	double initialDelta, initialEpsilon;
+	// time to generate a model relative to the time to evaluate a point
+	double modelCost;
+
+	// current estimate of the probability that a point is consistent with a bad model
+	double delta;
+	// current estimate of the fraction of inliers
+	double epsilon;
+	// decision threshold for the likelihood ratio
+	double decisionA;
+	// change in likelihood ratio for a consistent and inconsistent point
+	double ratioInlier, ratioOutlier;
+
+	// statistics from rejected hypotheses used to estimate delta
+	long rejectedConsistent, rejectedEvaluated;
+
+	// order that points are examined in
+	int[] order = new int[0];
+
+	// instrumentation
+	int totalHypotheses;
+	int totalRejected;
+	long totalPointsEvaluated;
+
+	/**
+	 * @see Ransac#Ransac
+	 */
+	public RansacSprt(long randSeed,
+					  ModelManager<Model> modelManager,
+					  ModelGenerator<Model, Point> modelGenerator,
+					  DistanceFromModel<Model, Point> modelDistance,
+					  int maxIterations,
+					  double thresholdFit) {
+		super(randSeed, modelManager, modelGenerator, modelDistance, maxIterations, thresholdFit);
+	}
+
+	/**
+	 * Turns on SPRT verification
+	 *
+	 * @param delta Initial estimate of the probability that a point is consistent with a bad model.  Try 0.05
+	 * @param epsilon Initial estimate of the fraction of inliers.  Try 0.2
+	 * @param modelCost Time to generate a hypothesis relative to the time to evaluate a point.  Try 200
+	 */
+	public void configureSprt( double delta , double epsilon , double modelCost ) {
+		this.sprt = true;
+		this.initialDelta = delta;
+		this.initialEpsilon = epsilon;
+		this.modelCost = modelCost;
+	}
+
+	@Override
+	public boolean process(List<Point> _dataSet) {
+		// see if it has the minimum number of points
+		if (_dataSet.size() < modelGenerator.getMinimumPoints())
+			return false;
+
+		// the data set will be modified so a copy is needed.  Otherwise indexes of match set will not
+		// be correct
+		dataSet.clear();
+		dataSet.addAll(_dataSet);
+
+		// configure internal data structures
+		initialize(dataSet);
+
+		final int N = dataSet.size();
+		totalHypotheses = 0;
+		totalRejected = 0;
+		totalPointsEvaluated = 0;
+
+		delta = initialDelta;
+		epsilon = initialEpsilon;
+		rejectedConsistent = 0;
+		rejectedEvaluated = 0;
+		updateDecisionThreshold();
+
+		// examine points in a random order so that an ordered input doesn't bias the test
+		if( order.length < N )
+			order = new int[N];
+		for (int i = 0; i < N; i++) {
+			order[i] = i;
+		}
+		if( sprt ) {
+			for (int i = N-1; i > 0; i--) {
+				int j = rand.nextInt(i+1);
+				int tmp = order[i]; order[i] = order[j]; order[j] = tmp;
+			}
+		}
+
+		initializeSampling(N);
+
+		for (int i = 0; i < maxIterations && bestFitPoints.size() != N; i++) {
+			drawSample(dataSet, initialSample);
+
+			if( !modelGenerator.generate(initialSample, candidateParam) )
+				continue;
+
+			totalHypotheses++;
+
+			if( verify(_dataSet) && bestFitPoints.size() < candidatePoints.size() ) {
+				swapCandidateWithBest();
+
+				// the best model provides a new estimate of the inlier fraction
+				epsilon = bestFitPoints.size()/(double)N;
+				updateDecisionThreshold();
+			}
+		}
+
+		return bestFitPoints.size() > 0;
+	}
+
+	/**
+	 * Called before the first sample is drawn
+	 *
+	 * @param N number of points
+	 */
+	protected void initializeSampling( int N ) {}
+
+	/**
+	 * Randomly selects the points used to generate a hypothesis
+	 */
+	protected void drawSample( List<Point> dataSet , List<Point> sample ) {
+		randomDraw(dataSet, sampleSize, sample, rand);
+	}
+
+	/**
+	 * Computes the match set of the candidate model.  Aborts early if SPRT decides the model is bad.
+	 *
+	 * @return true if the model was accepted and the match set is complete
+	 */
+	protected boolean verify( List<Point> points ) {
+		candidatePoints.clear();
+		modelDistance.setModel(candidateParam);
+
+		final int N = points.size();
+		double lambda = 1.0;
+		for (int j = 0; j < N; j++) {
+			int index = order[j];
+			Point p = points.get(index);
+
+			if( modelDistance.computeDistance(p) < thresholdFit ) {
+				matchToInput[candidatePoints.size()] = index;
+				candidatePoints.add(p);
+				lambda *= ratioInlier;
+			} else {
+				lambda *= ratioOutlier;
+			}
+
+			if( lambda > decisionA ) {
+				totalRejected++;
+				totalPointsEvaluated += j+1;
+				updateDelta(candidatePoints.size(), j+1);
+				return false;
+			}
+		}
+		totalPointsEvaluated += N;
+		return true;
+	}
+
+	/**
+	 * Updates the estimate of delta using the fraction of consistent points in rejected models.  The threshold
+	 * is only recomputed if the estimate has changed significantly.
+	 */
+	private void updateDelta( int consistent , int evaluated ) {
+		rejectedConsistent += consistent;
+		rejectedEvaluated += evaluated;
+
+		// wait for enough points to get a stable estimate
+		if( rejectedEvaluated < 100 )
+			return;
+
+		double found = Math.max(1e-4, rejectedConsistent/(double)rejectedEvaluated);
+		if( Math.abs(found-delta) > 0.05*delta ) {
+			delta = found;
+			updateDecisionThreshold();
+		}
+	}
+
+	/**
+	 * Computes the decision threshold A using the iterative solution from the paper
+	 */
+	void updateDecisionThreshold() {
+		double eps = Math.min(epsilon, 0.999);
+
+		if( !sprt || eps <= delta ) {
+			// SPRT can't tell the difference between good and bad models
+			ratioInlier = ratioOutlier = 1.0;
+			decisionA = Double.MAX_VALUE;
+			return;
+		}
+
+		ratioInlier = delta/eps;
+		ratioOutlier = (1.0-delta)/(1.0-eps);
+
+		double C = (1.0-delta)*Math.log((1.0-delta)/(1.0-eps)) + delta*Math.log(delta/eps);
+		// K = t_M*C/m_S, where only one model is generated for each sample
+		double K = modelCost*C;
+
+		decisionA = K + 1;
+		for (int i = 0; i < 10; i++) {
+			decisionA = K + 1 + Math.log(decisionA);
+		}
+	}
+
+	/**
+	 * Number of hypotheses which were generated in the last call to process
+	 */
+	public int getTotalHypotheses() {
+		return totalHypotheses;
+	}
+
+	/**
+	 * Number of hypotheses which were rejected by SPRT in the last call to process
+	 */
+	public int getTotalRejected() {
+		return totalRejected;
+	}
+
+	/**
+	 * Number of times the distance function was called in the last call to process
+	 */
+	public long getTotalPointsEvaluated() {
+		return totalPointsEvaluated;
+	}
+
+	/**
+	 * Average number of points examined for each hypothesis in the last call to process
+	 */
+	public double getAveragePointsPerHypothesis() {
+		if( totalHypotheses == 0 )
+			return 0;
+		return totalPointsEvaluated/(double)totalHypotheses;
+	}
+
+	public double getDelta() {
+		return delta;
+	}
+
+	public double getEpsilon() {
+		return epsilon;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ModelManager;
+import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link Ransac}.  Hypotheses are processed in batches.  The samples for a batch
+ * are drawn on a single thread in the same sequence as {@link Ransac}.  Each thread then generates and scores
+ * a block of hypotheses using its own {@link ModelGenerator} and {@link DistanceFromModel}, which are created
+ * by the provided factories.  Finally the hypotheses are examined in the order they were drawn and the
+ * best is selected using the same rules as {@link Ransac}.
+ * </p>
+ *
+ * <p>
+ * The found model and inlier set are identical to {@link Ransac} with the same seed.  The one exception is
+ * when every point is an inlier.  {@link Ransac} stops drawing samples at that point while this class finishes
+ * the batch.  The random number generator will then be in a different state for the next call to process.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Ransac_MT<Model,Point> extends Ransac<Model,Point> {
+
+	// creates a new model generator for each thread
+	FactoryGenerator<Model,Point> factoryGenerator;
+	// creates a new distance function for each thread
+	FactoryDistance<Model,Point> factoryDistance;
+
+	ModelManager<Model> manager;
+
+	// number of hypotheses which are drawn then evaluated together
+	int batchSize = 32;
+
+	// storage for the hypotheses in a batch
+	List<Hypothesis> hypotheses = new ArrayList<>();
+
+	// storage used by each thread
+	FastQueue<Workspace> workspace;
+
+	/**
+	 * Creates a new instance of the concurrent RANSAC
+	 *
+	 * @param randSeed The random seed used by the random number generator.
+	 * @param modelManager Used to create and copy models
+	 * @param factoryGenerator Creates a model generator for each thread
+	 * @param factoryDistance Creates a distance function for each thread
+	 * @param maxIterations The maximum number of iterations the RANSAC algorithm will perform.
+	 * @param thresholdFit How close of a fit a points needs to be to the model to be considered a fit.
+	 */
+	public Ransac_MT(long randSeed,
+					 ModelManager<Model> modelManager,
+					 FactoryGenerator<Model,Point> factoryGenerator,
+					 FactoryDistance<Model,Point> factoryDistance,
+					 int maxIterations,
+					 double thresholdFit) {
+		super(randSeed, modelManager, factoryGenerator.create(), factoryDistance.create(),
+				maxIterations, thresholdFit);
+		this.manager = modelManager;
+		this.factoryGenerator = factoryGenerator;
+		this.factoryDistance = factoryDistance;
+
+		workspace = new FastQueue<Workspace>(1,(Class)Workspace.class,true) {
+			@Override
+			protected Workspace createInstance() {
+				return new Workspace();
+			}
+		};
+	}
+
+	@Override
+	public boolean process(List<Point> _dataSet) {
+		// see if it has the minimum number of points
+		if (_dataSet.size() < modelGenerator.getMinimumPoints())
+			return false;
+
+		// the data set will be modified so a copy is needed.  Otherwise indexes of match set will not
+		// be correct
+		dataSet.clear();
+		dataSet.addAll(_dataSet);
+
+		// configure internal data structures
+		initialize(dataSet);
+
+		while( hypotheses.size() < batchSize )
+			hypotheses.add(new Hypothesis());
+
+		for (int i = 0; i < maxIterations && bestFitPoints.size() != dataSet.size(); ) {
+			final int total = Math.min(batchSize, maxIterations - i);
+
+			// draw samples in the same order as the single threaded implementation
+			for (int j = 0; j < total; j++) {
+				randomDraw(dataSet, sampleSize, hypotheses.get(j).sample, rand);
+			}
+
+			// generate and score each hypothesis
+			BoofConcurrency.loopBlocks(0, total, 1, workspace, new IntRangeObjectConsumer<Workspace>() {
+				@Override
+				public void accept(Workspace work, int j0, int j1) {
+					for (int j = j0; j < j1; j++) {
+						work.evaluate(hypotheses.get(j));
+					}
+				}
+			});
+
+			// select the best in the order they were drawn
+			int bestCount = bestFitPoints.size();
+			int selected = -1;
+			for (int j = 0; j < total; j++) {
+				Hypothesis h = hypotheses.get(j);
+				if( h.valid && h.inliers > bestCount ) {
+					bestCount = h.inliers;
+					selected = j;
+					if( bestCount == dataSet.size() )
+						break;
+				}
+			}
+
+			if( selected >= 0 ) {
+				manager.copyModel(hypotheses.get(selected).model, candidateParam);
+				selectMatchSet(_dataSet, thresholdFit, candidateParam);
+				swapCandidateWithBest();
+			}
+
+			i += total;
+		}
+
+		return bestFitPoints.size() > 0;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Specifies the number of hypotheses which are drawn and evaluated together.  Larger batches
+	 * reduce synchronization but can result in wasted work when every point is an inlier.
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * A hypothesis and its score
+	 */
+	class Hypothesis {
+		List<Point> sample = new ArrayList<>();
+		Model model = manager.createModelInstance();
+		// true if a model could be generated from the sample
+		boolean valid;
+		// number of points which are within tolerance of the model
+		int inliers;
+	}
+
+	/**
+	 * Storage and algorithms used by a single thread
+	 */
+	class Workspace {
+		ModelGenerator<Model,Point> generator = factoryGenerator.create();
+		DistanceFromModel<Model,Point> distance = factoryDistance.create();
+
+		void evaluate( Hypothesis h ) {
+			h.valid = generator.generate(h.sample, h.model);
+			h.inliers = 0;
+			if( !h.valid )
+				return;
+
+			distance.setModel(h.model);
+			for (int i = 0; i < dataSet.size(); i++) {
+				if( distance.computeDistance(dataSet.get(i)) < thresholdFit )
+					h.inliers++;
+			}
+		}
+	}
+
+	/**
+	 * Creates a new instance of a {@link ModelGenerator}
+	 */
+	public interface FactoryGenerator<Model,Point> {
+		ModelGenerator<Model,Point> create();
+	}
+
+	/**
+	 * Creates a new instance of a {@link DistanceFromModel}
+	 */
+	public interface FactoryDistance<Model,Point> {
+		DistanceFromModel<Model,Point> create();
+	}
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.triangulate;
+
+import boofcv.alg.geo.MultiViewOps;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import org.ddogleg.optimization.FactoryOptimization;
+import org.ddogleg.optimization.UnconstrainedLeastSquares;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixRMaj;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Triangulates a large number of points at once.  Observations and the output are stored in packed arrays
+ * and all the storage is reused between calls.  Two view triangulation uses {@link TriangulateGeometric}
+ * or {@link TriangulateLinearDLT}, N-view triangulation uses {@link TriangulateLinearDLT}.  If
+ * {@link #setRefine refinement} is turned on then each estimate is refined by minimizing
+ * {@link ResidualsTriangulateSampson} using non-linear least squares.
+ * </p>
+ *
+ * <p>
+ * Observations are in normalized image coordinates and packed as (x,y) pairs.  Found points are packed as
+ * (x,y,z) triplets.  For N-views the observations of each track are contiguous.  Track 'i' has the observations
+ * from trackStart[i] to trackStart[i+1]-1 and viewIndexes specifies which view each observation belongs to.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class TriangulateBatch {
+
+	// if true then the linear estimate is refined
+	boolean refine = false;
+	double convergenceTol;
+	int maxIterations;
+
+	// essential matrix for each view
+	FastQueue<DMatrixRMaj> essential = new FastQueue<DMatrixRMaj>(DMatrixRMaj.class,true) {
+		@Override
+		protected DMatrixRMaj createInstance() {
+			return new DMatrixRMaj(3,3);
+		}
+	};
+
+	// storage used when processing a single thread
+	Workspace work = new Workspace();
+
+	/**
+	 * Turns on non-linear refinement of each point using Sampson error.
+	 *
+	 * @param convergenceTol Tolerance for finishing optimization.  Try 1e-8
+	 * @param maxIterations Maximum number of iterations.  Try 20
+	 */
+	public void setRefine( double convergenceTol , int maxIterations ) {
+		this.refine = maxIterations > 0;
+		this.convergenceTol = convergenceTol;
+		this.maxIterations = maxIterations;
+	}
+
+	/**
+	 * Triangulates points observed in two views by finding the point closest to both rays.
+	 *
+	 * @param obsA Observations in view 'a'.  Packed (x,y).
+	 * @param obsB Observations in view 'b'.  Packed (x,y).
+	 * @param numPoints Number of points
+	 * @param fromAtoB Transform from view 'a' to view 'b'
+	 * @param foundInA (Output) Location of each point in view 'a'.  Packed (x,y,z).
+	 */
+	public void twoViewsGeometric( double[] obsA , double[] obsB , int numPoints ,
+								   Se3_F64 fromAtoB , double[] foundInA ) {
+		checkTwoViews(obsA, obsB, numPoints, fromAtoB, foundInA);
+		twoViews(obsA, obsB, fromAtoB, foundInA, true, 0, numPoints, work);
+	}
+
+	/**
+	 * Triangulates points observed in two views using DLT.
+	 *
+	 * @see #twoViewsGeometric
+	 */
+	public void twoViewsDLT( double[] obsA , double[] obsB , int numPoints ,
+							 Se3_F64 fromAtoB , double[] foundInA ) {
+		checkTwoViews(obsA, obsB, numPoints, fromAtoB, foundInA);
+		twoViews(obsA, obsB, fromAtoB, foundInA, false, 0, numPoints, work);
+	}
+
+	/**
+	 * Triangulates points observed in two or more views using DLT.
+	 *
+	 * @param observations Observations of every track.  Packed (x,y).
+	 * @param viewIndexes Which view each observation is in
+	 * @param trackStart Index of the first observation in each track.  Length is numTracks+1.
+	 * @param numTracks Number of tracks
+	 * @param worldToView Transform from world to each view
+	 * @param found (Output) Location of each track in world frame.  Packed (x,y,z).
+	 */
+	public void nViewsDLT( double[] observations , int[] viewIndexes , int[] trackStart , int numTracks ,
+						   List<Se3_F64> worldToView , double[] found ) {
+		checkNViews(observations, viewIndexes, trackStart, numTracks, worldToView, found);
+		nViews(observations, viewIndexes, trackStart, worldToView, found, 0, numTracks, work);
+	}
+
+	/**
+	 * Sanity checks the two view inputs and computes the essential matrices
+	 */
+	protected void checkTwoViews( double[] obsA , double[] obsB , int numPoints ,
+								  Se3_F64 fromAtoB , double[] foundInA ) {
+		if( obsA.length < numPoints*2 || obsB.length < numPoints*2 )
+			throw new IllegalArgumentException("Observation arrays are too small");
+		if( foundInA.length < numPoints*3 )
+			throw new IllegalArgumentException("Output array is too small");
+
+		if( refine ) {
+			essential.reset();
+			// the world frame is view 'a', so the constraint is entirely in view 'b'
+			essential.grow().zero();
+			computeEssential(fromAtoB, essential.grow());
+		}
+	}
+
+	/**
+	 * Sanity checks the N-view inputs and computes the essential matrices
+	 */
+	protected void checkNViews( double[] observations , int[] viewIndexes , int[] trackStart , int numTracks ,
+								List<Se3_F64> worldToView , double[] found ) {
+		if( trackStart.length < numTracks+1 )
+			throw new IllegalArgumentException("trackStart must have a length of at least numTracks+1");
+		int numObservations = trackStart[numTracks];
+		if( observations.length < numObservations*2 || viewIndexes.length < numObservations )
+			throw new IllegalArgumentException("Observation arrays are too small");
+		if( found.length < numTracks*3 )
+			throw new IllegalArgumentException("Output array is too small");
+
+		if( refine ) {
+			essential.reset();
+			for (int i = 0; i < worldToView.size(); i++) {
+				computeEssential(worldToView.get(i), essential.grow());
+			}
+		}
+	}
+
+	private static void computeEssential( Se3_F64 worldToView , DMatrixRMaj E ) {
+		E.set(MultiViewOps.createEssential(worldToView.getR(), worldToView.getT()));
+	}
+
+	/**
+	 * Triangulates two view points in the range [i0,i1)
+	 */
+	protected void twoViews( double[] obsA , double[] obsB , Se3_F64 fromAtoB , double[] foundInA ,
+							 boolean geometric , int i0 , int i1 , Workspace work ) {
+		Point2D_F64 a = work.observations.get(0);
+		Point2D_F64 b = work.observations.get(1);
+
+		if( refine ) {
+			work.listObs.clear();
+			work.listObs.add(a);
+			work.listObs.add(b);
+			work.listEssential.clear();
+			work.listEssential.add(essential.get(0));
+			work.listEssential.add(essential.get(1));
+		}
+
+		for (int i = i0; i < i1; i++) {
+			a.set(obsA[i*2], obsA[i*2+1]);
+			b.set(obsB[i*2], obsB[i*2+1]);
+
+			if( geometric )
+				work.geometric.triangulate(a, b, fromAtoB, work.point);
+			else
+				work.dlt.triangulate(a, b, fromAtoB, work.point);
+
+			if( refine )
+				refine(work);
+
+			foundInA[i*3  ] = work.point.x;
+			foundInA[i*3+1] = work.point.y;
+			foundInA[i*3+2] = work.point.z;
+		}
+	}
+
+	/**
+	 * Triangulates N-view tracks in the range [i0,i1)
+	 */
+	protected void nViews( double[] observations , int[] viewIndexes , int[] trackStart ,
+						   List<Se3_F64> worldToView , double[] found ,
+						   int i0 , int i1 , Workspace work ) {
+		for (int i = i0; i < i1; i++) {
+			int start = trackStart[i];
+			int end = trackStart[i+1];
+
+			work.listObs.clear();
+			work.listMotion.clear();
+			work.listEssential.clear();
+			while( work.observations.size() < end-start )
+				work.observations.add(new Point2D_F64());
+
+			for (int j = start; j < end; j++) {
+				Point2D_F64 p = work.observations.get(j-start);
+				p.set(observations[j*2], observations[j*2+1]);
+				work.listObs.add(p);
+				work.listMotion.add(worldToView.get(viewIndexes[j]));
+				if( refine )
+					work.listEssential.add(essential.get(viewIndexes[j]));
+			}
+
+			work.dlt.triangulate(work.listObs, work.listMotion, work.point);
+
+			if( refine )
+				refine(work);
+
+			found[i*3  ] = work.point.x;
+			found[i*3+1] = work.point.y;
+			found[i*3+2] = work.point.z;
+		}
+	}
+
+	/**
+	 * Refines the point in the work space using non-linear least squares
+	 */
+	private void refine( Workspace work ) {
+		work.func.setObservations(work.listObs, work.listEssential);
+		work.minimizer.setFunction(work.func,null);
+
+		work.param[0] = work.point.x;
+		work.param[1] = work.point.y;
+		work.param[2] = work.point.z;
+
+		work.minimizer.initialize(work.param,0,convergenceTol*work.listObs.size());
+
+		for( int i = 0; i < maxIterations; i++ ) {
+			if( work.minimizer.iterate() )
+				break;
+		}
+
+		double[] found = work.minimizer.getParameters();
+		work.point.set(found[0], found[1], found[2]);
+	}
+
+	public boolean isRefine() {
+		return refine;
+	}
+
+	/**
+	 * Storage and algorithms for processing points on a single thread
+	 */
+	public static class Workspace {
+		TriangulateGeometric geometric = new TriangulateGeometric();
+		TriangulateLinearDLT dlt = new TriangulateLinearDLT();
+
+		ResidualsTriangulateSampson func = new ResidualsTriangulateSampson();
+		UnconstrainedLeastSquares minimizer = FactoryOptimization.leastSquareLevenberg(1e-3);
+		double[] param = new double[3];
+
+		// storage for observations
+		List<Point2D_F64> observations = new ArrayList<>();
+		// inputs for a single track
+		List<Point2D_F64> listObs = new ArrayList<>();
+		List<Se3_F64> listMotion = new ArrayList<>();
+		List<DMatrixRMaj> listEssential = new ArrayList<>();
+
+		Point3D_F64 point = new Point3D_F64();
+
+		public Workspace() {
+			observations.add(new Point2D_F64());
+			observations.add(new Point2D_F64());
+		}
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.triangulate;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import georegression.struct.se.Se3_F64;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link TriangulateBatch}.  The points are split into blocks and each thread
+ * has its own triangulation algorithms, optimizer, and storage.  Results are identical to the single threaded
+ * implementation.
+ *
+ * @author Peter Abeles
+ */
+public class TriangulateBatch_MT extends TriangulateBatch {
+
+	// minimum number of points in a block
+	int minBlockSize = 200;
+
+	// storage used by each thread
+	FastQueue<Workspace> workspace = new FastQueue<>(Workspace.class,true);
+
+	@Override
+	public void twoViewsGeometric(final double[] obsA, final double[] obsB, int numPoints,
+								  final Se3_F64 fromAtoB, final double[] foundInA) {
+		checkTwoViews(obsA, obsB, numPoints, fromAtoB, foundInA);
+		BoofConcurrency.loopBlocks(0, numPoints, minBlockSize, workspace, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace work, int i0, int i1) {
+				twoViews(obsA, obsB, fromAtoB, foundInA, true, i0, i1, work);
+			}
+		});
+	}
+
+	@Override
+	public void twoViewsDLT(final double[] obsA, final double[] obsB, int numPoints,
+							final Se3_F64 fromAtoB, final double[] foundInA) {
+		checkTwoViews(obsA, obsB, numPoints, fromAtoB, foundInA);
+		BoofConcurrency.loopBlocks(0, numPoints, minBlockSize, workspace, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace work, int i0, int i1) {
+				twoViews(obsA, obsB, fromAtoB, foundInA, false, i0, i1, work);
+			}
+		});
+	}
+
+	@Override
+	public void nViewsDLT(final double[] observations, final int[] viewIndexes, final int[] trackStart,
+						  int numTracks, final List<Se3_F64> worldToView, final double[] found) {
+		checkNViews(observations, viewIndexes, trackStart, numTracks, worldToView, found);
+		BoofConcurrency.loopBlocks(0, numTracks, minBlockSize, workspace, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace work, int i0, int i1) {
+				nViews(observations, viewIndexes, trackStart, worldToView, found, i0, i1, work);
+			}
+		});
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+}
@@ -25,6 +25,8 @@ import boofcv.abst.feature.describe.WrapDescribeBrief;
 import boofcv.abst.feature.describe.WrapDescribePixelRegionNCC;
 import boofcv.abst.feature.detdesc.DetectDescribeFusion;
 import boofcv.abst.feature.detdesc.DetectDescribePoint;
+import boofcv.abst.feature.detect.intensity.GeneralFeatureIntensity;
+import boofcv.abst.feature.detect.intensity.WrapperGradientCornerIntensity;
 import boofcv.abst.feature.detect.interest.ConfigFast;
 import boofcv.abst.feature.detect.interest.ConfigFastHessian;
 import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
@@ -46,10 +48,11 @@ import boofcv.alg.feature.detect.intensity.ShiTomasiCornerIntensity;
 import boofcv.alg.feature.detect.interest.EasyGeneralFeatureDetector;
 import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
-import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.combined.CombinedTrackerScalePoint;
 import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.alg.tracker.klt.PyramidKltTracker;
 import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
 import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
@@ -61,7 +64,6 @@ import boofcv.factory.feature.orientation.FactoryOrientation;
 import boofcv.factory.feature.orientation.FactoryOrientationAlgs;
 import boofcv.factory.filter.blur.FactoryBlurFilter;
 import boofcv.factory.filter.derivative.FactoryDerivative;
-import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.factory.tracker.FactoryTrackerAlg;
 import boofcv.factory.transform.pyramid.FactoryPyramid;
 import boofcv.struct.feature.*;
@@ -132,15 +134,16 @@ public class FactoryPointTracker {
 
 		GeneralFeatureDetector<I, D> detector = createShiTomasi(configExtract, derivType);
 
-		InterpolateRectangle<I> interpInput = FactoryInterpolation.<I>bilinearRectangle(imageType);
-		InterpolateRectangle<D> interpDeriv = FactoryInterpolation.<D>bilinearRectangle(derivType);
+		PyramidKltTracker<I,D> tracker = FactoryTrackerAlg.kltPyramid(config.config, imageType, derivType);
 
 		ImageGradient<I,D> gradient = FactoryDerivative.sobel(imageType, derivType);
 
 		PyramidDiscrete<I> pyramid = FactoryPyramid.discreteGaussian(config.pyramidScaling,-1,2,true, ImageType.single(imageType));
 
-		return new PointTrackerKltPyramid<>(config.config, config.templateRadius, pyramid, detector,
-				gradient, interpInput, interpDeriv, derivType);
+		PointTrackerKltPyramid<I,D> klt = new PointTrackerKltPyramid<>(config.config, config.templateRadius,
+				pyramid, detector, gradient, tracker, derivType);
+		klt.setFrameFactory(kltFrameFactory(config.pyramidScaling, imageType, derivType));
+		return klt;
 	}
 
 	/**
@@ -233,9 +236,6 @@ public class FactoryPointTracker {
 		if( derivType == null )
 			derivType = GImageDerivativeOps.getDerivativeType(imageType);
 
-		DescribePointBrief<I> brief = FactoryDescribePointAlgs.brief(FactoryBriefDefinition.gaussian2(new Random(123), 16, 512),
-				FactoryBlurFilter.gaussian(ImageType.single(imageType), 0, 4));
-
 		GeneralFeatureDetector<I, D> detectPoint = createShiTomasi(configExtract, derivType);
 		EasyGeneralFeatureDetector<I,D> easy = new EasyGeneralFeatureDetector<>(detectPoint, imageType, derivType);
 
@@ -244,8 +244,7 @@ public class FactoryPointTracker {
 		AssociateDescription2D<TupleDesc_B> association =
 				new AssociateDescTo2D<>(FactoryAssociation.greedy(score, maxAssociationError, true));
 
-		DdaManagerGeneralPoint<I,D,TupleDesc_B> manager =
-				new DdaManagerGeneralPoint<>(easy, new WrapDescribeBrief<>(brief, imageType), 1.0);
+		DdaFeatureManager<I,TupleDesc_B> manager = createManager(easy, createBrief(imageType), 1.0);
 
 		return new DetectDescribeAssociate<>(manager, association, false);
 	}
@@ -268,9 +267,6 @@ public class FactoryPointTracker {
 								   int maxAssociationError,
 								   Class<I> imageType )
 	{
-		DescribePointBrief<I> brief = FactoryDescribePointAlgs.brief(FactoryBriefDefinition.gaussian2(new Random(123), 16, 512),
-				FactoryBlurFilter.gaussian(ImageType.single(imageType), 0, 4));
-
 		GeneralFeatureDetector<I,D> corner = FactoryDetectPoint.createFast(configFast, configExtract, imageType);
 		EasyGeneralFeatureDetector<I,D> easy = new EasyGeneralFeatureDetector<>(corner, imageType, null);
 
@@ -280,8 +276,7 @@ public class FactoryPointTracker {
 				new AssociateDescTo2D<>(
 						FactoryAssociation.greedy(score, maxAssociationError, true));
 
-		DdaManagerGeneralPoint<I,D,TupleDesc_B> manager =
-				new DdaManagerGeneralPoint<>(easy, new WrapDescribeBrief<>(brief, imageType), 1.0);
+		DdaFeatureManager<I,TupleDesc_B> manager = createManager(easy, createBrief(imageType), 1.0);
 
 		return new DetectDescribeAssociate<>(manager, association, false);
 	}
@@ -304,10 +299,6 @@ public class FactoryPointTracker {
 		if( derivType == null )
 			derivType = GImageDerivativeOps.getDerivativeType(imageType);
 
-		int w = 2*describeRadius+1;
-
-		DescribePointPixelRegionNCC<I> alg = FactoryDescribePointAlgs.pixelRegionNCC(w, w, imageType);
-
 		GeneralFeatureDetector<I, D> corner = createShiTomasi(configExtract, derivType);
 		EasyGeneralFeatureDetector<I,D> easy = new EasyGeneralFeatureDetector<>(corner, imageType, derivType);
 
@@ -317,8 +308,7 @@ public class FactoryPointTracker {
 				new AssociateDescTo2D<>(
 						FactoryAssociation.greedy(score, Double.MAX_VALUE, true));
 
-		DdaManagerGeneralPoint<I,D,NccFeature> manager =
-				new DdaManagerGeneralPoint<>(easy, new WrapDescribePixelRegionNCC<>(alg, imageType), 1.0);
+		DdaFeatureManager<I,NccFeature> manager = createManager(easy, createNcc(describeRadius, imageType), 1.0);
 
 		return new DetectDescribeAssociate<>(manager, association, false);
 	}
@@ -510,6 +500,71 @@ public class FactoryPointTracker {
 	}
 
 
+	/**
+	 * Creates a tracker which uses the detect, describe, associate architecture.  If
+	 * {@link BoofConcurrency#USE_CONCURRENT} is true then features are described concurrently, with each thread
+	 * using its own describer.
+	 *
+	 * @see DdaManagerGeneralPoint_MT
+	 *
+	 * @param detector Feature detector
+	 * @param describe Creates a new instance of the region descriptor.
+	 * @param associate Description association.
+	 * @param scale Scale that features are described at
+	 * @param imageType Input image type.
+	 * @return tracker
+	 */
+	public static <I extends ImageGray<I>, D extends ImageGray<D>, Desc extends TupleDesc>
+	PointTracker<I> dda(GeneralFeatureDetector<I, D> detector,
+						DdaManagerGeneralPoint_MT.FactoryDescribe<I, Desc> describe,
+						AssociateDescription2D<Desc> associate,
+						double scale,
+						Class<I> imageType) {
+
+		EasyGeneralFeatureDetector<I,D> easy = new EasyGeneralFeatureDetector<>(detector, imageType, null);
+
+		DdaFeatureManager<I,Desc> manager = createManager(easy, describe, scale);
+
+		return new DetectDescribeAssociate<>(manager, associate, false);
+	}
+
+	/**
+	 * Creates a feature manager which detects and describes features.  If {@link BoofConcurrency#USE_CONCURRENT}
+	 * is true then features are described concurrently.
+	 */
+	private static <I extends ImageGray<I>, D extends ImageGray<D>, Desc extends TupleDesc>
+	DdaFeatureManager<I,Desc> createManager(EasyGeneralFeatureDetector<I,D> detector,
+											DdaManagerGeneralPoint_MT.FactoryDescribe<I, Desc> describe,
+											double scale) {
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new DdaManagerGeneralPoint_MT<>(detector, describe, scale);
+		return new DdaManagerGeneralPoint<>(detector, describe.create(), scale);
+	}
+
+	private static <I extends ImageGray<I>>
+	DdaManagerGeneralPoint_MT.FactoryDescribe<I,TupleDesc_B> createBrief( final Class<I> imageType ) {
+		return new DdaManagerGeneralPoint_MT.FactoryDescribe<I, TupleDesc_B>() {
+			@Override
+			public DescribeRegionPoint<I, TupleDesc_B> create() {
+				DescribePointBrief<I> brief = FactoryDescribePointAlgs.brief(FactoryBriefDefinition.gaussian2(new Random(123), 16, 512),
+						FactoryBlurFilter.gaussian(ImageType.single(imageType), 0, 4));
+				return new WrapDescribeBrief<>(brief, imageType);
+			}
+		};
+	}
+
+	private static <I extends ImageGray<I>>
+	DdaManagerGeneralPoint_MT.FactoryDescribe<I,NccFeature> createNcc( int describeRadius , final Class<I> imageType ) {
+		final int w = 2*describeRadius+1;
+		return new DdaManagerGeneralPoint_MT.FactoryDescribe<I, NccFeature>() {
+			@Override
+			public DescribeRegionPoint<I, NccFeature> create() {
+				DescribePointPixelRegionNCC<I> alg = FactoryDescribePointAlgs.pixelRegionNCC(w, w, imageType);
+				return new WrapDescribePixelRegionNCC<>(alg, imageType);
+			}
+		};
+	}
+
 	public static <I extends ImageGray<I>, D extends ImageGray<D>, Desc extends TupleDesc>
 	PointTracker<I> dda(GeneralFeatureDetector<I, D> detector,
 						DescribeRegionPoint<I, Desc> describe,
@@ -538,4 +593,32 @@ public class FactoryPointTracker {
 
 		return FactoryDetectPoint.createGeneral(cornerIntensity, config );
 	}
+
+	/**
+	 * Creates the image processing used by KLT trackers to prepare images ahead of time.  Must match
+	 * the pyramid, gradient, and detector used by {@link #klt(PkltConfig, ConfigGeneralDetector, Class, Class)}
+	 */
+	static <I extends ImageGray<I>, D extends ImageGray<D>>
+	PointTrackerKltPyramid.FrameFactory<I,D> kltFrameFactory( int[] pyramidScaling ,
+															  final Class<I> imageType , final Class<D> derivType )
+	{
+		final int[] scaling = pyramidScaling.clone();
+		return new PointTrackerKltPyramid.FrameFactory<I, D>() {
+			@Override
+			public PyramidDiscrete<I> createPyramid() {
+				return FactoryPyramid.discreteGaussian(scaling,-1,2,true, ImageType.single(imageType));
+			}
+
+			@Override
+			public ImageGradient<I, D> createGradient() {
+				return FactoryDerivative.sobel(imageType, derivType);
+			}
+
+			@Override
+			public GeneralFeatureIntensity<I, D> createIntensity() {
+				GradientCornerIntensity<D> cornerIntensity = FactoryIntensityPointAlg.shiTomasi(1, false, derivType);
+				return new WrapperGradientCornerIntensity<>(cornerIntensity);
+			}
+		};
+	}
 }
\ No newline at end of file
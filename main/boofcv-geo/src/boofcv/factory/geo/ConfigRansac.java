@@ -38,6 +38,16 @@ public class ConfigRansac implements Configuration {
 	 * Inlier threshold.
 	 */
 	public double inlierThreshold;
+	/**
+	 * If not null then each hypothesis is verified using a sequential probability ratio test and can be
+	 * abandoned after only a few points have been examined.
+	 */
+	public ConfigSprt sprt = null;
+	/**
+	 * If true then PROSAC sampling is used.  The input points must be sorted from best to worst quality,
+	 * e.g. by association score.
+	 */
+	public boolean prosac = false;
 
 	public ConfigRansac(int maxIterations, double inlierThreshold) {
 		this.maxIterations = maxIterations;
@@ -49,6 +59,7 @@ public class ConfigRansac implements Configuration {
 
 	@Override
 	public void checkValidity() {
-
+		if( sprt != null )
+			sprt.checkValidity();
 	}
 }
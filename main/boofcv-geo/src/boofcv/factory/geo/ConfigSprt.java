@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.factory.geo;
+
+import boofcv.alg.geo.robust.RansacSprt;
+import boofcv.struct.Configuration;
+
+/**
+ * Configuration for verifying RANSAC hypotheses with a sequential probability ratio test (SPRT).
+ * See {@link RansacSprt} for details.
+ *
+ * @author Peter Abeles
+ */
+public class ConfigSprt implements Configuration {
+	/**
+	 * Initial estimate of the probability that a point is consistent with a bad model
+	 */
+	public double delta = 0.05;
+	/**
+	 * Initial estimate of the fraction of points which are inliers
+	 */
+	public double epsilon = 0.2;
+	/**
+	 * Time to generate a hypothesis relative to the time to compute the distance of a single point
+	 */
+	public double modelCost = 200;
+
+	public ConfigSprt(double delta, double epsilon, double modelCost) {
+		this.delta = delta;
+		this.epsilon = epsilon;
+		this.modelCost = modelCost;
+	}
+
+	public ConfigSprt() {
+	}
+
+	@Override
+	public void checkValidity() {
+		if( delta <= 0 || delta >= 1 )
+			throw new IllegalArgumentException("delta must be between 0 and 1, exclusive");
+		if( epsilon <= 0 || epsilon >= 1 )
+			throw new IllegalArgumentException("epsilon must be between 0 and 1, exclusive");
+		if( modelCost <= 0 )
+			throw new IllegalArgumentException("modelCost must be more than zero");
+	}
+}
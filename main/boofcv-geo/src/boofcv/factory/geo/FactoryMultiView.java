@@ -19,7 +19,7 @@
 package boofcv.factory.geo;
 
 import boofcv.abst.geo.*;
-import boofcv.abst.geo.bundle.BundleAdjustmentCalibratedDense;
+import boofcv.abst.geo.bundle.BundleAdjustmentCalibratedSparse;
 import boofcv.abst.geo.f.*;
 import boofcv.abst.geo.h.LeastSquaresHomography;
 import boofcv.abst.geo.h.WrapHomographyLinear;
@@ -28,6 +28,7 @@ import boofcv.abst.geo.triangulate.*;
 import boofcv.abst.geo.trifocal.WrapTrifocalAlgebraicPoint7;
 import boofcv.abst.geo.trifocal.WrapTrifocalLinearPoint7;
 import boofcv.alg.geo.ModelObservationResidualN;
+import boofcv.alg.geo.bundle.CalibPoseAndPointSchurLM_MT;
 import boofcv.alg.geo.f.DistanceEpipolarConstraint;
 import boofcv.alg.geo.h.HomographyLinear4;
 import boofcv.alg.geo.h.HomographyResidualSampson;
@@ -36,7 +37,10 @@ import boofcv.alg.geo.pose.P3PFinsterwalder;
 import boofcv.alg.geo.pose.P3PGrunert;
 import boofcv.alg.geo.pose.PnPLepetitEPnP;
 import boofcv.alg.geo.pose.PoseFromPairLinear6;
+import boofcv.alg.geo.triangulate.TriangulateBatch;
+import boofcv.alg.geo.triangulate.TriangulateBatch_MT;
 import boofcv.alg.geo.trifocal.TrifocalAlgebraicPoint7;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.geo.AssociatedPair;
 import georegression.fitting.MotionTransformPoint;
 import georegression.fitting.se.FitSpecialEuclideanOps_F64;
@@ -56,14 +60,22 @@ import org.ddogleg.struct.FastQueue;
 public class FactoryMultiView {
 
 	/**
-	 * Creates bundle adjustment for a camera with a know and fixed intrinsic calibration
+	 * Creates bundle adjustment for a camera with a know and fixed intrinsic calibration.  The sparse
+	 * structure of the problem is exploited, allowing it to scale to thousands of views.  If
+	 * {@link BoofConcurrency#USE_CONCURRENT} is true then the residuals and normal equations are computed
+	 * concurrently.
+	 *
+	 * @see BundleAdjustmentCalibratedSparse
+	 * @see CalibPoseAndPointSchurLM_MT
 	 *
 	 * @param tol Convergence tolerance.  Try 1e-8
 	 * @param maxIterations Maximum number of iterations. Try 200 or more
 	 * @return Bundle Adjustment
 	 */
 	public static BundleAdjustmentCalibrated bundleCalibrated(double tol , int maxIterations) {
-		return new BundleAdjustmentCalibratedDense(tol,maxIterations);
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new BundleAdjustmentCalibratedSparse(new CalibPoseAndPointSchurLM_MT(tol,maxIterations));
+		return new BundleAdjustmentCalibratedSparse(tol,maxIterations);
 	}
 
 	/**
@@ -359,12 +371,16 @@ public class FactoryMultiView {
 
 	/**
 	 * Refines a pose solution to the PnP problem using non-linear least squares..
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.
 	 *
 	 * @param tol Convergence tolerance. Try 1e-8
 	 * @param maxIterations Maximum number of iterations.  Try 200
 	 */
 	public static RefinePnP refinePnP( double tol , int maxIterations ) {
-		return new PnPRefineRodrigues(tol,maxIterations);
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new PnPRefineRodrigues_MT(tol,maxIterations);
+		else
+			return new PnPRefineRodrigues(tol,maxIterations);
 	}
 
 	/**
@@ -446,4 +462,27 @@ public class FactoryMultiView {
 	public static RefineTriangulationCalibrated triangulateRefine( double convergenceTol, int maxIterations ) {
 		return new LeastSquaresTriangulateCalibrated(convergenceTol,maxIterations);
 	}
+
+	/**
+	 * Triangulates a large number of points stored in packed arrays.  If convergenceTol and maxIterations
+	 * are specified then each point is refined using Sampson error.
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.
+	 *
+	 * @see boofcv.alg.geo.triangulate.TriangulateBatch
+	 *
+	 * @param convergenceTol Tolerance for finishing optimization
+	 * @param maxIterations Maximum number of allowed iterations.  If &le; 0 then refinement is turned off.
+	 * @return Batch triangulation algorithm
+	 */
+	public static TriangulateBatch triangulateBatch( double convergenceTol, int maxIterations ) {
+		TriangulateBatch alg;
+		if( BoofConcurrency.USE_CONCURRENT )
+			alg = new TriangulateBatch_MT();
+		else
+			alg = new TriangulateBatch();
+
+		if( maxIterations > 0 )
+			alg.setRefine(convergenceTol, maxIterations);
+		return alg;
+	}
 }
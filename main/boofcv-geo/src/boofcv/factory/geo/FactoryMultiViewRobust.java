@@ -26,7 +26,11 @@ import boofcv.alg.geo.pose.PnPDistanceReprojectionSq;
 import boofcv.alg.geo.robust.DistanceHomographySq;
 import boofcv.alg.geo.robust.DistanceSe3SymmetricSq;
 import boofcv.alg.geo.robust.GenerateHomographyLinear;
+import boofcv.alg.geo.robust.RansacProsac;
+import boofcv.alg.geo.robust.RansacSprt;
+import boofcv.alg.geo.robust.Ransac_MT;
 import boofcv.alg.geo.robust.Se3FromEssentialGenerator;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.calib.CameraPinholeRadial;
 import boofcv.struct.geo.AssociatedPair;
 import boofcv.struct.geo.Point2D3D;
@@ -82,24 +86,38 @@ public class FactoryMultiViewRobust {
 	 *
 	 * <p>See code for all the details.</p>
 	 *
+	 * <p>If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.</p>
+	 *
 	 * @param pnp PnP parameters.  Can't be null.
 	 * @param ransac Parameters for RANSAC.  Can't be null.
 	 * @return Robust Se3_F64 estimator
 	 */
-	public static Ransac<Se3_F64, Point2D3D> pnpRansac( ConfigPnP pnp,
+	public static Ransac<Se3_F64, Point2D3D> pnpRansac( final ConfigPnP pnp,
 														ConfigRansac ransac)
 	{
-		Estimate1ofPnP estimatorPnP = FactoryMultiView.computePnP_1(pnp.which, -1, pnp.numResolve);
-		DistanceModelMonoPixels<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
-		distance.setIntrinsic(pnp.intrinsic.fx,pnp.intrinsic.fy,pnp.intrinsic.skew);
 		ModelManagerSe3_F64 manager = new ModelManagerSe3_F64();
-		EstimatorToGenerator<Se3_F64,Point2D3D> generator =
-				new EstimatorToGenerator<>(estimatorPnP);
 
 		// convert from pixels to pixels squared
 		double threshold = ransac.inlierThreshold*ransac.inlierThreshold;
 
-		return new Ransac<>(ransac.randSeed, manager, generator, distance, ransac.maxIterations, threshold);
+		Ransac_MT.FactoryGenerator<Se3_F64,Point2D3D> generator = new Ransac_MT.FactoryGenerator<Se3_F64,Point2D3D>() {
+			@Override
+			public ModelGenerator<Se3_F64, Point2D3D> create() {
+				Estimate1ofPnP estimatorPnP = FactoryMultiView.computePnP_1(pnp.which, -1, pnp.numResolve);
+				return new EstimatorToGenerator<>(estimatorPnP);
+			}
+		};
+
+		Ransac_MT.FactoryDistance<Se3_F64,Point2D3D> distance = new Ransac_MT.FactoryDistance<Se3_F64,Point2D3D>() {
+			@Override
+			public DistanceFromModel<Se3_F64, Point2D3D> create() {
+				DistanceModelMonoPixels<Se3_F64,Point2D3D> distance = new PnPDistanceReprojectionSq();
+				distance.setIntrinsic(pnp.intrinsic.fx,pnp.intrinsic.fy,pnp.intrinsic.skew);
+				return distance;
+			}
+		};
+
+		return createRansac(ransac, manager, generator, distance, threshold);
 	}
 
 	/**
@@ -163,52 +181,72 @@ public class FactoryMultiViewRobust {
 	 *
 	 * <p>See code for all the details.</p>
 	 *
+	 * <p>If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.</p>
+	 *
 	 * @param essential Essential matrix estimation parameters.  Can't be null.
 	 * @param ransac Parameters for RANSAC.  Can't be null.
 	 * @return Robust Se3_F64 estimator
 	 */
-	public static Ransac<Se3_F64, AssociatedPair> essentialRansac( ConfigEssential essential,
+	public static Ransac<Se3_F64, AssociatedPair> essentialRansac( final ConfigEssential essential,
 																   ConfigRansac ransac ) {
 
 		essential.checkValidity();
 		ransac.checkValidity();
 
-		Estimate1ofEpipolar essentialAlg = FactoryMultiView.
-				computeEssential_1(essential.which, essential.numResolve);
-
-		return epipolarRansac(essentialAlg, essential.intrinsic, ransac);
+		Ransac_MT.FactoryGenerator<Se3_F64,AssociatedPair> generator =
+				new Ransac_MT.FactoryGenerator<Se3_F64,AssociatedPair>() {
+			@Override
+			public ModelGenerator<Se3_F64, AssociatedPair> create() {
+				Estimate1ofEpipolar essentialAlg = FactoryMultiView.
+						computeEssential_1(essential.which, essential.numResolve);
+				TriangulateTwoViewsCalibrated triangulate = FactoryMultiView.triangulateTwoGeometric();
+				return new Se3FromEssentialGenerator(essentialAlg, triangulate);
+			}
+		};
+
+		return epipolarRansac(generator, essential.intrinsic, ransac);
 	}
 
-	public static Ransac<Se3_F64, AssociatedPair> fundamentalRansac( ConfigFundamental essential,
+	public static Ransac<Se3_F64, AssociatedPair> fundamentalRansac( final ConfigFundamental essential,
 																	 ConfigRansac ransac ) {
 
 		essential.checkValidity();
 		ransac.checkValidity();
 
-		Estimate1ofEpipolar essentialAlg = FactoryMultiView.
-				computeFundamental_1(essential.which, essential.numResolve);
-
-		return epipolarRansac(essentialAlg, essential.intrinsic, ransac);
+		Ransac_MT.FactoryGenerator<Se3_F64,AssociatedPair> generator =
+				new Ransac_MT.FactoryGenerator<Se3_F64,AssociatedPair>() {
+			@Override
+			public ModelGenerator<Se3_F64, AssociatedPair> create() {
+				Estimate1ofEpipolar essentialAlg = FactoryMultiView.
+						computeFundamental_1(essential.which, essential.numResolve);
+				TriangulateTwoViewsCalibrated triangulate = FactoryMultiView.triangulateTwoGeometric();
+				return new Se3FromEssentialGenerator(essentialAlg, triangulate);
+			}
+		};
+
+		return epipolarRansac(generator, essential.intrinsic, ransac);
 	}
 
-	private static Ransac<Se3_F64, AssociatedPair> epipolarRansac(Estimate1ofEpipolar epipolar,
-																 CameraPinholeRadial intrinsic,
+	private static Ransac<Se3_F64, AssociatedPair> epipolarRansac(Ransac_MT.FactoryGenerator<Se3_F64,AssociatedPair> generator,
+																 final CameraPinholeRadial intrinsic,
 																 ConfigRansac ransac ) {
 
-		TriangulateTwoViewsCalibrated triangulate = FactoryMultiView.triangulateTwoGeometric();
 		ModelManager<Se3_F64> manager = new ModelManagerSe3_F64();
-		ModelGenerator<Se3_F64, AssociatedPair> generateEpipolarMotion =
-				new Se3FromEssentialGenerator(epipolar, triangulate);
 
-		DistanceFromModel<Se3_F64, AssociatedPair> distanceSe3 =
-				new DistanceSe3SymmetricSq(triangulate,
+		Ransac_MT.FactoryDistance<Se3_F64,AssociatedPair> distance =
+				new Ransac_MT.FactoryDistance<Se3_F64,AssociatedPair>() {
+			@Override
+			public DistanceFromModel<Se3_F64, AssociatedPair> create() {
+				TriangulateTwoViewsCalibrated triangulate = FactoryMultiView.triangulateTwoGeometric();
+				return new DistanceSe3SymmetricSq(triangulate,
 						intrinsic.fx, intrinsic.fy, intrinsic.skew,
 						intrinsic.fx, intrinsic.fy, intrinsic.skew);
+			}
+		};
 
 		double ransacTOL = ransac.inlierThreshold * ransac.inlierThreshold * 2.0;
 
-		return new Ransac<>(ransac.randSeed, manager, generateEpipolarMotion, distanceSe3,
-				ransac.maxIterations, ransacTOL);
+		return createRansac(ransac, manager, generator, distance, ransacTOL);
 	}
 
 	/**
@@ -251,6 +289,8 @@ public class FactoryMultiViewRobust {
 	 *
 	 * <p>See code for all the details.</p>
 	 *
+	 * <p>If {@link BoofConcurrency#USE_CONCURRENT} is true then a concurrent implementation is returned.</p>
+	 *
 	 * @param homography Homography estimation parameters.  If null default is used.
 	 * @param ransac Parameters for RANSAC.  Can't be null.
 	 * @return Homography estimator
@@ -261,13 +301,57 @@ public class FactoryMultiViewRobust {
 		if( homography == null )
 			homography = new ConfigHomography();
 
+		final boolean normalize = homography.normalize;
+
 		ModelManager<Homography2D_F64> manager = new ModelManagerHomography2D_F64();
-		GenerateHomographyLinear modelFitter = new GenerateHomographyLinear(homography.normalize);
-		DistanceHomographySq distance = new DistanceHomographySq();
+		Ransac_MT.FactoryGenerator<Homography2D_F64,AssociatedPair> modelFitter =
+				new Ransac_MT.FactoryGenerator<Homography2D_F64,AssociatedPair>() {
+			@Override
+			public ModelGenerator<Homography2D_F64, AssociatedPair> create() {
+				return new GenerateHomographyLinear(normalize);
+			}
+		};
+		Ransac_MT.FactoryDistance<Homography2D_F64,AssociatedPair> distance =
+				new Ransac_MT.FactoryDistance<Homography2D_F64,AssociatedPair>() {
+			@Override
+			public DistanceFromModel<Homography2D_F64, AssociatedPair> create() {
+				return new DistanceHomographySq();
+			}
+		};
 
 		double ransacTol = ransac.inlierThreshold*ransac.inlierThreshold;
 
-		return new Ransac<>
-				(ransac.randSeed, manager, modelFitter, distance, ransac.maxIterations, ransacTol);
+		return createRansac(ransac, manager, modelFitter, distance, ransacTol);
+	}
+
+	/**
+	 * Creates the RANSAC implementation specified by the configuration.  If PROSAC or SPRT is requested then
+	 * {@link RansacProsac} or {@link RansacSprt} is used.  Otherwise {@link Ransac} or {@link Ransac_MT}
+	 * depending on {@link BoofConcurrency#USE_CONCURRENT}.  The factories are used to create a generator and
+	 * distance function for each thread.
+	 */
+	private static <Model,Point> Ransac<Model,Point>
+	createRansac( ConfigRansac ransac , ModelManager<Model> manager ,
+				  Ransac_MT.FactoryGenerator<Model,Point> generator ,
+				  Ransac_MT.FactoryDistance<Model,Point> distance ,
+				  double threshold )
+	{
+		if( ransac.prosac || ransac.sprt != null ) {
+			RansacSprt<Model,Point> alg;
+			if( ransac.prosac )
+				alg = new RansacProsac<>(ransac.randSeed, manager, generator.create(), distance.create(),
+						ransac.maxIterations, threshold);
+			else
+				alg = new RansacSprt<>(ransac.randSeed, manager, generator.create(), distance.create(),
+						ransac.maxIterations, threshold);
+			if( ransac.sprt != null )
+				alg.configureSprt(ransac.sprt.delta, ransac.sprt.epsilon, ransac.sprt.modelCost);
+			return alg;
+		} else if( BoofConcurrency.USE_CONCURRENT )
+			return new Ransac_MT<>(ransac.randSeed, manager, generator, distance,
+					ransac.maxIterations, threshold);
+		else
+			return new Ransac<>(ransac.randSeed, manager, generator.create(), distance.create(),
+					ransac.maxIterations, threshold);
 	}
 }
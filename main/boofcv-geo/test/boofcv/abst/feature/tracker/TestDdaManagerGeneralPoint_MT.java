@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.feature.tracker;
+
+import boofcv.abst.feature.associate.AssociateDescTo2D;
+import boofcv.abst.feature.associate.AssociateDescription2D;
+import boofcv.abst.feature.associate.ScoreAssociateHamming_B;
+import boofcv.abst.feature.associate.WrapAssociateGreedy;
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.describe.WrapDescribeBrief;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.alg.feature.associate.AssociateGreedy;
+import boofcv.alg.feature.associate.AssociateGreedy_MT;
+import boofcv.alg.feature.describe.DescribePointBrief;
+import boofcv.alg.feature.describe.brief.FactoryBriefDefinition;
+import boofcv.alg.feature.detect.interest.EasyGeneralFeatureDetector;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.describe.FactoryDescribePointAlgs;
+import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
+import boofcv.factory.filter.blur.FactoryBlurFilter;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDdaManagerGeneralPoint_MT extends StandardPointTracker<GrayF32> {
+
+	int maxThreads;
+
+	public TestDdaManagerGeneralPoint_MT() {
+		super(true, false);
+	}
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Override
+	public PointTracker<GrayF32> createTracker() {
+		return createTracker(true);
+	}
+
+	private DetectDescribeAssociate<GrayF32,TupleDesc_B> createTracker( boolean concurrent ) {
+		GeneralFeatureDetector<GrayF32,GrayF32> corner =
+				FactoryDetectPoint.createShiTomasi(new ConfigGeneralDetector(-1,2, 0), false, GrayF32.class);
+
+		ScoreAssociateHamming_B score = new ScoreAssociateHamming_B();
+
+		AssociateGreedy<TupleDesc_B> greedy;
+		DdaManagerGeneralPoint<GrayF32,GrayF32,TupleDesc_B> manager;
+
+		EasyGeneralFeatureDetector<GrayF32,GrayF32> easy = new
+				EasyGeneralFeatureDetector<>(corner, GrayF32.class, GrayF32.class);
+
+		DdaManagerGeneralPoint_MT.FactoryDescribe<GrayF32,TupleDesc_B> factory =
+				new DdaManagerGeneralPoint_MT.FactoryDescribe<GrayF32, TupleDesc_B>() {
+			@Override
+			public DescribeRegionPoint<GrayF32, TupleDesc_B> create() {
+				DescribePointBrief<GrayF32> brief =
+						FactoryDescribePointAlgs.brief(FactoryBriefDefinition.gaussian2(new Random(123), 16, 512),
+								FactoryBlurFilter.gaussian(ImageType.single(GrayF32.class), 0, 4));
+				return new WrapDescribeBrief<>(brief,GrayF32.class);
+			}
+		};
+
+		if( concurrent ) {
+			DdaManagerGeneralPoint_MT<GrayF32,GrayF32,TupleDesc_B> managerMT =
+					new DdaManagerGeneralPoint_MT<>(easy, factory, 2);
+			managerMT.setMinBlockSize(5);
+			manager = managerMT;
+			AssociateGreedy_MT<TupleDesc_B> greedyMT = new AssociateGreedy_MT<>(score, true);
+			greedyMT.setMinBlockSize(5);
+			greedy = greedyMT;
+		} else {
+			manager = new DdaManagerGeneralPoint<>(easy, factory.create(), 2);
+			greedy = new AssociateGreedy<>(score, true);
+		}
+		greedy.setMaxFitError(400);
+
+		AssociateDescription2D<TupleDesc_B> association =
+				new AssociateDescTo2D<>(new WrapAssociateGreedy<>(greedy));
+
+		return new DetectDescribeAssociate<>(manager, association, false);
+	}
+
+	/**
+	 * Track a moving image and compare against the single threaded tracker
+	 */
+	@Test
+	public void compareToSingle() {
+		DetectDescribeAssociate<GrayF32,TupleDesc_B> single = createTracker(false);
+		DetectDescribeAssociate<GrayF32,TupleDesc_B> alg = createTracker(true);
+
+		GrayF32 shifted = image.createSameShape();
+
+		for (int frame = 0; frame < 4; frame++) {
+			ImageMiscOps.fill(shifted, 0);
+			ImageMiscOps.copy(0, 0, frame, frame, width - frame, height - frame, image, shifted);
+
+			single.process(shifted);
+			alg.process(shifted);
+			single.spawnTracks();
+			alg.spawnTracks();
+
+			List<PointTrack> expected = single.getAllTracks(null);
+			List<PointTrack> found = alg.getAllTracks(null);
+			assertTrue(expected.size() > 20);
+			assertEquals(expected.size(), found.size());
+			for (int i = 0; i < expected.size(); i++) {
+				PointTrack e = expected.get(i);
+				PointTrack f = found.get(i);
+				assertEquals(e.featureId, f.featureId);
+				assertEquals(e.x, f.x, 0);
+				assertEquals(e.y, f.y, 0);
+			}
+			assertEquals(single.getActiveTracks(null).size(), alg.getActiveTracks(null).size());
+		}
+	}
+}
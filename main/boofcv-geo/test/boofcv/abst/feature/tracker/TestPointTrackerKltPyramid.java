@@ -25,6 +25,8 @@ import boofcv.factory.feature.tracker.FactoryPointTracker;
 import boofcv.struct.image.GrayF32;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -111,6 +113,42 @@ public class TestPointTrackerKltPyramid extends StandardPointTracker<GrayF32> {
 		assertEquals(1,alg.unused.size());
 	}
 
+	@Test
+	public void statistics() {
+		PointTrackerKltPyramid<GrayF32,GrayF32> alg =
+				(PointTrackerKltPyramid<GrayF32,GrayF32>)createTracker();
+		alg.setProfile(true);
+
+		alg.process(image);
+		alg.spawnTracks();
+
+		int total = alg.active.size();
+		assertEquals(total,alg.getTotalSpawned());
+		assertEquals(0,alg.getTotalDropped());
+
+		alg.process(image);
+		assertEquals(alg.active.size(),alg.getTotalFaults(KltTrackFault.SUCCESS));
+
+		// drastically change the image causing tracks to be dropped
+		GImageMiscOps.fill(image, 0);
+		alg.process(image);
+
+		long sumFaults = 0;
+		for( KltTrackFault f : KltTrackFault.values() ) {
+			sumFaults += alg.getTotalFaults(f);
+		}
+		assertEquals(2*total,sumFaults);
+		assertEquals(alg.dropped.size(),alg.getTotalDropped());
+		assertTrue(alg.getTotalDropped() > 0);
+		assertTrue(alg.getLayerTime()[0] > 0);
+
+		alg.resetStatistics();
+		assertEquals(0,alg.getTotalSpawned());
+		assertEquals(0,alg.getTotalDropped());
+		assertEquals(0,alg.getTotalFaults(KltTrackFault.SUCCESS));
+		assertEquals(0,alg.getLayerTime()[0]);
+	}
+
 	@Test
 	public void addTrack() {
 		PointTrackerKltPyramid<GrayF32,GrayF32> alg =
@@ -131,6 +169,49 @@ public class TestPointTrackerKltPyramid extends StandardPointTracker<GrayF32> {
 		}
 	}
 
+	/**
+	 * Preparing the next image while the current one is being processed should produce the same tracks as
+	 * processing the images directly
+	 */
+	@Test
+	public void lookAhead_compareToProcess() {
+		PointTrackerKltPyramid<GrayF32,GrayF32> expected =
+				(PointTrackerKltPyramid<GrayF32,GrayF32>)createTracker();
+		PointTrackerKltPyramid<GrayF32,GrayF32> found =
+				(PointTrackerKltPyramid<GrayF32,GrayF32>)createTracker();
+
+		GrayF32[] images = new GrayF32[4];
+		for (int i = 0; i < images.length; i++) {
+			images[i] = image.createSameShape();
+			GImageMiscOps.copy(0,0,i,0,image.width-i,image.height,image,images[i]);
+		}
+
+		PointTrackerLookAhead.Frame[] frames = {found.createFrame(),found.createFrame()};
+		found.prepare(images[0],frames[0]);
+		for (int i = 0; i < images.length; i++) {
+			PointTrackerLookAhead.Frame current = frames[i%2];
+			if( i+1 < images.length )
+				found.prepare(images[i+1],frames[(i+1)%2]);
+
+			expected.process(images[i]);
+			found.process(current);
+
+			expected.spawnTracks();
+			found.spawnTracks();
+
+			List<PointTrack> tracksA = expected.getActiveTracks(null);
+			List<PointTrack> tracksB = found.getActiveTracks(null);
+			assertTrue(tracksA.size() > 0);
+			assertEquals(tracksA.size(), tracksB.size());
+			for (int j = 0; j < tracksA.size(); j++) {
+				assertEquals(tracksA.get(j).featureId, tracksB.get(j).featureId);
+				assertEquals(0, tracksA.get(j).distance(tracksB.get(j)), 1e-8);
+			}
+			assertEquals(expected.getNewTracks(null).size(), found.getNewTracks(null).size());
+			assertEquals(expected.getDroppedTracks(null).size(), found.getDroppedTracks(null).size());
+		}
+	}
+
 	/**
 	 * The center of tracks should all be inside the image after process() has been called
 	 */
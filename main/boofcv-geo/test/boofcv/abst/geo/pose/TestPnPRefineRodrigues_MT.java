@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.geo.pose;
+
+import boofcv.alg.geo.pose.CommonMotionNPoint;
+import boofcv.concurrency.BoofConcurrency;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.se.Se3_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPnPRefineRodrigues_MT extends CommonMotionNPoint {
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		Se3_F64 motion = new Se3_F64();
+		motion.getR().set(ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ, 0.05, -0.03, 0.02,null));
+		motion.getT().set(0.1,-0.1,0.01);
+
+		generateScene(300,motion,false);
+
+		PnPRefineRodrigues expected = new PnPRefineRodrigues(1e-20,500);
+		PnPRefineRodrigues_MT alg = new PnPRefineRodrigues_MT(1e-20,500);
+
+		Se3_F64 n = motion.copy();
+		n.getT().setX(0);
+
+		Se3_F64 foundExpected = new Se3_F64();
+		Se3_F64 found = new Se3_F64();
+		assertTrue(expected.fitModel(pointPose, n, foundExpected));
+		assertTrue(alg.fitModel(pointPose, n, found));
+
+		assertEquals(motion.getT().getX(),found.getX(),1e-5);
+		assertEquals(motion.getT().getY(),found.getY(),1e-5);
+		assertEquals(motion.getT().getZ(),found.getZ(),1e-5);
+
+		assertEquals(foundExpected.getX(),found.getX(),0);
+		assertEquals(foundExpected.getY(),found.getY(),0);
+		assertEquals(foundExpected.getZ(),found.getZ(),0);
+		for( int i = 0; i < 9; i++ ) {
+			assertEquals(foundExpected.getR().data[i],found.getR().data[i],0);
+		}
+	}
+}
@@ -18,12 +18,19 @@
 
 package boofcv.alg.distort;
 
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F64;
 import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point2D_F64;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -36,8 +43,23 @@ public abstract class GeneralLensDistortionNarrowFOVChecks {
 	protected float tol_F32 = 1e-3f;
 	protected double tol_F64 = 1e-5;
 
+	protected Random rand = new Random(234);
+
+	int originalThreads;
+
 	public abstract LensDistortionNarrowFOV create();
 
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
 	@Test
 	public void forwardsBackwards_F32() {
 		LensDistortionNarrowFOV alg = create();
@@ -103,4 +125,110 @@ public abstract class GeneralLensDistortionNarrowFOVChecks {
 			assertEquals(inputY, found.y, scale * tol_F64);
 		}
 	}
+
+	/**
+	 * Batch transforms should produce identical results to transforming one point at a time
+	 */
+	@Test
+	public void batch_F32() {
+		LensDistortionNarrowFOV alg = create();
+
+		for (int i = 0; i < 8; i++) {
+			boolean inputPixel = i % 2 == 0;
+			boolean outputPixel = (i / 2) % 2 == 0;
+
+			Point2Transform2_F32 transform = i < 4 ?
+					alg.distort_F32(inputPixel, outputPixel) : alg.undistort_F32(inputPixel, outputPixel);
+
+			checkBatch(transform, LensDistortionOps.batch(transform), inputPixel ? 40 : 0.1);
+
+			// blocks are small enough to be split across threads
+			Point2TransformBatch_F32_MT concurrent = new Point2TransformBatch_F32_MT(LensDistortionOps.batch(transform));
+			concurrent.setMinBlockSize(5);
+			checkBatch(transform, concurrent, inputPixel ? 40 : 0.1);
+		}
+	}
+
+	private void checkBatch( Point2Transform2_F32 transform , Point2TransformBatch2_F32 batch , double scale ) {
+		int N = 50;
+		float[] input = new float[N*2];
+		for (int i = 0; i < input.length; i++) {
+			input[i] = (float)(rand.nextGaussian()*scale);
+		}
+
+		// out-of-place with an offset
+		float[] output = new float[N*2];
+		batch.compute(input, output, 2, N-5);
+
+		// in-place
+		float[] inplace = input.clone();
+		batch.compute(inplace, inplace, 0, N);
+
+		Point2D_F32 expected = new Point2D_F32();
+		for (int i = 0; i < N; i++) {
+			transform.compute(input[i*2], input[i*2+1], expected);
+			assertEquals(expected.x, inplace[i*2], 0);
+			assertEquals(expected.y, inplace[i*2+1], 0);
+			if( i >= 2 && i < N-3 ) {
+				assertEquals(expected.x, output[i*2], 0);
+				assertEquals(expected.y, output[i*2+1], 0);
+			} else {
+				assertEquals(0, output[i*2], 0);
+				assertEquals(0, output[i*2+1], 0);
+			}
+		}
+	}
+
+	/**
+	 * Batch transforms should produce identical results to transforming one point at a time
+	 */
+	@Test
+	public void batch_F64() {
+		LensDistortionNarrowFOV alg = create();
+
+		for (int i = 0; i < 8; i++) {
+			boolean inputPixel = i % 2 == 0;
+			boolean outputPixel = (i / 2) % 2 == 0;
+
+			Point2Transform2_F64 transform = i < 4 ?
+					alg.distort_F64(inputPixel, outputPixel) : alg.undistort_F64(inputPixel, outputPixel);
+
+			checkBatch(transform, LensDistortionOps.batch(transform), inputPixel ? 40 : 0.1);
+
+			// blocks are small enough to be split across threads
+			Point2TransformBatch_F64_MT concurrent = new Point2TransformBatch_F64_MT(LensDistortionOps.batch(transform));
+			concurrent.setMinBlockSize(5);
+			checkBatch(transform, concurrent, inputPixel ? 40 : 0.1);
+		}
+	}
+
+	private void checkBatch( Point2Transform2_F64 transform , Point2TransformBatch2_F64 batch , double scale ) {
+		int N = 50;
+		double[] input = new double[N*2];
+		for (int i = 0; i < input.length; i++) {
+			input[i] = (double)(rand.nextGaussian()*scale);
+		}
+
+		// out-of-place with an offset
+		double[] output = new double[N*2];
+		batch.compute(input, output, 2, N-5);
+
+		// in-place
+		double[] inplace = input.clone();
+		batch.compute(inplace, inplace, 0, N);
+
+		Point2D_F64 expected = new Point2D_F64();
+		for (int i = 0; i < N; i++) {
+			transform.compute(input[i*2], input[i*2+1], expected);
+			assertEquals(expected.x, inplace[i*2], 0);
+			assertEquals(expected.y, inplace[i*2+1], 0);
+			if( i >= 2 && i < N-3 ) {
+				assertEquals(expected.x, output[i*2], 0);
+				assertEquals(expected.y, output[i*2+1], 0);
+			} else {
+				assertEquals(0, output[i*2], 0);
+				assertEquals(0, output[i*2+1], 0);
+			}
+		}
+	}
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort.radtan;
+
+import boofcv.alg.distort.GeneralLensDistortionNarrowFOVChecks;
+import boofcv.alg.distort.LensDistortionNarrowFOV;
+import boofcv.struct.calib.CameraPinholeRadial;
+import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2Transform2_F64;
+import georegression.struct.point.Point2D_F32;
+import georegression.struct.point.Point2D_F64;
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestLensDistortionRadialTangentialGrid extends GeneralLensDistortionNarrowFOVChecks
+{
+	CameraPinholeRadial param = new CameraPinholeRadial(500,550,0.001,400,450,1000,800).
+			fsetRadial(0.02, 0.005).fsetTangental(0.001,-0.002);
+
+	double tolerance = 0.005;
+
+	public TestLensDistortionRadialTangentialGrid() {
+		// the grid is an approximation so the round trip isn't as precise
+		tol_F32 = 1e-3f;
+		tol_F64 = 1e-3;
+	}
+
+	@Override
+	public LensDistortionNarrowFOV create() {
+		return new LensDistortionRadialTangentialGrid(param,tolerance);
+	}
+
+	/**
+	 * Compare against the exact solution inside the image
+	 */
+	@Test
+	public void compareToExact_F64() {
+		LensDistortionRadialTangential exact = new LensDistortionRadialTangential(param);
+		LensDistortionNarrowFOV alg = create();
+
+		for( boolean pixelOut : new boolean[]{true,false}) {
+			Point2Transform2_F64 a = exact.undistort_F64(true,pixelOut);
+			Point2Transform2_F64 b = alg.undistort_F64(true,pixelOut);
+
+			// error is specified in pixels
+			double scale = pixelOut ? 1 : 1.0/param.fy;
+
+			Point2D_F64 expected = new Point2D_F64();
+			Point2D_F64 found = new Point2D_F64();
+			for (int i = 0; i < 500; i++) {
+				double x = rand.nextDouble()*(param.width-1);
+				double y = rand.nextDouble()*(param.height-1);
+				a.compute(x,y,expected);
+				b.compute(x,y,found);
+				assertTrue(expected.distance(found) <= tolerance*scale);
+			}
+		}
+	}
+
+	@Test
+	public void compareToExact_F32() {
+		LensDistortionRadialTangential exact = new LensDistortionRadialTangential(param);
+		LensDistortionNarrowFOV alg = create();
+
+		for( boolean pixelOut : new boolean[]{true,false}) {
+			Point2Transform2_F32 a = exact.undistort_F32(true,pixelOut);
+			Point2Transform2_F32 b = alg.undistort_F32(true,pixelOut);
+
+			double scale = pixelOut ? 1 : 1.0/param.fy;
+
+			Point2D_F32 expected = new Point2D_F32();
+			Point2D_F32 found = new Point2D_F32();
+			for (int i = 0; i < 500; i++) {
+				float x = rand.nextFloat()*(param.width-1);
+				float y = rand.nextFloat()*(param.height-1);
+				a.compute(x,y,expected);
+				b.compute(x,y,found);
+				assertTrue(expected.distance(found) <= tolerance*scale*1.1);
+			}
+		}
+	}
+
+	/**
+	 * The grid should only be computed once
+	 */
+	@Test
+	public void cached() {
+		LensDistortionNarrowFOV alg = create();
+
+		assertTrue(alg.undistort_F64(true,true) == alg.undistort_F64(true,true));
+		assertTrue(alg.undistort_F64(true,false) != alg.undistort_F64(true,true));
+		assertTrue(alg.undistort_F32(true,false) == alg.undistort_F32(true,false));
+	}
+}
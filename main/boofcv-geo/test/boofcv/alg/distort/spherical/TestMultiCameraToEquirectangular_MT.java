@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort.spherical;
+
+import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.distort.LensDistortionWideFOV;
+import boofcv.alg.distort.universal.LensDistortionUniversalOmni;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.distort.FactoryDistort;
+import boofcv.struct.calib.CameraUniversalOmni;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedF32;
+import boofcv.testing.BoofTesting;
+import georegression.geometry.ConvertRotation3D_F32;
+import georegression.misc.GrlConstants;
+import georegression.struct.EulerType;
+import georegression.struct.se.Se3_F32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMultiCameraToEquirectangular_MT {
+
+	Random rand = new Random(234);
+
+	int inputWidth = 100;
+	int inputHeight = 90;
+
+	int equiWidth = 160;
+	int equiHeight = 80;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		compareToSingle(ImageType.single(GrayF32.class));
+		compareToSingle(ImageType.pl(3,GrayF32.class));
+		compareToSingle(ImageType.il(2, InterleavedF32.class));
+	}
+
+	private <T extends ImageBase<T>> void compareToSingle( final ImageType<T> imageType ) {
+		MultiCameraToEquirectangular_MT.FactoryImageDistort<T> factory =
+				new MultiCameraToEquirectangular_MT.FactoryImageDistort<T>() {
+			@Override
+			public ImageDistort<T, T> create() {
+				return FactoryDistort.distort(false, InterpolationType.BILINEAR, BorderType.ZERO,imageType,imageType);
+			}
+		};
+
+		MultiCameraToEquirectangular<T> expected =
+				new MultiCameraToEquirectangular<>(factory.create(),equiWidth,equiHeight,imageType);
+		MultiCameraToEquirectangular_MT<T> alg =
+				new MultiCameraToEquirectangular_MT<>(factory,equiWidth,equiHeight,imageType);
+		alg.setMinBlockRows(5);
+
+		// two fisheye cameras pointing in opposite directions
+		Se3_F32 front = new Se3_F32();
+		Se3_F32 back = new Se3_F32();
+		ConvertRotation3D_F32.eulerToMatrix(EulerType.XYZ, 0, GrlConstants.F_PI, 0,back.R);
+
+		for( MultiCameraToEquirectangular<T> a : new MultiCameraToEquirectangular[]{expected,alg}) {
+			a.addCamera(front, createFisheye(), inputWidth, inputHeight);
+			a.addCamera(back, createFisheye(), inputWidth, inputHeight);
+		}
+		// sanity check to make sure the cameras see part of the sphere
+		assertTrue(ImageStatistics.sum(alg.getMask(0)) > 100);
+		assertTrue(ImageStatistics.sum(alg.getMask(1)) > 100);
+
+		// process several frames to make sure buffers are correctly reused
+		for (int frame = 0; frame < 2; frame++) {
+			List<T> images = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				T image = imageType.createImage(inputWidth, inputHeight);
+				GImageMiscOps.fillUniform(image, rand, 0, 255);
+				images.add(image);
+			}
+
+			expected.render(images);
+			alg.render(images);
+
+			BoofTesting.assertEquals(expected.getRenderedImage(), alg.getRenderedImage(), 0);
+		}
+	}
+
+	private LensDistortionWideFOV createFisheye() {
+		CameraUniversalOmni model = new CameraUniversalOmni(2);
+		model.fsetK(30,30,0,inputWidth/2,inputHeight/2,inputWidth,inputHeight);
+		model.fsetMirror(1.0);
+		return new LensDistortionUniversalOmni(model);
+	}
+}
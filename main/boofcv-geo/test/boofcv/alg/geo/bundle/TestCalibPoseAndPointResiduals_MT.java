@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointResiduals_MT {
+
+	Random rand = new Random(234);
+	int numViews = 12;
+	int numPoints = 8;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,numViews,new boolean[numViews]);
+		double []param = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+		for( int i = 0; i < param.length; i++ ) {
+			param[i] += rand.nextGaussian()*0.01;
+		}
+
+		CalibPoseAndPointResiduals expected = new CalibPoseAndPointResiduals();
+		CalibPoseAndPointResiduals_MT found = new CalibPoseAndPointResiduals_MT();
+		found.setMinBlockViews(1);
+		// the model is overwritten when decoded, so each one needs its own
+		expected.configure(codec,model,observations);
+		found.configure(codec,createModel(numViews,numPoints,rand),observations);
+
+		double outputExpected[] = new double[expected.getNumOfOutputsM()];
+		double outputFound[] = new double[found.getNumOfOutputsM()];
+
+		expected.process(param,outputExpected);
+		found.process(param,outputFound);
+
+		for( int i = 0; i < outputExpected.length; i++ ) {
+			assertEquals(outputExpected[i],outputFound[i],0);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import georegression.struct.se.Se3_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointRodriguesJacobian_MT {
+
+	Random rand = new Random(48854);
+	int numViews = 12;
+	int numPoints = 8;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation.  A mixture of known and unknown views
+	 * is used and the output is filled with garbage to make sure every element is written to.
+	 */
+	@Test
+	public void compareToSingle() {
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+
+		boolean known[] = new boolean[numViews];
+		Se3_F64 extrinsic[] = new Se3_F64[numViews];
+		for( int i = 0; i < numViews; i++ ) {
+			known[i] = i%3 == 0;
+			model.setViewKnown(i,known[i]);
+			if( known[i] )
+				extrinsic[i] = model.getWorldToCamera(i).copy();
+		}
+
+		CalibPoseAndPointRodriguesCodec codec = new CalibPoseAndPointRodriguesCodec();
+		codec.configure(numViews,numPoints,model.getNumUnknownViews(),known);
+		double []param = new double[ codec.getParamLength() ];
+		codec.encode(model,param);
+		for( int i = 0; i < param.length; i++ ) {
+			param[i] += rand.nextGaussian()*0.01;
+		}
+
+		CalibPoseAndPointRodriguesJacobian expected = new CalibPoseAndPointRodriguesJacobian();
+		CalibPoseAndPointRodriguesJacobian_MT found = new CalibPoseAndPointRodriguesJacobian_MT();
+		found.setMinBlockViews(1);
+		expected.configure(observations,numPoints,extrinsic);
+		found.configure(observations,numPoints,extrinsic);
+
+		int N = expected.getNumOfInputsN()*expected.getNumOfOutputsM();
+		double outputExpected[] = new double[N];
+		double outputFound[] = new double[N];
+		for( int i = 0; i < N; i++ ) {
+			outputExpected[i] = rand.nextDouble();
+			outputFound[i] = rand.nextDouble();
+		}
+
+		expected.process(param,outputExpected);
+		found.process(param,outputFound);
+
+		for( int i = 0; i < N; i++ ) {
+			assertEquals(outputExpected[i],outputFound[i],0);
+		}
+	}
+}
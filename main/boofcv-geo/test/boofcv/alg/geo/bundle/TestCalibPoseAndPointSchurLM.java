@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense;
+import georegression.struct.se.Se3_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.CommonOps_DDRM;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointSchurLM {
+
+	Random rand = new Random(234);
+	int numViews = 4;
+	int numPoints = 10;
+
+	/**
+	 * Compare the blocks in the normal equations against the ones computed from the dense Jacobian
+	 */
+	@Test
+	public void computeNormalEquations() {
+		CalibratedPoseAndPoint model = createNoisyModel(true);
+		List<ViewPointObservations> observations =
+				TestBundleAdjustmentCalibratedDense.createObservations(model,numViews,numPoints);
+		perturb(model);
+
+		CalibPoseAndPointSchurLM alg = setup(model, observations);
+		alg.computeNormalEquations(alg.param);
+
+		DMatrixRMaj J = new DMatrixRMaj(1,1);
+		DMatrixRMaj r = new DMatrixRMaj(1,1);
+		computeDense(alg, model, observations, J, r);
+
+		DMatrixRMaj H = new DMatrixRMaj(J.numCols,J.numCols);
+		DMatrixRMaj g = new DMatrixRMaj(J.numCols,1);
+		CommonOps_DDRM.multInner(J,H);
+		CommonOps_DDRM.multTransA(J,r,g);
+
+		int N_c = alg.numUnknown*6;
+		for( int u = 0; u < alg.numUnknown; u++ ) {
+			for( int i = 0; i < 6; i++ ) {
+				assertEquals(g.get(u*6+i),alg.gc[u*6+i],1e-8);
+				for( int j = 0; j < 6; j++ ) {
+					assertEquals(H.get(u*6+i,u*6+j),alg.U[u*36+i*6+j],1e-8);
+				}
+			}
+		}
+		for( int p = 0; p < numPoints; p++ ) {
+			for( int i = 0; i < 3; i++ ) {
+				assertEquals(g.get(N_c+p*3+i),alg.gp[p*3+i],1e-8);
+				for( int j = 0; j < 3; j++ ) {
+					assertEquals(H.get(N_c+p*3+i,N_c+p*3+j),alg.V[p*9+i*3+j],1e-8);
+				}
+			}
+		}
+		for( int k = 0; k < alg.numObservations; k++ ) {
+			int u = alg.viewToUnknown[alg.obsView[k]];
+			if( u < 0 )
+				continue;
+			int p = alg.obsPoint[k];
+			for( int i = 0; i < 6; i++ ) {
+				for( int j = 0; j < 3; j++ ) {
+					assertEquals(H.get(u*6+i,N_c+p*3+j),alg.W[k*18+i*3+j],1e-8);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The step found using the Schur complement should be the same as solving the full damped system
+	 */
+	@Test
+	public void solveStep_dense() {
+		solveStep(false);
+	}
+
+	@Test
+	public void solveStep_pcg() {
+		solveStep(true);
+	}
+
+	private void solveStep( boolean pcg ) {
+		CalibratedPoseAndPoint model = createNoisyModel(true);
+		List<ViewPointObservations> observations =
+				TestBundleAdjustmentCalibratedDense.createObservations(model,numViews,numPoints);
+		perturb(model);
+
+		CalibPoseAndPointSchurLM alg = setup(model, observations);
+		if( pcg ) {
+			alg.setMaxDenseParameters(0);
+			alg.setConfigPCG(200,1e-30);
+		}
+		double lambda = 0.1;
+		alg.computeNormalEquations(alg.param);
+		assertTrue(alg.solveStep(lambda));
+
+		DMatrixRMaj J = new DMatrixRMaj(1,1);
+		DMatrixRMaj r = new DMatrixRMaj(1,1);
+		computeDense(alg, model, observations, J, r);
+
+		DMatrixRMaj H = new DMatrixRMaj(J.numCols,J.numCols);
+		DMatrixRMaj g = new DMatrixRMaj(J.numCols,1);
+		CommonOps_DDRM.multInner(J,H);
+		CommonOps_DDRM.multTransA(J,r,g);
+		for( int i = 0; i < H.numRows; i++ ) {
+			H.add(i,i,lambda*Math.max(H.get(i,i),1e-9));
+		}
+		CommonOps_DDRM.scale(-1,g);
+		DMatrixRMaj expected = new DMatrixRMaj(H.numRows,1);
+		assertTrue(CommonOps_DDRM.solve(H,g,expected));
+
+		int N_c = alg.numUnknown*6;
+		double tol = CommonOps_DDRM.elementMaxAbs(expected)*1e-6;
+		for( int i = 0; i < N_c; i++ ) {
+			assertEquals(expected.get(i),alg.deltaCamera[i],tol);
+		}
+		for( int i = 0; i < numPoints*3; i++ ) {
+			assertEquals(expected.get(N_c+i),alg.deltaPoint[i],tol);
+		}
+	}
+
+	/**
+	 * Both ways of solving the reduced camera system should converge to the true solution
+	 */
+	@Test
+	public void process_denseAndPCG() {
+		for( boolean pcg : new boolean[]{false,true}) {
+			CalibratedPoseAndPoint model = createNoisyModel(true);
+			List<ViewPointObservations> observations =
+					TestBundleAdjustmentCalibratedDense.createObservations(model,numViews,numPoints);
+			perturb(model);
+
+			CalibPoseAndPointSchurLM alg = new CalibPoseAndPointSchurLM(1e-12,200);
+			if( pcg )
+				alg.setMaxDenseParameters(0);
+
+			assertTrue(alg.process(model,observations));
+			assertTrue(alg.getIterations() > 0);
+			assertTrue(alg.getFinalCost() < alg.getInitialCost()*1e-6);
+		}
+	}
+
+	/**
+	 * Known views should not be modified
+	 */
+	@Test
+	public void knownViewsNotModified() {
+		CalibratedPoseAndPoint model = createNoisyModel(true);
+		List<ViewPointObservations> observations =
+				TestBundleAdjustmentCalibratedDense.createObservations(model,numViews,numPoints);
+		Se3_F64 expected = model.getWorldToCamera(0).copy();
+		perturb(model);
+
+		CalibPoseAndPointSchurLM alg = new CalibPoseAndPointSchurLM(1e-12,200);
+		assertTrue(alg.process(model,observations));
+
+		Se3_F64 found = model.getWorldToCamera(0);
+		assertTrue(MatrixFeatures_DDRM.isIdentical(expected.getR(),found.getR(),0));
+		assertEquals(0,expected.getT().distance(found.getT()),0);
+	}
+
+	private CalibratedPoseAndPoint createNoisyModel( boolean firstKnown ) {
+		CalibratedPoseAndPoint model = TestBundleAdjustmentCalibratedDense.createModel(numViews,numPoints,rand);
+		model.setViewKnown(0,firstKnown);
+		return model;
+	}
+
+	private void perturb( CalibratedPoseAndPoint model ) {
+		for( int i = 1; i < numViews; i++ ) {
+			model.getWorldToCamera(i).getT().x += rand.nextGaussian()*0.01;
+			model.getWorldToCamera(i).getT().y += rand.nextGaussian()*0.01;
+		}
+		for( int i = 0; i < numPoints; i++ ) {
+			model.getPoint(i).z += rand.nextGaussian()*0.05;
+		}
+	}
+
+	private CalibPoseAndPointSchurLM setup( CalibratedPoseAndPoint model,
+											List<ViewPointObservations> observations ) {
+		CalibPoseAndPointSchurLM alg = new CalibPoseAndPointSchurLM(1e-12,200);
+		alg.initialize(model,observations);
+		return alg;
+	}
+
+	/**
+	 * Computes the Jacobian and residuals using the dense implementation at the current parameters in alg
+	 */
+	private void computeDense( CalibPoseAndPointSchurLM alg , CalibratedPoseAndPoint model ,
+							   List<ViewPointObservations> observations , DMatrixRMaj J , DMatrixRMaj r ) {
+		boolean known[] = model.getKnownArray();
+		Se3_F64 extrinsic[] = new Se3_F64[model.getNumViews()];
+		for( int i = 0; i < extrinsic.length; i++ ) {
+			if( known[i])
+				extrinsic[i] = model.getWorldToCamera(i).copy();
+		}
+
+		CalibPoseAndPointRodriguesJacobian jacobian = new CalibPoseAndPointRodriguesJacobian();
+		jacobian.configure(observations,model.getNumPoints(),extrinsic);
+		J.reshape(jacobian.getNumOfOutputsM(),jacobian.getNumOfInputsN());
+		jacobian.process(alg.param,J.data);
+
+		CalibPoseAndPointResiduals func = new CalibPoseAndPointResiduals();
+		CalibratedPoseAndPoint copy = new CalibratedPoseAndPoint();
+		copy.configure(model.getNumViews(),model.getNumPoints());
+		for( int i = 0; i < model.getNumViews(); i++ ) {
+			copy.setViewKnown(i,known[i]);
+			copy.getWorldToCamera(i).set(model.getWorldToCamera(i));
+		}
+		func.configure(alg.codec,copy,observations);
+		r.reshape(func.getNumOfOutputsM(),1);
+		func.process(alg.param,r.data);
+	}
+}
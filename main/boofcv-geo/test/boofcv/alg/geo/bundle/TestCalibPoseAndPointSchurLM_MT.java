@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.bundle;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createModel;
+import static boofcv.abst.geo.bundle.TestBundleAdjustmentCalibratedDense.createObservations;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestCalibPoseAndPointSchurLM_MT {
+
+	Random rand = new Random(234);
+	int numViews = 12;
+	int numPoints = 40;
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	/**
+	 * With one thread there is a single block and the results should be identical.  Otherwise the point blocks
+	 * are summed in a different order and can differ by round off.
+	 */
+	@Test
+	public void compareToSingle() {
+		compareToSingle(1, 0);
+		compareToSingle(4, 1e-8);
+	}
+
+	private void compareToSingle( int threads , double tol ) {
+		BoofConcurrency.setMaxThreads(threads);
+
+		CalibratedPoseAndPoint model = createModel(numViews,numPoints,rand);
+		model.setViewKnown(0,true);
+		List<ViewPointObservations> observations = createObservations(model,numViews,numPoints);
+		for( int i = 1; i < numViews; i++ ) {
+			model.getWorldToCamera(i).getT().x += rand.nextGaussian()*0.01;
+		}
+
+		CalibPoseAndPointSchurLM single = new CalibPoseAndPointSchurLM(1e-12,200);
+		CalibPoseAndPointSchurLM_MT alg = new CalibPoseAndPointSchurLM_MT(1e-12,200);
+		alg.setMinBlockViews(2);
+		alg.setMinBlockPoints(5);
+
+		single.initialize(model,observations);
+		alg.initialize(model,observations);
+
+		double expectedCost = single.computeCost(single.param);
+		assertTrue(expectedCost > 0);
+		assertEquals(expectedCost, alg.computeCost(alg.param), tol*expectedCost);
+
+		single.computeNormalEquations(single.param);
+		alg.computeNormalEquations(alg.param);
+
+		// the camera blocks are only modified by a single thread
+		assertIdentical(single.U, alg.U, single.numUnknown*36, 0);
+		assertIdentical(single.gc, alg.gc, single.numUnknown*6, 0);
+		assertIdentical(single.W, alg.W, single.numObservations*18, 0);
+		assertIdentical(single.V, alg.V, numPoints*9, tol);
+		assertIdentical(single.gp, alg.gp, numPoints*3, tol);
+
+		CalibratedPoseAndPoint copy = createModel(numViews,numPoints,rand);
+		copy.setViewKnown(0,true);
+		for( int i = 0; i < numViews; i++ ) {
+			copy.getWorldToCamera(i).set(model.getWorldToCamera(i));
+		}
+		for( int i = 0; i < numPoints; i++ ) {
+			copy.getPoint(i).set(model.getPoint(i));
+		}
+
+		assertTrue(single.process(model,observations));
+		assertTrue(alg.process(copy,observations));
+		assertTrue(alg.getFinalCost() < alg.getInitialCost()*1e-6);
+		if( tol == 0 ) {
+			assertEquals(single.getIterations(), alg.getIterations());
+			assertEquals(single.getFinalCost(), alg.getFinalCost(), 0);
+		}
+	}
+
+	private static void assertIdentical( double[] expected , double[] found , int length , double tol ) {
+		for( int i = 0; i < length; i++ ) {
+			assertEquals(expected[i], found[i], tol*Math.max(1,Math.abs(expected[i])));
+		}
+	}
+}
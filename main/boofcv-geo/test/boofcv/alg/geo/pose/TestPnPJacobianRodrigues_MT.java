@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.pose;
+
+import boofcv.alg.geo.PerspectiveOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.geo.Point2D3D;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.se.Se3_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPnPJacobianRodrigues_MT {
+
+	Random rand = new Random(48854);
+	int numPoints = 100;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		Se3_F64 worldToCamera = new Se3_F64();
+		ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,0.1, 1, -0.2, worldToCamera.getR());
+		worldToCamera.getT().set(-0.3,0.4,1);
+
+		List<Point2D3D> observations = new ArrayList<>();
+
+		for( int i = 0; i < numPoints; i++ ) {
+			Point2D3D p = new Point2D3D();
+
+			p.location.set( rand.nextGaussian()*0.1,
+					rand.nextGaussian()*0.2 , 3 + rand.nextGaussian() );
+
+			p.observation = PerspectiveOps.renderPixel(worldToCamera, null, p.location);
+
+			observations.add(p);
+		}
+
+		PnPRodriguesCodec codec = new PnPRodriguesCodec();
+		double []param = new double[ codec.getParamLength() ];
+		codec.encode(worldToCamera,param);
+
+		PnPJacobianRodrigues expected = new PnPJacobianRodrigues();
+		PnPJacobianRodrigues_MT found = new PnPJacobianRodrigues_MT();
+		found.setMinBlockSize(5);
+		expected.setObservations(observations);
+		found.setObservations(observations);
+
+		int N = expected.getNumOfInputsN()*expected.getNumOfOutputsM();
+		double outputExpected[] = new double[N];
+		double outputFound[] = new double[N];
+
+		expected.process(param,outputExpected);
+		found.process(param,outputFound);
+
+		for( int i = 0; i < N; i++ ) {
+			assertEquals(outputExpected[i],outputFound[i],0);
+		}
+	}
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.robust;
+
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.homography.ModelManagerHomography2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static boofcv.alg.geo.robust.TestRansacSprt.countInliers;
+import static boofcv.alg.geo.robust.TestRansacSprt.createObservations;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansacProsac {
+
+	Random rand = new Random(234);
+
+	Homography2D_F64 H = new Homography2D_F64(1.1,0.05,10,-0.03,0.95,-5,0.0001,0.0002,1);
+
+	/**
+	 * The high quality points are at the start of the list.  Should quickly find the solution even with
+	 * a large fraction of outliers
+	 */
+	@Test
+	public void sortedByQuality() {
+		List<AssociatedPair> pairs = new ArrayList<>();
+		pairs.addAll(createObservations(rand,H,40,0.1));
+		pairs.addAll(createObservations(rand,H,400,0.95));
+		int numInliers = countInliers(pairs);
+
+		RansacProsac<Homography2D_F64,AssociatedPair> alg = new RansacProsac<>(234, new ModelManagerHomography2D_F64(),
+				new GenerateHomographyLinear(true), new DistanceHomographySq(), 30, 1);
+
+		assertTrue(alg.process(pairs));
+		assertEquals(numInliers,alg.getMatchSet().size());
+		for (int i = 0; i < alg.getMatchSet().size(); i++) {
+			assertTrue(pairs.get(alg.getInputIndex(i)) == alg.getMatchSet().get(i));
+		}
+
+		// it should only have sampled from the top of the list
+		assertTrue(alg.getSamplingSetSize() < pairs.size()/2);
+	}
+
+	/**
+	 * Eventually it should sample from every point
+	 */
+	@Test
+	public void samplingSetGrows() {
+		List<AssociatedPair> pairs = createObservations(rand,H,50,0.9);
+
+		RansacProsac<Homography2D_F64,AssociatedPair> alg = new RansacProsac<>(234, new ModelManagerHomography2D_F64(),
+				new GenerateHomographyLinear(true), new DistanceHomographySq(), 2000, 1);
+
+		alg.process(pairs);
+		assertEquals(pairs.size(),alg.getSamplingSetSize());
+	}
+
+	/**
+	 * PROSAC combined with SPRT
+	 */
+	@Test
+	public void withSprt() {
+		List<AssociatedPair> pairs = new ArrayList<>();
+		pairs.addAll(createObservations(rand,H,40,0.1));
+		pairs.addAll(createObservations(rand,H,400,0.8));
+		int numInliers = countInliers(pairs);
+
+		RansacProsac<Homography2D_F64,AssociatedPair> alg = new RansacProsac<>(234, new ModelManagerHomography2D_F64(),
+				new GenerateHomographyLinear(true), new DistanceHomographySq(), 100, 1);
+		alg.configureSprt(0.05,0.2,200);
+
+		assertTrue(alg.process(pairs));
+		assertEquals(numInliers,alg.getMatchSet().size());
+		assertTrue(alg.getAveragePointsPerHypothesis() < pairs.size());
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.robust;
+
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.homography.ModelManagerHomography2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.transform.homography.HomographyPointOps_F64;
+import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansacSprt {
+
+	Random rand = new Random(234);
+
+	Homography2D_F64 H = new Homography2D_F64(1.1,0.05,10,-0.03,0.95,-5,0.0001,0.0002,1);
+
+	/**
+	 * Without SPRT it should produce identical results to RANSAC
+	 */
+	@Test
+	public void noSprt_compareToRansac() {
+		Ransac<Homography2D_F64,AssociatedPair> expected = new Ransac<>(234, new ModelManagerHomography2D_F64(),
+				new GenerateHomographyLinear(true), new DistanceHomographySq(), 100, 1);
+		RansacSprt<Homography2D_F64,AssociatedPair> found = new RansacSprt<>(234, new ModelManagerHomography2D_F64(),
+				new GenerateHomographyLinear(true), new DistanceHomographySq(), 100, 1);
+
+		List<AssociatedPair> pairs = createObservations(rand,H,200,0.4);
+
+		assertTrue(expected.process(pairs));
+		assertTrue(found.process(pairs));
+
+		assertEquals(expected.getMatchSet().size(),found.getMatchSet().size());
+		for (int i = 0; i < expected.getMatchSet().size(); i++) {
+			assertTrue(expected.getMatchSet().get(i) == found.getMatchSet().get(i));
+			assertEquals(expected.getInputIndex(i),found.getInputIndex(i));
+		}
+
+		// every point should have been examined
+		assertEquals(found.getTotalHypotheses()*pairs.size(),found.getTotalPointsEvaluated());
+		assertEquals(0,found.getTotalRejected());
+	}
+
+	/**
+	 * Bad hypotheses should be rejected early while the correct model is still found
+	 */
+	@Test
+	public void sprt() {
+		RansacSprt<Homography2D_F64,AssociatedPair> alg = new RansacSprt<>(234, new ModelManagerHomography2D_F64(),
+				new GenerateHomographyLinear(true), new DistanceHomographySq(), 500, 1);
+		alg.configureSprt(0.05,0.2,200);
+
+		List<AssociatedPair> pairs = createObservations(rand,H,500,0.6);
+		int numInliers = countInliers(pairs);
+
+		assertTrue(alg.process(pairs));
+
+		assertEquals(numInliers,alg.getMatchSet().size());
+		for (int i = 0; i < alg.getMatchSet().size(); i++) {
+			assertTrue(pairs.get(alg.getInputIndex(i)) == alg.getMatchSet().get(i));
+		}
+
+		assertTrue(alg.getTotalRejected() > 0);
+		assertTrue(alg.getAveragePointsPerHypothesis() < pairs.size()/2);
+		assertEquals(numInliers/(double)pairs.size(),alg.getEpsilon(),1e-8);
+	}
+
+	/**
+	 * Check the decision threshold against a manually computed solution
+	 */
+	@Test
+	public void updateDecisionThreshold() {
+		RansacSprt<Homography2D_F64,AssociatedPair> alg = new RansacSprt<>(234, new ModelManagerHomography2D_F64(),
+				new GenerateHomographyLinear(true), new DistanceHomographySq(), 500, 1);
+
+		// not configured so it should never reject
+		alg.delta = 0.05;
+		alg.epsilon = 0.2;
+		alg.updateDecisionThreshold();
+		assertEquals(Double.MAX_VALUE,alg.decisionA,0);
+
+		alg.configureSprt(0.05,0.2,200);
+		alg.updateDecisionThreshold();
+
+		// C = 0.09394, K = 200*C = 18.789, and A = 22.921 is the solution to A = K + 1 + log(A)
+		assertEquals(22.9206, alg.decisionA, 1e-3);
+		assertEquals(0.05/0.2,alg.ratioInlier,1e-8);
+		assertEquals(0.95/0.8,alg.ratioOutlier,1e-8);
+
+		// the inlier fraction is too small to distinguish models
+		alg.epsilon = 0.04;
+		alg.updateDecisionThreshold();
+		assertEquals(Double.MAX_VALUE,alg.decisionA,0);
+	}
+
+	static int countInliers( List<AssociatedPair> pairs ) {
+		DistanceHomographySq distance = new DistanceHomographySq();
+		distance.setModel(new Homography2D_F64(1.1,0.05,10,-0.03,0.95,-5,0.0001,0.0002,1));
+		int total = 0;
+		for( AssociatedPair p : pairs ) {
+			if( distance.computeDistance(p) < 1 )
+				total++;
+		}
+		return total;
+	}
+
+	/**
+	 * Creates observations from a homography.  A fraction of them are replaced with noise
+	 */
+	static List<AssociatedPair> createObservations( Random rand , Homography2D_F64 H , int N , double fractionOutliers ) {
+		List<AssociatedPair> pairs = new ArrayList<>();
+		for (int i = 0; i < N; i++) {
+			AssociatedPair p = new AssociatedPair();
+			p.p1.set(rand.nextDouble()*300,rand.nextDouble()*200);
+			if( rand.nextDouble() < fractionOutliers ) {
+				p.p2.set(rand.nextDouble()*300,rand.nextDouble()*200);
+			} else {
+				HomographyPointOps_F64.transform(H,p.p1,p.p2);
+			}
+			pairs.add(p);
+		}
+		return pairs;
+	}
+}
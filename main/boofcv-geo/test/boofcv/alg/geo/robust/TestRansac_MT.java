@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.robust;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.geo.AssociatedPair;
+import georegression.fitting.homography.ModelManagerHomography2D_F64;
+import georegression.struct.homography.Homography2D_F64;
+import georegression.transform.homography.HomographyPointOps_F64;
+import org.ddogleg.fitting.modelset.DistanceFromModel;
+import org.ddogleg.fitting.modelset.ModelGenerator;
+import org.ddogleg.fitting.modelset.ransac.Ransac;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestRansac_MT {
+
+	Random rand = new Random(234);
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation across multiple calls
+	 */
+	@Test
+	public void compareToSingle() {
+		Ransac<Homography2D_F64,AssociatedPair> expected = new Ransac<>(234, new ModelManagerHomography2D_F64(),
+				new GenerateHomographyLinear(true), new DistanceHomographySq(), 100, 1);
+		Ransac_MT<Homography2D_F64,AssociatedPair> found = createAlg(100,1);
+		found.setBatchSize(7);
+
+		for (int trial = 0; trial < 3; trial++) {
+			List<AssociatedPair> pairs = createObservations(200,0.4);
+
+			assertTrue(expected.process(pairs));
+			assertTrue(found.process(pairs));
+
+			checkIdentical(expected, found);
+		}
+	}
+
+	/**
+	 * When every point is an inlier the same model should be found even though it stops part way through a batch
+	 */
+	@Test
+	public void allInliers() {
+		Ransac<Homography2D_F64,AssociatedPair> expected = new Ransac<>(234, new ModelManagerHomography2D_F64(),
+				new GenerateHomographyLinear(true), new DistanceHomographySq(), 100, 1);
+		Ransac_MT<Homography2D_F64,AssociatedPair> found = createAlg(100,1);
+
+		List<AssociatedPair> pairs = createObservations(50,0);
+
+		assertTrue(expected.process(pairs));
+		assertTrue(found.process(pairs));
+
+		assertEquals(pairs.size(),found.getMatchSet().size());
+		checkIdentical(expected, found);
+	}
+
+	@Test
+	public void tooFewPoints() {
+		Ransac_MT<Homography2D_F64,AssociatedPair> alg = createAlg(100,1);
+
+		List<AssociatedPair> pairs = createObservations(3,0);
+		assertTrue(!alg.process(pairs));
+	}
+
+	private void checkIdentical( Ransac<Homography2D_F64,AssociatedPair> expected ,
+								 Ransac<Homography2D_F64,AssociatedPair> found ) {
+		Homography2D_F64 a = expected.getModelParameters();
+		Homography2D_F64 b = found.getModelParameters();
+		for (int i = 0; i < 9; i++) {
+			assertEquals(a.get(i/3,i%3),b.get(i/3,i%3),0);
+		}
+
+		assertEquals(expected.getMatchSet().size(),found.getMatchSet().size());
+		for (int i = 0; i < expected.getMatchSet().size(); i++) {
+			assertTrue(expected.getMatchSet().get(i) == found.getMatchSet().get(i));
+			assertEquals(expected.getInputIndex(i),found.getInputIndex(i));
+		}
+	}
+
+	private Ransac_MT<Homography2D_F64,AssociatedPair> createAlg( int maxIterations , double threshold ) {
+		return new Ransac_MT<>(234, new ModelManagerHomography2D_F64(),
+				new Ransac_MT.FactoryGenerator<Homography2D_F64, AssociatedPair>() {
+					@Override
+					public ModelGenerator<Homography2D_F64, AssociatedPair> create() {
+						return new GenerateHomographyLinear(true);
+					}
+				},
+				new Ransac_MT.FactoryDistance<Homography2D_F64, AssociatedPair>() {
+					@Override
+					public DistanceFromModel<Homography2D_F64, AssociatedPair> create() {
+						return new DistanceHomographySq();
+					}
+				},maxIterations,threshold);
+	}
+
+	/**
+	 * Creates observations from a random homography.  A fraction of them are replaced with noise
+	 */
+	private List<AssociatedPair> createObservations( int N , double fractionOutliers ) {
+		Homography2D_F64 H = new Homography2D_F64(1.1,0.05,10,-0.03,0.95,-5,0.0001,0.0002,1);
+
+		List<AssociatedPair> pairs = new ArrayList<>();
+		for (int i = 0; i < N; i++) {
+			AssociatedPair p = new AssociatedPair();
+			p.p1.set(rand.nextDouble()*300,rand.nextDouble()*200);
+			if( rand.nextDouble() < fractionOutliers ) {
+				p.p2.set(rand.nextDouble()*300,rand.nextDouble()*200);
+			} else {
+				HomographyPointOps_F64.transform(H,p.p1,p.p2);
+			}
+			pairs.add(p);
+		}
+		return pairs;
+	}
+}
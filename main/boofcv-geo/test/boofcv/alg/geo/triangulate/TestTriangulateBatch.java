@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.triangulate;
+
+import boofcv.abst.geo.triangulate.LeastSquaresTriangulateEpipolar;
+import boofcv.alg.geo.MultiViewOps;
+import georegression.geometry.ConvertRotation3D_F64;
+import georegression.struct.EulerType;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.point.Point3D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.transform.se.SePointOps_F64;
+import org.ejml.data.DMatrixRMaj;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangulateBatch {
+
+	Random rand = new Random(234);
+
+	int numViews = 6;
+	int numTracks = 50;
+
+	// the scene
+	List<Se3_F64> worldToView = new ArrayList<>();
+	List<Point3D_F64> worldPoints = new ArrayList<>();
+
+	// packed N-view observations
+	double[] observations;
+	int[] viewIndexes;
+	int[] trackStart;
+
+	// packed two view observations of all the points.  View 0 is the world frame
+	double[] obsA, obsB;
+
+	/**
+	 * Compare against the single point algorithm
+	 */
+	@Test
+	public void twoViewsGeometric() {
+		createScene(0);
+
+		TriangulateBatch alg = new TriangulateBatch();
+		double[] found = new double[numTracks*3];
+		alg.twoViewsGeometric(obsA, obsB, numTracks, worldToView.get(1), found);
+
+		TriangulateGeometric single = new TriangulateGeometric();
+		Point3D_F64 expected = new Point3D_F64();
+		for (int i = 0; i < numTracks; i++) {
+			single.triangulate(obs(obsA,i), obs(obsB,i), worldToView.get(1), expected);
+			checkEquals(expected, found, i, 0);
+			checkEquals(worldPoints.get(i), found, i, 1e-8);
+		}
+	}
+
+	/**
+	 * Compare against the single point algorithm
+	 */
+	@Test
+	public void twoViewsDLT() {
+		createScene(0);
+
+		TriangulateBatch alg = new TriangulateBatch();
+		double[] found = new double[numTracks*3];
+		alg.twoViewsDLT(obsA, obsB, numTracks, worldToView.get(1), found);
+
+		TriangulateLinearDLT single = new TriangulateLinearDLT();
+		Point3D_F64 expected = new Point3D_F64();
+		for (int i = 0; i < numTracks; i++) {
+			single.triangulate(obs(obsA,i), obs(obsB,i), worldToView.get(1), expected);
+			checkEquals(expected, found, i, 0);
+			checkEquals(worldPoints.get(i), found, i, 1e-8);
+		}
+	}
+
+	/**
+	 * Compare against the single point algorithm.  Each track is seen by a different set of views.
+	 */
+	@Test
+	public void nViewsDLT() {
+		createScene(0);
+
+		TriangulateBatch alg = new TriangulateBatch();
+		double[] found = new double[numTracks*3];
+		alg.nViewsDLT(observations, viewIndexes, trackStart, numTracks, worldToView, found);
+
+		TriangulateLinearDLT single = new TriangulateLinearDLT();
+		Point3D_F64 expected = new Point3D_F64();
+		for (int i = 0; i < numTracks; i++) {
+			List<Point2D_F64> obs = new ArrayList<>();
+			List<Se3_F64> motion = new ArrayList<>();
+			for (int j = trackStart[i]; j < trackStart[i+1]; j++) {
+				obs.add(obs(observations,j));
+				motion.add(worldToView.get(viewIndexes[j]));
+			}
+			single.triangulate(obs, motion, expected);
+			checkEquals(expected, found, i, 0);
+			checkEquals(worldPoints.get(i), found, i, 1e-8);
+		}
+	}
+
+	/**
+	 * Refine noisy observations and compare against the single point refinement
+	 */
+	@Test
+	public void nViewsDLT_refine() {
+		createScene(0.002);
+
+		TriangulateBatch alg = new TriangulateBatch();
+		alg.setRefine(1e-8, 20);
+		double[] found = new double[numTracks*3];
+		alg.nViewsDLT(observations, viewIndexes, trackStart, numTracks, worldToView, found);
+
+		TriangulateLinearDLT single = new TriangulateLinearDLT();
+		LeastSquaresTriangulateEpipolar refine = new LeastSquaresTriangulateEpipolar(1e-8,20);
+		Point3D_F64 initial = new Point3D_F64();
+		Point3D_F64 expected = new Point3D_F64();
+		for (int i = 0; i < numTracks; i++) {
+			List<Point2D_F64> obs = new ArrayList<>();
+			List<Se3_F64> motion = new ArrayList<>();
+			List<DMatrixRMaj> essential = new ArrayList<>();
+			for (int j = trackStart[i]; j < trackStart[i+1]; j++) {
+				Se3_F64 m = worldToView.get(viewIndexes[j]);
+				obs.add(obs(observations,j));
+				motion.add(m);
+				essential.add(MultiViewOps.createEssential(m.getR(), m.getT()));
+			}
+			single.triangulate(obs, motion, initial);
+			refine.process(obs, essential, initial, expected);
+			checkEquals(expected, found, i, 0);
+		}
+	}
+
+	/**
+	 * Refine noisy observations and compare against the single point refinement
+	 */
+	@Test
+	public void twoViewsGeometric_refine() {
+		createScene(0.002);
+
+		TriangulateBatch alg = new TriangulateBatch();
+		alg.setRefine(1e-8, 20);
+		double[] found = new double[numTracks*3];
+		alg.twoViewsGeometric(obsA, obsB, numTracks, worldToView.get(1), found);
+
+		Se3_F64 fromAtoB = worldToView.get(1);
+		List<DMatrixRMaj> essential = new ArrayList<>();
+		essential.add(new DMatrixRMaj(3,3));
+		essential.add(MultiViewOps.createEssential(fromAtoB.getR(), fromAtoB.getT()));
+
+		TriangulateGeometric single = new TriangulateGeometric();
+		LeastSquaresTriangulateEpipolar refine = new LeastSquaresTriangulateEpipolar(1e-8,20);
+		Point3D_F64 initial = new Point3D_F64();
+		Point3D_F64 expected = new Point3D_F64();
+		for (int i = 0; i < numTracks; i++) {
+			List<Point2D_F64> obs = new ArrayList<>();
+			obs.add(obs(obsA,i));
+			obs.add(obs(obsB,i));
+			single.triangulate(obs.get(0), obs.get(1), fromAtoB, initial);
+			refine.process(obs, essential, initial, expected);
+			checkEquals(expected, found, i, 0);
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void outputTooSmall() {
+		createScene(0);
+		TriangulateBatch alg = new TriangulateBatch();
+		alg.nViewsDLT(observations, viewIndexes, trackStart, numTracks, worldToView, new double[numTracks*3-1]);
+	}
+
+	static Point2D_F64 obs( double[] packed , int index ) {
+		return new Point2D_F64(packed[index*2],packed[index*2+1]);
+	}
+
+	static void checkEquals( Point3D_F64 expected , double[] found , int index , double tol ) {
+		assertEquals(expected.x, found[index*3  ], tol);
+		assertEquals(expected.y, found[index*3+1], tol);
+		assertEquals(expected.z, found[index*3+2], tol);
+	}
+
+	/**
+	 * Creates a scene where each track is observed by a random subset of at least two views
+	 */
+	void createScene( double noise ) {
+		worldToView.clear();
+		worldPoints.clear();
+		for (int i = 0; i < numViews; i++) {
+			Se3_F64 m = new Se3_F64();
+			if( i > 0 ) {
+				m.getR().set(ConvertRotation3D_F64.eulerToMatrix(EulerType.XYZ,
+						rand.nextGaussian()*0.01, rand.nextGaussian()*0.05, rand.nextGaussian()*0.1,null ));
+				m.getT().set(0.2*i+rand.nextGaussian()*0.1, rand.nextGaussian()*0.1, rand.nextGaussian()*0.01);
+			}
+			worldToView.add(m);
+		}
+
+		List<Point2D_F64> obs = new ArrayList<>();
+		List<Integer> views = new ArrayList<>();
+		trackStart = new int[numTracks+1];
+		obsA = new double[numTracks*2];
+		obsB = new double[numTracks*2];
+
+		Point3D_F64 cameraPt = new Point3D_F64();
+		for (int i = 0; i < numTracks; i++) {
+			Point3D_F64 X = new Point3D_F64(rand.nextGaussian(), rand.nextGaussian(), 4 + rand.nextGaussian()*0.5);
+			worldPoints.add(X);
+
+			trackStart[i] = obs.size();
+			for (int view = 0; view < numViews; view++) {
+				SePointOps_F64.transform(worldToView.get(view), X, cameraPt);
+				Point2D_F64 p = new Point2D_F64(cameraPt.x/cameraPt.z, cameraPt.y/cameraPt.z);
+				p.x += rand.nextGaussian()*noise;
+				p.y += rand.nextGaussian()*noise;
+
+				if( view == 0 ) {
+					obsA[i*2] = p.x; obsA[i*2+1] = p.y;
+				} else if( view == 1 ) {
+					obsB[i*2] = p.x; obsB[i*2+1] = p.y;
+				}
+
+				// first two views are always included
+				if( view < 2 || rand.nextBoolean() ) {
+					obs.add(p);
+					views.add(view);
+				}
+			}
+		}
+		trackStart[numTracks] = obs.size();
+
+		observations = new double[obs.size()*2];
+		viewIndexes = new int[obs.size()];
+		for (int i = 0; i < obs.size(); i++) {
+			observations[i*2] = obs.get(i).x;
+			observations[i*2+1] = obs.get(i).y;
+			viewIndexes[i] = views.get(i);
+		}
+	}
+}
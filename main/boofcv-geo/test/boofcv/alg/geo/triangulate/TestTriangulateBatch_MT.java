@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.geo.triangulate;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestTriangulateBatch_MT {
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		TestTriangulateBatch scene = new TestTriangulateBatch();
+		scene.numTracks = 200;
+		scene.createScene(0.002);
+		int N = scene.numTracks;
+
+		for( boolean refine : new boolean[]{false,true}) {
+			TriangulateBatch expected = new TriangulateBatch();
+			TriangulateBatch_MT alg = new TriangulateBatch_MT();
+			alg.setMinBlockSize(10);
+			if( refine ) {
+				expected.setRefine(1e-8, 20);
+				alg.setRefine(1e-8, 20);
+			}
+
+			double[] outputExpected = new double[N*3];
+			double[] outputFound = new double[N*3];
+
+			expected.twoViewsGeometric(scene.obsA, scene.obsB, N, scene.worldToView.get(1), outputExpected);
+			alg.twoViewsGeometric(scene.obsA, scene.obsB, N, scene.worldToView.get(1), outputFound);
+			checkIdentical(outputExpected, outputFound);
+
+			expected.twoViewsDLT(scene.obsA, scene.obsB, N, scene.worldToView.get(1), outputExpected);
+			alg.twoViewsDLT(scene.obsA, scene.obsB, N, scene.worldToView.get(1), outputFound);
+			checkIdentical(outputExpected, outputFound);
+
+			expected.nViewsDLT(scene.observations, scene.viewIndexes, scene.trackStart, N,
+					scene.worldToView, outputExpected);
+			alg.nViewsDLT(scene.observations, scene.viewIndexes, scene.trackStart, N,
+					scene.worldToView, outputFound);
+			checkIdentical(outputExpected, outputFound);
+		}
+	}
+
+	private void checkIdentical( double[] expected , double[] found ) {
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], found[i], 0);
+		}
+	}
+}
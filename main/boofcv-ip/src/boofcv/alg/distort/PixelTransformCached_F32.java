@@ -51,6 +51,16 @@ public class PixelTransformCached_F32 extends PixelTransform2_F32 {
 		}
 	}
 
+	/**
+	 * Creates a new instance which shares the precomputed transform with the original.  The shared transform
+	 * isn't modified, so each instance can be used by a different thread.
+	 */
+	public PixelTransformCached_F32( PixelTransformCached_F32 original ) {
+		this.map = original.map;
+		this.width = original.width;
+		this.height = original.height;
+	}
+
 	@Override
 	public void compute(int x, int y) {
 //		if( x < 0 || y < 0 || x >= width || y >= height )
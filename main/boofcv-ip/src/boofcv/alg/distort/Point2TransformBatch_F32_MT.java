@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
+
+/**
+ * Concurrent batch transform.  The points are split into blocks which are passed to the wrapped transform
+ * in different threads.  The wrapped transform must be safe to call concurrently, which is the case for the
+ * lens distortion and pinhole batch transforms.
+ *
+ * @author Peter Abeles
+ */
+public class Point2TransformBatch_F32_MT implements Point2TransformBatch2_F32 {
+
+	Point2TransformBatch2_F32 transform;
+
+	// minimum number of points in a block
+	int minBlockSize = 2000;
+
+	public Point2TransformBatch_F32_MT(Point2TransformBatch2_F32 transform) {
+		this.transform = transform;
+	}
+
+	@Override
+	public void compute(final float[] input, final float[] output, int offset, int length) {
+		BoofConcurrency.loopBlocks(offset, offset+length, minBlockSize, new IntRangeConsumer() {
+			@Override
+			public void accept(int i0, int i1) {
+				transform.compute(input, output, i0, i1-i0);
+			}
+		});
+	}
+
+	public Point2TransformBatch2_F32 getTransform() {
+		return transform;
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
+import georegression.struct.point.Point2D_F32;
+
+/**
+ * <p>
+ * Approximates an expensive point transform, e.g. removing lens distortion with an iterative solver, using
+ * bilinear interpolation across a regular grid.  The grid is computed once across the image and the spacing
+ * between grid points is halved until the maximum error is within tolerance, or the spacing is one pixel.
+ * Error is measured at the center of each grid cell, where interpolation error is the largest.
+ * Points outside of the image are computed using the original transform.
+ * </p>
+ *
+ * <p>
+ * After construction the internal state isn't modified, so compute can be called concurrently if the
+ * original transform is thread safe.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class Point2TransformGrid_F32 implements Point2Transform2_F32, Point2TransformBatch2_F32 {
+
+	// spacing between grid points, in pixels, that the search starts at
+	public static final int INITIAL_SPACING = 32;
+
+	// the transform being approximated
+	Point2Transform2_F32 transform;
+
+	// shape of the image the grid covers
+	int width, height;
+
+	// spacing between grid points in pixels
+	int spacing;
+	// number of grid points along each axis
+	int gridWidth, gridHeight;
+	// transformed location of each grid point. Packed in (x,y) pairs in a row-major order
+	float[] grid = new float[0];
+
+	// maximum error found at the center of grid cells
+	double maxError;
+
+	/**
+	 * Computes the grid
+	 *
+	 * @param transform The transform being approximated.
+	 * @param width Image width
+	 * @param height Image height
+	 * @param tolerance Maximum allowed error in the output's units
+	 */
+	public Point2TransformGrid_F32(Point2Transform2_F32 transform, int width, int height, double tolerance) {
+		if( width <= 0 || height <= 0 )
+			throw new IllegalArgumentException("Image shape must be positive");
+		if( tolerance <= 0 )
+			throw new IllegalArgumentException("Tolerance must be positive");
+
+		this.transform = transform;
+		this.width = width;
+		this.height = height;
+
+		spacing = INITIAL_SPACING;
+		while( true ) {
+			computeGrid();
+			maxError = computeMaxError();
+			if( maxError <= tolerance || spacing == 1 )
+				break;
+			spacing /= 2;
+		}
+	}
+
+	/**
+	 * Applies the original transform to each grid point.  The last grid point is at or after the image border
+	 */
+	private void computeGrid() {
+		gridWidth = (width-1)/spacing + 2;
+		gridHeight = (height-1)/spacing + 2;
+
+		int N = gridWidth*gridHeight*2;
+		if( grid.length < N )
+			grid = new float[N];
+
+		Point2D_F32 p = new Point2D_F32();
+		int index = 0;
+		for (int y = 0; y < gridHeight; y++) {
+			for (int x = 0; x < gridWidth; x++) {
+				transform.compute(x*spacing, y*spacing, p);
+				grid[index++] = p.x;
+				grid[index++] = p.y;
+			}
+		}
+	}
+
+	/**
+	 * Finds the largest difference between the original transform and interpolated value at the center of
+	 * each cell inside the image
+	 */
+	private double computeMaxError() {
+		Point2D_F32 expected = new Point2D_F32();
+		Point2D_F32 found = new Point2D_F32();
+
+		double max = 0;
+		for (int y = 0; y < gridHeight-1; y++) {
+			float cy = Math.min(height-1, y*spacing + spacing/2.0f);
+			for (int x = 0; x < gridWidth-1; x++) {
+				float cx = Math.min(width-1, x*spacing + spacing/2.0f);
+
+				transform.compute(cx, cy, expected);
+				interpolate(cx, cy, found);
+				max = Math.max(max, expected.distance(found));
+			}
+		}
+		return max;
+	}
+
+	@Override
+	public void compute(float x, float y, Point2D_F32 out) {
+		if( x < 0 || y < 0 || x > width-1 || y > height-1 ) {
+			transform.compute(x, y, out);
+		} else {
+			interpolate(x, y, out);
+		}
+	}
+
+	@Override
+	public void compute(float[] input, float[] output, int offset, int length) {
+		Point2D_F32 p = new Point2D_F32();
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			compute(input[i], input[i+1], p);
+			output[i] = p.x;
+			output[i+1] = p.y;
+		}
+	}
+
+	/**
+	 * Bilinear interpolation between the four grid points around the point.  Must be inside the image.
+	 */
+	private void interpolate( float x , float y , Point2D_F32 out ) {
+		float gx = x/spacing;
+		float gy = y/spacing;
+		int ix = (int)gx;
+		int iy = (int)gy;
+		float ax = gx - ix;
+		float ay = gy - iy;
+
+		int i00 = (iy*gridWidth + ix)*2;
+		int i01 = i00 + gridWidth*2;
+
+		float w00 = (1-ax)*(1-ay);
+		float w10 = ax*(1-ay);
+		float w01 = (1-ax)*ay;
+		float w11 = ax*ay;
+
+		out.x = w00*grid[i00  ] + w10*grid[i00+2] + w01*grid[i01  ] + w11*grid[i01+2];
+		out.y = w00*grid[i00+1] + w10*grid[i00+3] + w01*grid[i01+1] + w11*grid[i01+3];
+	}
+
+	public Point2Transform2_F32 getTransform() {
+		return transform;
+	}
+
+	/**
+	 * Spacing between grid points in pixels which was selected
+	 */
+	public int getSpacing() {
+		return spacing;
+	}
+
+	/**
+	 * Largest error found when selecting the grid's spacing
+	 */
+	public double getMaxError() {
+		return maxError;
+	}
+}
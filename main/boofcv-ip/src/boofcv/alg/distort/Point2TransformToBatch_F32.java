@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.Point2Transform2_F32;
+import boofcv.struct.distort.Point2TransformBatch2_F32;
+import georegression.struct.point.Point2D_F32;
+
+/**
+ * Applies a {@link Point2Transform2_F32} to a batch of points one point at a time. Used for transforms which
+ * don't have a specialized batch implementation.  It's safe to call compute concurrently if the wrapped
+ * transform is thread safe.
+ *
+ * @author Peter Abeles
+ */
+public class Point2TransformToBatch_F32 implements Point2TransformBatch2_F32 {
+
+	Point2Transform2_F32 transform;
+
+	public Point2TransformToBatch_F32(Point2Transform2_F32 transform) {
+		this.transform = transform;
+	}
+
+	/**
+	 * Returns the transform itself if it has a batch implementation, otherwise it's wrapped.
+	 */
+	public static Point2TransformBatch2_F32 wrap( Point2Transform2_F32 transform ) {
+		if( transform instanceof Point2TransformBatch2_F32 )
+			return (Point2TransformBatch2_F32)transform;
+		return new Point2TransformToBatch_F32(transform);
+	}
+
+	@Override
+	public void compute(float[] input, float[] output, int offset, int length) {
+		Point2D_F32 p = new Point2D_F32();
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			transform.compute(input[i], input[i+1], p);
+			output[i] = p.x;
+			output[i+1] = p.y;
+		}
+	}
+
+	public Point2Transform2_F32 getTransform() {
+		return transform;
+	}
+}
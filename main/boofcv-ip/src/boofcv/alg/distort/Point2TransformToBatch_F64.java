@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.Point2Transform2_F64;
+import boofcv.struct.distort.Point2TransformBatch2_F64;
+import georegression.struct.point.Point2D_F64;
+
+/**
+ * Applies a {@link Point2Transform2_F64} to a batch of points one point at a time. Used for transforms which
+ * don't have a specialized batch implementation.  It's safe to call compute concurrently if the wrapped
+ * transform is thread safe.
+ *
+ * @author Peter Abeles
+ */
+public class Point2TransformToBatch_F64 implements Point2TransformBatch2_F64 {
+
+	Point2Transform2_F64 transform;
+
+	public Point2TransformToBatch_F64(Point2Transform2_F64 transform) {
+		this.transform = transform;
+	}
+
+	/**
+	 * Returns the transform itself if it has a batch implementation, otherwise it's wrapped.
+	 */
+	public static Point2TransformBatch2_F64 wrap( Point2Transform2_F64 transform ) {
+		if( transform instanceof Point2TransformBatch2_F64 )
+			return (Point2TransformBatch2_F64)transform;
+		return new Point2TransformToBatch_F64(transform);
+	}
+
+	@Override
+	public void compute(double[] input, double[] output, int offset, int length) {
+		Point2D_F64 p = new Point2D_F64();
+		int end = (offset+length)*2;
+		for (int i = offset*2; i < end; i += 2) {
+			transform.compute(input[i], input[i+1], p);
+			output[i] = p.x;
+			output[i+1] = p.y;
+		}
+	}
+
+	public Point2Transform2_F64 getTransform() {
+		return transform;
+	}
+}
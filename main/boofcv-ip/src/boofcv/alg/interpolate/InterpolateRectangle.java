@@ -43,6 +43,14 @@ public interface InterpolateRectangle<T extends ImageGray<T>> {
 	 */
 	public T getImage();
 
+	/**
+	 * Creates a new instance of this interpolation method which has its own internal state.  Used when
+	 * the same type of interpolation is needed by multiple threads.
+	 *
+	 * @return New instance of this interpolation method.  The image is not set.
+	 */
+	public InterpolateRectangle<T> copy();
+
 	/**
 	 * Copies a grid from the source image starting at the specified coordinate
 	 * into the destination image.  The 'dest' image must be within the original image.
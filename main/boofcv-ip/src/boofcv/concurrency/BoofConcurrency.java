@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import org.ddogleg.struct.FastQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>
+ * Central location for concurrency related settings and functions which break a loop up into blocks that are
+ * processed by a shared thread pool.  Concurrent implementations of algorithms have the suffix _MT and
+ * use these functions instead of creating their own threads.
+ * </p>
+ *
+ * <p>
+ * Blocks are always assigned to contiguous ranges in increasing order and their number only depends
+ * on the size of the range and {@link #getMaxThreads()}.  This allows algorithms to reduce per block
+ * results in a deterministic order.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BoofConcurrency {
+
+	/**
+	 * If true then factories will return concurrent implementations of algorithms when one is available.
+	 * Disabled by default since it changes the threading behavior of existing code.
+	 */
+	public static boolean USE_CONCURRENT = false;
+
+	// maximum number of threads which can be used by the pool
+	private static int maxThreads = Runtime.getRuntime().availableProcessors();
+
+	// thread pool which all concurrent algorithms share
+	private static ForkJoinPool pool = new ForkJoinPool(maxThreads);
+
+	/**
+	 * Changes the maximum number of threads.  A new thread pool is created.
+	 *
+	 * @param maxThreads Maximum number of threads.  Must be &ge; 1
+	 */
+	public static synchronized void setMaxThreads( int maxThreads ) {
+		if( maxThreads < 1 )
+			throw new IllegalArgumentException("Must be at least one thread");
+		BoofConcurrency.maxThreads = maxThreads;
+		ForkJoinPool old = pool;
+		pool = new ForkJoinPool(maxThreads);
+		old.shutdown();
+	}
+
+	public static int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Computes the number of blocks a range will be split into
+	 *
+	 * @param start First index in the range
+	 * @param endExclusive Upper bound on the range
+	 * @param minBlock Minimum number of indexes in a block
+	 * @return Number of blocks. Always &ge; 1
+	 */
+	public static int computeBlocks( int start , int endExclusive , int minBlock ) {
+		int length = endExclusive-start;
+		int numBlocks = Math.min(maxThreads, length/Math.max(1,minBlock));
+		return Math.max(1,numBlocks);
+	}
+
+	/**
+	 * Splits the range into blocks which are processed concurrently.  Returns after all blocks have been processed.
+	 *
+	 * @param start First index in the range
+	 * @param endExclusive Upper bound on the range
+	 * @param minBlock Minimum number of indexes in a block
+	 * @param consumer Processes a block
+	 */
+	public static void loopBlocks( int start , int endExclusive , int minBlock ,
+								   final IntRangeConsumer consumer ) {
+		int numBlocks = computeBlocks(start,endExclusive,minBlock);
+		if( numBlocks == 1 ) {
+			consumer.accept(start,endExclusive);
+			return;
+		}
+
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int i = 0; i < numBlocks; i++) {
+			final int b0 = blockStart(start,endExclusive,numBlocks,i);
+			final int b1 = blockStart(start,endExclusive,numBlocks,i+1);
+			tasks.add(ForkJoinTask.adapt(new Runnable() {
+				@Override
+				public void run() {
+					consumer.accept(b0,b1);
+				}
+			}));
+		}
+		invokeAll(tasks);
+	}
+
+	/**
+	 * Splits the range into blocks which are processed concurrently.  Each block is given its own workspace.
+	 * After this function returns the workspace will contain one element for each block, in order.
+	 *
+	 * @param start First index in the range
+	 * @param endExclusive Upper bound on the range
+	 * @param minBlock Minimum number of indexes in a block
+	 * @param workspace Storage for per block workspace.  Resized to the number of blocks.
+	 * @param consumer Processes a block
+	 */
+	public static <T> void loopBlocks( int start , int endExclusive , int minBlock ,
+									   FastQueue<T> workspace ,
+									   final IntRangeObjectConsumer<T> consumer ) {
+		int numBlocks = computeBlocks(start,endExclusive,minBlock);
+		workspace.resize(numBlocks);
+		if( numBlocks == 1 ) {
+			consumer.accept(workspace.get(0),start,endExclusive);
+			return;
+		}
+
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (int i = 0; i < numBlocks; i++) {
+			final T data = workspace.get(i);
+			final int b0 = blockStart(start,endExclusive,numBlocks,i);
+			final int b1 = blockStart(start,endExclusive,numBlocks,i+1);
+			tasks.add(ForkJoinTask.adapt(new Runnable() {
+				@Override
+				public void run() {
+					consumer.accept(data,b0,b1);
+				}
+			}));
+		}
+		invokeAll(tasks);
+	}
+
+	/**
+	 * Runs independent tasks concurrently and returns after all of them have finished.  With a single thread
+	 * the tasks are run in the order they were passed in.
+	 *
+	 * @param tasks Tasks which don't share any mutable data
+	 */
+	public static void runTasks( Runnable... tasks ) {
+		if( maxThreads == 1 || tasks.length == 1 ) {
+			for (int i = 0; i < tasks.length; i++) {
+				tasks[i].run();
+			}
+			return;
+		}
+
+		List<ForkJoinTask<?>> list = new ArrayList<>();
+		for (int i = 0; i < tasks.length; i++) {
+			list.add(ForkJoinTask.adapt(tasks[i]));
+		}
+		invokeAll(list);
+	}
+
+	/**
+	 * Returns the first index in a block
+	 */
+	static int blockStart( int start , int endExclusive , int numBlocks , int block ) {
+		return start + (int)((long)(endExclusive-start)*block/numBlocks);
+	}
+
+	/**
+	 * Runs all the tasks and waits for them to finish.  If called from inside the pool, e.g. a nested loop,
+	 * then the tasks are forked from the current worker instead of being submitted to the pool again.
+	 */
+	private static void invokeAll( final List<ForkJoinTask<?>> tasks ) {
+		if( ForkJoinTask.inForkJoinPool() ) {
+			ForkJoinTask.invokeAll(tasks);
+		} else {
+			pool.invoke(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					ForkJoinTask.invokeAll(tasks);
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+/**
+ * Processes a range of indexes using a workspace which is owned by the block.  No other thread will access
+ * the workspace while the block is being processed, allowing results to be accumulated without locks.
+ *
+ * @author Peter Abeles
+ */
+public interface IntRangeObjectConsumer<T> {
+	/**
+	 * Process all indexes in the range
+	 *
+	 * @param data Workspace for this block
+	 * @param minInclusive First index in the range
+	 * @param maxExclusive Upper bound on the range.  Exclusive.
+	 */
+	void accept( T data , int minInclusive , int maxExclusive );
+}
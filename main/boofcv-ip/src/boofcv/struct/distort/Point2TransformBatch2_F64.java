@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.struct.distort;
+
+/**
+ * Applies a transform to a batch of 2D points.  The points are packed into an array as (x,y) pairs, i.e.
+ * point i is stored at index 2*i and 2*i+1.  The input and output arrays can be the same array, in which case
+ * the points are transformed in-place.
+ *
+ * @see Point2Transform2_F64
+ *
+ * @author Peter Abeles
+ */
+public interface Point2TransformBatch2_F64 {
+
+	/**
+	 * Applies the transformation to points in the range [offset, offset+length)
+	 *
+	 * @param input Packed array of input points
+	 * @param output Packed array that the transformed points are written to. Can be the same as input.
+	 * @param offset Index of the first point
+	 * @param length Number of points which are to be transformed
+	 */
+	void compute( double[] input , double[] output , int offset , int length );
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.distort;
+
+import boofcv.struct.distort.Point2Transform2_F64;
+import georegression.struct.point.Point2D_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestPoint2TransformGrid_F64 {
+
+	Random rand = new Random(234);
+
+	int width = 320;
+	int height = 240;
+
+	/**
+	 * Quadratic transform.  Bilinear interpolation error is largest at the center of a cell
+	 */
+	Point2Transform2_F64 transform = new Point2Transform2_F64() {
+		@Override
+		public void compute(double x, double y, Point2D_F64 out) {
+			out.x = x + 0.001*x*x + 0.0005*x*y;
+			out.y = y - 0.002*y*y;
+		}
+	};
+
+	@Test
+	public void withinTolerance() {
+		for( double tolerance : new double[]{0.1,0.01,0.001}) {
+			Point2TransformGrid_F64 alg = new Point2TransformGrid_F64(transform, width, height, tolerance);
+
+			assertTrue(alg.getMaxError() <= tolerance);
+
+			Point2D_F64 expected = new Point2D_F64();
+			Point2D_F64 found = new Point2D_F64();
+			for (int i = 0; i < 200; i++) {
+				double x = rand.nextFloat()*(width-1);
+				double y = rand.nextFloat()*(height-1);
+				transform.compute(x, y, expected);
+				alg.compute(x, y, found);
+				assertTrue(expected.distance(found) <= tolerance);
+			}
+		}
+	}
+
+	@Test
+	public void smallerToleranceSmallerSpacing() {
+		Point2TransformGrid_F64 a = new Point2TransformGrid_F64(transform, width, height, 0.1);
+		Point2TransformGrid_F64 b = new Point2TransformGrid_F64(transform, width, height, 0.001);
+
+		assertTrue(a.getSpacing() > b.getSpacing());
+	}
+
+	/**
+	 * Grid points and the image border should have no error
+	 */
+	@Test
+	public void gridPoints() {
+		Point2TransformGrid_F64 alg = new Point2TransformGrid_F64(transform, width, height, 0.01);
+		int spacing = alg.getSpacing();
+
+		checkEquals(alg, 0, 0, 1e-8);
+		checkEquals(alg, spacing, 2*spacing, 1e-8);
+		checkEquals(alg, width-1, 0, 0.01);
+		checkEquals(alg, width-1, height-1, 0.01);
+	}
+
+	/**
+	 * Points outside the image are computed using the original transform
+	 */
+	@Test
+	public void outsideImage() {
+		Point2TransformGrid_F64 alg = new Point2TransformGrid_F64(transform, width, height, 0.1);
+
+		checkEquals(alg, -1.5, 10, 0);
+		checkEquals(alg, 10, -0.1, 0);
+		checkEquals(alg, width-0.5, 10, 0);
+		checkEquals(alg, 10, height+20, 0);
+	}
+
+	@Test
+	public void batch() {
+		Point2TransformGrid_F64 alg = new Point2TransformGrid_F64(transform, width, height, 0.01);
+
+		double[] input = new double[40];
+		for (int i = 0; i < input.length; i += 2) {
+			input[i] = rand.nextFloat()*(width+20)-10;
+			input[i+1] = rand.nextFloat()*(height+20)-10;
+		}
+		double[] output = new double[40];
+		alg.compute(input, output, 0, 20);
+
+		Point2D_F64 expected = new Point2D_F64();
+		for (int i = 0; i < 20; i++) {
+			alg.compute(input[i*2], input[i*2+1], expected);
+			assertEquals(expected.x, output[i*2], 0);
+			assertEquals(expected.y, output[i*2+1], 0);
+		}
+	}
+
+	private void checkEquals( Point2TransformGrid_F64 alg , double x , double y , double tol ) {
+		Point2D_F64 expected = new Point2D_F64();
+		Point2D_F64 found = new Point2D_F64();
+		transform.compute(x, y, expected);
+		alg.compute(x, y, found);
+		assertEquals(expected.x, found.x, tol);
+		assertEquals(expected.y, found.y, tol);
+	}
+}
@@ -143,6 +143,34 @@ public abstract class GeneralBilinearRectangleChecks<T extends ImageGray<T>> {
 			}
 		}
 	}
+
+	/**
+	 * The copy should produce the same results and not share the image
+	 */
+	@Test
+	public void copy() {
+		T imgA = createImage(width, height);
+		T imgB = createImage(width, height);
+		GImageMiscOps.fillUniform(imgA, rand, 0, 200);
+		GImageMiscOps.fillUniform(imgB, rand, 0, 200);
+
+		InterpolateRectangle<T> interpA = createRectangleInterpolate();
+		interpA.setImage(imgA);
+		InterpolateRectangle<T> interpB = interpA.copy();
+		interpB.setImage(imgB);
+		assertTrue(imgA == interpA.getImage());
+
+		InterpolateRectangle<T> interpC = createRectangleInterpolate();
+		interpC.setImage(imgB);
+
+		GrayF32 outB = new GrayF32(20,25);
+		GrayF32 outC = new GrayF32(20,25);
+		interpB.region(5.4f, 8.6f, outB );
+		interpC.region(5.4f, 8.6f, outC );
+
+		BoofTesting.assertEquals(outC,outB,0);
+	}
+
 	/**
 	 * Compare region against the value returned by get ImplBilinearPixel_F32
 	 */
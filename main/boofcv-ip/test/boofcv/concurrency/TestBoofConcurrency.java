@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.concurrency;
+
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestBoofConcurrency {
+
+	int originalThreads;
+
+	/**
+	 * Force multiple threads so that blocks are processed concurrently even on a single core machine
+	 */
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Test
+	public void computeBlocks() {
+		int N = BoofConcurrency.getMaxThreads();
+		assertEquals(1, BoofConcurrency.computeBlocks(0, 0, 10));
+		assertEquals(1, BoofConcurrency.computeBlocks(0, 15, 10));
+		assertEquals(Math.min(N,10), BoofConcurrency.computeBlocks(5, 105, 10));
+		assertEquals(Math.min(N,100), BoofConcurrency.computeBlocks(0, 100, 0));
+	}
+
+	@Test
+	public void blockStart() {
+		for (int numBlocks = 1; numBlocks < 7; numBlocks++) {
+			assertEquals(3, BoofConcurrency.blockStart(3, 20, numBlocks, 0));
+			assertEquals(20, BoofConcurrency.blockStart(3, 20, numBlocks, numBlocks));
+			for (int i = 0; i < numBlocks; i++) {
+				assertTrue(BoofConcurrency.blockStart(3, 20, numBlocks, i) <=
+						BoofConcurrency.blockStart(3, 20, numBlocks, i + 1));
+			}
+		}
+	}
+
+	/**
+	 * Every index should be visited exactly once
+	 */
+	@Test
+	public void loopBlocks() {
+		final int[] counts = new int[1000];
+		BoofConcurrency.loopBlocks(10, 990, 5, new IntRangeConsumer() {
+			@Override
+			public void accept(int minInclusive, int maxExclusive) {
+				for (int i = minInclusive; i < maxExclusive; i++) {
+					counts[i]++;
+				}
+			}
+		});
+
+		for (int i = 0; i < counts.length; i++) {
+			assertEquals(i >= 10 && i < 990 ? 1 : 0, counts[i]);
+		}
+	}
+
+	/**
+	 * Each block gets its own workspace and the blocks are in order
+	 */
+	@Test
+	public void loopBlocks_workspace() {
+		FastQueue<GrowQueue_I32> workspace = new FastQueue<>(GrowQueue_I32.class,true);
+		BoofConcurrency.loopBlocks(0, 1000, 5, workspace, new IntRangeObjectConsumer<GrowQueue_I32>() {
+			@Override
+			public void accept(GrowQueue_I32 data, int minInclusive, int maxExclusive) {
+				data.reset();
+				for (int i = minInclusive; i < maxExclusive; i++) {
+					data.add(i);
+				}
+			}
+		});
+
+		assertEquals(BoofConcurrency.computeBlocks(0, 1000, 5), workspace.size);
+		int expected = 0;
+		for (int i = 0; i < workspace.size; i++) {
+			GrowQueue_I32 a = workspace.get(i);
+			for (int j = 0; j < a.size; j++) {
+				assertEquals(expected++, a.get(j));
+			}
+		}
+		assertEquals(1000, expected);
+	}
+
+	/**
+	 * Loops which are nested inside of another loop should not dead lock
+	 */
+	@Test
+	public void loopBlocks_nested() {
+		final int[] counts = new int[100*100];
+		BoofConcurrency.loopBlocks(0, 100, 1, new IntRangeConsumer() {
+			@Override
+			public void accept(int minInclusive, int maxExclusive) {
+				for (int i = minInclusive; i < maxExclusive; i++) {
+					final int row = i;
+					BoofConcurrency.loopBlocks(0, 100, 1, new IntRangeConsumer() {
+						@Override
+						public void accept(int minInclusive, int maxExclusive) {
+							for (int j = minInclusive; j < maxExclusive; j++) {
+								counts[row*100+j]++;
+							}
+						}
+					});
+				}
+			}
+		});
+
+		for (int i = 0; i < counts.length; i++) {
+			assertEquals(1, counts[i]);
+		}
+	}
+
+	/**
+	 * Every task should be run exactly once
+	 */
+	@Test
+	public void runTasks() {
+		final int[] counts = new int[3];
+		Runnable[] tasks = new Runnable[counts.length];
+		for (int i = 0; i < tasks.length; i++) {
+			final int index = i;
+			tasks[i] = new Runnable() {
+				@Override
+				public void run() {
+					counts[index]++;
+				}
+			};
+		}
+		BoofConcurrency.runTasks(tasks);
+
+		for (int i = 0; i < counts.length; i++) {
+			assertEquals(1, counts[i]);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.sfm;
+
+/**
+ * Provides the time it took to run each processing stage of an algorithm for the most recent frame.  If stages
+ * run concurrently then their times will overlap.
+ *
+ * @author Peter Abeles
+ */
+public interface AccessStageTimes {
+
+	/**
+	 * Number of processing stages
+	 */
+	int getStageCount();
+
+	/**
+	 * Name of the stage
+	 *
+	 * @param index Stage index
+	 */
+	String getStageName( int index );
+
+	/**
+	 * Time in nano-seconds it took to run the stage for the most recent frame.
+	 *
+	 * @param index Stage index
+	 */
+	long getStageTime( int index );
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.sfm.d3;
+
+import boofcv.abst.feature.tracker.PointTrackerLookAhead;
+import boofcv.struct.image.ImageBase;
+
+/**
+ * <p>
+ * Stereo visual odometry which splits processing of a stereo pair into two stages.  The first stage,
+ * {@link #prepare}, does the work which only depends on the images, e.g. image pyramids, gradients, and feature
+ * intensity inside the trackers.  The second stage, {@link #process(Frame)}, tracks features and estimates motion.
+ * The first stage can be run on the next stereo pair while the second stage is running on the current pair.
+ * See {@link StereoVisualOdometryPipeline}.
+ * </p>
+ *
+ * <p>
+ * Look ahead is only possible if the trackers implement {@link PointTrackerLookAhead}, otherwise
+ * {@link #createFrame()} will throw an exception.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public interface StereoVisualOdometryLookAhead<T extends ImageBase<T>> extends StereoVisualOdometry<T> {
+
+	/**
+	 * Creates storage for a prepared stereo pair.
+	 *
+	 * @throws IllegalArgumentException If the trackers can't prepare images ahead of time
+	 */
+	Frame<T> createFrame();
+
+	/**
+	 * Prepares the stereo pair.  Doesn't modify the state of visual odometry and can be called while
+	 * {@link #process(Frame)} is running on a different frame.
+	 *
+	 * @param left Image from left camera
+	 * @param right Image from right camera
+	 * @param frame Storage for the prepared images.  Must have been created by this instance.
+	 */
+	void prepare( T left , T right , Frame<T> frame );
+
+	/**
+	 * Updates the motion estimate using a prepared stereo pair.  Same as {@link #process(ImageBase, ImageBase)}
+	 * otherwise.  After it returns the frame contains storage which can be used to prepare another pair.
+	 *
+	 * @param frame Prepared stereo pair
+	 * @return true if the motion estimate has been updated and false if not
+	 */
+	boolean process( Frame<T> frame );
+
+	/**
+	 * Storage for a stereo pair which has been prepared
+	 */
+	class Frame<T extends ImageBase<T>> {
+		public T left;
+		public T right;
+		// prepared image for the tracker in the left camera
+		public PointTrackerLookAhead.Frame trackerLeft;
+		// prepared image for the tracker in the right camera.  null if features are only tracked in the left camera
+		public PointTrackerLookAhead.Frame trackerRight;
+	}
+}
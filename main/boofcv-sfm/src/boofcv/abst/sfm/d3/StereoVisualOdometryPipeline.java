@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.sfm.d3;
+
+import boofcv.abst.sfm.d3.StereoVisualOdometryLookAhead.Frame;
+import boofcv.struct.image.ImageBase;
+import georegression.struct.se.Se3_F64;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * <p>
+ * Runs {@link StereoVisualOdometryLookAhead} as a two stage pipeline with a one frame look ahead.  The thread which
+ * calls {@link #submit} prepares the stereo pair, e.g. computes image pyramids, gradients, and feature intensity,
+ * while a worker thread tracks features and estimates motion for the previous pair.  Results are returned in the
+ * same order as the stereo pairs were submitted and are identical to calling
+ * {@link StereoVisualOdometry#process(ImageBase, ImageBase)} one pair at a time.
+ * </p>
+ *
+ * <p>
+ * Memory and latency are bounded.  There is storage for two prepared pairs, one being processed and one waiting, so
+ * {@link #submit} blocks until the worker has finished with the oldest pair.  At most maxResults results are
+ * queued and the worker stops when the queue is full.  If results are taken in the same thread which
+ * submits images then no more than one pair should be submitted ahead of the result being taken.
+ * </p>
+ *
+ * <p>
+ * Input images are referenced and not copied.  An image must not be modified until the result for the pair which
+ * was submitted after it has been taken.  The visual odometry must not be accessed directly while the pipeline is
+ * running.  After a fault it is reset by the worker.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class StereoVisualOdometryPipeline<T extends ImageBase<T>> {
+
+	StereoVisualOdometryLookAhead<T> vo;
+
+	// storage for frames which can be prepared.  Only two frames exist, which bounds the look ahead
+	BlockingQueue<Frame<T>> available = new ArrayBlockingQueue<>(2);
+	// frames which have been prepared and are waiting to be processed
+	BlockingQueue<Frame<T>> prepared = new ArrayBlockingQueue<>(2);
+	// results which have not been taken yet
+	BlockingQueue<Result> results;
+
+	// estimates motion
+	Thread worker;
+
+	// set if the worker failed.  Once set no more frames will be processed
+	volatile RuntimeException failure;
+
+	/**
+	 * Creates the pipeline and starts the worker thread.
+	 *
+	 * @param vo Visual odometry.  Must be able to prepare images ahead of time.
+	 * @param maxResults Maximum number of results which can be waiting to be taken.  Must be &ge; 1
+	 */
+	public StereoVisualOdometryPipeline( StereoVisualOdometryLookAhead<T> vo , int maxResults ) {
+		if( maxResults < 1 )
+			throw new IllegalArgumentException("maxResults must be at least one");
+		this.vo = vo;
+		this.results = new ArrayBlockingQueue<>(maxResults);
+
+		available.add(vo.createFrame());
+		available.add(vo.createFrame());
+
+		worker = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				processFrames();
+			}
+		}, "StereoVisualOdometryPipeline");
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	/**
+	 * Prepares the stereo pair in the calling thread and passes it to the worker.  Blocks if two pairs are
+	 * already waiting to be processed or are being processed.
+	 *
+	 * @param left Image from left camera
+	 * @param right Image from right camera
+	 */
+	public void submit( T left , T right ) throws InterruptedException {
+		Frame<T> frame = available.take();
+		if( failure != null ) {
+			available.put(frame);
+			throw new RuntimeException("Visual odometry failed", failure);
+		}
+		vo.prepare(left, right, frame);
+		prepared.put(frame);
+	}
+
+	/**
+	 * Returns the result for the oldest stereo pair whose result hasn't been taken yet.  Blocks until it has
+	 * been processed.
+	 */
+	public Result take() throws InterruptedException {
+		Result result = results.take();
+		if( result.error != null )
+			throw new RuntimeException("Visual odometry failed", result.error);
+		return result;
+	}
+
+	/**
+	 * Stops the worker thread.  Pairs which haven't been processed yet are discarded.
+	 */
+	public void shutdown() {
+		worker.interrupt();
+	}
+
+	/**
+	 * Processes prepared frames in the order they were submitted until interrupted or an exception is thrown
+	 */
+	private void processFrames() {
+		long index = 0;
+		try {
+			while( true ) {
+				Frame<T> frame = prepared.take();
+
+				Result result = new Result();
+				result.index = index++;
+				try {
+					result.success = vo.process(frame);
+					result.fault = !result.success && vo.isFault();
+					result.cameraToWorld.set(vo.getCameraToWorld());
+					if( result.fault )
+						vo.reset();
+				} catch( RuntimeException e ) {
+					result.error = e;
+					failure = e;
+				}
+
+				// the frame now contains storage which isn't being used and can prepare another pair
+				frame.left = null;
+				frame.right = null;
+				available.put(frame);
+				results.put(result);
+
+				if( result.error != null )
+					return;
+			}
+		} catch( InterruptedException ignore ) {
+		}
+	}
+
+	/**
+	 * Visual odometry results for a single stereo pair
+	 */
+	public static class Result {
+		/**
+		 * Index of the stereo pair.  The first pair submitted is 0.
+		 */
+		public long index;
+		/**
+		 * Value returned by {@link StereoVisualOdometry#process(ImageBase, ImageBase)}
+		 */
+		public boolean success;
+		/**
+		 * Value of {@link StereoVisualOdometry#isFault()}.  If true the visual odometry has been reset.
+		 */
+		public boolean fault;
+		/**
+		 * Copy of {@link StereoVisualOdometry#getCameraToWorld()} after the pair was processed
+		 */
+		public Se3_F64 cameraToWorld = new Se3_F64();
+
+		// exception thrown while processing the pair
+		RuntimeException error;
+	}
+}
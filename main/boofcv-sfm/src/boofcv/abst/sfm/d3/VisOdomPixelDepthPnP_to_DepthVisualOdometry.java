@@ -20,6 +20,7 @@ package boofcv.abst.sfm.d3;
 
 import boofcv.abst.feature.tracker.PointTrack;
 import boofcv.abst.sfm.AccessPointTracks3D;
+import boofcv.abst.sfm.AccessStageTimes;
 import boofcv.alg.distort.LensDistortionOps;
 import boofcv.alg.distort.PointToPixelTransform_F32;
 import boofcv.alg.geo.DistanceModelMonoPixels;
@@ -50,8 +51,11 @@ import static boofcv.alg.distort.LensDistortionOps.narrow;
 // TODO WARNING! active list has been modified by dropping and adding tracks
 // this is probably true of other SFM algorithms
 public class VisOdomPixelDepthPnP_to_DepthVisualOdometry<Vis extends ImageBase<Vis>, Depth extends ImageGray<Depth>>
-	implements DepthVisualOdometry<Vis,Depth> , AccessPointTracks3D
+	implements DepthVisualOdometry<Vis,Depth> , AccessPointTracks3D, AccessStageTimes
 {
+
+	// names of the processing stages
+	private static final String[] STAGE_NAMES = new String[]{"track","motion","spawn"};
 	// low level algorithm
 	DepthSparse3D<Depth> sparse3D;
 	VisOdomPixelDepthPnP<Vis> alg;
@@ -154,4 +158,24 @@ public class VisOdomPixelDepthPnP_to_DepthVisualOdometry<Vis extends ImageBase<V
 	public Class<Depth> getDepthType() {
 		return depthType;
 	}
+
+	@Override
+	public int getStageCount() {
+		return STAGE_NAMES.length;
+	}
+
+	@Override
+	public String getStageName(int index) {
+		return STAGE_NAMES[index];
+	}
+
+	@Override
+	public long getStageTime(int index) {
+		switch( index ) {
+			case 0: return alg.getTimeTrack();
+			case 1: return alg.getTimeMotion();
+			case 2: return alg.getTimeSpawn();
+			default: throw new IllegalArgumentException("Unknown stage "+index);
+		}
+	}
 }
@@ -20,6 +20,7 @@ package boofcv.abst.sfm.d3;
 
 import boofcv.abst.feature.tracker.PointTrack;
 import boofcv.abst.sfm.AccessPointTracks3D;
+import boofcv.abst.sfm.AccessStageTimes;
 import boofcv.alg.feature.associate.AssociateStereo2D;
 import boofcv.alg.geo.DistanceModelMonoPixels;
 import boofcv.alg.geo.pose.PnPStereoDistanceReprojectionSq;
@@ -44,8 +45,11 @@ import java.util.List;
  * @author Peter Abeles
  */
 public class WrapVisOdomDualTrackPnP<T extends ImageGray<T>>
-		implements StereoVisualOdometry<T>, AccessPointTracks3D
+		implements StereoVisualOdometryLookAhead<T>, AccessPointTracks3D, AccessStageTimes
 {
+
+	// names of the processing stages
+	private static final String[] STAGE_NAMES = new String[]{"track","motion","spawn"};
 	RefinePnPStereo refine;
 	PnPStereoEstimator pnp;
 	DistanceModelMonoPixels<Se3_F64,Point2D3D> distanceMono;
@@ -138,6 +142,26 @@ public class WrapVisOdomDualTrackPnP<T extends ImageGray<T>>
 		return success = alg.process(leftImage,rightImage);
 	}
 
+	@Override
+	public Frame<T> createFrame() {
+		Frame<T> frame = new Frame<>();
+		frame.trackerLeft = alg.createFrameLeft();
+		frame.trackerRight = alg.createFrameRight();
+		return frame;
+	}
+
+	@Override
+	public void prepare(T left, T right, Frame<T> frame) {
+		frame.left = left;
+		frame.right = right;
+		alg.prepareImages(left, right, frame.trackerLeft, frame.trackerRight);
+	}
+
+	@Override
+	public boolean process(Frame<T> frame) {
+		return success = alg.process(frame.left, frame.right, frame.trackerLeft, frame.trackerRight);
+	}
+
 	@Override
 	public boolean isFault() {
 		if( !success)
@@ -150,4 +174,24 @@ public class WrapVisOdomDualTrackPnP<T extends ImageGray<T>>
 	public ImageType<T> getImageType() {
 		return ImageType.single(imageType);
 	}
+
+	@Override
+	public int getStageCount() {
+		return STAGE_NAMES.length;
+	}
+
+	@Override
+	public String getStageName(int index) {
+		return STAGE_NAMES[index];
+	}
+
+	@Override
+	public long getStageTime(int index) {
+		switch( index ) {
+			case 0: return alg.getTimeTrack();
+			case 1: return alg.getTimeMotion();
+			case 2: return alg.getTimeSpawn();
+			default: throw new IllegalArgumentException("Unknown stage "+index);
+		}
+	}
 }
@@ -19,7 +19,10 @@
 package boofcv.abst.sfm.d3;
 
 import boofcv.abst.feature.tracker.PointTrack;
+import boofcv.abst.feature.tracker.PointTracker;
+import boofcv.abst.feature.tracker.PointTrackerLookAhead;
 import boofcv.abst.sfm.AccessPointTracks3D;
+import boofcv.abst.sfm.AccessStageTimes;
 import boofcv.alg.geo.DistanceModelMonoPixels;
 import boofcv.alg.sfm.StereoSparse3D;
 import boofcv.alg.sfm.d3.VisOdomPixelDepthPnP;
@@ -45,7 +48,10 @@ import static boofcv.alg.distort.LensDistortionOps.narrow;
 // TODO WARNING! active list has been modified by dropping and adding tracks
 // this is probably true of other SFM algorithms
 public class WrapVisOdomPixelDepthPnP<T extends ImageGray<T>>
-		implements StereoVisualOdometry<T>, AccessPointTracks3D {
+		implements StereoVisualOdometryLookAhead<T>, AccessPointTracks3D, AccessStageTimes {
+
+	// names of the processing stages
+	private static final String[] STAGE_NAMES = new String[]{"rectify","track","motion","spawn"};
 
 	// low level algorithm
 	VisOdomPixelDepthPnP<T> alg;
@@ -56,6 +62,9 @@ public class WrapVisOdomPixelDepthPnP<T extends ImageGray<T>>
 
 	List<PointTrack> active = new ArrayList<>();
 
+	// time in nano-seconds it took to rectify the most recent stereo pair
+	long timeRectify;
+
 	public WrapVisOdomPixelDepthPnP(VisOdomPixelDepthPnP<T> alg,
 									StereoSparse3D<T> stereo,
 									DistanceModelMonoPixels<Se3_F64,Point2D3D> distance,
@@ -111,8 +120,39 @@ public class WrapVisOdomPixelDepthPnP<T extends ImageGray<T>>
 
 	@Override
 	public boolean process(T leftImage, T rightImage) {
-		stereo.setImages(leftImage,rightImage);
-		success = alg.process(leftImage);
+		rectifyAndTrack(leftImage, rightImage);
+		return processMotion();
+	}
+
+	@Override
+	public Frame<T> createFrame() {
+		Frame<T> frame = new Frame<>();
+		frame.trackerLeft = lookAhead().createFrame();
+		return frame;
+	}
+
+	@Override
+	public void prepare(T left, T right, Frame<T> frame) {
+		frame.left = left;
+		frame.right = right;
+		lookAhead().prepare(left, frame.trackerLeft);
+	}
+
+	@Override
+	public boolean process(Frame<T> frame) {
+		rectifyAndTrack(frame);
+		return processMotion();
+	}
+
+	private PointTrackerLookAhead<T> lookAhead() {
+		PointTracker<T> tracker = alg.getTracker();
+		if( !(tracker instanceof PointTrackerLookAhead) )
+			throw new IllegalArgumentException("The tracker can't prepare images ahead of time");
+		return (PointTrackerLookAhead<T>)tracker;
+	}
+
+	private boolean processMotion() {
+		success = alg.processMotion();
 
 		active.clear();
 		alg.getTracker().getActiveTracks(active);
@@ -120,6 +160,29 @@ public class WrapVisOdomPixelDepthPnP<T extends ImageGray<T>>
 		return success;
 	}
 
+	/**
+	 * Rectifies the stereo pair and tracks features in the left image.  These two stages are independent of
+	 * each other.
+	 */
+	protected void rectifyAndTrack(T leftImage, T rightImage) {
+		rectify(leftImage, rightImage);
+		alg.processTracking(leftImage);
+	}
+
+	/**
+	 * Same as {@link #rectifyAndTrack(ImageGray, ImageGray)} but the left image has already been prepared
+	 */
+	protected void rectifyAndTrack(Frame<T> frame) {
+		rectify(frame.left, frame.right);
+		alg.processTracking(frame.trackerLeft);
+	}
+
+	protected void rectify(T leftImage, T rightImage) {
+		long time0 = System.nanoTime();
+		stereo.setImages(leftImage,rightImage);
+		timeRectify = System.nanoTime()-time0;
+	}
+
 	@Override
 	public ImageType<T> getImageType() {
 		return ImageType.single(imageType);
@@ -139,4 +202,25 @@ public class WrapVisOdomPixelDepthPnP<T extends ImageGray<T>>
 	public Se3_F64 getCameraToWorld() {
 		return alg.getCurrToWorld();
 	}
+
+	@Override
+	public int getStageCount() {
+		return STAGE_NAMES.length;
+	}
+
+	@Override
+	public String getStageName(int index) {
+		return STAGE_NAMES[index];
+	}
+
+	@Override
+	public long getStageTime(int index) {
+		switch( index ) {
+			case 0: return timeRectify;
+			case 1: return alg.getTimeTrack();
+			case 2: return alg.getTimeMotion();
+			case 3: return alg.getTimeSpawn();
+			default: throw new IllegalArgumentException("Unknown stage "+index);
+		}
+	}
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.sfm.d3;
+
+import boofcv.alg.geo.DistanceModelMonoPixels;
+import boofcv.alg.sfm.StereoSparse3D;
+import boofcv.alg.sfm.d3.VisOdomPixelDepthPnP;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.geo.Point2D3D;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.se.Se3_F64;
+
+/**
+ * Concurrent implementation of {@link WrapVisOdomPixelDepthPnP}.  Rectification of the stereo pair is only needed
+ * when computing the 3D location of new tracks, so it's done at the same time as features are tracked in the
+ * left image.  Results are identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class WrapVisOdomPixelDepthPnP_MT<T extends ImageGray<T>> extends WrapVisOdomPixelDepthPnP<T> {
+
+	public WrapVisOdomPixelDepthPnP_MT(VisOdomPixelDepthPnP<T> alg,
+									   StereoSparse3D<T> stereo,
+									   DistanceModelMonoPixels<Se3_F64, Point2D3D> distance,
+									   Class<T> imageType) {
+		super(alg, stereo, distance, imageType);
+	}
+
+	@Override
+	protected void rectifyAndTrack(final T leftImage, final T rightImage) {
+		BoofConcurrency.runTasks(new Runnable() {
+			@Override
+			public void run() {
+				alg.processTracking(leftImage);
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				rectify(leftImage, rightImage);
+			}
+		});
+	}
+
+	@Override
+	protected void rectifyAndTrack(final Frame<T> frame) {
+		BoofConcurrency.runTasks(new Runnable() {
+			@Override
+			public void run() {
+				alg.processTracking(frame.trackerLeft);
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				rectify(frame.left, frame.right);
+			}
+		});
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.abst.sfm.d3;
 
 import boofcv.abst.sfm.AccessPointTracks3D;
+import boofcv.abst.sfm.AccessStageTimes;
 import boofcv.alg.feature.associate.AssociateStereo2D;
 import boofcv.alg.geo.DistanceModelMonoPixels;
 import boofcv.alg.geo.pose.PnPStereoDistanceReprojectionSq;
@@ -46,8 +47,11 @@ import java.util.List;
  * @author Peter Abeles
  */
 public class WrapVisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
-		implements StereoVisualOdometry<T>, AccessPointTracks3D
+		implements StereoVisualOdometry<T>, AccessPointTracks3D, AccessStageTimes
 {
+	// names of the processing stages
+	private static final String[] STAGE_NAMES = new String[]{"describe","associate","motion"};
+
 	VisOdomQuadPnP<T,TD> alg;
 	RefinePnPStereo refine;
 	AssociateStereo2D<TD> associateStereo;
@@ -148,4 +152,24 @@ public class WrapVisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
 	public ImageType<T> getImageType() {
 		return ImageType.single(imageType);
 	}
+
+	@Override
+	public int getStageCount() {
+		return STAGE_NAMES.length;
+	}
+
+	@Override
+	public String getStageName(int index) {
+		return STAGE_NAMES[index];
+	}
+
+	@Override
+	public long getStageTime(int index) {
+		switch( index ) {
+			case 0: return alg.getTimeDescribe();
+			case 1: return alg.getTimeAssociate();
+			case 2: return alg.getTimeMotion();
+			default: throw new IllegalArgumentException("Unknown stage "+index);
+		}
+	}
 }
@@ -31,6 +31,8 @@ import org.ddogleg.struct.GrowQueue_I32;
  * Association for a stereo pair where the source is the left camera and the destination is the right camera. Pixel
  * coordinates are rectified and associations are only considered if the two observations are within tolerance
  * of each other along the y-axis and that the left observation's x-coordinate is greater than the right.
+ * Features in the right image are bucketed into rows of rectified pixels, so only features near the same
+ * epipolar line are scored.
  *
  * @author Peter Abeles
  */
@@ -58,6 +60,11 @@ public class AssociateStereo2D<Desc extends TupleDesc>
 	private FastQueue<Desc> descriptionsLeft;
 	private FastQueue<Desc> descriptionsRight;
 
+	// indexes features in the right image by their rectified y-coordinate
+	private PointGridIndex gridRight = new PointGridIndex();
+	// storage for features in the right image which could be associated
+	private GrowQueue_I32 candidates = new GrowQueue_I32();
+
 	public AssociateStereo2D( ScoreAssociation<Desc> scorer , double locationTolerance , Class<Desc> descType )
 	{
 		super(locationTolerance,locationTolerance);
@@ -101,6 +108,8 @@ public class AssociateStereo2D<Desc extends TupleDesc>
 		matches.reset();
 		unassociatedSrc.reset();
 
+		gridRight.process(locationRight, Double.POSITIVE_INFINITY, toleranceY);
+
 		for( int i = 0; i < locationLeft.size; i++ ) {
 			Point2D_F64 left = locationLeft.get(i);
 			Desc descLeft = descriptionsLeft.get(i);
@@ -108,12 +117,17 @@ public class AssociateStereo2D<Desc extends TupleDesc>
 			int bestIndex = -1;
 			double bestScore = scoreThreshold;
 
-			for( int j = 0; j < locationRight.size; j++ ) {
+			gridRight.findCandidates(-Double.MAX_VALUE, left.y - toleranceY,
+					left.x + toleranceX, left.y + toleranceY, candidates);
+
+			for( int k = 0; k < candidates.size; k++ ) {
+				int j = candidates.data[k];
 				Point2D_F64 right = locationRight.get(j);
 
 				if( checkRectified(left,right) ) {
 					double dist = scorer.score(descLeft, descriptionsRight.get(j));
-					if( dist < bestScore ) {
+					// candidates are not in order. Pick the lowest index on ties like a sequential search would
+					if( dist < bestScore || (dist == bestScore && j < bestIndex) ) {
 						bestScore = dist;
 						bestIndex = j;
 					}
@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.struct.image.Planar;
+import org.ejml.data.DMatrixRMaj;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Converts a disparity image into a 3D point cloud in bulk.  Instead of creating an object for each point the
+ * cloud is written directly into a packed array or a {@link ByteBuffer}.  Only pixels with a valid non-zero
+ * disparity are converted and points are written in row-major order.  Points are in the reference frame
+ * of the original (un-rectified) left camera.
+ * </p>
+ *
+ * <p>
+ * Two types of output are supported.  The first stores the points internally in a float[] (x,y,z) and, if a color
+ * image is provided, an int[] with packed 0xRRGGBB colors.  The second writes the points into a user provided
+ * ByteBuffer, which can be a direct buffer for handing off to native code.  Each point is written as three
+ * floats (x,y,z) followed by three bytes (red,green,blue) if there is a color image.  This is the same layout as
+ * a vertex in a binary PLY file with float coordinates and uchar colors.  The buffer's byte order is used.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DisparityToPointCloud {
+
+	// packed 3D points (x,y,z)
+	protected float[] cloud = new float[0];
+	// packed colors 0xRRGGBB
+	protected int[] colors = new int[0];
+	// number of points in the cloud
+	protected int numPoints;
+
+	// index of the first point in each row.  Element y+1 initially contains the number of points in row y
+	protected int[] rowStart = new int[0];
+
+	// range of disparity values
+	protected int minDisparity;
+	protected int rangeDisparity;
+
+	// 3D point in the left camera in homogeneous coordinates = origin + x*axisX + y*axisY
+	protected double originX, originY, originZ;
+	protected double axisXx, axisXy, axisXz;
+	protected double axisYx, axisYy, axisYz;
+
+	// references to inputs while processing.  Only one of the disparity images will be not null
+	protected GrayU8 disparityU8;
+	protected GrayF32 disparityF32;
+	protected ImageBase color;
+
+	// reference to the output buffer while processing. null if internal storage is used
+	protected ByteBuffer buffer;
+	protected int bufferOffset;
+	protected int bytesPerPoint;
+
+	/**
+	 * Specifies the stereo geometry.  See {@link StereoProcessingBase#computeHomo3D}.
+	 *
+	 * @param baseline Stereo baseline
+	 * @param rectK Intrinsic calibration matrix of the rectified cameras
+	 * @param rectR Rotation matrix of the rectified cameras
+	 */
+	public void configure( double baseline , DMatrixRMaj rectK , DMatrixRMaj rectR ) {
+		double fx = rectK.get(0,0);
+		double fy = rectK.get(1,1);
+		double cx = rectK.get(0,2);
+		double cy = rectK.get(1,2);
+
+		// 3D point in the rectified frame decomposed into terms which are linear in x and y
+		double z = baseline*fx;
+		double ox = -baseline*cx;
+		double oy = -z*cy/fy;
+		double ay = z/fy;
+
+		// rotate into the left camera frame
+		originX = rectR.get(0,0)*ox + rectR.get(1,0)*oy + rectR.get(2,0)*z;
+		originY = rectR.get(0,1)*ox + rectR.get(1,1)*oy + rectR.get(2,1)*z;
+		originZ = rectR.get(0,2)*ox + rectR.get(1,2)*oy + rectR.get(2,2)*z;
+
+		axisXx = rectR.get(0,0)*baseline;
+		axisXy = rectR.get(0,1)*baseline;
+		axisXz = rectR.get(0,2)*baseline;
+
+		axisYx = rectR.get(1,0)*ay;
+		axisYy = rectR.get(1,1)*ay;
+		axisYz = rectR.get(1,2)*ay;
+	}
+
+	/**
+	 * Specifies the range of disparity values in the disparity image.  Pixels with a value more
+	 * than maxDisparity-minDisparity are invalid.
+	 *
+	 * @param minDisparity Minimum disparity which was searched
+	 * @param maxDisparity Maximum disparity which was searched
+	 */
+	public void setDisparityRange( int minDisparity , int maxDisparity ) {
+		this.minDisparity = minDisparity;
+		this.rangeDisparity = maxDisparity - minDisparity;
+	}
+
+	/**
+	 * Converts the disparity image into a point cloud which is stored internally.
+	 *
+	 * @param disparity Disparity image.  {@link GrayU8} or {@link GrayF32}
+	 * @param color (Optional) Color of the rectified left image.  {@link GrayU8}, {@link Planar} or
+	 *              {@link InterleavedU8} with 3 bands.  Can be null.
+	 */
+	public void process( ImageGray disparity , ImageBase color ) {
+		setInputs(disparity, color);
+		buffer = null;
+
+		computeRowStart();
+		if( cloud.length < numPoints*3 )
+			cloud = new float[numPoints*3];
+		if( color != null && colors.length < numPoints )
+			colors = new int[numPoints];
+		fillRows();
+
+		releaseInputs();
+	}
+
+	/**
+	 * Converts the disparity image into a point cloud which is written into the buffer starting at its
+	 * current position.  After returning the position is advanced to the end of the written points.
+	 *
+	 * @param disparity Disparity image.  {@link GrayU8} or {@link GrayF32}
+	 * @param color (Optional) Color of the rectified left image.  {@link GrayU8}, {@link Planar} or
+	 *              {@link InterleavedU8} with 3 bands.  Can be null.
+	 * @param buffer Storage for the point cloud.  Must have enough room for all the points.
+	 * @return Number of points written
+	 */
+	public int process( ImageGray disparity , ImageBase color , ByteBuffer buffer ) {
+		setInputs(disparity, color);
+
+		computeRowStart();
+		bytesPerPoint = color == null ? 12 : 15;
+		bufferOffset = buffer.position();
+		if( buffer.remaining() < numPoints*bytesPerPoint ) {
+			releaseInputs();
+			throw new IllegalArgumentException("Buffer is too small. Requires "+numPoints*bytesPerPoint+" bytes");
+		}
+
+		this.buffer = buffer;
+		fillRows();
+		buffer.position(bufferOffset + numPoints*bytesPerPoint);
+
+		releaseInputs();
+		return numPoints;
+	}
+
+	private void setInputs( ImageGray disparity , ImageBase color ) {
+		if( disparity instanceof GrayU8 ) {
+			disparityU8 = (GrayU8)disparity;
+			disparityF32 = null;
+		} else if( disparity instanceof GrayF32 ) {
+			disparityU8 = null;
+			disparityF32 = (GrayF32)disparity;
+		} else {
+			throw new IllegalArgumentException("Unsupported disparity image type");
+		}
+
+		if( color != null ) {
+			if( color.width != disparity.width || color.height != disparity.height )
+				throw new IllegalArgumentException("Color and disparity images must have the same shape");
+			if( color instanceof Planar ) {
+				Planar p = (Planar)color;
+				if( p.getNumBands() != 3 || p.getBandType() != GrayU8.class )
+					throw new IllegalArgumentException("Planar color image must be GrayU8 with 3 bands");
+			} else if( color instanceof InterleavedU8 ) {
+				if( ((InterleavedU8)color).numBands != 3 )
+					throw new IllegalArgumentException("Interleaved color image must have 3 bands");
+			} else if( !(color instanceof GrayU8) ) {
+				throw new IllegalArgumentException("Unsupported color image type");
+			}
+		}
+		this.color = color;
+	}
+
+	private void releaseInputs() {
+		disparityU8 = null;
+		disparityF32 = null;
+		color = null;
+		buffer = null;
+	}
+
+	/**
+	 * Computes the index of the first point in each row and the total number of points
+	 */
+	protected void computeRowStart() {
+		int height = getHeight();
+		if( rowStart.length < height+1 )
+			rowStart = new int[height+1];
+		rowStart[0] = 0;
+
+		countRows();
+
+		for (int y = 0; y < height; y++) {
+			rowStart[y+1] += rowStart[y];
+		}
+		numPoints = rowStart[height];
+	}
+
+	/**
+	 * Counts the number of points in all the rows
+	 */
+	protected void countRows() {
+		countRows(0, getHeight());
+	}
+
+	/**
+	 * Writes the points in all the rows
+	 */
+	protected void fillRows() {
+		fillRows(0, getHeight());
+	}
+
+	protected int getHeight() {
+		return disparityU8 != null ? disparityU8.height : disparityF32.height;
+	}
+
+	/**
+	 * Counts the number of valid disparity values in each row in the range [y0,y1)
+	 */
+	protected void countRows( int y0 , int y1 ) {
+		if( disparityU8 != null ) {
+			GrayU8 d = disparityU8;
+			for (int y = y0; y < y1; y++) {
+				int index = d.startIndex + y*d.stride;
+				int count = 0;
+				for (int x = 0; x < d.width; x++) {
+					int value = d.data[index++] & 0xFF;
+					if( value <= rangeDisparity && value+minDisparity != 0 )
+						count++;
+				}
+				rowStart[y+1] = count;
+			}
+		} else {
+			GrayF32 d = disparityF32;
+			for (int y = y0; y < y1; y++) {
+				int index = d.startIndex + y*d.stride;
+				int count = 0;
+				for (int x = 0; x < d.width; x++) {
+					float value = d.data[index++];
+					if( value <= rangeDisparity && value+minDisparity != 0 )
+						count++;
+				}
+				rowStart[y+1] = count;
+			}
+		}
+	}
+
+	/**
+	 * Writes the 3D points for the rows in the range [y0,y1)
+	 */
+	protected void fillRows( int y0 , int y1 ) {
+		if( disparityU8 != null ) {
+			GrayU8 d = disparityU8;
+			for (int y = y0; y < y1; y++) {
+				int index = d.startIndex + y*d.stride;
+				int indexPoint = rowStart[y];
+				for (int x = 0; x < d.width; x++) {
+					int value = d.data[index++] & 0xFF;
+					if( value <= rangeDisparity && value+minDisparity != 0 ) {
+						addPoint(x, y, value+minDisparity, indexPoint++);
+					}
+				}
+			}
+		} else {
+			GrayF32 d = disparityF32;
+			for (int y = y0; y < y1; y++) {
+				int index = d.startIndex + y*d.stride;
+				int indexPoint = rowStart[y];
+				for (int x = 0; x < d.width; x++) {
+					float value = d.data[index++];
+					if( value <= rangeDisparity && value+minDisparity != 0 ) {
+						addPoint(x, y, value+minDisparity, indexPoint++);
+					}
+				}
+			}
+		}
+	}
+
+	private void addPoint( int x , int y , double d , int indexPoint ) {
+		float X = (float)((originX + x*axisXx + y*axisYx)/d);
+		float Y = (float)((originY + x*axisXy + y*axisYy)/d);
+		float Z = (float)((originZ + x*axisXz + y*axisYz)/d);
+
+		if( buffer == null ) {
+			int i = indexPoint*3;
+			cloud[i  ] = X;
+			cloud[i+1] = Y;
+			cloud[i+2] = Z;
+			if( color != null )
+				colors[indexPoint] = getColor(x, y);
+		} else {
+			// absolute puts so that rows can be written concurrently
+			int i = bufferOffset + indexPoint*bytesPerPoint;
+			buffer.putFloat(i  , X);
+			buffer.putFloat(i+4, Y);
+			buffer.putFloat(i+8, Z);
+			if( color != null ) {
+				int rgb = getColor(x, y);
+				buffer.put(i+12, (byte)(rgb >> 16));
+				buffer.put(i+13, (byte)(rgb >> 8));
+				buffer.put(i+14, (byte)rgb);
+			}
+		}
+	}
+
+	private int getColor( int x , int y ) {
+		if( color instanceof GrayU8 ) {
+			int v = ((GrayU8)color).unsafe_get(x, y);
+			return v << 16 | v << 8 | v;
+		} else if( color instanceof Planar ) {
+			Planar<GrayU8> p = (Planar<GrayU8>)color;
+			int r = p.getBand(0).unsafe_get(x, y);
+			int g = p.getBand(1).unsafe_get(x, y);
+			int b = p.getBand(2).unsafe_get(x, y);
+			return r << 16 | g << 8 | b;
+		} else {
+			InterleavedU8 c = (InterleavedU8)color;
+			int index = c.getIndex(x, y);
+			int r = c.data[index] & 0xFF;
+			int g = c.data[index+1] & 0xFF;
+			int b = c.data[index+2] & 0xFF;
+			return r << 16 | g << 8 | b;
+		}
+	}
+
+	/**
+	 * Packed array of 3D points (x,y,z).  Only the first {@link #getNumPoints()}*3 elements are valid.
+	 */
+	public float[] getCloud() {
+		return cloud;
+	}
+
+	/**
+	 * Packed color 0xRRGGBB of each point.  Only valid if a color image was provided.
+	 */
+	public int[] getColors() {
+		return colors;
+	}
+
+	/**
+	 * Number of points in the cloud
+	 */
+	public int getNumPoints() {
+		return numPoints;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+
+/**
+ * Concurrent implementation of {@link DisparityToPointCloud}.  Bands of rows are counted and then written
+ * in parallel.  The output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class DisparityToPointCloud_MT extends DisparityToPointCloud {
+
+	// minimum number of rows in a band
+	int minBlockRows = 10;
+
+	@Override
+	protected void countRows() {
+		BoofConcurrency.loopBlocks(0, getHeight(), minBlockRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int y0, int y1) {
+				countRows(y0, y1);
+			}
+		});
+	}
+
+	@Override
+	protected void fillRows() {
+		BoofConcurrency.loopBlocks(0, getHeight(), minBlockRows, new IntRangeConsumer() {
+			@Override
+			public void accept(int y0, int y1) {
+				fillRows(y0, y1);
+			}
+		});
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+}
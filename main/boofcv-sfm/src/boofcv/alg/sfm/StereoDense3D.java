@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.struct.calib.StereoParameters;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * <p>
+ * Computes a dense 3D point cloud from a stereo pair.  Input images are rectified, the disparity is computed
+ * across the whole image, and every pixel with a valid disparity is converted into a 3D point in the left
+ * camera's reference frame.  Points are written into a packed array (x,y,z) in row-major order of the rectified
+ * left image by {@link DisparityToPointCloud}.  Pixels with an invalid or zero disparity are skipped.
+ * </p>
+ *
+ * <p>
+ * The time spent in each stage is recorded in nano-seconds and can be used to see where the time is being spent.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class StereoDense3D<T extends ImageGray<T>, D extends ImageGray<D>>
+		extends StereoProcessingBase<T> {
+
+	// computes the disparity image
+	protected StereoDisparity<T,D> disparity;
+
+	// converts the disparity image into a point cloud
+	protected DisparityToPointCloud cloudAlg;
+
+	// time in nano-seconds spent in each stage
+	protected long timeRectify;
+	protected long timeDisparity;
+	protected long timeCloud;
+
+	/**
+	 * Configures and declares internal data
+	 *
+	 * @param disparity Computes the disparity image from rectified images
+	 * @param imageType Input image type
+	 */
+	public StereoDense3D(StereoDisparity<T,D> disparity, Class<T> imageType) {
+		this(disparity, imageType, new DisparityToPointCloud());
+	}
+
+	protected StereoDense3D(StereoDisparity<T,D> disparity, Class<T> imageType, DisparityToPointCloud cloudAlg) {
+		super(imageType);
+		this.disparity = disparity;
+		this.cloudAlg = cloudAlg;
+	}
+
+	@Override
+	public void setCalibration(StereoParameters stereoParam) {
+		super.setCalibration(stereoParam);
+
+		cloudAlg.configure(baseline, rectK, rectR);
+	}
+
+	/**
+	 * Rectifies the images, computes the disparity, then computes the point cloud.
+	 *
+	 * @param leftImage Left image
+	 * @param rightImage Right image
+	 */
+	public void process( T leftImage , T rightImage ) {
+		long time0 = System.nanoTime();
+		setImages(leftImage, rightImage);
+		long time1 = System.nanoTime();
+		disparity.process(imageLeftRect, imageRightRect);
+		long time2 = System.nanoTime();
+		cloudAlg.setDisparityRange(disparity.getMinDisparity(), disparity.getMaxDisparity());
+		cloudAlg.process(disparity.getDisparity(), null);
+		long time3 = System.nanoTime();
+
+		timeRectify = time1-time0;
+		timeDisparity = time2-time1;
+		timeCloud = time3-time2;
+	}
+
+	/**
+	 * Packed array of 3D points (x,y,z) in the left camera's reference frame.  Only the first
+	 * {@link #getNumPoints()}*3 elements are valid.
+	 */
+	public float[] getCloud() {
+		return cloudAlg.getCloud();
+	}
+
+	/**
+	 * Number of points in the cloud
+	 */
+	public int getNumPoints() {
+		return cloudAlg.getNumPoints();
+	}
+
+	/**
+	 * Disparity image which the cloud was computed from
+	 */
+	public D getDisparity() {
+		return disparity.getDisparity();
+	}
+
+	/**
+	 * Used to convert the disparity image into a point cloud.  Can be used to convert it again with a
+	 * different type of output.
+	 */
+	public DisparityToPointCloud getCloudAlg() {
+		return cloudAlg;
+	}
+
+	public StereoDisparity<T, D> getDisparityAlg() {
+		return disparity;
+	}
+
+	/**
+	 * Time in nano-seconds it took to rectify the input images
+	 */
+	public long getTimeRectify() {
+		return timeRectify;
+	}
+
+	/**
+	 * Time in nano-seconds it took to compute the disparity image
+	 */
+	public long getTimeDisparity() {
+		return timeDisparity;
+	}
+
+	/**
+	 * Time in nano-seconds it took to compute the point cloud from the disparity image
+	 */
+	public long getTimeCloud() {
+		return timeCloud;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Concurrent implementation of {@link StereoDense3D}.  The left and right images are rectified at the same time
+ * and the point cloud is computed from bands of rows in parallel.  To compute the disparity in parallel too,
+ * pass in a concurrent disparity algorithm.  The output is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class StereoDense3D_MT<T extends ImageGray<T>, D extends ImageGray<D>>
+		extends StereoDense3D<T,D> {
+
+	public StereoDense3D_MT(StereoDisparity<T, D> disparity, Class<T> imageType) {
+		super(disparity, imageType, new DisparityToPointCloud_MT());
+	}
+
+	@Override
+	protected void rectifyImages() {
+		BoofConcurrency.loopBlocks(0, 2, 1, new IntRangeConsumer() {
+			@Override
+			public void accept(int i0, int i1) {
+				for (int i = i0; i < i1; i++) {
+					if( i == 0 )
+						distortLeftRect.apply(imageLeftInput, imageLeftRect);
+					else
+						distortRightRect.apply(imageRightInput, imageRightRect);
+				}
+			}
+		});
+	}
+
+	public int getMinBlockRows() {
+		return ((DisparityToPointCloud_MT)cloudAlg).getMinBlockRows();
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		((DisparityToPointCloud_MT)cloudAlg).setMinBlockRows(minBlockRows);
+	}
+}
@@ -44,12 +44,12 @@ import org.ejml.ops.ConvertMatrixData;
 public class StereoProcessingBase<T extends ImageGray<T>> {
 
 	// applied rectification to input images
-	private ImageDistort<T,T> distortLeftRect;
-	private ImageDistort<T,T> distortRightRect;
+	protected ImageDistort<T,T> distortLeftRect;
+	protected ImageDistort<T,T> distortRightRect;
 
 	// references to input images
-	private T imageLeftInput;
-	private T imageRightInput;
+	protected T imageLeftInput;
+	protected T imageRightInput;
 
 	// rectified images
 	protected T imageLeftRect;
@@ -164,7 +164,13 @@ public class StereoProcessingBase<T extends ImageGray<T>> {
 		this.imageLeftInput = leftImage;
 		this.imageRightInput = rightImage;
 
-		// rectify input images
+		rectifyImages();
+	}
+
+	/**
+	 * Applies rectification to the left and right input images
+	 */
+	protected void rectifyImages() {
 		distortLeftRect.apply(imageLeftInput, imageLeftRect);
 		distortRightRect.apply(imageRightInput, imageRightRect);
 	}
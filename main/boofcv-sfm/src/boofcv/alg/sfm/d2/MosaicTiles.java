@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm.d2;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * <p>
+ * Mosaic which is stored as a sparse grid of fixed size tiles.  Tiles are allocated the first time a region
+ * which contains them is requested, so the mosaic can grow in any direction without copying existing pixels.
+ * Tile (col,row) covers the mosaic pixels starting at (col*tileWidth,row*tileHeight) and coordinates
+ * can be negative.
+ * </p>
+ *
+ * <p>
+ * Optionally the number of tiles kept in memory can be bounded.  When the limit is exceeded the least recently
+ * used tiles are written to a file and their pixels released.  A spilled tile is read back
+ * the next time it is requested.  Spilling is only supported for gray and planar images.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MosaicTiles<I extends ImageBase<I>> {
+
+	ImageType<I> imageType;
+	int tileWidth, tileHeight;
+
+	// every tile which has been created, including spilled tiles
+	Map<Long,Tile<I>> tiles = new HashMap<>();
+	// tiles which have their pixels in memory. Ordered from least to most recently used
+	LinkedHashMap<Long,Tile<I>> resident = new LinkedHashMap<>(16,0.75f,true);
+	// images released by spilled tiles which can be recycled
+	List<I> unused = new ArrayList<>();
+
+	// incremented each time a region is requested
+	long time;
+
+	// maximum number of tiles which are kept in memory when spilling is enabled
+	int maxResident = Integer.MAX_VALUE;
+	// file that tiles are spilled into
+	RandomAccessFile spillFile;
+	FileChannel spillChannel;
+	// number of bytes used to store a single tile
+	long tileBytes;
+	// storage for a tile's pixels while it's being written or read.  Reused for every tile
+	ByteBuffer spillBuffer;
+	// number of tiles which have been assigned a location in the spill file
+	int totalSlots;
+
+	/**
+	 * Configures the mosaic
+	 *
+	 * @param imageType Type of image stored in each tile
+	 * @param tileWidth Width of a tile in pixels
+	 * @param tileHeight Height of a tile in pixels
+	 */
+	public MosaicTiles(ImageType<I> imageType, int tileWidth, int tileHeight) {
+		if( tileWidth <= 0 || tileHeight <= 0 )
+			throw new IllegalArgumentException("Tile size must be positive");
+		this.imageType = imageType;
+		this.tileWidth = tileWidth;
+		this.tileHeight = tileHeight;
+	}
+
+	/**
+	 * Bounds the number of tiles kept in memory.  Least recently used tiles are written to the specified file
+	 * once the limit has been exceeded.  Any existing content in the file is overwritten.  If spilling was
+	 * already enabled then the tiles are discarded and the previous file is closed.
+	 *
+	 * @param file File that tiles are spilled into
+	 * @param maxResident Maximum number of tiles kept in memory. Must be &ge; 1
+	 */
+	public void enableSpill( File file , int maxResident ) {
+		if( imageType.getFamily() == ImageType.Family.INTERLEAVED )
+			throw new IllegalArgumentException("Spilling interleaved images is not supported");
+		if( maxResident < 1 )
+			throw new IllegalArgumentException("Must keep at least one tile in memory");
+
+		close();
+		try {
+			spillFile = new RandomAccessFile(file,"rw");
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		spillChannel = spillFile.getChannel();
+		tileBytes = (long)tileWidth*tileHeight*imageType.getNumBands()*(imageType.getDataType().getNumBits()/8);
+		if( tileBytes > Integer.MAX_VALUE )
+			throw new IllegalArgumentException("Tiles are too large to be spilled");
+		if( spillBuffer == null || spillBuffer.capacity() != tileBytes )
+			spillBuffer = ByteBuffer.allocateDirect((int)tileBytes).order(ByteOrder.nativeOrder());
+		this.maxResident = maxResident;
+		releaseCold();
+	}
+
+	/**
+	 * Looks up all the tiles which overlap the specified region.  Tiles are created if they don't exist
+	 * and are loaded into memory if they were spilled.
+	 *
+	 * @param x0 Lower extent along x-axis. Inclusive.
+	 * @param y0 Lower extent along y-axis. Inclusive.
+	 * @param x1 Upper extent along x-axis. Exclusive.
+	 * @param y1 Upper extent along y-axis. Exclusive.
+	 * @param output (Output) Tiles which overlap the region.  Cleared before tiles are added.
+	 */
+	public void lookupRegion( int x0 , int y0 , int x1 , int y1 , List<Tile<I>> output ) {
+		output.clear();
+		time++;
+
+		if( x1 <= x0 || y1 <= y0 )
+			return;
+
+		int col0 = floorDiv(x0,tileWidth), col1 = floorDiv(x1-1,tileWidth);
+		int row0 = floorDiv(y0,tileHeight), row1 = floorDiv(y1-1,tileHeight);
+
+		for (int row = row0; row <= row1; row++) {
+			for (int col = col0; col <= col1; col++) {
+				long key = key(col,row);
+				Tile<I> t = tiles.get(key);
+				if( t == null ) {
+					t = new Tile<>(col,row,col*tileWidth,row*tileHeight);
+					t.image = declareImage();
+					tiles.put(key,t);
+					resident.put(key,t);
+				} else if( t.image == null ) {
+					t.image = declareImage();
+					load(t);
+					resident.put(key,t);
+				} else {
+					// marks the tile as recently used
+					resident.get(key);
+				}
+				t.lastUsed = time;
+				output.add(t);
+			}
+		}
+
+		releaseCold();
+	}
+
+	/**
+	 * Returns the tile at the specified grid coordinate or null if it has not been created.  If the tile
+	 * has been spilled then its image will be null.
+	 */
+	public Tile<I> getTile( int col , int row ) {
+		return tiles.get(key(col,row));
+	}
+
+	/**
+	 * Copies a region of the mosaic into the output image.  Pixels which are not contained by any tile are set to
+	 * zero.  Spilled tiles are read without being loaded back into memory.
+	 *
+	 * @param x0 Mosaic x-coordinate of the output image's top left corner
+	 * @param y0 Mosaic y-coordinate of the output image's top left corner
+	 * @param output (Output) Storage for the extracted region. Its shape specifies the size of the region.
+	 */
+	public void extract( int x0 , int y0 , I output ) {
+		GImageMiscOps.fill(output,0);
+
+		int x1 = x0 + output.width;
+		int y1 = y0 + output.height;
+		if( x1 <= x0 || y1 <= y0 )
+			return;
+
+		I buffer = null;
+
+		int col0 = floorDiv(x0,tileWidth), col1 = floorDiv(x1-1,tileWidth);
+		int row0 = floorDiv(y0,tileHeight), row1 = floorDiv(y1-1,tileHeight);
+
+		for (int row = row0; row <= row1; row++) {
+			for (int col = col0; col <= col1; col++) {
+				Tile<I> t = tiles.get(key(col,row));
+				if( t == null )
+					continue;
+
+				I src = t.image;
+				if( src == null ) {
+					if( buffer == null )
+						buffer = declareImage();
+					read(t.slot,buffer);
+					src = buffer;
+				}
+
+				int tx0 = Math.max(x0,t.x0), tx1 = Math.min(x1,t.x0+tileWidth);
+				int ty0 = Math.max(y0,t.y0), ty1 = Math.min(y1,t.y0+tileHeight);
+				GImageMiscOps.copy(tx0-t.x0,ty0-t.y0,tx0-x0,ty0-y0,tx1-tx0,ty1-ty0,src,output);
+			}
+		}
+
+		if( buffer != null )
+			unused.add(buffer);
+	}
+
+	/**
+	 * Discards all the tiles.  The spill file, if any, is kept open and reused.
+	 */
+	public void reset() {
+		for( Tile<I> t : resident.values() ) {
+			unused.add(t.image);
+		}
+		tiles.clear();
+		resident.clear();
+		totalSlots = 0;
+		time = 0;
+	}
+
+	/**
+	 * Discards all the tiles and closes the spill file.  Spilling is disabled.
+	 */
+	public void close() {
+		if( spillFile != null ) {
+			reset();
+			try {
+				spillFile.close();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			spillFile = null;
+			spillChannel = null;
+			spillBuffer = null;
+		}
+		maxResident = Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Spills the least recently used tiles until the number in memory is within the limit.  Tiles used
+	 * by the most recent request are never spilled.
+	 */
+	void releaseCold() {
+		Iterator<Tile<I>> iter = resident.values().iterator();
+		while( resident.size() > maxResident && iter.hasNext() ) {
+			Tile<I> t = iter.next();
+			if( t.lastUsed == time )
+				break;
+			if( t.slot < 0 )
+				t.slot = totalSlots++;
+			write(t.slot,t.image);
+			unused.add(t.image);
+			t.image = null;
+			iter.remove();
+		}
+	}
+
+	private void load( Tile<I> t ) {
+		read(t.slot,t.image);
+	}
+
+	private I declareImage() {
+		if( unused.isEmpty() )
+			return imageType.createImage(tileWidth,tileHeight);
+		I image = unused.remove(unused.size()-1);
+		GImageMiscOps.fill(image,0);
+		return image;
+	}
+
+	private void write( int slot , I image ) {
+		ByteBuffer buffer = spillBuffer;
+		buffer.clear();
+		if( image instanceof Planar ) {
+			Planar<?> p = (Planar)image;
+			for (int band = 0; band < p.getNumBands(); band++) {
+				writeGray(p.getBand(band),buffer);
+			}
+		} else {
+			writeGray((ImageGray)image,buffer);
+		}
+		buffer.flip();
+
+		try {
+			long position = slot*tileBytes;
+			while( buffer.hasRemaining() ) {
+				position += spillChannel.write(buffer, position);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void read( int slot , I image ) {
+		ByteBuffer buffer = spillBuffer;
+		buffer.clear();
+		try {
+			long position = slot*tileBytes;
+			while( buffer.hasRemaining() ) {
+				int N = spillChannel.read(buffer, position);
+				if( N < 0 )
+					throw new IOException("Unexpected end of spill file");
+				position += N;
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		buffer.flip();
+
+		if( image instanceof Planar ) {
+			Planar<?> p = (Planar)image;
+			for (int band = 0; band < p.getNumBands(); band++) {
+				readGray(buffer,p.getBand(band));
+			}
+		} else {
+			readGray(buffer,(ImageGray)image);
+		}
+	}
+
+	/**
+	 * Writes the image's pixels starting at the buffer's position and advances the position
+	 */
+	private static void writeGray( ImageGray image , ByteBuffer buffer ) {
+		int N = image.width*image.height;
+		ByteBuffer b = buffer.slice().order(buffer.order());
+		switch( image.getDataType() ) {
+			case U8: case S8: case I8:
+				b.put(((GrayI8)image).data,0,N); buffer.position(buffer.position()+N); break;
+			case U16: case S16: case I16:
+				b.asShortBuffer().put(((GrayI16)image).data,0,N); buffer.position(buffer.position()+N*2); break;
+			case S32:
+				b.asIntBuffer().put(((GrayS32)image).data,0,N); buffer.position(buffer.position()+N*4); break;
+			case S64:
+				b.asLongBuffer().put(((GrayS64)image).data,0,N); buffer.position(buffer.position()+N*8); break;
+			case F32:
+				b.asFloatBuffer().put(((GrayF32)image).data,0,N); buffer.position(buffer.position()+N*4); break;
+			case F64:
+				b.asDoubleBuffer().put(((GrayF64)image).data,0,N); buffer.position(buffer.position()+N*8); break;
+			default:
+				throw new IllegalArgumentException("Unsupported data type "+image.getDataType());
+		}
+	}
+
+	/**
+	 * Reads the image's pixels starting at the buffer's position and advances the position
+	 */
+	private static void readGray( ByteBuffer buffer , ImageGray image ) {
+		int N = image.width*image.height;
+		ByteBuffer b = buffer.slice().order(buffer.order());
+		switch( image.getDataType() ) {
+			case U8: case S8: case I8:
+				b.get(((GrayI8)image).data,0,N); buffer.position(buffer.position()+N); break;
+			case U16: case S16: case I16:
+				b.asShortBuffer().get(((GrayI16)image).data,0,N); buffer.position(buffer.position()+N*2); break;
+			case S32:
+				b.asIntBuffer().get(((GrayS32)image).data,0,N); buffer.position(buffer.position()+N*4); break;
+			case S64:
+				b.asLongBuffer().get(((GrayS64)image).data,0,N); buffer.position(buffer.position()+N*8); break;
+			case F32:
+				b.asFloatBuffer().get(((GrayF32)image).data,0,N); buffer.position(buffer.position()+N*4); break;
+			case F64:
+				b.asDoubleBuffer().get(((GrayF64)image).data,0,N); buffer.position(buffer.position()+N*8); break;
+			default:
+				throw new IllegalArgumentException("Unsupported data type "+image.getDataType());
+		}
+	}
+
+	private static long key( int col , int row ) {
+		return ((long)row << 32) | (col & 0xFFFFFFFFL);
+	}
+
+	private static int floorDiv( int a , int b ) {
+		int q = a/b;
+		if( (a % b != 0) && ((a < 0) != (b < 0)) )
+			q--;
+		return q;
+	}
+
+	/**
+	 * Returns the number of tiles which have been created
+	 */
+	public int getTotalTiles() {
+		return tiles.size();
+	}
+
+	/**
+	 * Returns the number of tiles which currently have their pixels in memory
+	 */
+	public int getResidentTiles() {
+		return resident.size();
+	}
+
+	public int getTileWidth() {
+		return tileWidth;
+	}
+
+	public int getTileHeight() {
+		return tileHeight;
+	}
+
+	public ImageType<I> getImageType() {
+		return imageType;
+	}
+
+	/**
+	 * A single tile in the mosaic
+	 */
+	public static class Tile<I extends ImageBase<I>> {
+		// grid coordinate of the tile
+		public int col, row;
+		// mosaic pixel coordinate of the tile's top left corner
+		public int x0, y0;
+		// the tile's pixels.  null if it has been spilled
+		public I image;
+
+		// location in the spill file. -1 if it has never been spilled
+		int slot = -1;
+		// last request which used this tile
+		long lastUsed;
+
+		public Tile(int col, int row, int x0, int y0) {
+			this.col = col;
+			this.row = row;
+			this.x0 = x0;
+			this.y0 = y0;
+		}
+	}
+}
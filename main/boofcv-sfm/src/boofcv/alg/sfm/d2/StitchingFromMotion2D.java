@@ -30,6 +30,9 @@ import georegression.struct.homography.Homography2D_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.shapes.RectangleLength2D_I32;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Stitches together sequences of images using {@link ImageMotion2D}, typically used for image stabilization
  * and creating mosaics.  Internally any motion model in the Homogeneous family can be used.  For convenience,
@@ -43,6 +46,10 @@ import georegression.struct.shapes.RectangleLength2D_I32;
  * jump larger than the user specified threshold is detected then {@link #process(boofcv.struct.image.ImageBase)}
  * will return false.
  *
+ * Instead of a single stitch image the mosaic can be rendered into a {@link MosaicTiles} by calling
+ * {@link #configureTiles(MosaicTiles, InvertibleTransform)}.  Then only tiles which overlap the current frame are
+ * rendered and the mosaic can grow in any direction without being resized.
+ *
  * @author Peter Abeles
  */
 
@@ -57,9 +64,9 @@ public class StitchingFromMotion2D<I extends ImageBase<I>, IT extends Invertible
 	// estimates image motion
 	private ImageMotion2D<I,IT> motion;
 	// renders the distorted image according to results from motion
-	private ImageDistort<I,I> distorter;
+	protected ImageDistort<I,I> distorter;
 	// converts different types of motion models into other formats
-	private StitchingTransform<IT> converter;
+	protected StitchingTransform<IT> converter;
 
 	// Transform from first video frame to the initial location in the stitched image
 	private IT worldToInit;
@@ -74,15 +81,22 @@ public class StitchingFromMotion2D<I extends ImageBase<I>, IT extends Invertible
 	private double previousArea;
 
 	// storage for the transform from current frame to the initial frame
-	private IT worldToCurr;
+	protected IT worldToCurr;
 
-	private PixelTransform2_F32 tranWorldToCurr;
+	protected PixelTransform2_F32 tranWorldToCurr;
 	private PixelTransform2_F32 tranCurrToWorld;
 
 	// storage for the stitched image
 	private I stitchedImage;
 	private I workImage;
 
+	// if not null then the mosaic is rendered into these tiles instead of the stitched image
+	private MosaicTiles<I> tiles;
+	// tiles which overlap the current frame
+	private List<MosaicTiles.Tile<I>> tilesInView = new ArrayList<>();
+	// renders a tile using the transform from world to the current frame
+	private TileToCurrent tileToCurr = new TileToCurrent();
+
 	// first time that it has been called
 	private boolean first = true;
 
@@ -121,6 +135,24 @@ public class StitchingFromMotion2D<I extends ImageBase<I>, IT extends Invertible
 			this.worldToInit.set(worldToInit);
 		this.widthStitch = widthStitch;
 		this.heightStitch = heightStitch;
+		this.tiles = null;
+	}
+
+	/**
+	 * Renders the mosaic into tiles instead of a single stitch image.  The world coordinate system is the
+	 * tile's pixel coordinate system and tiles are created as the view moves over them.
+	 *
+	 * @param tiles Storage for the mosaic
+	 * @param worldToInit (Option) Used to change the location of the initial frame in the mosaic.
+	 *                    null means no transform.
+	 */
+	public void configureTiles( MosaicTiles<I> tiles , IT worldToInit ) {
+		this.worldToInit = (IT)worldToCurr.createInstance();
+		if( worldToInit != null )
+			this.worldToInit.set(worldToInit);
+		this.tiles = tiles;
+		stitchedImage = null;
+		workImage = null;
 	}
 
 	/**
@@ -132,7 +164,7 @@ public class StitchingFromMotion2D<I extends ImageBase<I>, IT extends Invertible
 	 * @return True if the stitched image is updated and false if it failed and was not
 	 */
 	public boolean process( I image ) {
-		if( stitchedImage == null ) {
+		if( tiles == null && stitchedImage == null ) {
 			stitchedImage = (I)image.createNew(widthStitch, heightStitch);
 			workImage = (I)image.createNew(widthStitch, heightStitch);
 		}
@@ -153,6 +185,8 @@ public class StitchingFromMotion2D<I extends ImageBase<I>, IT extends Invertible
 	public void reset() {
 		if( stitchedImage != null )
 			GImageMiscOps.fill(stitchedImage, 0);
+		if( tiles != null )
+			tiles.reset();
 		motion.reset();
 		worldToCurr.reset();
 		first = true;
@@ -198,17 +232,63 @@ public class StitchingFromMotion2D<I extends ImageBase<I>, IT extends Invertible
 	private void update(I image) {
 		computeCurrToInit_PixelTran();
 
-		// only process a cropped portion to speed up processing
-		RectangleLength2D_I32 box = DistortImageOps.boundBox(image.width, image.height,
-				stitchedImage.width, stitchedImage.height, tranCurrToWorld);
+		if( tiles == null ) {
+			// only process a cropped portion to speed up processing
+			RectangleLength2D_I32 box = DistortImageOps.boundBox(image.width, image.height,
+					stitchedImage.width, stitchedImage.height, tranCurrToWorld);
+
+			renderStitched(image, box.x0, box.y0, box.x0 + box.width, box.y0 + box.height);
+		} else {
+			RectangleLength2D_I32 box = DistortImageOps.boundBox(image.width, image.height, tranCurrToWorld);
+
+			// bound box is truncated towards zero, which can cut off the last pixel of negative coordinates
+			int x0 = box.x0 - 1;
+			int y0 = box.y0 - 1;
+			int x1 = box.x0 + box.width + 1;
+			int y1 = box.y0 + box.height + 1;
 
-		int x0 = box.x0;
-		int y0 = box.y0;
-		int x1 = box.x0 + box.width;
-		int y1 = box.y0 + box.height;
+			tiles.lookupRegion(x0, y0, x1, y1, tilesInView);
+			renderTiles(image, tilesInView, x0, y0, x1, y1);
+		}
+	}
 
+	/**
+	 * Renders the current frame into the specified region of the stitched image
+	 */
+	protected void renderStitched( I image , int x0 , int y0 , int x1 , int y1 ) {
 		distorter.setModel(tranWorldToCurr);
-		distorter.apply(image, stitchedImage,x0,y0,x1,y1);
+		distorter.apply(image, stitchedImage, x0, y0, x1, y1);
+	}
+
+	/**
+	 * Renders the current frame into each tile. Only the portion of each tile inside the region is rendered.
+	 */
+	protected void renderTiles( I image , List<MosaicTiles.Tile<I>> view , int x0 , int y0 , int x1 , int y1 ) {
+		tileToCurr.worldToCurr = tranWorldToCurr;
+		for (int i = 0; i < view.size(); i++) {
+			renderTile(image, view.get(i), x0, y0, x1, y1, distorter, tileToCurr);
+		}
+	}
+
+	/**
+	 * Renders the current frame into a single tile
+	 *
+	 * @param distorter Used to render the tile
+	 * @param tileToCurr Storage for the transform from tile pixels to the current frame
+	 */
+	protected static <I extends ImageBase<I>>
+	void renderTile( I image , MosaicTiles.Tile<I> tile , int x0 , int y0 , int x1 , int y1 ,
+					 ImageDistort<I,I> distorter , TileToCurrent tileToCurr ) {
+		I dst = tile.image;
+		int tx0 = Math.max(0, x0 - tile.x0);
+		int ty0 = Math.max(0, y0 - tile.y0);
+		int tx1 = Math.min(dst.width, x1 - tile.x0);
+		int ty1 = Math.min(dst.height, y1 - tile.y0);
+
+		tileToCurr.offsetX = tile.x0;
+		tileToCurr.offsetY = tile.y0;
+		distorter.setModel(tileToCurr);
+		distorter.apply(image, dst, tx0, ty0, tx1, ty1);
 	}
 
 	private void computeCurrToInit_PixelTran() {
@@ -228,6 +308,8 @@ public class StitchingFromMotion2D<I extends ImageBase<I>, IT extends Invertible
 	 * Must be called after {@link #process(boofcv.struct.image.ImageBase)}.
 	 */
 	public void setOriginToCurrent() {
+		if( tiles != null )
+			throw new IllegalArgumentException("Not supported when rendering into tiles");
 		IT currToWorld = (IT)worldToCurr.invert(null);
 		IT oldWorldToNewWorld = (IT) worldToInit.concat(currToWorld,null);
 
@@ -260,6 +342,8 @@ public class StitchingFromMotion2D<I extends ImageBase<I>, IT extends Invertible
 	 * @param newToOldStitch (Optional) Transform from new stitch image pixels to old stick pixels.  Can be null.
 	 */
 	public void resizeStitchImage( int widthStitch, int heightStitch , IT newToOldStitch ) {
+		if( tiles != null )
+			throw new IllegalArgumentException("Not supported when rendering into tiles");
 
 		// copy the old image into the new one
 		workImage.reshape(widthStitch,heightStitch);
@@ -323,14 +407,39 @@ public class StitchingFromMotion2D<I extends ImageBase<I>, IT extends Invertible
 		return worldToCurr;
 	}
 
+	/**
+	 * Returns the stitched image.  null if rendering into tiles.
+	 */
 	public I getStitchedImage() {
 		return stitchedImage;
 	}
 
+	/**
+	 * Returns the tiles the mosaic is rendered into.  null if rendering into a single stitch image.
+	 */
+	public MosaicTiles<I> getTiles() {
+		return tiles;
+	}
+
 	public ImageMotion2D<I, IT> getMotion() {
 		return motion;
 	}
 
+	/**
+	 * Transform from tile pixels to the current frame.  Tile pixels are shifted into world coordinates first.
+	 */
+	protected static class TileToCurrent extends PixelTransform2_F32 {
+		PixelTransform2_F32 worldToCurr;
+		int offsetX, offsetY;
+
+		@Override
+		public void compute(int x, int y) {
+			worldToCurr.compute(x + offsetX, y + offsetY);
+			distX = worldToCurr.distX;
+			distY = worldToCurr.distY;
+		}
+	}
+
 	public static class Corners {
 		public Point2D_F64 p0 = new Point2D_F64();
 		public Point2D_F64 p1 = new Point2D_F64();
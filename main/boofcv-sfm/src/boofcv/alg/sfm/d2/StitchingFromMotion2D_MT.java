@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm.d2;
+
+import boofcv.abst.sfm.d2.ImageMotion2D;
+import boofcv.alg.distort.ImageDistort;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.struct.distort.PixelTransform2_F32;
+import boofcv.struct.image.ImageBase;
+import georegression.struct.InvertibleTransform;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link StitchingFromMotion2D}.  When rendering into a single stitch image the
+ * region covered by the current frame is split into bands of rows.  When rendering into {@link MosaicTiles}
+ * the tiles which overlap the current frame are split between the threads.  Each thread has its own
+ * {@link ImageDistort}, created by the factory, and its own copy of the transform.
+ *
+ * @author Peter Abeles
+ */
+public class StitchingFromMotion2D_MT<I extends ImageBase<I>, IT extends InvertibleTransform>
+		extends StitchingFromMotion2D<I,IT>
+{
+	// minimum number of rows in a band
+	int minBlockRows = 10;
+
+	FactoryImageDistort<I> factory;
+
+	// storage used by each thread
+	FastQueue<Workspace> workspace;
+
+	/**
+	 * Provides internal algorithms and tuning parameters.
+	 *
+	 * @param motion Estimates image motion
+	 * @param factory Creates the distortion used to render images.  Called once for each thread.
+	 * @param converter Converts internal model into a homogenous transformation
+	 * @param maxJumpFraction If the view area changes by more than this fraction a fault is declared
+	 */
+	public StitchingFromMotion2D_MT(ImageMotion2D<I, IT> motion,
+									FactoryImageDistort<I> factory,
+									StitchingTransform<IT> converter,
+									double maxJumpFraction)
+	{
+		super(motion, factory.create(), converter, maxJumpFraction);
+		this.factory = factory;
+		workspace = new FastQueue<Workspace>(1,(Class)Workspace.class,true) {
+			@Override
+			protected Workspace createInstance() {
+				return new Workspace();
+			}
+		};
+	}
+
+	@Override
+	protected void renderStitched(final I image, final int x0, int y0, final int x1, int y1) {
+		declareWorkspace(y0, y1, minBlockRows);
+
+		BoofConcurrency.loopBlocks(y0, y1, minBlockRows, workspace, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace work, int r0, int r1) {
+				work.distort.setModel(work.worldToCurr);
+				work.distort.apply(image, getStitchedImage(), x0, r0, x1, r1);
+			}
+		});
+	}
+
+	@Override
+	protected void renderTiles(final I image, final List<MosaicTiles.Tile<I>> view,
+							   final int x0, final int y0, final int x1, final int y1) {
+		declareWorkspace(0, view.size(), 1);
+
+		BoofConcurrency.loopBlocks(0, view.size(), 1, workspace, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace work, int idx0, int idx1) {
+				work.tileToCurr.worldToCurr = work.worldToCurr;
+				for (int i = idx0; i < idx1; i++) {
+					renderTile(image, view.get(i), x0, y0, x1, y1, work.distort, work.tileToCurr);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Creates a workspace for each block and gives each one its own copy of the transform.  The converter
+	 * isn't thread safe so this is done before the blocks are processed.
+	 */
+	private void declareWorkspace( int start , int end , int minBlock ) {
+		workspace.resize(BoofConcurrency.computeBlocks(start, end, minBlock));
+		for (int i = 0; i < workspace.size; i++) {
+			Workspace work = workspace.get(i);
+			work.worldToCurr = converter.convertPixel(worldToCurr, work.worldToCurr);
+		}
+	}
+
+	public int getMinBlockRows() {
+		return minBlockRows;
+	}
+
+	public void setMinBlockRows(int minBlockRows) {
+		this.minBlockRows = minBlockRows;
+	}
+
+	/**
+	 * Creates a new instance of {@link ImageDistort} for each thread
+	 */
+	public interface FactoryImageDistort<T extends ImageBase<T>> {
+		ImageDistort<T,T> create();
+	}
+
+	class Workspace {
+		ImageDistort<I,I> distort = factory.create();
+		PixelTransform2_F32 worldToCurr;
+		TileToCurrent tileToCurr = new TileToCurrent();
+	}
+}
@@ -22,6 +22,7 @@ import boofcv.abst.feature.associate.AssociateDescription2D;
 import boofcv.abst.feature.describe.DescribeRegionPoint;
 import boofcv.abst.feature.tracker.PointTrack;
 import boofcv.abst.feature.tracker.PointTracker;
+import boofcv.abst.feature.tracker.PointTrackerLookAhead;
 import boofcv.abst.geo.TriangulateTwoViewsCalibrated;
 import boofcv.alg.distort.LensDistortionOps;
 import boofcv.alg.feature.associate.StereoConsistencyCheck;
@@ -71,8 +72,8 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 	private ModelFitter<Se3_F64, Stereo2D3D> modelRefiner;
 
 	// trackers for left and right cameras
-	private PointTracker<T> trackerLeft;
-	private PointTracker<T> trackerRight;
+	protected PointTracker<T> trackerLeft;
+	protected PointTracker<T> trackerRight;
 	private DescribeRegionPoint<T,Desc> describe;
 
 	// Data structures used when associating left and right cameras
@@ -110,6 +111,11 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 	// is this the first frame
 	private boolean first = true;
 
+	// time in nano-seconds spent in each stage of the most recent frame
+	private long timeTrack;
+	private long timeMotion;
+	private long timeSpawn;
+
 	/**
 	 * Specifies internal algorithms and parameters
 	 *
@@ -185,11 +191,54 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 		this.inputRight = right;
 
 		tick++;
-		trackerLeft.process(left);
-		trackerRight.process(right);
+		timeMotion = 0;
+		timeSpawn = 0;
+
+		long time0 = System.nanoTime();
+		trackImages(left, right);
+		long time1 = System.nanoTime();
+		timeTrack = time1-time0;
+
+		return processMotion(time1);
+	}
+
+	/**
+	 * Same as {@link #process(ImageBase, ImageBase)} but the images have already been prepared by
+	 * {@link #prepareImages}.  After it returns the frames contain storage which can be used to prepare
+	 * the next pair of images.
+	 *
+	 * @param left Image from left camera
+	 * @param right Image from right camera
+	 * @param frameLeft Prepared left image
+	 * @param frameRight Prepared right image
+	 * @return true if motion estimate was updated and false if not
+	 */
+	public boolean process( T left , T right ,
+							PointTrackerLookAhead.Frame frameLeft , PointTrackerLookAhead.Frame frameRight ) {
+		this.inputLeft = left;
+		this.inputRight = right;
+
+		tick++;
+		timeMotion = 0;
+		timeSpawn = 0;
+
+		long time0 = System.nanoTime();
+		trackImages(frameLeft, frameRight);
+		long time1 = System.nanoTime();
+		timeTrack = time1-time0;
 
+		return processMotion(time1);
+	}
+
+	/**
+	 * Estimates motion from the tracks and spawns new tracks if needed
+	 *
+	 * @param time1 Time when tracking finished
+	 */
+	private boolean processMotion( long time1 ) {
 		if( first ) {
 			addNewTracks();
+			timeSpawn = System.nanoTime()-time1;
 			first = false;
 		} else {
 			mutualTrackDrop();
@@ -197,22 +246,90 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 			boolean failed = !estimateMotion();
 			dropUnusedTracks();
 
-			if( failed )
+			if( failed ) {
+				timeMotion = System.nanoTime()-time1;
 				return false;
+			}
 
 			int N = matcher.getMatchSet().size();
 
 			if( modelRefiner != null )
 				refineMotionEstimate();
+			long time2 = System.nanoTime();
+			timeMotion = time2-time1;
 
 			if( thresholdAdd <= 0 || N < thresholdAdd ) {
 				changePoseToReference();
 				addNewTracks();
 			}
+			timeSpawn = System.nanoTime()-time2;
 		}
 		return true;
 	}
 
+	/**
+	 * Updates the left and right trackers with the new images
+	 */
+	protected void trackImages( T left , T right ) {
+		trackerLeft.process(left);
+		trackerRight.process(right);
+	}
+
+	/**
+	 * Updates the left and right trackers with images which have already been prepared
+	 */
+	protected void trackImages( PointTrackerLookAhead.Frame frameLeft , PointTrackerLookAhead.Frame frameRight ) {
+		lookAhead(trackerLeft).process(frameLeft);
+		lookAhead(trackerRight).process(frameRight);
+	}
+
+	/**
+	 * Creates storage for a prepared image from the left camera.  The tracker must implement
+	 * {@link PointTrackerLookAhead}.
+	 */
+	public PointTrackerLookAhead.Frame createFrameLeft() {
+		return lookAhead(trackerLeft).createFrame();
+	}
+
+	/**
+	 * Creates storage for a prepared image from the right camera.  The tracker must implement
+	 * {@link PointTrackerLookAhead}.
+	 */
+	public PointTrackerLookAhead.Frame createFrameRight() {
+		if( trackerLeft == trackerRight )
+			throw new IllegalArgumentException("Images can't be prepared when the left and right tracker are the same");
+		return lookAhead(trackerRight).createFrame();
+	}
+
+	/**
+	 * Does the work inside the trackers which only depends on the images.  Can be called while
+	 * a different pair of images is being processed.
+	 *
+	 * @param left Image from left camera
+	 * @param right Image from right camera
+	 * @param frameLeft Storage for the prepared left image
+	 * @param frameRight Storage for the prepared right image
+	 */
+	public void prepareImages( T left , T right ,
+							   PointTrackerLookAhead.Frame frameLeft , PointTrackerLookAhead.Frame frameRight ) {
+		lookAhead(trackerLeft).prepare(left, frameLeft);
+		lookAhead(trackerRight).prepare(right, frameRight);
+	}
+
+	private PointTrackerLookAhead<T> lookAhead( PointTracker<T> tracker ) {
+		if( !(tracker instanceof PointTrackerLookAhead) )
+			throw new IllegalArgumentException("The tracker can't prepare images ahead of time");
+		return (PointTrackerLookAhead<T>)tracker;
+	}
+
+	/**
+	 * Detects new tracks in the left and right images
+	 */
+	protected void spawnTracks() {
+		trackerLeft.spawnTracks();
+		trackerRight.spawnTracks();
+	}
+
 	/**
 	 * Non-linear refinement of motion estimate
 	 */
@@ -390,8 +507,7 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 	 * Spawns tracks in each image and associates features together.
 	 */
 	private void addNewTracks() {
-		trackerLeft.spawnTracks();
-		trackerRight.spawnTracks();
+		spawnTracks();
 
 		List<PointTrack> newLeft = trackerLeft.getNewTracks(null);
 		List<PointTrack> newRight = trackerRight.getNewTracks(null);
@@ -512,6 +628,27 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 		return tick;
 	}
 
+	/**
+	 * Time in nano-seconds spent tracking features in the most recent frame
+	 */
+	public long getTimeTrack() {
+		return timeTrack;
+	}
+
+	/**
+	 * Time in nano-seconds spent estimating and refining the motion in the most recent frame
+	 */
+	public long getTimeMotion() {
+		return timeMotion;
+	}
+
+	/**
+	 * Time in nano-seconds spent spawning and associating new tracks in the most recent frame
+	 */
+	public long getTimeSpawn() {
+		return timeSpawn;
+	}
+
 	/**
 	 * If there are no candidates then a fault happened.
 	 * @return true if fault.  false is no fault
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm.d3;
+
+import boofcv.abst.feature.associate.AssociateDescription2D;
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.tracker.PointTracker;
+import boofcv.abst.feature.tracker.PointTrackerLookAhead;
+import boofcv.abst.geo.TriangulateTwoViewsCalibrated;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.sfm.Stereo2D3D;
+import georegression.struct.se.Se3_F64;
+import org.ddogleg.fitting.modelset.ModelFitter;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+
+/**
+ * Concurrent implementation of {@link VisOdomDualTrackPnP}.  The left and right trackers are independent of each
+ * other until their tracks are associated, so tracking and spawning of new tracks is done for both images at
+ * the same time.  The left and right trackers must not share any internal data structures.  Results are
+ * identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class VisOdomDualTrackPnP_MT<T extends ImageBase<T>,Desc extends TupleDesc>
+		extends VisOdomDualTrackPnP<T,Desc> {
+
+	/**
+	 * @see VisOdomDualTrackPnP#VisOdomDualTrackPnP
+	 */
+	public VisOdomDualTrackPnP_MT(int thresholdAdd, int thresholdRetire, double epilolarTol,
+								  PointTracker<T> trackerLeft, PointTracker<T> trackerRight,
+								  DescribeRegionPoint<T, Desc> describe,
+								  AssociateDescription2D<Desc> assocL2R,
+								  TriangulateTwoViewsCalibrated triangulate,
+								  ModelMatcher<Se3_F64, Stereo2D3D> matcher,
+								  ModelFitter<Se3_F64, Stereo2D3D> modelRefiner) {
+		super(thresholdAdd, thresholdRetire, epilolarTol, trackerLeft, trackerRight,
+				describe, assocL2R, triangulate, matcher, modelRefiner);
+		if( trackerLeft == trackerRight )
+			throw new IllegalArgumentException("The left and right trackers must be different instances");
+	}
+
+	@Override
+	protected void trackImages(final T left, final T right) {
+		BoofConcurrency.runTasks(new Runnable() {
+			@Override
+			public void run() {
+				trackerLeft.process(left);
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				trackerRight.process(right);
+			}
+		});
+	}
+
+	@Override
+	protected void trackImages(final PointTrackerLookAhead.Frame frameLeft,
+							   final PointTrackerLookAhead.Frame frameRight) {
+		BoofConcurrency.runTasks(new Runnable() {
+			@Override
+			public void run() {
+				((PointTrackerLookAhead<T>)trackerLeft).process(frameLeft);
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				((PointTrackerLookAhead<T>)trackerRight).process(frameRight);
+			}
+		});
+	}
+
+	@Override
+	public void prepareImages(final T left, final T right,
+							  final PointTrackerLookAhead.Frame frameLeft,
+							  final PointTrackerLookAhead.Frame frameRight) {
+		BoofConcurrency.runTasks(new Runnable() {
+			@Override
+			public void run() {
+				((PointTrackerLookAhead<T>)trackerLeft).prepare(left, frameLeft);
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				((PointTrackerLookAhead<T>)trackerRight).prepare(right, frameRight);
+			}
+		});
+	}
+
+	@Override
+	protected void spawnTracks() {
+		BoofConcurrency.runTasks(new Runnable() {
+			@Override
+			public void run() {
+				trackerLeft.spawnTracks();
+			}
+		}, new Runnable() {
+			@Override
+			public void run() {
+				trackerRight.spawnTracks();
+			}
+		});
+	}
+}
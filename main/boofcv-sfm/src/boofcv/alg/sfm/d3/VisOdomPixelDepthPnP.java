@@ -20,6 +20,7 @@ package boofcv.alg.sfm.d3;
 
 import boofcv.abst.feature.tracker.PointTrack;
 import boofcv.abst.feature.tracker.PointTracker;
+import boofcv.abst.feature.tracker.PointTrackerLookAhead;
 import boofcv.abst.feature.tracker.PointTrackerTwoPass;
 import boofcv.abst.geo.RefinePnP;
 import boofcv.abst.sfm.ImagePixelTo3D;
@@ -97,6 +98,11 @@ public class VisOdomPixelDepthPnP<T extends ImageBase<T>> {
 	// used when concating motion
 	private Se3_F64 temp = new Se3_F64();
 
+	// time in nano-seconds spent in each stage of the most recent frame
+	private long timeTrack;
+	private long timeMotion;
+	private long timeSpawn;
+
 	/**
 	 * Configures magic numbers and estimation algorithms.
 	 *
@@ -152,16 +158,61 @@ public class VisOdomPixelDepthPnP<T extends ImageBase<T>> {
 	 * @return true if successful or false if it failed
 	 */
 	public boolean process( T image ) {
+		processTracking(image);
+		return processMotion();
+	}
+
+	/**
+	 * First stage of {@link #process}. Tracks features into the new image.  The information required by
+	 * ImagePixelTo3D is not used and can be updated while this function is running.
+	 *
+	 * @param image Camera image.
+	 */
+	public void processTracking( T image ) {
+		long time0 = System.nanoTime();
 		tracker.process(image);
+		timeTrack = System.nanoTime()-time0;
 
 		tick++;
 		inlierTracks.clear();
+	}
+
+	/**
+	 * Same as {@link #processTracking(ImageBase)} but the image was prepared ahead of time by the tracker, which
+	 * must implement {@link PointTrackerLookAhead}.
+	 *
+	 * @param frame Image prepared by the tracker.  Contains the tracker's previous storage after it returns.
+	 */
+	public void processTracking( PointTrackerLookAhead.Frame frame ) {
+		long time0 = System.nanoTime();
+		((PointTrackerLookAhead<T>)tracker).process(frame);
+		timeTrack = System.nanoTime()-time0;
+
+		tick++;
+		inlierTracks.clear();
+	}
+
+	/**
+	 * Second stage of {@link #process}.  Estimates the motion from the tracks and spawns new tracks.  The latest
+	 * information required by ImagePixelTo3D must be available before invoking this function.
+	 *
+	 * @return true if successful or false if it failed
+	 */
+	public boolean processMotion() {
+		timeMotion = 0;
+		timeSpawn = 0;
 
 		if( first ) {
+			long time0 = System.nanoTime();
 			addNewTracks();
+			timeSpawn = System.nanoTime()-time0;
 			first = false;
 		} else {
-			if( !estimateMotion() ) {
+			long time0 = System.nanoTime();
+			boolean success = estimateMotion();
+			long time1 = System.nanoTime();
+			timeMotion = time1-time0;
+			if( !success ) {
 				return false;
 			}
 
@@ -172,6 +223,7 @@ public class VisOdomPixelDepthPnP<T extends ImageBase<T>> {
 				changePoseToReference();
 				addNewTracks();
 			}
+			timeSpawn = System.nanoTime()-time1;
 
 //			System.out.println("  num inliers = "+N+"  num dropped "+numDropped+" total active "+tracker.getActivePairs().size());
 		}
@@ -367,4 +419,25 @@ public class VisOdomPixelDepthPnP<T extends ImageBase<T>> {
 	public long getTick() {
 		return tick;
 	}
+
+	/**
+	 * Time in nano-seconds spent tracking features in the most recent frame
+	 */
+	public long getTimeTrack() {
+		return timeTrack;
+	}
+
+	/**
+	 * Time in nano-seconds spent estimating and refining the motion in the most recent frame
+	 */
+	public long getTimeMotion() {
+		return timeMotion;
+	}
+
+	/**
+	 * Time in nano-seconds spent dropping and spawning tracks in the most recent frame
+	 */
+	public long getTimeSpawn() {
+		return timeSpawn;
+	}
 }
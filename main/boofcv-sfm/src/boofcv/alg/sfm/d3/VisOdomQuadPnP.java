@@ -70,19 +70,21 @@ public class VisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc> {
 
 	private FastQueue<Stereo2D3D> modelFitData = new FastQueue<>(10, Stereo2D3D.class, true);
 
-	// Detects feature inside the image
-	private DetectDescribeMulti<T,TD> detector;
+	// Detects feature inside the left image
+	protected DetectDescribeMulti<T,TD> detector;
+	// Detects feature inside the right image.  Can be the same instance as the left detector
+	protected DetectDescribeMulti<T,TD> detectorRight;
 	// Associates feature between the same camera
-	private AssociateDescription2D<TD> assocSame;
+	protected AssociateDescription2D<TD> assocSame;
 	// Associates features from left to right camera
-	private AssociateDescription2D<TD> assocL2R;
+	protected AssociateDescription2D<TD> assocL2R;
 
 	// Set of associated features across all views
 	private FastQueue<QuadView> quadViews = new FastQueue<>(10, QuadView.class, true);
 
 	// features info extracted from the stereo pairs. 0 = previous 1 = current
-	private ImageInfo<TD> featsLeft0,featsLeft1;
-	private ImageInfo<TD> featsRight0,featsRight1;
+	protected ImageInfo<TD> featsLeft0,featsLeft1;
+	protected ImageInfo<TD> featsRight0,featsRight1;
 	// Matched features between all four images.  One set of matches for each type of detected feature
 	private SetMatches setMatches[];
 
@@ -108,6 +110,11 @@ public class VisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc> {
 	private int oldToNewLeft[] = new int[ 1 ];
 	private int oldToNewRight[] = new int[ 1 ];
 
+	// time in nano-seconds spent in each stage of the most recent frame
+	private long timeDescribe;
+	private long timeAssociate;
+	private long timeMotion;
+
 	/**
 	 * Specifies internal algorithms
 	 *
@@ -124,22 +131,47 @@ public class VisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc> {
 						  ModelMatcher<Se3_F64, Stereo2D3D> matcher,
 						  ModelFitter<Se3_F64, Stereo2D3D> modelRefiner )
 	{
-		this.detector = detector;
+		this(detector, detector, assocSame, assocL2R, triangulate, matcher, modelRefiner);
+	}
+
+	/**
+	 * Specifies internal algorithms with a different detector for the left and right images
+	 *
+	 * @param detectorLeft Estimates image features in the left image
+	 * @param detectorRight Estimates image features in the right image.  Can be the same as detectorLeft.
+	 * @param assocSame Association algorithm used for left to left and right to right
+	 * @param assocL2R Assocation algorithm used for left to right
+	 * @param triangulate Used to estimate 3D location of a feature using stereo correspondence
+	 * @param matcher Robust model estimation.  Often RANSAC
+	 * @param modelRefiner Non-linear refinement of motion estimation
+	 */
+	public VisOdomQuadPnP(DetectDescribeMulti<T,TD> detectorLeft,
+						  DetectDescribeMulti<T,TD> detectorRight,
+						  AssociateDescription2D<TD> assocSame , AssociateDescription2D<TD> assocL2R ,
+						  TriangulateTwoViewsCalibrated triangulate,
+						  ModelMatcher<Se3_F64, Stereo2D3D> matcher,
+						  ModelFitter<Se3_F64, Stereo2D3D> modelRefiner )
+	{
+		if( detectorLeft.getNumberOfSets() != detectorRight.getNumberOfSets() )
+			throw new IllegalArgumentException("Left and right detectors must have the same number of sets");
+
+		this.detector = detectorLeft;
+		this.detectorRight = detectorRight;
 		this.assocSame = assocSame;
 		this.assocL2R = assocL2R;
 		this.triangulate = triangulate;
 		this.matcher = matcher;
 		this.modelRefiner = modelRefiner;
 
-		setMatches = new SetMatches[ detector.getNumberOfSets() ];
+		setMatches = new SetMatches[ detectorLeft.getNumberOfSets() ];
 		for( int i = 0; i < setMatches.length; i++ ) {
 			setMatches[i] = new SetMatches();
 		}
 
-		featsLeft0 = new ImageInfo<>(detector);
-		featsLeft1 = new ImageInfo<>(detector);
-		featsRight0 = new ImageInfo<>(detector);
-		featsRight1 = new ImageInfo<>(detector);
+		featsLeft0 = new ImageInfo<>(detectorLeft);
+		featsLeft1 = new ImageInfo<>(detectorLeft);
+		featsRight0 = new ImageInfo<>(detectorRight);
+		featsRight1 = new ImageInfo<>(detectorRight);
 	}
 
 	public void setCalibration(StereoParameters param) {
@@ -171,52 +203,69 @@ public class VisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc> {
 	 * @return true if motion was estimated and false if not
 	 */
 	public boolean process( T left , T right ) {
+		timeAssociate = 0;
+		timeMotion = 0;
+
+		long time0 = System.nanoTime();
+		// make the previous new observations into the new old ones
+		ImageInfo<TD> tmp = featsLeft1;
+		featsLeft1 = featsLeft0; featsLeft0 = tmp;
+		tmp = featsRight1;
+		featsRight1 = featsRight0; featsRight0 = tmp;
+
+		featsLeft1.reset();
+		featsRight1.reset();
+
+		describeImages(left, right);
+		long time1 = System.nanoTime();
+		timeDescribe = time1-time0;
 
 		if( first ) {
-			associateL2R(left, right);
+			associateL2R();
+			timeAssociate = System.nanoTime()-time1;
 			first = false;
 		} else {
-//			long time0 = System.currentTimeMillis();
-			associateL2R(left, right);
-//			long time1 = System.currentTimeMillis();
-			associateF2F();
-//			long time2 = System.currentTimeMillis();
+			quadViews.reset();
+			associateViews();
+			long time2 = System.nanoTime();
+			timeAssociate = time2-time1;
+
 			cyclicConsistency();
-//			long time3 = System.currentTimeMillis();
-			if( !estimateMotion() )
+			boolean success = estimateMotion();
+			timeMotion = System.nanoTime()-time2;
+			if( !success )
 				return false;
-//			long time4 = System.currentTimeMillis();
-
-//			System.out.println("timing: "+(time1-time0)+" "+(time2-time1)+" "+(time3-time2)+" "+(time4-time3));
-
 		}
 
 		return true;
 	}
 
 	/**
-	 * Associates image features from the left and right camera together while applying epipolar constraints.
+	 * Detects and describes features in the current stereo pair
 	 *
 	 * @param left Image from left camera
 	 * @param right Image from right camera
 	 */
-	private void associateL2R( T left , T right ) {
-		// make the previous new observations into the new old ones
-		ImageInfo<TD> tmp = featsLeft1;
-		featsLeft1 = featsLeft0; featsLeft0 = tmp;
-		tmp = featsRight1;
-		featsRight1 = featsRight0; featsRight0 = tmp;
-
-		// detect and associate features in the two images
-		featsLeft1.reset();
-		featsRight1.reset();
+	protected void describeImages( T left , T right ) {
+		describeImage(detector,left,featsLeft1);
+		describeImage(detectorRight,right,featsRight1);
+	}
 
-//		long time0 = System.currentTimeMillis();
-		describeImage(left,featsLeft1);
-		describeImage(right,featsRight1);
-//		long time1 = System.currentTimeMillis();
+	/**
+	 * Associates features in the current stereo pair and between the previous and current images of each camera.
+	 * The three associations only read the features and each one writes to different matches.
+	 */
+	protected void associateViews() {
+		associateL2R();
+		associateF2F(assocSame, true);
+		associateF2F(assocSame, false);
+	}
 
-		// detect and associate features in the current stereo pair
+	/**
+	 * Associates image features from the left and right camera together while applying epipolar constraints.
+	 */
+	protected void associateL2R() {
+		// associate features in the current stereo pair
 		for( int i = 0; i < detector.getNumberOfSets(); i++ ) {
 			SetMatches matches = setMatches[i];
 			matches.swap();
@@ -234,8 +283,6 @@ public class VisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc> {
 //			removeUnassociated(leftLoc,featsLeft1.description[i],rightLoc,featsRight1.description[i],found);
 			setMatches(matches.match2to3, found, leftLoc.size);
 		}
-//		long time2 = System.currentTimeMillis();
-//		System.out.println("  desc "+(time1-time0)+" assoc "+(time2-time1));
 	}
 
 	private void removeUnassociated( FastQueue<Point2D_F64> leftLoc , FastQueue<TD> leftDesc ,
@@ -295,28 +342,24 @@ public class VisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc> {
 	}
 
 	/**
-	 * Associates images between left and left and right and right images
+	 * Associates features between the previous and current image of the same camera
+	 *
+	 * @param assoc Association algorithm that's used
+	 * @param left true for the left camera and false for the right camera
 	 */
-	private void associateF2F()
+	protected void associateF2F( AssociateDescription2D<TD> assoc , boolean left )
 	{
-		quadViews.reset();
+		ImageInfo<TD> feats0 = left ? featsLeft0 : featsRight0;
+		ImageInfo<TD> feats1 = left ? featsLeft1 : featsRight1;
 
 		for( int i = 0; i < detector.getNumberOfSets(); i++ ) {
 			SetMatches matches = setMatches[i];
 
-			// old left to new left
-			assocSame.setSource(featsLeft0.location[i],featsLeft0.description[i]);
-			assocSame.setDestination(featsLeft1.location[i], featsLeft1.description[i]);
-			assocSame.associate();
-
-			setMatches(matches.match0to2, assocSame.getMatches(), featsLeft0.location[i].size);
+			assoc.setSource(feats0.location[i],feats0.description[i]);
+			assoc.setDestination(feats1.location[i], feats1.description[i]);
+			assoc.associate();
 
-			// old right to new right
-			assocSame.setSource(featsRight0.location[i],featsRight0.description[i]);
-			assocSame.setDestination(featsRight1.location[i], featsRight1.description[i]);
-			assocSame.associate();
-
-			setMatches(matches.match1to3, assocSame.getMatches(), featsRight0.location[i].size);
+			setMatches(left ? matches.match0to2 : matches.match1to3, assoc.getMatches(), feats0.location[i].size);
 		}
 	}
 
@@ -377,8 +420,8 @@ public class VisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc> {
 	/**
 	 * Computes image features and stores the results in info
 	 */
-	private void describeImage(T left , ImageInfo<TD> info ) {
-		detector.process(left);
+	protected void describeImage( DetectDescribeMulti<T,TD> detector , T image , ImageInfo<TD> info ) {
+		detector.process(image);
 		for( int i = 0; i < detector.getNumberOfSets(); i++ ) {
 			PointDescSet<TD> set = detector.getFeatureSet(i);
 			FastQueue<Point2D_F64> l = info.location[i];
@@ -467,6 +510,27 @@ public class VisOdomQuadPnP<T extends ImageGray<T>,TD extends TupleDesc> {
 		return leftCamToWorld;
 	}
 
+	/**
+	 * Time in nano-seconds spent detecting and describing features in the most recent frame
+	 */
+	public long getTimeDescribe() {
+		return timeDescribe;
+	}
+
+	/**
+	 * Time in nano-seconds spent associating features in the most recent frame
+	 */
+	public long getTimeAssociate() {
+		return timeAssociate;
+	}
+
+	/**
+	 * Time in nano-seconds spent checking consistency and estimating motion in the most recent frame
+	 */
+	public long getTimeMotion() {
+		return timeMotion;
+	}
+
 	/**
 	 * Storage for detected features inside an image
 	 */
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm.d3;
+
+import boofcv.abst.feature.associate.AssociateDescription2D;
+import boofcv.abst.feature.detdesc.DetectDescribeMulti;
+import boofcv.abst.geo.TriangulateTwoViewsCalibrated;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeConsumer;
+import boofcv.struct.feature.TupleDesc;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.sfm.Stereo2D3D;
+import georegression.struct.se.Se3_F64;
+import org.ddogleg.fitting.modelset.ModelFitter;
+import org.ddogleg.fitting.modelset.ModelMatcher;
+
+/**
+ * Concurrent implementation of {@link VisOdomQuadPnP}.  Features are detected and described in the left and right
+ * images at the same time and then the left to right, left to left, and right to right associations are
+ * run at the same time.  Each concurrent task needs its own detector and association algorithm, so they
+ * must be different instances.  The same detector processes the same image as in the single threaded version,
+ * so results are identical.
+ *
+ * @author Peter Abeles
+ */
+public class VisOdomQuadPnP_MT<T extends ImageGray<T>,TD extends TupleDesc> extends VisOdomQuadPnP<T,TD> {
+
+	// Associates features between the previous and current right image
+	private AssociateDescription2D<TD> assocSameRight;
+
+	/**
+	 * Specifies internal algorithms
+	 *
+	 * @param detectorLeft Estimates image features in the left image
+	 * @param detectorRight Estimates image features in the right image
+	 * @param assocSameLeft Association algorithm used for left to left
+	 * @param assocSameRight Association algorithm used for right to right
+	 * @param assocL2R Assocation algorithm used for left to right
+	 * @param triangulate Used to estimate 3D location of a feature using stereo correspondence
+	 * @param matcher Robust model estimation.  Often RANSAC
+	 * @param modelRefiner Non-linear refinement of motion estimation
+	 */
+	public VisOdomQuadPnP_MT(DetectDescribeMulti<T, TD> detectorLeft, DetectDescribeMulti<T, TD> detectorRight,
+							 AssociateDescription2D<TD> assocSameLeft, AssociateDescription2D<TD> assocSameRight,
+							 AssociateDescription2D<TD> assocL2R,
+							 TriangulateTwoViewsCalibrated triangulate,
+							 ModelMatcher<Se3_F64, Stereo2D3D> matcher,
+							 ModelFitter<Se3_F64, Stereo2D3D> modelRefiner)
+	{
+		super(detectorLeft, detectorRight, assocSameLeft, assocL2R, triangulate, matcher, modelRefiner);
+		if( detectorLeft == detectorRight )
+			throw new IllegalArgumentException("The left and right detectors must be different instances");
+		if( assocSameLeft == assocSameRight || assocSameLeft == assocL2R || assocSameRight == assocL2R )
+			throw new IllegalArgumentException("Each association must be a different instance");
+		this.assocSameRight = assocSameRight;
+	}
+
+	@Override
+	protected void describeImages(final T left, final T right) {
+		BoofConcurrency.loopBlocks(0, 2, 1, new IntRangeConsumer() {
+			@Override
+			public void accept(int i0, int i1) {
+				for (int i = i0; i < i1; i++) {
+					if( i == 0 )
+						describeImage(detector, left, featsLeft1);
+					else
+						describeImage(detectorRight, right, featsRight1);
+				}
+			}
+		});
+	}
+
+	@Override
+	protected void associateViews() {
+		BoofConcurrency.loopBlocks(0, 3, 1, new IntRangeConsumer() {
+			@Override
+			public void accept(int i0, int i1) {
+				for (int i = i0; i < i1; i++) {
+					if( i == 0 )
+						associateL2R();
+					else if( i == 1 )
+						associateF2F(assocSame, true);
+					else
+						associateF2F(assocSameRight, false);
+				}
+			}
+		});
+	}
+}
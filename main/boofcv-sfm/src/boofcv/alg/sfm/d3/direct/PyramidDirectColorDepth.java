@@ -20,6 +20,7 @@ package boofcv.alg.sfm.d3.direct;
 
 import boofcv.abst.sfm.ImagePixelTo3D;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import boofcv.struct.image.Planar;
@@ -70,7 +71,10 @@ public class PyramidDirectColorDepth<T extends ImageGray<T>> {
 		layersOdom = new VisOdomDirectColorDepth[pyramid.getNumLayers()];
 		for (int i = 0; i < layersOdom.length; i++) {
 			ImageType derivType = GImageDerivativeOps.getDerivativeType( imageType );
-			layersOdom[i] = new VisOdomDirectColorDepth(imageType.getNumBands(),imageType.getImageClass(), derivType.getImageClass());
+			if( BoofConcurrency.USE_CONCURRENT )
+				layersOdom[i] = new VisOdomDirectColorDepth_MT(imageType.getNumBands(),imageType.getImageClass(), derivType.getImageClass());
+			else
+				layersOdom[i] = new VisOdomDirectColorDepth(imageType.getNumBands(),imageType.getImageClass(), derivType.getImageClass());
 		}
 	}
 
@@ -54,13 +54,13 @@ import org.ejml.interfaces.linsol.LinearSolver;
 public class VisOdomDirectColorDepth<I extends ImageGray<I>, D extends ImageGray<D>>
 {
 	// Type of input images
-	private ImageType<Planar<I>> imageType;
+	protected ImageType<Planar<I>> imageType;
 	private ImageType<Planar<D>> derivType;
 
 	private LinearSolver<DMatrixRMaj> solver;
 	private DMatrixRMaj A = new DMatrixRMaj(1,6);
 	private DMatrixRMaj y = new DMatrixRMaj(1,1);
-	private DMatrixRMaj twistMatrix = new DMatrixRMaj(6,1);
+	protected DMatrixRMaj twistMatrix = new DMatrixRMaj(6,1);
 
 	private ImageGradient<Planar<I>,Planar<D>> computeD;
 
@@ -68,6 +68,10 @@ public class VisOdomDirectColorDepth<I extends ImageGray<I>, D extends ImageGray
 	private InterpolatePixelS<D> interpDX;
 	private InterpolatePixelS<D> interpDY;
 
+	// parameters used to create the interpolation functions
+	protected double inputMin,inputMax,derivMin,derivMax;
+	protected InterpolationType interpolationType;
+
 	private GImageMultiBand wrapI;
 
 	// gradient of the current frame
@@ -84,18 +88,18 @@ public class VisOdomDirectColorDepth<I extends ImageGray<I>, D extends ImageGray
 	private Se3_F32 tmp = new Se3_F32(); // work space
 
 	/** focal length along x and y axis (units: pixels) */
-	private float fx,fy;
+	protected float fx,fy;
 	/** image center (units: pixels) */
-	private float cx,cy;
+	protected float cx,cy;
 
 	private float convergeTol = 1e-6f;
 	private int maxIterations = 10;
 
 	// average optical error per pixel and band
-	private float errorOptical;
+	protected float errorOptical;
 	
 	// number of valid pixels used to compute error
-	private int inboundsPixels = 0;
+	protected int inboundsPixels = 0;
 
 	// work space
 	Point3D_F32 S = new Point3D_F32();
@@ -166,6 +170,11 @@ public class VisOdomDirectColorDepth<I extends ImageGray<I>, D extends ImageGray
 	 */
 	public void setInterpolation( double inputMin , double inputMax, double derivMin , double derivMax ,
 								  InterpolationType type) {
+		this.inputMin = inputMin;
+		this.inputMax = inputMax;
+		this.derivMin = derivMin;
+		this.derivMax = derivMax;
+		this.interpolationType = type;
 		interpI = FactoryInterpolation.createPixelS(inputMin,inputMax,type, BorderType.EXTENDED, imageType.getImageClass());
 		interpDX = FactoryInterpolation.createPixelS(derivMin,derivMax,type, BorderType.EXTENDED, derivType.getImageClass());
 		interpDY = FactoryInterpolation.createPixelS(derivMin,derivMax,type, BorderType.EXTENDED, derivType.getImageClass());
@@ -388,13 +397,20 @@ public class VisOdomDirectColorDepth<I extends ImageGray<I>, D extends ImageGray
 
 		solver.solve(y,twistMatrix);
 
+		computeMotionTwist();
+
+		return true;
+	}
+
+	/**
+	 * Computes the motion from the solution to the linear system, which is stored in twistMatrix
+	 */
+	protected void computeMotionTwist() {
 		twist.set((float)twistMatrix.data[0], (float)twistMatrix.data[1], (float)twistMatrix.data[2],
 				(float)twistMatrix.data[3], (float)twistMatrix.data[4], (float)twistMatrix.data[5]);
 
 		// theta is 1 because of how this solution was formulated.  See derivation
 		TwistOps_F32.exponential(twist,1.0f, motionTwist );
-
-		return true;
 	}
 
 	public float getErrorOptical() {
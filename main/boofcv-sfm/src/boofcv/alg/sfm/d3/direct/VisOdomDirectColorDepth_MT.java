@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm.d3.direct;
+
+import boofcv.abst.sfm.ImagePixelTo3D;
+import boofcv.alg.interpolate.InterpolatePixelS;
+import boofcv.alg.interpolate.InterpolationType;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.core.image.border.BorderType;
+import boofcv.factory.interpolate.FactoryInterpolation;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.Planar;
+import georegression.struct.se.Se3_F32;
+import org.ddogleg.struct.FastQueue;
+import org.ejml.data.DMatrixRMaj;
+import org.ejml.dense.row.factory.LinearSolverFactory_DDRM;
+import org.ejml.interfaces.linsol.LinearSolver;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link VisOdomDirectColorDepth}.  Key pixels are split into blocks which are
+ * processed in parallel.  Instead of constructing the full Jacobian, each block accumulates its own
+ * normal equations, J<sup>T</sup>J and J<sup>T</sup>r, which are then added together and solved using
+ * a Cholesky decomposition.
+ * </p>
+ *
+ * <p>
+ * Key pixels are stored in a structure-of-arrays format.  When bilinear interpolation is used with {@link GrayF32}
+ * images, the interpolation weights are computed once for each key pixel and shared by every band, the image,
+ * and its gradient.
+ * </p>
+ *
+ * <p>
+ * Because the linear system is solved using the normal equations, the results are very close to, but not
+ * identical to, the single threaded implementation.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class VisOdomDirectColorDepth_MT<I extends ImageGray<I>, D extends ImageGray<D>>
+		extends VisOdomDirectColorDepth<I,D>
+{
+	// minimum number of key pixels processed by a thread
+	int minBlockSize = 500;
+
+	// number of key pixels
+	int numKey;
+	// intensity of each band in each key pixel
+	float[] keyBands = new float[0];
+	// 3D location of each key pixel in the key frame
+	float[] keyXYZ = new float[0];
+	// if the key pixel is visible in the current frame
+	boolean[] keyValid = new boolean[0];
+
+	// projected location and derivative of the projection for each key pixel in the current frame
+	float[] projX = new float[0], projY = new float[0];
+	float[] pointX = new float[0], pointY = new float[0], pointZ = new float[0];
+	float[] dP11 = new float[0], dP13 = new float[0], dP22 = new float[0], dP23 = new float[0];
+
+	// storage for each thread
+	FastQueue<Workspace> workspaces;
+
+	// normal equations
+	DMatrixRMaj JtJ = new DMatrixRMaj(6,6);
+	DMatrixRMaj Jtr = new DMatrixRMaj(6,1);
+	LinearSolver<DMatrixRMaj> solverNormal = LinearSolverFactory_DDRM.chol(6);
+
+	public VisOdomDirectColorDepth_MT(int numBands, Class<I> imageType, Class<D> derivType) {
+		super(numBands, imageType, derivType);
+		createWorkspaces();
+	}
+
+	private void createWorkspaces() {
+		workspaces = new FastQueue<Workspace>(1,(Class)Workspace.class,true) {
+			@Override
+			protected Workspace createInstance() {
+				return new Workspace();
+			}
+		};
+	}
+
+	@Override
+	public void setInterpolation(double inputMin, double inputMax, double derivMin, double derivMax,
+								 InterpolationType type) {
+		super.setInterpolation(inputMin, inputMax, derivMin, derivMax, type);
+		// this is called by the parent's constructor
+		if( workspaces != null )
+			createWorkspaces();
+	}
+
+	@Override
+	void setKeyFrame(Planar<I> input, ImagePixelTo3D pixelTo3D) {
+		super.setKeyFrame(input, pixelTo3D);
+		packKeyPixels();
+	}
+
+	/**
+	 * Copies the key pixels into arrays
+	 */
+	void packKeyPixels() {
+		int numBands = imageType.getNumBands();
+		numKey = keypixels.size;
+
+		if( keyValid.length < numKey ) {
+			keyBands = new float[numKey*numBands];
+			keyXYZ = new float[numKey*3];
+			keyValid = new boolean[numKey];
+			projX = new float[numKey];
+			projY = new float[numKey];
+			pointX = new float[numKey];
+			pointY = new float[numKey];
+			pointZ = new float[numKey];
+			dP11 = new float[numKey];
+			dP13 = new float[numKey];
+			dP22 = new float[numKey];
+			dP23 = new float[numKey];
+		}
+
+		for (int i = 0; i < numKey; i++) {
+			Pixel p = keypixels.data[i];
+			System.arraycopy(p.bands,0,keyBands,i*numBands,numBands);
+			keyXYZ[i*3  ] = p.p3.x;
+			keyXYZ[i*3+1] = p.p3.y;
+			keyXYZ[i*3+2] = p.p3.z;
+			keyValid[i] = p.valid;
+		}
+	}
+
+	@Override
+	public double computeFeatureDiversity(Se3_F32 keyToCurrent) {
+		float[] R = keyToCurrent.R.data;
+		float tx = keyToCurrent.T.x, ty = keyToCurrent.T.y, tz = keyToCurrent.T.z;
+
+		diversity.reset();
+		for (int i = 0; i < numKey; i++) {
+			if( !keyValid[i] )
+				continue;
+
+			float X = keyXYZ[i*3], Y = keyXYZ[i*3+1], Z = keyXYZ[i*3+2];
+			diversity.addPoint(
+					R[0]*X + R[1]*Y + R[2]*Z + tx,
+					R[3]*X + R[4]*Y + R[5]*Z + ty,
+					R[6]*X + R[7]*Y + R[8]*Z + tz);
+		}
+
+		diversity.process();
+		return diversity.getSpread();
+	}
+
+	@Override
+	void constructLinearSystem(final Planar<I> input, final Se3_F32 g) {
+		final boolean inlined = interpolationType == InterpolationType.BILINEAR &&
+				input.getBandType() == GrayF32.class && derivX.getBandType() == GrayF32.class &&
+				input.width > 1 && input.height > 1;
+
+		BoofConcurrency.loopBlocks(0, numKey, minBlockSize, workspaces, new IntRangeObjectConsumer<Workspace>() {
+			@Override
+			public void accept(Workspace ws, int i0, int i1) {
+				ws.reset();
+				projectKeyPixels(ws, input, g, i0, i1);
+				if( inlined )
+					accumulateInlined(ws, (Planar)input, (Planar)derivX, (Planar)derivY, i0, i1);
+				else
+					accumulate(ws, input, i0, i1);
+			}
+		});
+
+		// add together the results from each thread
+		JtJ.zero();
+		Jtr.zero();
+		double error = 0;
+		int rows = 0;
+		inboundsPixels = 0;
+		for (int i = 0; i < workspaces.size; i++) {
+			Workspace ws = workspaces.get(i);
+			for (int j = 0; j < 36; j++) {
+				JtJ.data[j] += ws.JtJ[j];
+			}
+			for (int j = 0; j < 6; j++) {
+				Jtr.data[j] += ws.Jtr[j];
+			}
+			error += ws.error;
+			rows += ws.rows;
+			inboundsPixels += ws.inbounds;
+		}
+		// only the upper triangle was computed
+		for (int row = 1; row < 6; row++) {
+			for (int col = 0; col < row; col++) {
+				JtJ.data[row*6+col] = JtJ.data[col*6+row];
+			}
+		}
+		errorOptical = (float)(error/rows);
+	}
+
+	/**
+	 * Projects key pixels into the current frame and computes everything which doesn't depend on pixel values
+	 */
+	void projectKeyPixels(Workspace ws, Planar<I> input, Se3_F32 g, int i0, int i1) {
+		float[] R = g.R.data;
+		float tx = g.T.x, ty = g.T.y, tz = g.T.z;
+		int width = input.width, height = input.height;
+
+		for (int i = i0; i < i1; i++) {
+			float X = keyXYZ[i*3], Y = keyXYZ[i*3+1], Z = keyXYZ[i*3+2];
+
+			// Apply the known warp
+			float Sx = R[0]*X + R[1]*Y + R[2]*Z + tx;
+			float Sy = R[3]*X + R[4]*Y + R[5]*Z + ty;
+			float Sz = R[6]*X + R[7]*Y + R[8]*Z + tz;
+
+			if( Sz <= 0 ) {
+				keyValid[i] = false;
+				continue;
+			}
+
+			// Compute projected warped pixel coordinate on image I_1
+			float px = (Sx / Sz) * fx + cx;
+			float py = (Sy / Sz) * fy + cy;
+
+			// make sure it's in the bounds
+			if( px < 0 || px > width - 1 || py < 0 || py > height - 1 ) {
+				keyValid[i] = false;
+				continue;
+			}
+			keyValid[i] = true;
+			ws.inbounds++;
+
+			projX[i] = px;
+			projY[i] = py;
+			pointX[i] = Sx;
+			pointY[i] = Sy;
+			pointZ[i] = Sz;
+
+			// pi matrix derivative relative to t at S
+			float ZZ = Sz * Sz;
+			dP11[i] = fx / Sz;
+			dP13[i] = -Sx * fx / ZZ;
+			dP22[i] = fy / Sz;
+			dP23[i] = -Sy * fy / ZZ;
+		}
+	}
+
+	/**
+	 * Samples the images using bilinear interpolation.  The weights are computed once for each key pixel.
+	 */
+	void accumulateInlined(Workspace ws, Planar<GrayF32> input, Planar<GrayF32> derivX, Planar<GrayF32> derivY,
+						   int i0, int i1) {
+		int numBands = input.getNumBands();
+		int width = input.width, height = input.height;
+
+		for (int i = i0; i < i1; i++) {
+			if( !keyValid[i] )
+				continue;
+
+			float x = projX[i], y = projY[i];
+			int xt = (int)x, yt = (int)y;
+			// points along the last row or column are handled by moving back one pixel
+			if( xt == width-1 ) xt--;
+			if( yt == height-1 ) yt--;
+			float ax = x - xt, ay = y - yt;
+
+			float w00 = (1.0f - ax)*(1.0f - ay);
+			float w10 = ax*(1.0f - ay);
+			float w11 = ax*ay;
+			float w01 = (1.0f - ax)*ay;
+
+			for (int band = 0; band < numBands; band++) {
+				float current = sample(input.getBand(band), xt, yt, w00, w10, w11, w01);
+				float dx = sample(derivX.getBand(band), xt, yt, w00, w10, w11, w01);
+				float dy = sample(derivY.getBand(band), xt, yt, w00, w10, w11, w01);
+
+				ws.add(i, dx, dy, -(current - keyBands[i*numBands+band]));
+			}
+		}
+	}
+
+	private static float sample(GrayF32 image, int xt, int yt, float w00, float w10, float w11, float w01) {
+		int index = image.startIndex + yt*image.stride + xt;
+		float[] data = image.data;
+		return w00*data[index] + w10*data[index+1] + w11*data[index+1+image.stride] + w01*data[index+image.stride];
+	}
+
+	/**
+	 * Samples the images using the configured interpolation method
+	 */
+	void accumulate(Workspace ws, Planar<I> input, int i0, int i1) {
+		int numBands = input.getNumBands();
+
+		for (int band = 0; band < numBands; band++) {
+			ws.interpI.setImage(input.getBand(band));
+			ws.interpDX.setImage(derivX.getBand(band));
+			ws.interpDY.setImage(derivY.getBand(band));
+
+			for (int i = i0; i < i1; i++) {
+				if( !keyValid[i] )
+					continue;
+
+				float current = ws.interpI.get(projX[i], projY[i]);
+				float dx = ws.interpDX.get(projX[i], projY[i]);
+				float dy = ws.interpDY.get(projX[i], projY[i]);
+
+				ws.add(i, dx, dy, -(current - keyBands[i*numBands+band]));
+			}
+		}
+	}
+
+	@Override
+	boolean solveSystem() {
+		if( !solverNormal.setA(JtJ) )
+			return false;
+
+		solverNormal.solve(Jtr, twistMatrix);
+
+		computeMotionTwist();
+
+		return true;
+	}
+
+	public int getMinBlockSize() {
+		return minBlockSize;
+	}
+
+	public void setMinBlockSize(int minBlockSize) {
+		this.minBlockSize = minBlockSize;
+	}
+
+	/**
+	 * Storage for a single thread
+	 */
+	class Workspace {
+		// upper triangle of J^T*J
+		double[] JtJ = new double[36];
+		double[] Jtr = new double[6];
+		// sum of absolute error
+		double error;
+		// number of rows in the Jacobian
+		int rows;
+		// number of pixels inside the image
+		int inbounds;
+
+		// one row in the Jacobian
+		double[] a = new double[6];
+
+		InterpolatePixelS<I> interpI;
+		InterpolatePixelS<D> interpDX;
+		InterpolatePixelS<D> interpDY;
+
+		public Workspace() {
+			interpI = FactoryInterpolation.createPixelS(inputMin, inputMax, interpolationType,
+					BorderType.EXTENDED, imageType.getImageClass());
+			interpDX = FactoryInterpolation.createPixelS(derivMin, derivMax, interpolationType,
+					BorderType.EXTENDED, getDerivType().getImageClass());
+			interpDY = FactoryInterpolation.createPixelS(derivMin, derivMax, interpolationType,
+					BorderType.EXTENDED, getDerivType().getImageClass());
+		}
+
+		void reset() {
+			for (int i = 0; i < 36; i++) {
+				JtJ[i] = 0;
+			}
+			for (int i = 0; i < 6; i++) {
+				Jtr[i] = 0;
+			}
+			error = 0;
+			rows = 0;
+			inbounds = 0;
+		}
+
+		/**
+		 * Adds a single row of the Jacobian to the normal equations
+		 */
+		void add( int i , float dx , float dy , float residual ) {
+			float Sx = pointX[i], Sy = pointY[i], Sz = pointZ[i];
+
+			// B = grad^T * dPI/dt = shape(1,3)
+			float b1 = dx*dP11[i];
+			float b2 = dy*dP22[i];
+			float b3 = dx*dP13[i] + dy*dP23[i];
+
+			// C * A(S'(x)) = shape(1,6)
+			a[0] = -b2*Sz + b3*Sy;
+			a[1] =  b1*Sz - b3*Sx;
+			a[2] = -b1*Sy + b2*Sx;
+			a[3] = b1;
+			a[4] = b2;
+			a[5] = b3;
+
+			for (int row = 0; row < 6; row++) {
+				double v = a[row];
+				int index = row*6;
+				for (int col = row; col < 6; col++) {
+					JtJ[index+col] += v*a[col];
+				}
+				Jtr[row] += v*residual;
+			}
+
+			error += Math.abs(residual);
+			rows++;
+		}
+	}
+}
@@ -26,6 +26,7 @@ import boofcv.alg.geo.robust.*;
 import boofcv.alg.interpolate.InterpolatePixel;
 import boofcv.alg.interpolate.InterpolationType;
 import boofcv.alg.sfm.d2.*;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.BorderType;
 import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.interpolate.FactoryInterpolation;
@@ -122,6 +123,7 @@ public class FactoryMotion2D {
 
 	/**
 	 * Estimates the image motion then combines images together.  Typically used for mosaics and stabilization.
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then frames are rendered concurrently.
 	 *
 	 * @param maxJumpFraction If the area changes by this much between two consecuative frames then the transform
 	 *                        is reset.
@@ -134,7 +136,7 @@ public class FactoryMotion2D {
 	@SuppressWarnings("unchecked")
 	public static <I extends ImageBase<I>, IT extends InvertibleTransform>
 	StitchingFromMotion2D<I, IT>
-	createVideoStitch( double maxJumpFraction , ImageMotion2D<I,IT> motion2D , ImageType<I> imageType ) {
+	createVideoStitch( double maxJumpFraction , ImageMotion2D<I,IT> motion2D , final ImageType<I> imageType ) {
 		StitchingTransform<IT> transform;
 
 		if( motion2D.getTransformType() == Affine2D_F64.class ) {
@@ -143,18 +145,29 @@ public class FactoryMotion2D {
 			transform = (StitchingTransform)FactoryStitchingTransform.createHomography_F64();
 		}
 
-		InterpolatePixel<I> interp;
-
-		if( imageType.getFamily() == ImageType.Family.GRAY || imageType.getFamily() == ImageType.Family.PLANAR ) {
-			interp = FactoryInterpolation.createPixelS(0, 255, InterpolationType.BILINEAR, BorderType.EXTENDED,
-					imageType.getImageClass());
-		} else {
+		if( imageType.getFamily() != ImageType.Family.GRAY && imageType.getFamily() != ImageType.Family.PLANAR ) {
 			throw new IllegalArgumentException("Unsupported image type");
 		}
 
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			StitchingFromMotion2D_MT.FactoryImageDistort<I> factory = new StitchingFromMotion2D_MT.FactoryImageDistort<I>() {
+				@Override
+				public ImageDistort<I, I> create() {
+					return createStitchDistort(imageType);
+				}
+			};
+			return new StitchingFromMotion2D_MT<>(motion2D, factory, transform, maxJumpFraction);
+		}
+
+		return new StitchingFromMotion2D<>(motion2D, createStitchDistort(imageType), transform, maxJumpFraction);
+	}
+
+	private static <I extends ImageBase<I>> ImageDistort<I,I> createStitchDistort( ImageType<I> imageType ) {
+		InterpolatePixel<I> interp = FactoryInterpolation.createPixelS(0, 255, InterpolationType.BILINEAR,
+				BorderType.EXTENDED, imageType.getImageClass());
+
 		ImageDistort<I,I> distorter = FactoryDistort.distort(false, interp, imageType);
 		distorter.setRenderAll(false);
-
-		return new StitchingFromMotion2D<>(motion2D, distorter, transform, maxJumpFraction);
+		return distorter;
 	}
 }
@@ -26,6 +26,7 @@ import boofcv.abst.feature.describe.DescribeRegionPoint;
 import boofcv.abst.feature.detdesc.DetectDescribeMulti;
 import boofcv.abst.feature.disparity.StereoDisparitySparse;
 import boofcv.abst.feature.tracker.PointTracker;
+import boofcv.abst.feature.tracker.PointTrackerLookAhead;
 import boofcv.abst.feature.tracker.PointTrackerTwoPass;
 import boofcv.abst.geo.Estimate1ofPnP;
 import boofcv.abst.geo.EstimateNofPnP;
@@ -35,7 +36,6 @@ import boofcv.abst.sfm.DepthSparse3D_to_PixelTo3D;
 import boofcv.abst.sfm.ImagePixelTo3D;
 import boofcv.abst.sfm.d2.ImageMotion2D;
 import boofcv.abst.sfm.d3.*;
-import boofcv.alg.feature.associate.AssociateMaxDistanceNaive;
 import boofcv.alg.feature.associate.AssociateStereo2D;
 import boofcv.alg.geo.DistanceModelMonoPixels;
 import boofcv.alg.geo.pose.*;
@@ -45,6 +45,7 @@ import boofcv.alg.sfm.d3.*;
 import boofcv.alg.sfm.d3.direct.PyramidDirectColorDepth;
 import boofcv.alg.sfm.robust.DistancePlane2DToPixelSq;
 import boofcv.alg.sfm.robust.GenerateSe2_PlanePtPixel;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.associate.FactoryAssociation;
 import boofcv.factory.geo.EnumPNP;
 import boofcv.factory.geo.EstimatorToGenerator;
@@ -171,6 +172,9 @@ public class FactoryVisualOdometry {
 	/**
 	 * Stereo vision based visual odometry algorithm which runs a sparse feature tracker in the left camera and
 	 * estimates the range of tracks once when first detected using disparity between left and right cameras.
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then rectification and tracking are done concurrently.
+	 * The next stereo pair can be prepared while motion is estimated using {@link StereoVisualOdometryPipeline}
+	 * when the trackers implement {@link PointTrackerLookAhead}, e.g. KLT.
 	 *
 	 * @see VisOdomPixelDepthPnP
 	 *
@@ -217,6 +221,8 @@ public class FactoryVisualOdometry {
 		VisOdomPixelDepthPnP<T> alg =
 				new VisOdomPixelDepthPnP<>(thresholdAdd, thresholdRetire, doublePass, motion, pixelTo3D, refine, tracker, null, null);
 
+		if( BoofConcurrency.USE_CONCURRENT )
+			return new WrapVisOdomPixelDepthPnP_MT<>(alg, pixelTo3D, distance, imageType);
 		return new WrapVisOdomPixelDepthPnP<>(alg, pixelTo3D, distance, imageType);
 	}
 
@@ -275,6 +281,9 @@ public class FactoryVisualOdometry {
 
 	/**
 	 * Creates a stereo visual odometry algorithm that independently tracks features in left and right camera.
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then the two trackers are run concurrently.
+	 * The next stereo pair can be prepared while motion is estimated using {@link StereoVisualOdometryPipeline}
+	 * when the trackers implement {@link PointTrackerLookAhead}, e.g. KLT.
 	 *
 	 * @see VisOdomDualTrackPnP
 	 *
@@ -331,8 +340,14 @@ public class FactoryVisualOdometry {
 
 		TriangulateTwoViewsCalibrated triangulate = FactoryMultiView.triangulateTwoGeometric();
 
-		VisOdomDualTrackPnP<T,Desc> alg = new VisOdomDualTrackPnP<>(thresholdAdd, thresholdRetire, epipolarPixelTol,
-				trackerLeft, trackerRight, descriptor, associateUnique, triangulate, motion, refinePnP);
+		VisOdomDualTrackPnP<T,Desc> alg;
+		if( BoofConcurrency.USE_CONCURRENT && trackerLeft != trackerRight ) {
+			alg = new VisOdomDualTrackPnP_MT<>(thresholdAdd, thresholdRetire, epipolarPixelTol,
+					trackerLeft, trackerRight, descriptor, associateUnique, triangulate, motion, refinePnP);
+		} else {
+			alg = new VisOdomDualTrackPnP<>(thresholdAdd, thresholdRetire, epipolarPixelTol,
+					trackerLeft, trackerRight, descriptor, associateUnique, triangulate, motion, refinePnP);
+		}
 
 		return new WrapVisOdomDualTrackPnP<>(pnpStereo, distanceMono, distanceStereo, associateStereo, alg, refinePnP, imageType);
 	}
@@ -352,6 +367,34 @@ public class FactoryVisualOdometry {
 										   int refineIterations ,
 										   DetectDescribeMulti<T,Desc> detector,
 										   Class<T> imageType )
+	{
+		return stereoQuadPnP(inlierPixelTol, epipolarPixelTol, maxDistanceF2F, maxAssociationError,
+				ransacIterations, refineIterations, detector, detector, imageType);
+	}
+
+	/**
+	 * Stereo visual odometry which uses the two most recent stereo observations (total of four views) to estimate
+	 * motion.  If {@link BoofConcurrency#USE_CONCURRENT} is true and the two detectors are different instances
+	 * then features are detected in the left and right images concurrently and the associations are run concurrently.
+	 * The left detector always processes the left image and the right detector the right image, so concurrency
+	 * doesn't change the results.
+	 *
+	 * @see VisOdomQuadPnP
+	 * @see VisOdomQuadPnP_MT
+	 *
+	 * @param detectorLeft Detects and describes features in the left image
+	 * @param detectorRight Detects and describes features in the right image.  Can be the same as the left detector.
+	 */
+	public static <T extends ImageGray<T>,Desc extends TupleDesc>
+	StereoVisualOdometry<T> stereoQuadPnP( double inlierPixelTol ,
+										   double epipolarPixelTol ,
+										   double maxDistanceF2F,
+										   double maxAssociationError,
+										   int ransacIterations ,
+										   int refineIterations ,
+										   DetectDescribeMulti<T,Desc> detectorLeft,
+										   DetectDescribeMulti<T,Desc> detectorRight,
+										   Class<T> imageType )
 	{
 		EstimateNofPnP pnp = FactoryMultiView.computePnP_N(EnumPNP.P3P_FINSTERWALDER, -1);
 		DistanceModelMonoPixels<Se3_F64,Point2D3D> distanceMono = new PnPDistanceReprojectionSq();
@@ -372,27 +415,41 @@ public class FactoryVisualOdometry {
 		if( refineIterations > 0 ) {
 			refinePnP = new PnPStereoRefineRodrigues(1e-12,refineIterations);
 		}
-		Class<Desc> descType = detector.getDescriptionType();
+		Class<Desc> descType = detectorLeft.getDescriptionType();
 
 		ScoreAssociation<Desc> scorer = FactoryAssociation.defaultScore(descType);
 
-		AssociateDescription2D<Desc> assocSame;
-		if( maxDistanceF2F > 0 )
-			assocSame = new AssociateMaxDistanceNaive<>(scorer, true, maxAssociationError, maxDistanceF2F);
-		else
-			assocSame = new AssociateDescTo2D<>(FactoryAssociation.greedy(scorer, maxAssociationError, true));
-
 		AssociateStereo2D<Desc> associateStereo = new AssociateStereo2D<>(scorer, epipolarPixelTol, descType);
 		TriangulateTwoViewsCalibrated triangulate = FactoryMultiView.triangulateTwoGeometric();
 
 		associateStereo.setThreshold(maxAssociationError);
 
-		VisOdomQuadPnP<T,Desc> alg = new VisOdomQuadPnP<>(
-				detector, assocSame, associateStereo, triangulate, motion, refinePnP);
+		VisOdomQuadPnP<T,Desc> alg;
+		if( BoofConcurrency.USE_CONCURRENT && detectorLeft != detectorRight ) {
+			alg = new VisOdomQuadPnP_MT<>(detectorLeft, detectorRight,
+					createAssociateSame(scorer, maxDistanceF2F, maxAssociationError),
+					createAssociateSame(scorer, maxDistanceF2F, maxAssociationError),
+					associateStereo, triangulate, motion, refinePnP);
+		} else {
+			alg = new VisOdomQuadPnP<>(detectorLeft, detectorRight,
+					createAssociateSame(scorer, maxDistanceF2F, maxAssociationError),
+					associateStereo, triangulate, motion, refinePnP);
+		}
 
 		return new WrapVisOdomQuadPnP<>(alg, refinePnP, associateStereo, distanceStereo, distanceMono, imageType);
 	}
 
+	/**
+	 * Creates the association used between the previous and current image of the same camera
+	 */
+	private static <Desc extends TupleDesc> AssociateDescription2D<Desc>
+	createAssociateSame( ScoreAssociation<Desc> scorer , double maxDistanceF2F, double maxAssociationError ) {
+		if( maxDistanceF2F > 0 )
+			return FactoryAssociation.maxDistance(scorer, true, maxAssociationError, maxDistanceF2F);
+		else
+			return new AssociateDescTo2D<>(FactoryAssociation.greedy(scorer, maxAssociationError, true));
+	}
+
 	/**
 	 * Wraps around a {@link StereoVisualOdometry} instance and will rescale the input images and adjust the cameras
 	 * intrinsic parameters automatically.  Rescaling input images is often an easy way to improve runtime performance
@@ -29,6 +29,7 @@ import georegression.struct.se.Se3_F64;
 import org.ejml.dense.row.MatrixFeatures_DDRM;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -132,6 +133,35 @@ public abstract class CheckVisualOdometryStereoSim<I extends ImageGray<I>>
 		}
 	}
 
+	/**
+	 * Processes the same sequence with both algorithms and checks to see if they produce identical results
+	 */
+	protected void checkIdenticalResults( StereoVisualOdometry<I> expected , StereoVisualOdometry<I> found ) {
+		expected.setCalibration(param);
+		found.setCalibration(param);
+
+		Se3_F64 worldToLeft = new Se3_F64();
+		Se3_F64 worldToRight = new Se3_F64();
+		Se3_F64 leftToRight = param.getRightToLeft().invert(null);
+
+		for( int i = 0; i < 10; i++ ) {
+			worldToLeft.getT().z = i*0.05;
+
+			worldToLeft.concat(leftToRight,worldToRight);
+
+			setIntrinsic(param.getLeft());
+			left.setTo(render(worldToLeft));
+			setIntrinsic(param.getRight());
+			right.setTo(render(worldToRight));
+
+			assertEquals(expected.process(left,right),found.process(left,right));
+
+			Se3_F64 a = expected.getCameraToWorld();
+			Se3_F64 b = found.getCameraToWorld();
+			assertTrue(MatrixFeatures_DDRM.isIdentical(a.getR(),b.getR(),0));
+			assertEquals(0,a.getT().distance(b.getT()),0);
+		}
+	}
 
 	public StereoParameters createStereoParam() {
 		StereoParameters ret = new StereoParameters();
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.sfm.d3;
+
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.detect.interest.ConfigGeneralDetector;
+import boofcv.abst.feature.tracker.PointTracker;
+import boofcv.alg.tracker.klt.PkltConfig;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
+import boofcv.factory.feature.tracker.FactoryPointTracker;
+import boofcv.factory.sfm.FactoryVisualOdometry;
+import boofcv.struct.image.GrayF32;
+import georegression.struct.se.Se3_F64;
+import org.ejml.dense.row.MatrixFeatures_DDRM;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestStereoVisualOdometryPipeline extends CheckVisualOdometryStereoSim<GrayF32> {
+
+	int originalThreads;
+
+	public TestStereoVisualOdometryPipeline() {
+		super(GrayF32.class);
+	}
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Override
+	public StereoVisualOdometry<GrayF32> createAlgorithm() {
+		return new TestWrapVisOdomPixelDepthPnP().createAlgorithm();
+	}
+
+	@Test
+	public void pixelDepth_compareToSequential() throws InterruptedException {
+		compareToSequential(createAlgorithm(), (StereoVisualOdometryLookAhead<GrayF32>)createAlgorithm());
+	}
+
+	@Test
+	public void pixelDepth_concurrent_compareToSequential() throws InterruptedException {
+		BoofConcurrency.USE_CONCURRENT = true;
+		StereoVisualOdometry<GrayF32> alg;
+		try {
+			alg = createAlgorithm();
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = false;
+		}
+		assertTrue(alg instanceof WrapVisOdomPixelDepthPnP_MT);
+		compareToSequential(createAlgorithm(), (StereoVisualOdometryLookAhead<GrayF32>)alg);
+	}
+
+	@Test
+	public void dualTrack_compareToSequential() throws InterruptedException {
+		StereoVisualOdometry<GrayF32> expected = new TestWrapVisOdomDualTrackPnP().createAlgorithm();
+		StereoVisualOdometry<GrayF32> found = new TestWrapVisOdomDualTrackPnP().createAlgorithm();
+		compareToSequential(expected, (StereoVisualOdometryLookAhead<GrayF32>)found);
+
+		BoofConcurrency.USE_CONCURRENT = true;
+		try {
+			found = new TestWrapVisOdomDualTrackPnP().createAlgorithm();
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = false;
+		}
+		compareToSequential(new TestWrapVisOdomDualTrackPnP().createAlgorithm(),
+				(StereoVisualOdometryLookAhead<GrayF32>)found);
+	}
+
+	/**
+	 * The same tracker can't prepare the left and right images at the same time
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void dualTrack_sameTracker() {
+		PkltConfig kltConfig = new PkltConfig();
+		kltConfig.templateRadius = 3;
+		kltConfig.pyramidScaling =  new int[]{1, 2, 4, 8};
+
+		PointTracker<GrayF32> tracker = FactoryPointTracker.klt(kltConfig, new ConfigGeneralDetector(600,2,1),
+				GrayF32.class,GrayF32.class);
+		DescribeRegionPoint describe = FactoryDescribeRegionPoint.surfFast(null, GrayF32.class);
+
+		StereoVisualOdometry<GrayF32> alg = FactoryVisualOdometry.stereoDualTrackerPnP(90, 2, 1.5, 1.5, 200, 50,
+				tracker, tracker, describe,GrayF32.class);
+
+		new StereoVisualOdometryPipeline<>((StereoVisualOdometryLookAhead<GrayF32>)alg, 1);
+	}
+
+	/**
+	 * Submits one pair ahead of taking the result, the usage pattern which keeps both stages busy, and compares
+	 * against processing each pair directly
+	 */
+	private void compareToSequential( StereoVisualOdometry<GrayF32> expected ,
+									  StereoVisualOdometryLookAhead<GrayF32> found ) throws InterruptedException {
+		expected.setCalibration(param);
+		found.setCalibration(param);
+
+		int N = 10;
+		GrayF32[] lefts = new GrayF32[N];
+		GrayF32[] rights = new GrayF32[N];
+
+		Se3_F64 worldToLeft = new Se3_F64();
+		Se3_F64 worldToRight = new Se3_F64();
+		Se3_F64 leftToRight = param.getRightToLeft().invert(null);
+
+		for( int i = 0; i < N; i++ ) {
+			worldToLeft.getT().z = i*0.05;
+			worldToLeft.concat(leftToRight,worldToRight);
+
+			setIntrinsic(param.getLeft());
+			lefts[i] = render(worldToLeft).clone();
+			setIntrinsic(param.getRight());
+			rights[i] = render(worldToRight).clone();
+		}
+
+		StereoVisualOdometryPipeline<GrayF32> pipeline = new StereoVisualOdometryPipeline<>(found, 2);
+		try {
+			pipeline.submit(lefts[0], rights[0]);
+			for( int i = 0; i < N; i++ ) {
+				if( i+1 < N )
+					pipeline.submit(lefts[i+1], rights[i+1]);
+				StereoVisualOdometryPipeline.Result result = pipeline.take();
+
+				assertEquals(i, result.index);
+				assertEquals(expected.process(lefts[i], rights[i]), result.success);
+				assertTrue(result.success);
+
+				Se3_F64 a = expected.getCameraToWorld();
+				Se3_F64 b = result.cameraToWorld;
+				assertTrue(MatrixFeatures_DDRM.isIdentical(a.getR(),b.getR(),0));
+				assertEquals(0,a.getT().distance(b.getT()),0);
+			}
+		} finally {
+			pipeline.shutdown();
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.sfm.d3;
+
+import boofcv.abst.sfm.AccessStageTimes;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestWrapVisOdomPixelDepthPnP_MT extends CheckVisualOdometryStereoSim<GrayF32> {
+
+	int originalThreads;
+
+	public TestWrapVisOdomPixelDepthPnP_MT() {
+		super(GrayF32.class);
+	}
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	@Override
+	public StereoVisualOdometry<GrayF32> createAlgorithm() {
+		BoofConcurrency.USE_CONCURRENT = true;
+		try {
+			return new TestWrapVisOdomPixelDepthPnP().createAlgorithm();
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = false;
+		}
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		StereoVisualOdometry<GrayF32> alg = createAlgorithm();
+		assertTrue(alg instanceof WrapVisOdomPixelDepthPnP_MT);
+
+		checkIdenticalResults(new TestWrapVisOdomPixelDepthPnP().createAlgorithm(), alg);
+	}
+
+	@Test
+	public void stageTimes() {
+		StereoVisualOdometry<GrayF32> alg = createAlgorithm();
+		AccessStageTimes times = (AccessStageTimes)alg;
+		assertEquals(4,times.getStageCount());
+
+		alg.setCalibration(param);
+		alg.process(left,right);
+		alg.process(left,right);
+
+		for (int i = 0; i < times.getStageCount(); i++) {
+			assertTrue(times.getStageName(i).length() > 0);
+			assertTrue(times.getStageTime(i) >= 0);
+		}
+		// rectify and track always do some work
+		assertTrue(times.getStageTime(0) > 0);
+		assertTrue(times.getStageTime(1) > 0);
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.abst.sfm.d3;
+
+import boofcv.abst.feature.describe.DescribeRegionPoint;
+import boofcv.abst.feature.detdesc.DetectDescribeMulti;
+import boofcv.abst.feature.detdesc.DetectDescribeMultiFusion;
+import boofcv.abst.feature.detdesc.PointDescSet;
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.abst.feature.detect.intensity.GeneralFeatureIntensity;
+import boofcv.abst.feature.detect.interest.DetectorInterestPointMulti;
+import boofcv.abst.feature.detect.interest.GeneralToInterestMulti;
+import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
+import boofcv.alg.sfm.d3.VisOdomQuadPnP_MT;
+import boofcv.factory.feature.describe.FactoryDescribeRegionPoint;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.factory.feature.detect.intensity.FactoryIntensityPoint;
+import boofcv.factory.sfm.FactoryVisualOdometry;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the variant of {@link FactoryVisualOdometry#stereoQuadPnP} which is given a detector for each camera
+ *
+ * @author Peter Abeles
+ */
+public class TestWrapVisOdomQuadPnP_TwoDetectors extends CheckVisualOdometryStereoSim<GrayF32> {
+
+	public TestWrapVisOdomQuadPnP_TwoDetectors() {
+		super(GrayF32.class,0.3);
+	}
+
+	@Override
+	public StereoVisualOdometry<GrayF32> createAlgorithm() {
+		return FactoryVisualOdometry.stereoQuadPnP(1.5, 0.5, 200, Double.MAX_VALUE, 300, 50,
+				createDetector(), createDetector(), GrayF32.class);
+	}
+
+	static DetectDescribeMulti createDetector() {
+		GeneralFeatureIntensity intensity =
+				FactoryIntensityPoint.shiTomasi(1, false, GrayF32.class);
+		NonMaxSuppression nonmax = FactoryFeatureExtractor.nonmax(new ConfigExtract(2, 1, 0, true, false, true));
+		GeneralFeatureDetector<GrayF32,GrayF32> general =
+				new GeneralFeatureDetector<>(intensity, nonmax);
+		general.setMaxFeatures(600);
+		DetectorInterestPointMulti detector = new GeneralToInterestMulti(general,2,GrayF32.class,GrayF32.class);
+		DescribeRegionPoint describe = FactoryDescribeRegionPoint.surfFast(null, GrayF32.class);
+		return new DetectDescribeMultiFusion(detector,null,describe);
+	}
+
+	/**
+	 * Two identically configured detectors should produce the same results as a single detector
+	 */
+	@Test
+	public void compareToOneDetector() {
+		StereoVisualOdometry<GrayF32> alg = createAlgorithm();
+		assertFalse(((WrapVisOdomQuadPnP)alg).alg instanceof VisOdomQuadPnP_MT);
+
+		checkIdenticalResults(new TestWrapVisOdomQuadPnP().createAlgorithm(), alg);
+	}
+
+	/**
+	 * Each detector should only process the image from its own camera
+	 */
+	@Test
+	public void eachDetectorProcessesOwnImage() {
+		CountingDetector detectorLeft = new CountingDetector(createDetector());
+		CountingDetector detectorRight = new CountingDetector(createDetector());
+
+		StereoVisualOdometry<GrayF32> alg = FactoryVisualOdometry.stereoQuadPnP(1.5, 0.5, 200, Double.MAX_VALUE,
+				300, 50, detectorLeft, detectorRight, GrayF32.class);
+		alg.setCalibration(param);
+		alg.process(left,right);
+		alg.process(left,right);
+
+		assertEquals(2,detectorLeft.images.size());
+		assertEquals(2,detectorRight.images.size());
+		for (int i = 0; i < 2; i++) {
+			assertSame(left,detectorLeft.images.get(i));
+			assertSame(right,detectorRight.images.get(i));
+		}
+	}
+
+	/**
+	 * Records which images were passed in
+	 */
+	private static class CountingDetector implements DetectDescribeMulti<GrayF32,TupleDesc_F64> {
+		DetectDescribeMulti<GrayF32,TupleDesc_F64> alg;
+		List<GrayF32> images = new ArrayList<>();
+
+		public CountingDetector(DetectDescribeMulti<GrayF32,TupleDesc_F64> alg) {
+			this.alg = alg;
+		}
+
+		@Override
+		public void process(GrayF32 image) {
+			images.add(image);
+			alg.process(image);
+		}
+
+		@Override
+		public int getNumberOfSets() {
+			return alg.getNumberOfSets();
+		}
+
+		@Override
+		public PointDescSet<TupleDesc_F64> getFeatureSet(int set) {
+			return alg.getFeatureSet(set);
+		}
+
+		@Override
+		public TupleDesc_F64 createDescription() {
+			return alg.createDescription();
+		}
+
+		@Override
+		public Class<TupleDesc_F64> getDescriptionType() {
+			return alg.getDescriptionType();
+		}
+	}
+}
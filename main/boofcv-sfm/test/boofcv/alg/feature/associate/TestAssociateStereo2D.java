@@ -34,7 +34,10 @@ import org.ejml.dense.row.CommonOps_DDRM;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * @author Peter Abeles
@@ -111,6 +114,57 @@ public class TestAssociateStereo2D {
 		assertEquals(1, matches.size);
 	}
 
+	/**
+	 * Many features along nearby epipolar lines.  Compare against an exhaustive search
+	 */
+	@Test
+	public void compareToExhaustive() {
+		Random rand = new Random(234);
+
+		for (int i = 0; i < 200; i++) {
+			Point3D_F64 X = new Point3D_F64(rand.nextGaussian()*0.5, rand.nextGaussian()*0.5, 2 + rand.nextDouble()*3);
+			SfmTestHelper.renderPointPixel(param, X, leftP, rightP);
+			pointsLeft.grow().set(leftP.x + rand.nextGaussian()*0.2, leftP.y + rand.nextGaussian()*0.2);
+			pointsRight.grow().set(rightP.x + rand.nextGaussian()*0.2, rightP.y + rand.nextGaussian()*0.2);
+
+			// only a few distinct descriptors so that there are ties
+			descLeft.grow().value[0] = rand.nextInt(5);
+			descRight.grow().value[0] = rand.nextInt(5);
+		}
+
+		AssociateStereo2D<TupleDesc_F64> alg = new AssociateStereo2D<>(scorer, 0.5, TupleDesc_F64.class);
+		alg.setCalibration(param);
+		alg.setThreshold(2.5);
+		alg.setSource(pointsLeft,descLeft);
+		alg.setDestination(pointsRight, descRight);
+		alg.associate();
+
+		FastQueue<AssociatedIndex> matches = alg.getMatches();
+		int total = 0;
+		for (int i = 0; i < pointsLeft.size; i++) {
+			int bestIndex = -1;
+			double bestScore = 2.5;
+			for (int j = 0; j < pointsRight.size; j++) {
+				if( !alg.checkPixel(pointsLeft.get(i), pointsRight.get(j)) )
+					continue;
+				double score = scorer.score(descLeft.get(i), descRight.get(j));
+				if( score < bestScore ) {
+					bestScore = score;
+					bestIndex = j;
+				}
+			}
+			if( bestIndex < 0 )
+				continue;
+
+			AssociatedIndex a = matches.get(total++);
+			assertEquals(i, a.src);
+			assertEquals(bestIndex, a.dst);
+			assertEquals(bestScore, a.fitScore, 0);
+		}
+		assertEquals(total, matches.size);
+		assertTrue(total > 20);
+	}
+
 	/**
 	 * Makes the observation in the left image &gt; right image along x-axis
 	 */
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.calib.StereoParameters;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.struct.image.Planar;
+import georegression.struct.point.Point3D_F64;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDisparityToPointCloud {
+
+	Random rand = new Random(234);
+
+	int width = 60;
+	int height = 45;
+
+	int minDisparity = 2;
+	int maxDisparity = 20;
+
+	StereoProcessingBase<GrayU8> stereo;
+
+	public TestDisparityToPointCloud() {
+		StereoParameters param = TestStereoProcessingBase.createStereoParam(width,height);
+		stereo = new StereoProcessingBase<>(GrayU8.class);
+		stereo.setCalibration(param);
+	}
+
+	DisparityToPointCloud createAlg() {
+		DisparityToPointCloud alg = new DisparityToPointCloud();
+		alg.configure(stereo.baseline,stereo.rectK,stereo.rectR);
+		alg.setDisparityRange(minDisparity,maxDisparity);
+		return alg;
+	}
+
+	<D extends ImageGray<D>> D createDisparity( Class<D> type ) {
+		D disparity = GeneralizedImageOps.createSingleBand(type,width,height);
+		// some of the pixels will be invalid
+		GImageMiscOps.fillUniform(disparity,rand,0,maxDisparity-minDisparity+5);
+		return disparity;
+	}
+
+	/**
+	 * Compare the cloud against points computed using computeHomo3D()
+	 */
+	@Test
+	public void process_array() {
+		process_array(createDisparity(GrayU8.class));
+		process_array(createDisparity(GrayF32.class));
+	}
+
+	private void process_array( ImageGray disparity ) {
+		DisparityToPointCloud alg = createAlg();
+		alg.process(disparity,null);
+
+		float[] cloud = alg.getCloud();
+		Point3D_F64 expected = new Point3D_F64();
+		int count = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double value = GeneralizedImageOps.get(disparity,x,y);
+				if( value > maxDisparity-minDisparity )
+					continue;
+				double d = value + minDisparity;
+
+				stereo.computeHomo3D(x,y,expected);
+				assertEquals(expected.x/d, cloud[count*3  ], 1e-4);
+				assertEquals(expected.y/d, cloud[count*3+1], 1e-4);
+				assertEquals(expected.z/d, cloud[count*3+2], 1e-4);
+				count++;
+			}
+		}
+		assertEquals(count,alg.getNumPoints());
+		// some of the pixels should have been skipped
+		assertTrue(count > 0 && count < width*height);
+	}
+
+	/**
+	 * Pixels with a disparity of zero are at infinity and should be skipped
+	 */
+	@Test
+	public void skipZeroDisparity() {
+		minDisparity = 0;
+		GrayU8 disparity = createDisparity(GrayU8.class);
+		DisparityToPointCloud alg = createAlg();
+		alg.process(disparity,null);
+
+		int expected = 0;
+		for (int i = 0; i < disparity.data.length; i++) {
+			int value = disparity.data[i] & 0xFF;
+			if( value != 0 && value <= maxDisparity )
+				expected++;
+		}
+		assertEquals(expected,alg.getNumPoints());
+	}
+
+	/**
+	 * Check the color of each point for all the supported color image types
+	 */
+	@Test
+	public void process_color() {
+		GrayU8 disparity = createDisparity(GrayU8.class);
+
+		Planar<GrayU8> planar = new Planar<>(GrayU8.class,width,height,3);
+		GImageMiscOps.fillUniform(planar,rand,0,255);
+		InterleavedU8 interleaved = new InterleavedU8(width,height,3);
+		GImageMiscOps.fillUniform(interleaved,rand,0,255);
+		GrayU8 gray = new GrayU8(width,height);
+		GImageMiscOps.fillUniform(gray,rand,0,255);
+
+		DisparityToPointCloud alg = createAlg();
+		DisparityToPointCloud algNoColor = createAlg();
+		algNoColor.process(disparity,null);
+
+		for (int type = 0; type < 3; type++) {
+			switch( type ) {
+				case 0: alg.process(disparity,planar); break;
+				case 1: alg.process(disparity,interleaved); break;
+				default: alg.process(disparity,gray); break;
+			}
+			assertEquals(algNoColor.getNumPoints(),alg.getNumPoints());
+
+			int count = 0;
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					if( disparity.get(x,y) > maxDisparity-minDisparity )
+						continue;
+					int r,g,b;
+					switch( type ) {
+						case 0: r = planar.getBand(0).get(x,y); g = planar.getBand(1).get(x,y); b = planar.getBand(2).get(x,y); break;
+						case 1: r = interleaved.getBand(x,y,0); g = interleaved.getBand(x,y,1); b = interleaved.getBand(x,y,2); break;
+						default: r = g = b = gray.get(x,y); break;
+					}
+					assertEquals(r << 16 | g << 8 | b, alg.getColors()[count]);
+					assertEquals(algNoColor.getCloud()[count*3], alg.getCloud()[count*3], 0);
+					count++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writing to a buffer should produce the same results as an array
+	 */
+	@Test
+	public void process_buffer() {
+		GrayF32 disparity = createDisparity(GrayF32.class);
+		Planar<GrayU8> color = new Planar<>(GrayU8.class,width,height,3);
+		GImageMiscOps.fillUniform(color,rand,0,255);
+
+		DisparityToPointCloud expected = createAlg();
+		expected.process(disparity,color);
+		int N = expected.getNumPoints();
+
+		for( boolean useColor : new boolean[]{false,true}) {
+			int stride = useColor ? 15 : 12;
+			ByteBuffer buffer = ByteBuffer.allocateDirect(5+N*stride).order(ByteOrder.LITTLE_ENDIAN);
+			// start at an offset
+			buffer.position(5);
+
+			DisparityToPointCloud alg = createAlg();
+			assertEquals(N,alg.process(disparity,useColor ? color : null,buffer));
+			assertEquals(5+N*stride,buffer.position());
+
+			for (int i = 0; i < N; i++) {
+				int index = 5+i*stride;
+				assertEquals(expected.getCloud()[i*3  ],buffer.getFloat(index  ),0);
+				assertEquals(expected.getCloud()[i*3+1],buffer.getFloat(index+4),0);
+				assertEquals(expected.getCloud()[i*3+2],buffer.getFloat(index+8),0);
+				if( useColor ) {
+					int rgb = (buffer.get(index+12) & 0xFF) << 16 | (buffer.get(index+13) & 0xFF) << 8 |
+							(buffer.get(index+14) & 0xFF);
+					assertEquals(expected.getColors()[i],rgb);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void process_buffer_tooSmall() {
+		GrayU8 disparity = createDisparity(GrayU8.class);
+		DisparityToPointCloud alg = createAlg();
+		try {
+			alg.process(disparity,null,ByteBuffer.allocate(10));
+			fail("Should have thrown an exception");
+		} catch( IllegalArgumentException ignore ){}
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.InterleavedU8;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestDisparityToPointCloud_MT {
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		TestDisparityToPointCloud helper = new TestDisparityToPointCloud();
+
+		InterleavedU8 color = new InterleavedU8(helper.width,helper.height,3);
+		GImageMiscOps.fillUniform(color,helper.rand,0,255);
+
+		for( Class type : new Class[]{GrayU8.class,GrayF32.class}) {
+			ImageGray disparity = helper.createDisparity(type);
+
+			DisparityToPointCloud expected = helper.createAlg();
+			DisparityToPointCloud_MT alg = new DisparityToPointCloud_MT();
+			alg.configure(helper.stereo.baseline,helper.stereo.rectK,helper.stereo.rectR);
+			alg.setDisparityRange(helper.minDisparity,helper.maxDisparity);
+			alg.setMinBlockRows(3);
+
+			expected.process(disparity,color);
+			alg.process(disparity,color);
+
+			int N = expected.getNumPoints();
+			assertEquals(N,alg.getNumPoints());
+			for (int i = 0; i < N*3; i++) {
+				assertEquals(expected.getCloud()[i],alg.getCloud()[i],0);
+			}
+			for (int i = 0; i < N; i++) {
+				assertEquals(expected.getColors()[i],alg.getColors()[i]);
+			}
+
+			ByteBuffer bufferExpected = ByteBuffer.allocateDirect(N*15);
+			ByteBuffer bufferFound = ByteBuffer.allocateDirect(N*15);
+			expected.process(disparity,color,bufferExpected);
+			alg.process(disparity,color,bufferFound);
+			bufferExpected.flip();
+			bufferFound.flip();
+			assertEquals(bufferExpected,bufferFound);
+		}
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point3D_F64;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestStereoDense3D {
+
+	Random rand = new Random(234);
+
+	int width = 320;
+	int height = 240;
+
+	/**
+	 * Compare the cloud against points computed using computeHomo3D()
+	 */
+	@Test
+	public void compareToHomo3D() {
+		compareToHomo3D(GrayU8.class);
+		compareToHomo3D(GrayF32.class);
+	}
+
+	private <D extends ImageGray<D>> void compareToHomo3D( Class<D> disparityType ) {
+		int minDisparity = 2;
+		int maxDisparity = 20;
+		Dummy<D> disparity = new Dummy<>(disparityType,minDisparity,maxDisparity);
+		StereoDense3D<GrayU8,D> alg = new StereoDense3D<>(disparity,GrayU8.class);
+		alg.setCalibration(TestStereoProcessingBase.createStereoParam(width,height));
+
+		alg.process(new GrayU8(width,height),new GrayU8(width,height));
+
+		D disp = disparity.getDisparity();
+		float[] cloud = alg.getCloud();
+		Point3D_F64 expected = new Point3D_F64();
+		int count = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				double value = GeneralizedImageOps.get(disp,x,y);
+				if( value > maxDisparity-minDisparity )
+					continue;
+				double d = value + minDisparity;
+
+				alg.computeHomo3D(x,y,expected);
+				assertEquals(expected.x/d, cloud[count*3  ], 1e-4);
+				assertEquals(expected.y/d, cloud[count*3+1], 1e-4);
+				assertEquals(expected.z/d, cloud[count*3+2], 1e-4);
+				count++;
+			}
+		}
+		assertEquals(count,alg.getNumPoints());
+		// some of the pixels should have been skipped
+		assertTrue(count > 0 && count < width*height);
+	}
+
+	/**
+	 * Pixels with a disparity of zero are at infinity and should be skipped
+	 */
+	@Test
+	public void skipZeroDisparity() {
+		Dummy<GrayU8> disparity = new Dummy<>(GrayU8.class,0,10);
+		StereoDense3D<GrayU8,GrayU8> alg = new StereoDense3D<>(disparity,GrayU8.class);
+		alg.setCalibration(TestStereoProcessingBase.createStereoParam(width,height));
+		alg.process(new GrayU8(width,height),new GrayU8(width,height));
+
+		GrayU8 disp = disparity.getDisparity();
+		int expected = 0;
+		for (int i = 0; i < disp.data.length; i++) {
+			int value = disp.data[i] & 0xFF;
+			if( value != 0 && value <= 10 )
+				expected++;
+		}
+		assertEquals(expected,alg.getNumPoints());
+	}
+
+	/**
+	 * Returns a random disparity image where some of the pixels are invalid
+	 */
+	private class Dummy<D extends ImageGray<D>> implements StereoDisparity<GrayU8,D> {
+		D disparity;
+		int minDisparity, maxDisparity;
+
+		public Dummy(Class<D> type, int minDisparity, int maxDisparity) {
+			this.disparity = GeneralizedImageOps.createSingleBand(type,1,1);
+			this.minDisparity = minDisparity;
+			this.maxDisparity = maxDisparity;
+		}
+
+		@Override
+		public void process(GrayU8 imageLeft, GrayU8 imageRight) {
+			disparity.reshape(imageLeft.width,imageLeft.height);
+			int range = maxDisparity-minDisparity;
+			GImageMiscOps.fillUniform(disparity,rand,0,range+5);
+		}
+
+		@Override
+		public D getDisparity() {
+			return disparity;
+		}
+
+		@Override
+		public int getMinDisparity() {
+			return minDisparity;
+		}
+
+		@Override
+		public int getMaxDisparity() {
+			return maxDisparity;
+		}
+
+		@Override
+		public int getBorderX() {
+			return 0;
+		}
+
+		@Override
+		public int getBorderY() {
+			return 0;
+		}
+
+		@Override
+		public Class<GrayU8> getInputType() {
+			return GrayU8.class;
+		}
+
+		@Override
+		public Class<D> getDisparityType() {
+			return disparity.getImageType().getImageClass();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm;
+
+import boofcv.abst.feature.disparity.StereoDisparity;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.disparity.DisparityAlgorithms;
+import boofcv.factory.feature.disparity.FactoryStereoDisparity;
+import boofcv.struct.calib.StereoParameters;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestStereoDense3D_MT {
+
+	Random rand = new Random(234);
+
+	int width = 320;
+	int height = 240;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+		BoofConcurrency.USE_CONCURRENT = false;
+	}
+
+	/**
+	 * Results should be identical to the single threaded implementation
+	 */
+	@Test
+	public void compareToSingle() {
+		StereoParameters param = TestStereoProcessingBase.createStereoParam(width,height);
+
+		GrayU8 left = new GrayU8(width,height);
+		GrayU8 right = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(left,rand,0,100);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				right.set(x,y,left.get(Math.min(width-1,x+8),y));
+			}
+		}
+
+		StereoDisparity<GrayU8,GrayF32> disparitySingle = FactoryStereoDisparity.regionSubpixelWta(
+				DisparityAlgorithms.RECT,2,30,3,3,20,1,0.1,GrayU8.class);
+		BoofConcurrency.USE_CONCURRENT = true;
+		StereoDisparity<GrayU8,GrayF32> disparityMT = FactoryStereoDisparity.regionSubpixelWta(
+				DisparityAlgorithms.RECT,2,30,3,3,20,1,0.1,GrayU8.class);
+
+		StereoDense3D<GrayU8,GrayF32> expected = new StereoDense3D<>(disparitySingle,GrayU8.class);
+		StereoDense3D_MT<GrayU8,GrayF32> alg = new StereoDense3D_MT<>(disparityMT,GrayU8.class);
+		alg.setMinBlockRows(5);
+
+		expected.setCalibration(param);
+		alg.setCalibration(param);
+
+		expected.process(left,right);
+		alg.process(left,right);
+
+		BoofTesting.assertEquals(expected.getImageLeftRect(),alg.getImageLeftRect(),0);
+		BoofTesting.assertEquals(expected.getImageRightRect(),alg.getImageRightRect(),0);
+		BoofTesting.assertEquals(expected.getDisparity(),alg.getDisparity(),0);
+
+		assertTrue(expected.getNumPoints() > 0);
+		assertEquals(expected.getNumPoints(),alg.getNumPoints());
+		for (int i = 0; i < expected.getNumPoints()*3; i++) {
+			assertEquals(expected.getCloud()[i],alg.getCloud()[i],0);
+		}
+	}
+}
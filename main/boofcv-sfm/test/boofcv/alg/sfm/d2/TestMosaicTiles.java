@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm.d2;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.testing.BoofTesting;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestMosaicTiles {
+
+	Random rand = new Random(234);
+
+	@Test
+	public void lookupRegion() {
+		MosaicTiles<GrayF32> alg = new MosaicTiles<>(ImageType.single(GrayF32.class), 20, 30);
+		List<MosaicTiles.Tile<GrayF32>> found = new ArrayList<>();
+
+		// crosses the origin so negative tiles are created
+		alg.lookupRegion(-5, -1, 21, 30, found);
+		assertEquals(6, found.size());
+		assertEquals(6, alg.getTotalTiles());
+		assertNotNull(alg.getTile(-1, -1));
+		assertNotNull(alg.getTile(1, 0));
+		assertNull(alg.getTile(2, 0));
+		assertNull(alg.getTile(0, 1));
+
+		MosaicTiles.Tile<GrayF32> t = alg.getTile(-1, -1);
+		assertEquals(-20, t.x0);
+		assertEquals(-30, t.y0);
+		assertEquals(20, t.image.width);
+		assertEquals(30, t.image.height);
+
+		// the same tiles should be returned and no new ones created
+		alg.lookupRegion(0, 0, 20, 30, found);
+		assertEquals(1, found.size());
+		assertSame(alg.getTile(0, 0), found.get(0));
+		assertEquals(6, alg.getTotalTiles());
+
+		// empty region
+		alg.lookupRegion(5, 5, 5, 10, found);
+		assertEquals(0, found.size());
+
+		alg.reset();
+		assertEquals(0, alg.getTotalTiles());
+		assertNull(alg.getTile(0, 0));
+	}
+
+	@Test
+	public void extract() {
+		MosaicTiles<GrayF32> alg = new MosaicTiles<>(ImageType.single(GrayF32.class), 20, 30);
+		List<MosaicTiles.Tile<GrayF32>> found = new ArrayList<>();
+
+		alg.lookupRegion(-10, -10, 30, 30, found);
+		for( MosaicTiles.Tile<GrayF32> t : found ) {
+			for (int y = 0; y < t.image.height; y++) {
+				for (int x = 0; x < t.image.width; x++) {
+					t.image.set(x, y, value(t.x0 + x, t.y0 + y));
+				}
+			}
+		}
+
+		GrayF32 output = new GrayF32(60, 70);
+		alg.extract(-15, -25, output);
+
+		for (int y = 0; y < output.height; y++) {
+			for (int x = 0; x < output.width; x++) {
+				int mx = x - 15, my = y - 25;
+				MosaicTiles.Tile<GrayF32> t = alg.getTile(floorDiv(mx, 20), floorDiv(my, 30));
+				float expected = t == null ? 0 : value(mx, my);
+				assertEquals(expected, output.get(x, y), 0);
+			}
+		}
+	}
+
+	private static float value( int x , int y ) {
+		return 1000 + x*3 + y*7;
+	}
+
+	private static int floorDiv( int a , int b ) {
+		return (int)Math.floor(a/(double)b);
+	}
+
+	@Test
+	public void spill_gray() throws IOException {
+		checkSpill(ImageType.single(GrayF32.class));
+		checkSpill(ImageType.single(GrayU8.class));
+	}
+
+	@Test
+	public void spill_planar() throws IOException {
+		checkSpill(ImageType.pl(3, GrayU8.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void spill_interleaved() throws IOException {
+		File file = File.createTempFile("mosaic", "tiles");
+		file.deleteOnExit();
+		MosaicTiles alg = new MosaicTiles<>(ImageType.il(3, InterleavedU8.class), 20, 30);
+		alg.enableSpill(file, 2);
+	}
+
+	private <T extends ImageBase<T>> void checkSpill( ImageType<T> type ) throws IOException {
+		File file = File.createTempFile("mosaic", "tiles");
+		file.deleteOnExit();
+
+		MosaicTiles<T> alg = new MosaicTiles<>(type, 20, 30);
+		alg.enableSpill(file, 2);
+		List<MosaicTiles.Tile<T>> found = new ArrayList<>();
+
+		// fill in a row of tiles one at a time
+		List<T> expected = new ArrayList<>();
+		for (int col = 0; col < 5; col++) {
+			alg.lookupRegion(col*20, 0, col*20 + 20, 30, found);
+			assertEquals(1, found.size());
+			T image = found.get(0).image;
+			GImageMiscOps.fillUniform(image, rand, 0, 100);
+			expected.add(image.clone());
+
+			assertTrue(alg.getResidentTiles() <= 2);
+		}
+		assertEquals(5, alg.getTotalTiles());
+		assertNull(alg.getTile(0, 0).image);
+		assertNotNull(alg.getTile(4, 0).image);
+
+		// extract should read spilled tiles without loading them
+		T output = type.createImage(100, 30);
+		alg.extract(0, 0, output);
+		for (int col = 0; col < 5; col++) {
+			BoofTesting.assertEquals(expected.get(col), output.subimage(col*20, 0, col*20 + 20, 30, null), 0);
+		}
+		assertNull(alg.getTile(0, 0).image);
+
+		// spilled tiles should be loaded back with the same pixels. Modify them so they are written again
+		for (int col = 0; col < 5; col++) {
+			alg.lookupRegion(col*20, 0, col*20 + 20, 30, found);
+			BoofTesting.assertEquals(expected.get(col), found.get(0).image, 0);
+			GImageMiscOps.fill(found.get(0).image, col + 1);
+		}
+		for (int col = 0; col < 5; col++) {
+			alg.lookupRegion(col*20, 0, col*20 + 20, 30, found);
+			assertEquals(col + 1, GeneralizedImageOps.get(found.get(0).image, 5, 6, 0), 0);
+		}
+
+		// a single request can require more than the limit
+		alg.lookupRegion(0, 0, 100, 30, found);
+		assertEquals(5, alg.getResidentTiles());
+
+		alg.close();
+	}
+
+	@Test
+	public void newTilesAreZero() throws IOException {
+		File file = File.createTempFile("mosaic", "tiles");
+		file.deleteOnExit();
+
+		MosaicTiles<GrayU8> alg = new MosaicTiles<>(ImageType.single(GrayU8.class), 20, 30);
+		alg.enableSpill(file, 1);
+		List<MosaicTiles.Tile<GrayU8>> found = new ArrayList<>();
+
+		// the second tile will recycle the image released by the first one
+		alg.lookupRegion(0, 0, 20, 30, found);
+		ImageMiscOps.fill(found.get(0).image, 5);
+		alg.lookupRegion(20, 0, 40, 30, found);
+		assertEquals(0, ImageStatistics.sum(found.get(0).image));
+		alg.close();
+	}
+}
@@ -29,9 +29,13 @@ import boofcv.factory.interpolate.FactoryInterpolation;
 import boofcv.struct.distort.PixelTransform2_F32;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
 import georegression.struct.affine.Affine2D_F64;
 import org.junit.Test;
 
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 /**
@@ -216,6 +220,75 @@ public class TestStitchingFromMotion2D {
 		assertEquals(-2+4,found.ty,1e-5);
 	}
 
+	/**
+	 * Rendering into tiles should produce the same mosaic as rendering into a single image
+	 */
+	@Test
+	public void tiles_sameAsStitched() {
+		HelperMotion motionA = new HelperMotion();
+		HelperMotion motionB = new HelperMotion();
+
+		StitchingFromMotion2D<GrayF32,Affine2D_F64> algA =
+				new StitchingFromMotion2D<>(motionA, createDistort(), FactoryStitchingTransform.createAffine_F64(), 0.3);
+		StitchingFromMotion2D<GrayF32,Affine2D_F64> algB =
+				new StitchingFromMotion2D<>(motionB, createDistort(), FactoryStitchingTransform.createAffine_F64(), 0.3);
+
+		MosaicTiles<GrayF32> tiles = new MosaicTiles<>(ImageType.single(GrayF32.class), 32, 24);
+		algA.configure(200, 300, null);
+		algB.configureTiles(tiles, null);
+
+		Random rand = new Random(234);
+		ImageMiscOps.fillUniform(image, rand, 0, 100);
+
+		Affine2D_F64[] motions = new Affine2D_F64[]{
+				new Affine2D_F64(1, 0.05, -0.03, 1, -30.5, -40.25),
+				new Affine2D_F64(1, 0.04, -0.02, 1, -60.2, -95.7)};
+
+		for( Affine2D_F64 m : motions ) {
+			motionA.found = m;
+			motionB.found = m;
+			assertTrue(algA.process(image));
+			assertTrue(algB.process(image));
+		}
+
+		assertNull(algB.getStitchedImage());
+		assertSame(tiles, algB.getTiles());
+
+		// only tiles touched by the frames should have been created
+		assertTrue(tiles.getTotalTiles() < (200/32+1)*(300/24+1));
+		assertNull(tiles.getTile(0, 0));
+
+		GrayF32 found = new GrayF32(200, 300);
+		tiles.extract(0, 0, found);
+		BoofTesting.assertEquals(algA.getStitchedImage(), found, 1e-4);
+	}
+
+	@Test
+	public void tiles_unsupported() {
+		StitchingFromMotion2D<GrayF32,Affine2D_F64> alg = new StitchingFromMotion2D<>(
+				new HelperMotion(), createDistort(), FactoryStitchingTransform.createAffine_F64(), 0.3);
+		alg.configureTiles(new MosaicTiles<>(ImageType.single(GrayF32.class), 32, 24), null);
+		assertTrue(alg.process(image));
+
+		try {
+			alg.setOriginToCurrent();
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+
+		try {
+			alg.resizeStitchImage(250, 400, null);
+			fail("Exception expected");
+		} catch( IllegalArgumentException ignore ){}
+	}
+
+	static ImageDistort<GrayF32,GrayF32> createDistort() {
+		InterpolatePixelS<GrayF32> interp = FactoryInterpolation.createPixelS(0, 255,
+				InterpolationType.BILINEAR, BorderType.EXTENDED, GrayF32.class);
+		ImageDistort<GrayF32,GrayF32> distorter = FactoryDistort.distortSB(false, interp, GrayF32.class);
+		distorter.setRenderAll(false);
+		return distorter;
+	}
+
 	private void checkBlock( int x0 , int y0 , int x1 , int y1 , GrayF32 image ) {
 
 		for( int y = 0; y < image.height; y++ ) {
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm.d2;
+
+import boofcv.abst.sfm.d2.ImageMotion2D;
+import boofcv.alg.distort.ImageDistort;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
+import georegression.struct.affine.Affine2D_F64;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestStitchingFromMotion2D_MT {
+
+	Random rand = new Random(234);
+
+	GrayF32 image = new GrayF32(100,150);
+
+	Affine2D_F64[] motions = new Affine2D_F64[]{
+			new Affine2D_F64(1, 0.05, -0.03, 1, -30.5, -40.25),
+			new Affine2D_F64(1, 0.04, -0.02, 1, -60.2, -95.7),
+			new Affine2D_F64(1, 0.03, -0.01, 1, -75.1, -120.4)};
+
+	int maxThreads;
+
+	@Before
+	public void before() {
+		maxThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(maxThreads);
+	}
+
+	@Test
+	public void compareToSingle_stitched() {
+		ImageMiscOps.fillUniform(image, rand, 0, 100);
+
+		FixedMotion motionA = new FixedMotion();
+		FixedMotion motionB = new FixedMotion();
+
+		StitchingFromMotion2D<GrayF32,Affine2D_F64> single = new StitchingFromMotion2D<>(motionA,
+				TestStitchingFromMotion2D.createDistort(), FactoryStitchingTransform.createAffine_F64(), 0.3);
+		StitchingFromMotion2D_MT<GrayF32,Affine2D_F64> alg = new StitchingFromMotion2D_MT<>(motionB,
+				createFactory(), FactoryStitchingTransform.createAffine_F64(), 0.3);
+
+		single.configure(250, 300, null);
+		alg.configure(250, 300, null);
+
+		for( Affine2D_F64 m : motions ) {
+			motionA.found = m;
+			motionB.found = m;
+			assertTrue(single.process(image));
+			assertTrue(alg.process(image));
+		}
+
+		BoofTesting.assertEquals(single.getStitchedImage(), alg.getStitchedImage(), 0);
+	}
+
+	@Test
+	public void compareToSingle_tiles() {
+		ImageMiscOps.fillUniform(image, rand, 0, 100);
+
+		FixedMotion motionA = new FixedMotion();
+		FixedMotion motionB = new FixedMotion();
+
+		StitchingFromMotion2D<GrayF32,Affine2D_F64> single = new StitchingFromMotion2D<>(motionA,
+				TestStitchingFromMotion2D.createDistort(), FactoryStitchingTransform.createAffine_F64(), 0.3);
+		StitchingFromMotion2D_MT<GrayF32,Affine2D_F64> alg = new StitchingFromMotion2D_MT<>(motionB,
+				createFactory(), FactoryStitchingTransform.createAffine_F64(), 0.3);
+
+		MosaicTiles<GrayF32> tilesA = new MosaicTiles<>(ImageType.single(GrayF32.class), 32, 24);
+		MosaicTiles<GrayF32> tilesB = new MosaicTiles<>(ImageType.single(GrayF32.class), 32, 24);
+		single.configureTiles(tilesA, null);
+		alg.configureTiles(tilesB, null);
+
+		for( Affine2D_F64 m : motions ) {
+			motionA.found = m;
+			motionB.found = m;
+			assertTrue(single.process(image));
+			assertTrue(alg.process(image));
+		}
+
+		GrayF32 expected = new GrayF32(250, 300);
+		GrayF32 found = new GrayF32(250, 300);
+		tilesA.extract(0, 0, expected);
+		tilesB.extract(0, 0, found);
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	private StitchingFromMotion2D_MT.FactoryImageDistort<GrayF32> createFactory() {
+		return new StitchingFromMotion2D_MT.FactoryImageDistort<GrayF32>() {
+			@Override
+			public ImageDistort<GrayF32, GrayF32> create() {
+				return TestStitchingFromMotion2D.createDistort();
+			}
+		};
+	}
+
+	private static class FixedMotion implements ImageMotion2D<GrayF32,Affine2D_F64> {
+		Affine2D_F64 found = new Affine2D_F64();
+
+		@Override
+		public boolean process(GrayF32 input) {
+			return true;
+		}
+
+		@Override
+		public void reset() {}
+
+		@Override
+		public void setToFirst() {}
+
+		@Override
+		public Affine2D_F64 getFirstToCurrent() {
+			return found;
+		}
+
+		@Override
+		public Class<Affine2D_F64> getTransformType() {
+			return Affine2D_F64.class;
+		}
+	}
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package boofcv.alg.sfm.d3.direct;
+
+import boofcv.abst.sfm.ImagePixelTo3D;
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.core.image.GConvertImage;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS16;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.Planar;
+import georegression.struct.se.Se3_F32;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+public class TestVisOdomDirectColorDepth_MT {
+
+	Random rand = new Random(234);
+
+	int width = 160;
+	int height = 120;
+	int numBands = 2;
+	float fx = 120;
+	float fy = 100;
+	float cx = width/2;
+	float cy = height/2;
+
+	int originalThreads;
+
+	@Before
+	public void before() {
+		originalThreads = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+	}
+
+	@After
+	public void after() {
+		BoofConcurrency.setMaxThreads(originalThreads);
+	}
+
+	/**
+	 * The linear system and its solution should be the same as the single threaded version up to numerical
+	 * differences
+	 */
+	@Test
+	public void compareToSingle_F32() {
+		compareToSingle(GrayF32.class, GrayF32.class);
+	}
+
+	/**
+	 * Images which can't use the inlined interpolation
+	 */
+	@Test
+	public void compareToSingle_U8() {
+		compareToSingle(GrayU8.class, GrayS16.class);
+	}
+
+	private <I extends ImageGray<I>, D extends ImageGray<D>>
+	void compareToSingle( Class<I> imageType , Class<D> derivType ) {
+		Planar<I> key = createTexture(imageType);
+		Planar<I> current = key.createSameShape();
+		// shift the image to simulate motion
+		for (int band = 0; band < numBands; band++) {
+			GImageMiscOps.copy(0,0,1,0,width-1,height,key.getBand(band),current.getBand(band));
+		}
+
+		VisOdomDirectColorDepth<I,D> expected = new VisOdomDirectColorDepth<>(numBands,imageType,derivType);
+		VisOdomDirectColorDepth_MT<I,D> alg = new VisOdomDirectColorDepth_MT<>(numBands,imageType,derivType);
+		alg.setMinBlockSize(100);
+
+		expected.setCameraParameters(fx,fy,cx,cy,width,height);
+		alg.setCameraParameters(fx,fy,cx,cy,width,height);
+
+		expected.setKeyFrame(key,new ConstantDepth());
+		alg.setKeyFrame(key,new ConstantDepth());
+
+		Se3_F32 hint = new Se3_F32();
+		hint.T.set(0.01f,-0.005f,0.01f);
+
+		expected.initMotion(current);
+		alg.initMotion(current);
+		expected.constructLinearSystem(current,hint);
+		alg.constructLinearSystem(current,hint);
+
+		assertEquals(expected.getInboundsPixels(),alg.getInboundsPixels());
+		assertEquals(expected.getErrorOptical(),alg.getErrorOptical(),1e-3f);
+
+		assertTrue(expected.solveSystem());
+		assertTrue(alg.solveSystem());
+
+		Se3_F32 a = expected.motionTwist;
+		Se3_F32 b = alg.motionTwist;
+		assertTrue(a.T.norm() > 1e-4f);
+		assertEquals(0,a.T.distance(b.T),a.T.norm()*1e-2f);
+		for (int i = 0; i < 9; i++) {
+			assertEquals(a.R.data[i],b.R.data[i],1e-4f);
+		}
+
+		// the full estimation should produce similar results too
+		assertEquals(expected.estimateMotion(current,hint),alg.estimateMotion(current,hint));
+		assertEquals(0,expected.getKeyToCurrent().T.distance(alg.getKeyToCurrent().T),1e-3f);
+
+		assertEquals(expected.computeFeatureDiversity(expected.getKeyToCurrent()),
+				alg.computeFeatureDiversity(alg.getKeyToCurrent()),1e-3);
+	}
+
+	private <I extends ImageGray<I>> Planar<I> createTexture( Class<I> imageType ) {
+		Planar<GrayF32> image = new Planar<>(GrayF32.class,width,height,numBands);
+		GImageMiscOps.fillUniform(image,rand,0,200);
+		Planar<GrayF32> blurred = image.createSameShape();
+		GBlurImageOps.gaussian(image,blurred,-1,3,null);
+
+		Planar<I> output = new Planar<>(imageType,width,height,numBands);
+		GConvertImage.convert(blurred,output);
+		return output;
+	}
+
+	/**
+	 * Every pixel is at the same depth
+	 */
+	private class ConstantDepth implements ImagePixelTo3D {
+		double x,y;
+
+		@Override
+		public boolean process(double x, double y) {
+			this.x = x;
+			this.y = y;
+			return true;
+		}
+
+		@Override
+		public double getX() {
+			return 2*(x-cx)/fx;
+		}
+
+		@Override
+		public double getY() {
+			return 2*(y-cy)/fy;
+		}
+
+		@Override
+		public double getZ() {
+			return 2;
+		}
+
+		@Override
+		public double getW() {
+			return 1;
+		}
+	}
+}